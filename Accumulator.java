@@ -0,0 +1,80 @@
+package com.chess.nan.nnue;
+
+import com.chess.ChessBoard;
+import com.chess.event.PositionListener;
+
+/**
+ * Accumulator keeps both sides' first layer neurons of a Network up to date for one Position. Set as the position's listener, it adds or subtracts the weight column of a
+ * piece's feature for each side whenever makeMove, unmakeMove or setFEN places or removes a piece, so a move costs a few column updates instead of summing the columns of
+ * every piece, and only the small hidden and output layers are computed when a position is evaluated.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class Accumulator implements PositionListener {
+
+	/** The network. */
+	private Network network;
+	/** White's first layer neurons. */
+	private short white[];
+	/** Black's first layer neurons. */
+	private short black[];
+	/** Hidden layer sums scratch space. */
+	private int sums[];
+	/** Active first layer neuron scratch space. */
+	private int active[];
+	/** Weight column scratch space. */
+	private short column[];
+
+	/**
+	 * Constructor for Accumulator that accumulates the first layer of the specified network.
+	 * @param network - the network
+	 */
+	public Accumulator(Network network) {
+		//Initialize variables
+		this.network = network;
+		white = new short[Network.HIDDEN];
+		black = new short[Network.HIDDEN];
+		sums = new int[Network.L1];
+		active = new int[Network.HIDDEN];
+		column = new short[Network.HIDDEN];
+
+		network.resetFeatures(white);
+		network.resetFeatures(black);
+	}
+
+	/**
+	 * Evaluates the accumulated position.
+	 * @param turn - the side to move
+	 * @return the score in centipawns from the point of view of the side to move
+	 */
+	public int evaluate(boolean turn) {
+		return (turn == ChessBoard.WHITE) ? network.evaluate(white, black, sums, active) : network.evaluate(black, white, sums, active);
+	}
+
+	/**
+	 * Returns the network.
+	 * @return the network
+	 */
+	public Network getNetwork() { return network; }
+
+	//Add the piece's features
+	@Override
+	public void pieceAdded(int piece, int space) {
+		network.addFeature(white, Network.getFeature(ChessBoard.WHITE, piece, space), column);
+		network.addFeature(black, Network.getFeature(ChessBoard.BLACK, piece, space), column);
+	}
+
+	//Subtract the piece's features
+	@Override
+	public void pieceRemoved(int piece, int space) {
+		network.subtractFeature(white, Network.getFeature(ChessBoard.WHITE, piece, space), column);
+		network.subtractFeature(black, Network.getFeature(ChessBoard.BLACK, piece, space), column);
+	}
+
+	//Start again from the biases
+	@Override
+	public void positionCleared() {
+		network.resetFeatures(white);
+		network.resetFeatures(black);
+	}
+}
@@ -0,0 +1,471 @@
+package com.chess.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.chess.ChessBoard;
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+import com.chess.pgn.PgnGame;
+
+/**
+ * AttributeIndex answers game queries such as "rook endings" or "Sicilian games the NAN lost" without scanning the game store. Each attribute of a game is the name of a
+ * Bitmap of the indices of the games that have it, so a query is evaluated as bitmap AND and OR operations in memory. The attributes are:
+ * <ul>
+ * <li>result:R - the game result (1-0, 0-1, 1/2-1/2 or *)</li>
+ * <li>eco:C - the ECO code of the game's ECO tag (A00 - E99)</li>
+ * <li>nan:white, nan:black - the color the NAN played (from the White and Black tags)</li>
+ * <li>final:S - the material signature of the final position, such as KRPPvKRP (see getMaterialSignature)</li>
+ * <li>reached:S - every material signature the game passed through, including the final one</li>
+ * </ul>
+ * Queries can also use ECO ranges (eco:B20-B99), the NAN's outcome (nan:won, nan:lost, nan:drew) and endings, taken from the final signature (ending:pawn, ending:minor,
+ * ending:rook, ending:queen).
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class AttributeIndex {
+
+	/** Index file magic number ("NANA"). */
+	public static final int MAGIC = 0x4E414E41;
+	/** Index file format version. */
+	public static final int VERSION = 1;
+
+	/** Piece letters of material signatures, in signature order. */
+	private static final String SIGNATURE_PIECES = "QRBNP";
+	/** Piece types of material signatures, in signature order. */
+	private static final int[] SIGNATURE_TYPES = { Position.QUEEN, Position.ROOK, Position.BISHOP, Position.KNIGHT, Position.PAWN };
+
+	/** Bitmap of each attribute. */
+	private HashMap<String, Bitmap> bitmaps;
+	/** Number of games. */
+	private int gameCount;
+
+	/**
+	 * Constructor for AttributeIndex that reads the specified index file.
+	 * @param file - the index file
+	 * @throws IOException if the file cannot be read or is not an attribute index
+	 */
+	public AttributeIndex(Path file) throws IOException {
+		//Initialize variables
+		bitmaps = new HashMap<String, Bitmap>();
+
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			if(in.readInt() != MAGIC)
+				throw new IOException("AttributeIndex: " + file + " is not an attribute index");
+
+			if(in.readInt() != VERSION)
+				throw new IOException("AttributeIndex: unsupported version");
+
+			gameCount = in.readInt();
+
+			for(int i = in.readInt(); i > 0; --i) {
+				String name = in.readUTF();
+				bitmaps.put(name, Bitmap.read(in));
+			}
+		}
+	}
+
+	/**
+	 * Constructor for AttributeIndex that creates an index of the specified bitmaps.
+	 * @param bitmaps - the bitmap of each attribute
+	 * @param gameCount - the number of games
+	 */
+	private AttributeIndex(HashMap<String, Bitmap> bitmaps, int gameCount) {
+		this.bitmaps = bitmaps;
+		this.gameCount = gameCount;
+	}
+
+	/**
+	 * Program entry point method that builds an attribute index from a game store ("build in.ngs out.nga", with a -threads option), queries an index ("query in.nga
+	 * terms...", with a -store option to show the players of the first games) or lists its attributes ("list in.nga").
+	 * @param args - the command, files, query terms and options
+	 */
+	public static void main(String[] args) {
+		//Check arguments
+		if(args.length < 2 || (!args[0].equals("list") && args.length < 3)) {
+			System.err.println("Usage: AttributeIndex build <in.ngs> <out.nga> [-threads n] | query <in.nga> <term>... [-store in.ngs] | list <in.nga>");
+			System.exit(2);
+		}
+
+		//Initialize variables
+		int threads = Runtime.getRuntime().availableProcessors();
+		String store = null;
+		StringBuilder query = new StringBuilder();
+
+		for(int i = 2; i < args.length; ++i) {
+			if(args[i].equals("-threads")) threads = Integer.parseInt(args[++i]);
+			else if(args[i].equals("-store")) store = args[++i];
+			else query.append(args[i]).append(' ');
+		}
+
+		try {
+			long start = System.nanoTime();
+
+			if(args[0].equals("build")) {
+				//Build an index
+				try(GameStore games = new GameStore(Paths.get(args[1]))) {
+					AttributeIndex index = build(games, threads);
+
+					index.write(Paths.get(args[2]));
+					System.out.printf("%d attributes of %d games indexed in %.2f s, %d bytes%n", index.bitmaps.size(), games.getGameCount(), (System.nanoTime() - start) / 1e9,
+							Files.size(Paths.get(args[2])));
+				}
+			}
+			else if(args[0].equals("query")) {
+				//Query an index
+				AttributeIndex index = new AttributeIndex(Paths.get(args[1]));
+
+				start = System.nanoTime();
+
+				int games[] = index.query(query.toString()).toArray();
+
+				System.out.printf("%d games match in %.3f ms%n", games.length, (System.nanoTime() - start) / 1e6);
+
+				try(GameStore gameStore = (store != null) ? new GameStore(Paths.get(store)) : null) {
+					PgnGame game = new PgnGame();
+
+					for(int i = 0; i < Math.min(games.length, 20); ++i) {
+						String players = "";
+
+						if(gameStore != null) {
+							gameStore.readGame(games[i], game);
+							players = " " + game.getTag("White") + " - " + game.getTag("Black") + " " + game.getResult();
+						}
+
+						System.out.println("  game " + games[i] + players);
+					}
+				}
+			}
+			else if(args[0].equals("list")) {
+				//List the attributes
+				AttributeIndex index = new AttributeIndex(Paths.get(args[1]));
+
+				for(Map.Entry<String, Bitmap> entry : new TreeMap<String, Bitmap>(index.bitmaps).entrySet())
+					System.out.println(entry.getKey() + " " + entry.getValue().getCardinality());
+			}
+			else {
+				System.err.println("Unknown command " + args[0]);
+				System.exit(2);
+			}
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (IllegalArgumentException e) {
+			System.err.println("Invalid argument: " + e.getMessage());
+			System.exit(2);
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Builds an attribute index of every game in the specified game store. Each thread replays a range of games into its own bitmaps, and the bitmaps of the ranges are then
+	 * joined.
+	 * @param store - the game store
+	 * @param threads - the number of threads
+	 * @return the attribute index
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public static AttributeIndex build(GameStore store, int threads) throws InterruptedException {
+		//Check parameters
+		if(threads <= 0)
+			throw new IllegalArgumentException("AttributeIndex: threads must be positive");
+
+		//Initialize variables
+		ArrayList<HashMap<String, Bitmap>> ranges = new ArrayList<HashMap<String, Bitmap>>();
+		Thread builders[] = new Thread[threads];
+		RuntimeException failure[] = new RuntimeException[1];
+
+		for(int i = 0; i < threads; ++i) {
+			int first = (int)((long)store.getGameCount() * i / threads);
+			int last = (int)((long)store.getGameCount() * (i + 1) / threads);
+			HashMap<String, Bitmap> range = new HashMap<String, Bitmap>();
+
+			ranges.add(range);
+			builders[i] = new Thread("Attribute Index Builder " + (i + 1)) {
+				@Override
+				public void run() {
+					//Initialize variables
+					PgnGame game = new PgnGame();
+					Position pos = new Position();
+					MoveList list = new MoveList();
+
+					try {
+						for(int j = first; j < last && failure[0] == null; ++j) {
+							store.decode(j, game, pos, list);
+							addGame(range, j, game, pos);
+						}
+					} catch (RuntimeException e) {
+						failure[0] = e;
+					}
+				}
+			};
+			builders[i].start();
+		}
+
+		for(int i = 0; i < threads; ++i)
+			builders[i].join();
+
+		if(failure[0] != null)
+			throw failure[0];
+
+		//Join the bitmaps of the ranges
+		HashMap<String, Bitmap> bitmaps = new HashMap<String, Bitmap>();
+
+		for(HashMap<String, Bitmap> range : ranges) {
+			for(Map.Entry<String, Bitmap> entry : range.entrySet()) {
+				Bitmap bitmap = bitmaps.get(entry.getKey());
+				bitmaps.put(entry.getKey(), (bitmap != null) ? bitmap.or(entry.getValue()) : entry.getValue());
+			}
+		}
+
+		return new AttributeIndex(bitmaps, store.getGameCount());
+	}
+
+	/**
+	 * Returns the bitmap of the specified attribute.
+	 * @param name - the attribute name (such as "result:1-0" or "final:KRvK")
+	 * @return the bitmap, which is empty if no game has the attribute
+	 */
+	public Bitmap get(String name) {
+		Bitmap bitmap = bitmaps.get(name);
+		return (bitmap != null) ? bitmap : new Bitmap();
+	}
+
+	/**
+	 * Returns the number of games.
+	 * @return the number of games
+	 */
+	public int getGameCount() { return gameCount; }
+
+	/**
+	 * Returns the material signature of the current position of the specified chess board.
+	 * @param board - the chess board
+	 * @return the material signature
+	 */
+	public static String getMaterialSignature(ChessBoard board) { return getMaterialSignature(board.getPosition()); }
+
+	/**
+	 * Returns the material signature of the specified position: K followed by the white pieces (queens, rooks, bishops, knights and pawns), then v, K and the black pieces,
+	 * such as KRPPvKRP.
+	 * @param position - the position
+	 * @return the material signature
+	 */
+	public static String getMaterialSignature(Position position) {
+		StringBuilder signature = new StringBuilder(16);
+
+		for(int color = 0; color < 2; ++color) {
+			signature.append((color == 0) ? "K" : "vK");
+
+			for(int i = 0; i < SIGNATURE_TYPES.length; ++i) {
+				for(int n = Long.bitCount(position.getPieceBits(Position.createPiece(SIGNATURE_TYPES[i], color == 0))); n > 0; --n)
+					signature.append(SIGNATURE_PIECES.charAt(i));
+			}
+		}
+
+		return signature.toString();
+	}
+
+	/**
+	 * Returns the games matching the specified query. A query is a list of terms separated by spaces that must all match, and a term is a list of attributes separated by |
+	 * of which one must match. Besides attribute names, a term can use an ECO range (eco:B20-B99), the NAN's outcome (nan:won, nan:lost or nan:drew) or an ending (ending:pawn,
+	 * ending:minor, ending:rook or ending:queen). An empty query matches every game.
+	 * @param query - the query
+	 * @return the matching games
+	 */
+	public Bitmap query(String query) {
+		//Initialize variables
+		Bitmap result = null;
+
+		//AND the terms
+		for(String term : query.trim().split("\\s+")) {
+			if(term.isEmpty())
+				continue;
+
+			//OR the alternatives of the term
+			Bitmap match = new Bitmap();
+
+			for(String name : term.split("\\|"))
+				match = match.or(resolve(name));
+
+			result = (result != null) ? result.and(match) : match;
+		}
+
+		//An empty query matches every game
+		if(result == null) {
+			result = new Bitmap();
+
+			for(int i = 0; i < gameCount; ++i)
+				result.add(i);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Writes the index to the specified file.
+	 * @param file - the index file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(gameCount);
+			out.writeInt(bitmaps.size());
+
+			for(Map.Entry<String, Bitmap> entry : bitmaps.entrySet()) {
+				out.writeUTF(entry.getKey());
+				entry.getValue().write(out);
+			}
+		}
+	}
+
+	/**
+	 * Adds a game to the bitmap of the specified attribute, creating the bitmap if needed.
+	 * @param bitmaps - the bitmap of each attribute
+	 * @param name - the attribute name
+	 * @param index - the game index
+	 */
+	private static void addAttribute(HashMap<String, Bitmap> bitmaps, String name, int index) {
+		Bitmap bitmap = bitmaps.get(name);
+
+		if(bitmap == null) {
+			bitmap = new Bitmap();
+			bitmaps.put(name, bitmap);
+		}
+
+		bitmap.add(index);
+	}
+
+	/**
+	 * Adds the attributes of a decoded game to the specified bitmaps.
+	 * @param bitmaps - the bitmap of each attribute
+	 * @param index - the game index
+	 * @param game - the game
+	 * @param pos - a position to replay the game on
+	 */
+	private static void addGame(HashMap<String, Bitmap> bitmaps, int index, PgnGame game, Position pos) {
+		//Result, ECO code and the NAN's color
+		addAttribute(bitmaps, "result:" + game.getResult(), index);
+
+		if(game.getTag("ECO") != null && game.getTag("ECO").matches("[A-E][0-9][0-9]"))
+			addAttribute(bitmaps, "eco:" + game.getTag("ECO"), index);
+
+		if("NAN".equals(game.getTag("White"))) addAttribute(bitmaps, "nan:white", index);
+		if("NAN".equals(game.getTag("Black"))) addAttribute(bitmaps, "nan:black", index);
+
+		//Material signatures, recomputed only when the number of pieces changes
+		pos.setFEN(game.getStartFEN());
+
+		String signature = getMaterialSignature(pos);
+		int pieces = Long.bitCount(pos.getOccupiedBits());
+
+		addAttribute(bitmaps, "reached:" + signature, index);
+
+		for(int i = 0; i < game.getMoveCount(); ++i) {
+			int move = game.getMove(i);
+
+			pos.makeMove(move);
+
+			if(Move.getPromotion(move) != Move.PROMOTE_NONE || Long.bitCount(pos.getOccupiedBits()) != pieces) {
+				signature = getMaterialSignature(pos);
+				pieces = Long.bitCount(pos.getOccupiedBits());
+				addAttribute(bitmaps, "reached:" + signature, index);
+			}
+		}
+
+		addAttribute(bitmaps, "final:" + signature, index);
+	}
+
+	/**
+	 * Returns if the specified side of a material signature only has its king and the specified pieces, with at least one of the required pieces.
+	 * @param side - a side of a material signature (such as KRPP)
+	 * @param allowed - the piece letters allowed
+	 * @param required - the piece letters of which one is required, or an empty string
+	 * @return true if the side matches, false otherwise
+	 */
+	private static boolean isEnding(String side, String allowed, String required) {
+		boolean found = required.isEmpty();
+
+		for(int i = 1; i < side.length(); ++i) {
+			if(allowed.indexOf(side.charAt(i)) < 0) return false;
+			if(required.indexOf(side.charAt(i)) >= 0) found = true;
+		}
+
+		return found;
+	}
+
+	/**
+	 * Returns the games of a single query attribute, which can be an ECO range, an outcome of the NAN or an ending as well as an attribute name.
+	 * @param name - the attribute
+	 * @return the games
+	 */
+	private Bitmap resolve(String name) {
+		//ECO range
+		if(name.matches("eco:[A-E][0-9][0-9]-[A-E][0-9][0-9]")) {
+			Bitmap match = new Bitmap();
+
+			for(Map.Entry<String, Bitmap> entry : bitmaps.entrySet()) {
+				String key = entry.getKey();
+
+				if(key.startsWith("eco:") && key.compareTo("eco:" + name.substring(4, 7)) >= 0 && key.compareTo("eco:" + name.substring(8)) <= 0)
+					match = match.or(entry.getValue());
+			}
+
+			return match;
+		}
+
+		//Outcome of the NAN
+		switch(name) {
+		case "nan:won":
+			return get("nan:white").and(get("result:" + PgnGame.WHITE_WINS)).or(get("nan:black").and(get("result:" + PgnGame.BLACK_WINS)));
+		case "nan:lost":
+			return get("nan:white").and(get("result:" + PgnGame.BLACK_WINS)).or(get("nan:black").and(get("result:" + PgnGame.WHITE_WINS)));
+		case "nan:drew":
+			return get("nan:white").or(get("nan:black")).and(get("result:" + PgnGame.DRAW));
+		}
+
+		//Ending of the final position
+		if(name.startsWith("ending:")) {
+			String allowed;
+			String required;
+
+			switch(name.substring(7)) {
+			case "pawn": allowed = "P"; required = ""; break;
+			case "minor": allowed = "BNP"; required = "BN"; break;
+			case "rook": allowed = "RP"; required = "R"; break;
+			case "queen": allowed = "QP"; required = "Q"; break;
+			default: throw new IllegalArgumentException("AttributeIndex: unknown ending " + name.substring(7));
+			}
+
+			Bitmap match = new Bitmap();
+
+			for(Map.Entry<String, Bitmap> entry : bitmaps.entrySet()) {
+				String key = entry.getKey();
+
+				if(key.startsWith("final:")) {
+					String sides[] = key.substring(6).split("v");
+
+					if(isEnding(sides[0], allowed, required) && isEnding(sides[1], allowed, required)) match = match.or(entry.getValue());
+				}
+			}
+
+			return match;
+		}
+
+		return get(name);
+	}
+}
@@ -0,0 +1,290 @@
+package com.chess.nan.nnue;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.chess.Position;
+import com.chess.nan.search.Evaluator;
+
+/**
+ * BatchEvaluator evaluates positions submitted by many search threads in batches on one evaluator thread. Threads submit positions to a lock-free queue and wait on their
+ * EvalRequest; the evaluator thread takes up to the batch size of requests as soon as that many are waiting, or when the oldest request has waited the maximum latency,
+ * and completes each request with its score. A batch builds every position's first layer from the biases, adding the input weights of the batch's features one feature at
+ * a time, so a weight column used by several positions (most of them, in positions from one search) is read once per batch instead of once per position.
+ * <p>
+ * Evaluating through a BatchEvaluator (evaluate, or submit and wait) is thread-safe, so one BatchEvaluator serves every thread of a search (copy returns itself). It gives
+ * the same scores as a NetworkEvaluator with the same network. Close it to stop the evaluator thread.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class BatchEvaluator extends Evaluator implements Closeable {
+
+	/** Default maximum number of positions in a batch. */
+	public static final int DEF_BATCH_SIZE = 16;
+	/** Default maximum time a request waits for its batch to fill, in microseconds. */
+	public static final long DEF_MAX_LATENCY = 100;
+	/** Largest batch size. */
+	public static final int MAX_BATCH_SIZE = 1 << 14;
+
+	/** Bits of a feature key holding the first layer index. */
+	private static final int SLOT_BITS = 16;
+
+	/** The network. */
+	private Network network;
+	/** Maximum number of positions in a batch. */
+	private int batchSize;
+	/** Maximum time a request waits for its batch to fill, in nanoseconds. */
+	private long maxLatency;
+	/** Submitted requests waiting to be evaluated. */
+	private ConcurrentLinkedQueue<EvalRequest> queue;
+	/** Number of requests in the queue. */
+	private AtomicInteger pending;
+	/** The evaluator thread. */
+	private Thread thread;
+	/** Cleared when the evaluator is closed. */
+	private volatile boolean running;
+	/** Number of positions evaluated. */
+	private volatile long evaluations;
+	/** Number of batches evaluated. */
+	private volatile long batches;
+
+	/** The requests of the batch being evaluated. */
+	private EvalRequest batch[];
+	/** First layers of the batch (side to move's, then the other side's, for each position). */
+	private short layers[][];
+	/** Feature keys of the batch (feature index, then first layer index). */
+	private int keys[];
+	/** First layers a feature is added to. */
+	private int targets[];
+	/** Hidden layer sums scratch. */
+	private int sums[];
+	/** Active neuron scratch. */
+	private int active[];
+	/** Weight column scratch. */
+	private short column[];
+
+	/**
+	 * Constructor for BatchEvaluator that evaluates with the specified network, batch size and maximum latency, and starts the evaluator thread.
+	 * @param network - the network
+	 * @param batchSize - the maximum number of positions in a batch (1 - MAX_BATCH_SIZE)
+	 * @param maxLatency - the maximum time a request waits for its batch to fill, in microseconds
+	 */
+	public BatchEvaluator(Network network, int batchSize, long maxLatency) {
+		//Check parameters
+		if(batchSize < 1 || batchSize > MAX_BATCH_SIZE)
+			throw new IllegalArgumentException("Batch size must be 1 - " + MAX_BATCH_SIZE);
+
+		if(maxLatency < 0)
+			throw new IllegalArgumentException("Maximum latency cannot be negative");
+
+		//Initialize variables
+		this.network = network;
+		this.batchSize = batchSize;
+		this.maxLatency = maxLatency * 1000;
+		queue = new ConcurrentLinkedQueue<EvalRequest>();
+		pending = new AtomicInteger();
+		running = true;
+		evaluations = 0;
+		batches = 0;
+		batch = new EvalRequest[batchSize];
+		layers = new short[2 * batchSize][Network.HIDDEN];
+		keys = new int[2 * batchSize * 64];
+		targets = new int[2 * batchSize];
+		sums = new int[Network.L1];
+		active = new int[Network.HIDDEN];
+		column = new short[Network.HIDDEN];
+
+		//Start the evaluator thread
+		thread = new Thread("NAN Batch Evaluator") {
+			@Override
+			public void run() {
+				drain();
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the evaluator thread once the requests already submitted are evaluated.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		LockSupport.unpark(thread);
+
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns this evaluator, since it can be used by any number of threads.
+	 * @return this evaluator
+	 */
+	@Override
+	public Evaluator copy() { return this; }
+
+	/**
+	 * Evaluates the specified position, waiting for its batch to be evaluated.
+	 * @param position - the position to evaluate
+	 * @return the score of the position in centipawns from the point of view of the side to move
+	 */
+	@Override
+	public int evaluate(Position position) { return submit(position).join(); }
+
+	/**
+	 * Returns the average number of positions in a batch.
+	 * @return the average batch size
+	 */
+	public double getAverageBatchSize() {
+		long count = batches;
+		return (count > 0) ? evaluations / (double)count : 0.0;
+	}
+
+	/**
+	 * Returns the maximum number of positions in a batch.
+	 * @return the batch size
+	 */
+	public int getBatchSize() { return batchSize; }
+
+	/**
+	 * Returns the number of batches evaluated.
+	 * @return the number of batches
+	 */
+	public long getBatches() { return batches; }
+
+	/**
+	 * Returns the number of positions evaluated.
+	 * @return the number of positions
+	 */
+	public long getEvaluations() { return evaluations; }
+
+	/**
+	 * Returns the maximum time a request waits for its batch to fill.
+	 * @return the maximum latency in microseconds
+	 */
+	public long getMaxLatency() { return maxLatency / 1000; }
+
+	/**
+	 * Returns the network.
+	 * @return the network
+	 */
+	public Network getNetwork() { return network; }
+
+	/**
+	 * Submits the specified position to be evaluated in a batch. The position can be changed as soon as this returns.
+	 * @param position - the position to evaluate
+	 * @return the request, completed with the score of the position in centipawns from the point of view of the side to move
+	 */
+	public EvalRequest submit(Position position) {
+		//Initialize variables
+		EvalRequest request = new EvalRequest(position);
+
+		if(!running) {
+			request.completeExceptionally(new IllegalStateException("BatchEvaluator: evaluator is closed"));
+			return request;
+		}
+
+		queue.offer(request);
+
+		//Take the request back if the evaluator was closed while it was queued, since the evaluator thread may have already stopped
+		if(!running && queue.remove(request)) {
+			request.completeExceptionally(new IllegalStateException("BatchEvaluator: evaluator is closed"));
+			return request;
+		}
+
+		//Wake the evaluator thread to time the first request's deadline, or to evaluate a full batch
+		int count = pending.incrementAndGet();
+
+		if(count == 1 || count == batchSize) LockSupport.unpark(thread);
+
+		return request;
+	}
+
+	/**
+	 * Evaluates batches until the evaluator is closed and the queue is empty. Runs on the evaluator thread.
+	 */
+	private void drain() {
+		while(running || !queue.isEmpty()) {
+			EvalRequest oldest = queue.peek();
+
+			//Wait for a request
+			if(oldest == null) {
+				LockSupport.park(this);
+				continue;
+			}
+
+			//Wait for a full batch until the oldest request's deadline
+			long wait = oldest.getSubmitTime() + maxLatency - System.nanoTime();
+
+			if(running && pending.get() < batchSize && wait > 0) {
+				LockSupport.parkNanos(this, wait);
+				continue;
+			}
+
+			evaluateBatch();
+		}
+	}
+
+	/**
+	 * Takes up to a batch of requests from the queue, evaluates them and completes them.
+	 */
+	private void evaluateBatch() {
+		//Initialize variables
+		int count = 0;
+		int keyCount = 0;
+		EvalRequest request;
+
+		while(count < batchSize && (request = queue.poll()) != null)
+			batch[count++] = request;
+
+		pending.addAndGet(-count);
+
+		try {
+			//Key each position's features by feature, then first layer
+			for(int i = 0; i < count; ++i) {
+				int features[] = batch[i].getFeatures();
+
+				network.resetFeatures(layers[2 * i]);
+				network.resetFeatures(layers[2 * i + 1]);
+
+				for(int j = 0; j < features.length; j += 2) {
+					keys[keyCount++] = (features[j] << SLOT_BITS) | (2 * i);
+					keys[keyCount++] = (features[j + 1] << SLOT_BITS) | (2 * i + 1);
+				}
+			}
+
+			Arrays.sort(keys, 0, keyCount);
+
+			//Add each feature's weight column to every first layer that has the feature
+			for(int k = 0; k < keyCount;) {
+				int feature = keys[k] >>> SLOT_BITS;
+				int n = 0;
+
+				for(; k < keyCount && (keys[k] >>> SLOT_BITS) == feature; ++k)
+					targets[n++] = keys[k] & ((1 << SLOT_BITS) - 1);
+
+				network.addFeature(layers, targets, n, feature, column);
+			}
+
+			//Evaluate the rest of the network and complete the requests
+			for(int i = 0; i < count; ++i)
+				batch[i].complete(network.evaluate(layers[2 * i], layers[2 * i + 1], sums, active));
+		} catch (RuntimeException e) {
+			for(int i = 0; i < count; ++i)
+				batch[i].completeExceptionally(e);
+		}
+
+		for(int i = 0; i < count; ++i)
+			batch[i] = null;
+
+		evaluations += count;
+		batches++;
+	}
+}
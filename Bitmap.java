@@ -0,0 +1,444 @@
+package com.chess.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Bitmap is a compressed set of non-negative ints (game indices). Values are split by their high 16 bits into containers, and each container holds its low 16 bits either
+ * as a sorted array, while it holds at most ARRAY_MAX values, or as a 65536 bit bitmap. Sparse sets therefore take 2 bytes per value and dense sets 1 bit per value, and
+ * AND and OR work a container at a time, on words when both containers are bitmaps.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class Bitmap {
+
+	/** Maximum number of values in an array container. */
+	public static final int ARRAY_MAX = 4096;
+
+	/** High 16 bits of the values of each container, in ascending order. */
+	private int keys[];
+	/** The containers. */
+	private Container containers[];
+	/** Number of containers. */
+	private int size;
+
+	/**
+	 * Default constructor for Bitmap that creates an empty bitmap.
+	 */
+	public Bitmap() {
+		//Initialize variables
+		keys = new int[4];
+		containers = new Container[4];
+		size = 0;
+	}
+
+	/**
+	 * Adds a value. Adding values in ascending order is fastest.
+	 * @param value - the value (not negative)
+	 */
+	public void add(int value) {
+		//Check parameters
+		if(value < 0)
+			throw new IllegalArgumentException("Bitmap: values must not be negative");
+
+		//Find the container (usually the last one)
+		int key = value >>> 16;
+		int index = (size > 0 && keys[size - 1] == key) ? size - 1 : Arrays.binarySearch(keys, 0, size, key);
+
+		if(index < 0) {
+			index = -index - 1;
+			insert(index, key, new Container());
+		}
+
+		containers[index].add((char)value);
+	}
+
+	/**
+	 * Returns the values of both this bitmap and the specified bitmap.
+	 * @param other - the other bitmap
+	 * @return a new bitmap
+	 */
+	public Bitmap and(Bitmap other) {
+		//Initialize variables
+		Bitmap result = new Bitmap();
+		int i = 0;
+		int j = 0;
+
+		//Intersect the containers with the same key
+		while(i < size && j < other.size) {
+			if(keys[i] < other.keys[j]) i++;
+			else if(keys[i] > other.keys[j]) j++;
+			else {
+				Container c = containers[i++].and(other.containers[j++]);
+				if(c.size > 0) result.insert(result.size, keys[i - 1], c);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns if the bitmap holds the specified value.
+	 * @param value - the value
+	 * @return true if the bitmap holds the value, false otherwise
+	 */
+	public boolean contains(int value) {
+		int index = Arrays.binarySearch(keys, 0, size, value >>> 16);
+		return index >= 0 && containers[index].contains((char)value);
+	}
+
+	/**
+	 * Returns the number of values.
+	 * @return the number of values
+	 */
+	public int getCardinality() {
+		int count = 0;
+
+		for(int i = 0; i < size; ++i)
+			count += containers[i].size;
+
+		return count;
+	}
+
+	/**
+	 * Returns the values of this bitmap, the specified bitmap or both.
+	 * @param other - the other bitmap
+	 * @return a new bitmap
+	 */
+	public Bitmap or(Bitmap other) {
+		//Initialize variables
+		Bitmap result = new Bitmap();
+		int i = 0;
+		int j = 0;
+
+		//Merge the containers, joining the ones with the same key
+		while(i < size || j < other.size) {
+			if(j == other.size || (i < size && keys[i] < other.keys[j])) {
+				result.insert(result.size, keys[i], containers[i].copy());
+				i++;
+			}
+			else if(i == size || keys[i] > other.keys[j]) {
+				result.insert(result.size, other.keys[j], other.containers[j].copy());
+				j++;
+			}
+			else {
+				result.insert(result.size, keys[i], containers[i++].or(other.containers[j++]));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Reads a bitmap written by write.
+	 * @param in - the input to read from
+	 * @return the bitmap
+	 * @throws IOException if the input cannot be read
+	 */
+	public static Bitmap read(DataInput in) throws IOException {
+		//Initialize variables
+		Bitmap bitmap = new Bitmap();
+		int count = in.readInt();
+
+		for(int i = 0; i < count; ++i) {
+			Container c = new Container();
+			int key = in.readInt();
+
+			c.size = in.readInt();
+
+			if(c.size > ARRAY_MAX) {
+				c.words = new long[1024];
+				for(int j = 0; j < c.words.length; ++j) c.words[j] = in.readLong();
+			}
+			else {
+				c.values = new char[c.size];
+				for(int j = 0; j < c.size; ++j) c.values[j] = in.readChar();
+			}
+
+			bitmap.insert(i, key, c);
+		}
+
+		return bitmap;
+	}
+
+	/**
+	 * Returns the values in ascending order.
+	 * @return the values
+	 */
+	public int[] toArray() {
+		//Initialize variables
+		int values[] = new int[getCardinality()];
+		int n = 0;
+
+		for(int i = 0; i < size; ++i) {
+			Container c = containers[i];
+			int high = keys[i] << 16;
+
+			if(c.words != null) {
+				for(int w = 0; w < c.words.length; ++w) {
+					for(long bits = c.words[w]; bits != 0; bits &= bits - 1)
+						values[n++] = high | (w << 6) | Long.numberOfTrailingZeros(bits);
+				}
+			}
+			else {
+				for(int j = 0; j < c.size; ++j)
+					values[n++] = high | c.values[j];
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Writes the bitmap: the number of containers, then the key, size and array or bitmap words of each container.
+	 * @param out - the output to write to
+	 * @throws IOException if the output cannot be written
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(size);
+
+		for(int i = 0; i < size; ++i) {
+			Container c = containers[i];
+
+			out.writeInt(keys[i]);
+			out.writeInt(c.size);
+
+			if(c.words != null) {
+				for(int j = 0; j < c.words.length; ++j) out.writeLong(c.words[j]);
+			}
+			else {
+				for(int j = 0; j < c.size; ++j) out.writeChar(c.values[j]);
+			}
+		}
+	}
+
+	/**
+	 * Inserts a container at the specified index.
+	 * @param index - the index
+	 * @param key - the container key
+	 * @param c - the container
+	 */
+	private void insert(int index, int key, Container c) {
+		if(size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index] = key;
+		containers[index] = c;
+		size++;
+	}
+
+	/**
+	 * Container holds the low 16 bits of the values that share their high 16 bits, as a sorted array or as a bitmap.
+	 */
+	private static class Container {
+
+		/** Sorted values, if the container is an array. */
+		private char values[];
+		/** Bitmap words, if the container is a bitmap. */
+		private long words[];
+		/** Number of values. */
+		private int size;
+
+		/**
+		 * Default constructor for Container that creates an empty array container.
+		 */
+		public Container() {
+			values = new char[4];
+			words = null;
+			size = 0;
+		}
+
+		/**
+		 * Adds a value.
+		 * @param value - the value
+		 */
+		public void add(char value) {
+			//Set the bit of a bitmap
+			if(words != null) {
+				long bit = 1L << value;
+
+				if((words[value >>> 6] & bit) == 0) {
+					words[value >>> 6] |= bit;
+					size++;
+				}
+
+				return;
+			}
+
+			//Insert the value into the array, turning it into a bitmap when it is too large
+			int index = (size > 0 && values[size - 1] < value) ? -size - 1 : Arrays.binarySearch(values, 0, size, value);
+
+			if(index >= 0)
+				return;
+
+			if(size == ARRAY_MAX) {
+				toBitmap();
+				add(value);
+				return;
+			}
+
+			index = -index - 1;
+
+			if(size == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+
+			System.arraycopy(values, index, values, index + 1, size - index);
+			values[index] = value;
+			size++;
+		}
+
+		/**
+		 * Returns the values of both this container and the specified container.
+		 * @param other - the other container
+		 * @return a new container
+		 */
+		public Container and(Container other) {
+			//Initialize variables
+			Container c = new Container();
+
+			if(words != null && other.words != null) {
+				//AND the words, then go back to an array if few values are left
+				c.words = new long[1024];
+
+				for(int i = 0; i < c.words.length; ++i) {
+					c.words[i] = words[i] & other.words[i];
+					c.size += Long.bitCount(c.words[i]);
+				}
+
+				if(c.size <= ARRAY_MAX) c.toArray();
+			}
+			else if(words != null || other.words != null) {
+				//Keep the array values set in the bitmap
+				Container array = (words == null) ? this : other;
+				Container bitmap = (words == null) ? other : this;
+
+				c.values = new char[array.size];
+
+				for(int i = 0; i < array.size; ++i) {
+					if(bitmap.contains(array.values[i])) c.values[c.size++] = array.values[i];
+				}
+			}
+			else {
+				//Intersect the sorted arrays
+				c.values = new char[Math.min(size, other.size)];
+
+				for(int i = 0, j = 0; i < size && j < other.size;) {
+					if(values[i] < other.values[j]) i++;
+					else if(values[i] > other.values[j]) j++;
+					else {
+						c.values[c.size++] = values[i];
+						i++;
+						j++;
+					}
+				}
+			}
+
+			return c;
+		}
+
+		/**
+		 * Returns if the container holds the specified value.
+		 * @param value - the value
+		 * @return true if the container holds the value, false otherwise
+		 */
+		public boolean contains(char value) {
+			if(words != null) return (words[value >>> 6] & (1L << value)) != 0;
+			return Arrays.binarySearch(values, 0, size, value) >= 0;
+		}
+
+		/**
+		 * Returns a copy of the container.
+		 * @return a new container
+		 */
+		public Container copy() {
+			Container c = new Container();
+
+			c.values = (values != null) ? Arrays.copyOf(values, Math.max(1, size)) : null;
+			c.words = (words != null) ? words.clone() : null;
+			c.size = size;
+
+			return c;
+		}
+
+		/**
+		 * Returns the values of this container, the specified container or both.
+		 * @param other - the other container
+		 * @return a new container
+		 */
+		public Container or(Container other) {
+			//Initialize variables
+			Container c;
+
+			if(words != null || other.words != null) {
+				//OR into a copy of a bitmap
+				Container bitmap = (words != null) ? this : other;
+				Container rest = (words != null) ? other : this;
+
+				c = bitmap.copy();
+
+				if(rest.words != null) {
+					c.size = 0;
+
+					for(int i = 0; i < c.words.length; ++i) {
+						c.words[i] |= rest.words[i];
+						c.size += Long.bitCount(c.words[i]);
+					}
+				}
+				else {
+					for(int i = 0; i < rest.size; ++i)
+						c.add(rest.values[i]);
+				}
+			}
+			else {
+				//Merge the sorted arrays, then make a bitmap if there are too many values
+				c = new Container();
+				c.values = new char[size + other.size];
+
+				for(int i = 0, j = 0; i < size || j < other.size;) {
+					if(j == other.size || (i < size && values[i] < other.values[j])) c.values[c.size++] = values[i++];
+					else if(i == size || values[i] > other.values[j]) c.values[c.size++] = other.values[j++];
+					else {
+						c.values[c.size++] = values[i++];
+						j++;
+					}
+				}
+
+				if(c.size > ARRAY_MAX) c.toBitmap();
+			}
+
+			return c;
+		}
+
+		/**
+		 * Turns the bitmap into a sorted array.
+		 */
+		private void toArray() {
+			values = new char[Math.max(1, size)];
+			int n = 0;
+
+			for(int w = 0; w < words.length; ++w) {
+				for(long bits = words[w]; bits != 0; bits &= bits - 1)
+					values[n++] = (char)((w << 6) | Long.numberOfTrailingZeros(bits));
+			}
+
+			words = null;
+		}
+
+		/**
+		 * Turns the sorted array into a bitmap.
+		 */
+		private void toBitmap() {
+			words = new long[1024];
+
+			for(int i = 0; i < size; ++i)
+				words[values[i] >>> 6] |= 1L << values[i];
+
+			values = null;
+		}
+	}
+}
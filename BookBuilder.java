@@ -0,0 +1,466 @@
+package com.chess.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import com.chess.ChessBoard;
+import com.chess.Move;
+import com.chess.Position;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnListener;
+import com.chess.pgn.PgnReader;
+import com.chess.store.GameStore;
+
+/**
+ * BookBuilder builds an opening book from a stream of games. Every move played in the first plies of each game is counted as a win, draw or loss for the side that made
+ * it, in a BookTable kept off the heap. When the table is full its entries are sorted and spilled to a temporary run file, and when the book is written the runs are
+ * merged into a book file in Polyglot format.
+ * <p>
+ * A book file is a sequence of 16 byte big endian entries sorted by key: the position key, the move (to file, to row, from file and from row in 3 bits each, then the
+ * promotion piece, with castling encoded as the king taking its own rook), a weight of 2 per win and 1 per draw, scaled so the largest weight of a position fits in 16
+ * bits, and a learn value of 0. The keys are Polyglot keys (see PolyglotKeys), so the book can be read by any Polyglot book reader.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class BookBuilder implements PgnListener {
+
+	/** Default number of plies of each game added to the book. */
+	public static final int DEF_DEPTH = 40;
+	/** Default memory of the table, in bytes. */
+	public static final long DEF_MEMORY = 256L << 20;
+	/** Size of a book file entry in bytes. */
+	public static final int ENTRY_SIZE = 16;
+
+	/** The table of counters. */
+	private BookTable table;
+	/** The Polyglot keys. */
+	private PolyglotKeys keys;
+	/** Number of plies of each game added to the book. */
+	private int depth;
+	/** Directory of the run files. */
+	private Path directory;
+	/** Run files. */
+	private ArrayList<Path> runs;
+	/** Number of run files spilled. */
+	private int runCount;
+	/** Position used to replay games. */
+	private Position position;
+	/** Number of games added. */
+	private long games;
+
+	/**
+	 * Constructor for BookBuilder that creates a builder with the specified keys, table size and depth.
+	 * @param keys - the Polyglot keys
+	 * @param memory - the table size in bytes
+	 * @param depth - the number of plies of each game added to the book
+	 * @param directory - the directory of the temporary run files
+	 */
+	public BookBuilder(PolyglotKeys keys, long memory, int depth, Path directory) {
+		//Check parameters
+		if(depth <= 0)
+			throw new IllegalArgumentException("BookBuilder: depth must be positive");
+
+		//Initialize variables
+		table = new BookTable(memory);
+		this.keys = keys;
+		this.depth = depth;
+		this.directory = directory;
+		runs = new ArrayList<Path>();
+		runCount = 0;
+		position = new Position();
+		games = 0;
+	}
+
+	/**
+	 * Program entry point method that builds a book file from a PGN file or a game store (".ngs"). The -keys option (a file holding the Polyglot Random64 table) is
+	 * required, and the other options are -threads, -memory (in megabytes), -depth (plies) and -min (the fewest games a move must be played in to be added).
+	 * @param args - the input file and book file followed by the options
+	 */
+	public static void main(String[] args) {
+		//Check arguments
+		if(args.length < 2 || args.length % 2 != 0) {
+			System.err.println("Usage: BookBuilder <in.pgn|in.ngs> <out.bin> -keys random64.txt [-threads n] [-memory mb] [-depth plies] [-min games]");
+			System.exit(2);
+		}
+
+		//Initialize variables
+		int threads = Runtime.getRuntime().availableProcessors();
+		long memory = DEF_MEMORY;
+		int depth = DEF_DEPTH;
+		int min = 1;
+		Path keyFile = null;
+
+		try {
+			for(int i = 2; i < args.length; i += 2) {
+				if(args[i].equals("-keys")) keyFile = Paths.get(args[i + 1]);
+				else if(args[i].equals("-threads")) threads = Integer.parseInt(args[i + 1]);
+				else if(args[i].equals("-memory")) memory = Long.parseLong(args[i + 1]) << 20;
+				else if(args[i].equals("-depth")) depth = Integer.parseInt(args[i + 1]);
+				else if(args[i].equals("-min")) min = Integer.parseInt(args[i + 1]);
+				else throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+
+			if(keyFile == null) throw new IllegalArgumentException("-keys is required");
+		} catch (IllegalArgumentException e) {
+			System.err.println("Invalid option: " + e.getMessage());
+			System.exit(2);
+		}
+
+		//Read the games and write the book
+		Path in = Paths.get(args[0]);
+		Path out = Paths.get(args[1]);
+		long start = System.nanoTime();
+
+		try {
+			BookBuilder builder = new BookBuilder(PolyglotKeys.load(keyFile), memory, depth, out.toAbsolutePath().getParent());
+
+			if(args[0].endsWith(".ngs")) {
+				try(GameStore store = new GameStore(in)) {
+					store.read(builder, threads);
+				}
+			}
+			else {
+				try(FileChannel channel = FileChannel.open(in, StandardOpenOption.READ)) {
+					new PgnReader(channel).read(builder, threads);
+				}
+			}
+
+			long entries = builder.write(out, min);
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			System.out.printf("%d games, %d book entries (%d runs) written in %.2f s%n", builder.getGameCount(), entries, builder.getRunCount(), seconds);
+		} catch (IOException | IllegalStateException | IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Adds the moves of the specified game to the book, unless its result is unknown. Games are added one at a time, so this can be called from several threads.
+	 * @param game - the game
+	 */
+	@Override
+	public synchronized void gameRead(PgnGame game) {
+		//Skip unfinished games
+		if(game.getResult().equals(PgnGame.UNKNOWN))
+			return;
+
+		//Count each move as a win, draw or loss for the side that made it
+		int whiteResult = game.getResult().equals(PgnGame.WHITE_WINS) ? 1 : game.getResult().equals(PgnGame.DRAW) ? 0 : -1;
+
+		if(game.getTag("FEN") != null) position.setFEN(game.getTag("FEN"));
+		else position.reset();
+
+		for(int i = 0; i < Math.min(depth, game.getMoveCount()); ++i) {
+			int move = game.getMove(i);
+
+			if(table.isFull()) {
+				try {
+					spill();
+				} catch (IOException e) {
+					throw new IllegalStateException("BookBuilder: failed to write a run file", e);
+				}
+			}
+
+			table.add(keys.polyglotKey(position), toBookMove(move, position), (position.getTurn() == ChessBoard.WHITE) ? whiteResult : -whiteResult);
+
+			if(!position.makeMove(move)) break;
+		}
+
+		games++;
+	}
+
+	/**
+	 * Returns the number of games added.
+	 * @return the number of games
+	 */
+	public synchronized long getGameCount() { return games; }
+
+	/**
+	 * Returns the number of run files spilled so far.
+	 * @return the number of runs
+	 */
+	public synchronized int getRunCount() { return runCount; }
+
+	/**
+	 * Returns the book move encoding of the specified move.
+	 * @param move - the encoded move (in position spaces)
+	 * @param position - the position the move is made from
+	 * @return the book move
+	 */
+	public static int toBookMove(int move, Position position) {
+		//Initialize variables
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+
+		//Castling is encoded as the king taking its own rook
+		if((position.getPiece(from) & Position.PIECE_TYPE_MASK) == Position.KING && Math.abs(to - from) == 2)
+			to = (to > from) ? from + 3 : from - 4;
+
+		//Rows count from the first rank, while position spaces start at the eighth
+		return (to & 7) | ((7 - (to >>> 3)) << 3) | ((from & 7) << 6) | ((7 - (from >>> 3)) << 9) | (Move.getPromotion(move) << 12);
+	}
+
+	/**
+	 * Writes the book file, merging the counters in the table with the run files, which are then deleted. Moves played in fewer than the specified number of games and moves
+	 * that never won or drew are left out. The builder is empty after writing.
+	 * @param file - the book file
+	 * @param min - the fewest games a move must be played in
+	 * @return the number of book entries
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public synchronized long write(Path file, int min) throws IOException {
+		//Initialize variables
+		PriorityQueue<Run> queue = new PriorityQueue<Run>(Math.max(1, runs.size() + 1), new Comparator<Run>() {
+			@Override
+			public int compare(Run a, Run b) {
+				int c = Long.compareUnsigned(a.key, b.key);
+				return (c != 0) ? c : Integer.compare(a.move, b.move);
+			}
+		});
+		long entries = 0;
+
+		try {
+			spill();
+
+			for(Path path : runs) {
+				Run run = new Run(path);
+
+				if(run.next()) queue.add(run);
+				else run.close();
+			}
+
+			//Merge the counters of each key and move, and write the moves of each key
+			try(FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+				Group group = new Group();
+
+				while(!queue.isEmpty()) {
+					Run run = queue.poll();
+
+					if(group.size > 0 && run.key != group.key) entries += group.write(out, buffer, min);
+
+					group.add(run.key, run.move, run.wins, run.draws, run.losses);
+
+					if(run.next()) queue.add(run);
+					else run.close();
+				}
+
+				entries += group.write(out, buffer, min);
+
+				buffer.flip();
+
+				while(buffer.hasRemaining())
+					out.write(buffer);
+			}
+		} finally {
+			for(Run run : queue)
+				run.close();
+
+			for(Path run : runs)
+				Files.deleteIfExists(run);
+
+			runs.clear();
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Sorts the table and writes its entries to a new run file, then clears the table.
+	 * @throws IOException if the run file cannot be written
+	 */
+	private void spill() throws IOException {
+		//Initialize variables
+		Path path = Files.createTempFile(directory, "book", ".run");
+
+		runs.add(path);
+		runCount++;
+		table.sort();
+
+		//Write the sorted entries
+		try(FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+			for(int i = 0; i <= table.size(); ++i) {
+				if(i == table.size() || buffer.remaining() < BookTable.SLOT_SIZE) {
+					buffer.flip();
+
+					while(buffer.hasRemaining())
+						out.write(buffer);
+
+					buffer.clear();
+				}
+
+				if(i < table.size())
+					buffer.putLong(table.getKey(i)).putInt(table.getMove(i)).putInt(table.getWins(i)).putInt(table.getDraws(i)).putInt(table.getLosses(i));
+			}
+		}
+
+		table.clear();
+	}
+
+	/**
+	 * Group collects the merged counters of the moves of one position key and writes them as book entries.
+	 */
+	private static class Group {
+
+		/** The position key. */
+		private long key;
+		/** The moves. */
+		private int moves[] = new int[256];
+		/** Wins of each move. */
+		private long wins[] = new long[256];
+		/** Draws of each move. */
+		private long draws[] = new long[256];
+		/** Losses of each move. */
+		private long losses[] = new long[256];
+		/** Number of moves. */
+		private int size;
+
+		/**
+		 * Adds counters of a move, merging them with the last move if it is the same.
+		 * @param key - the position key
+		 * @param move - the move
+		 * @param win - the wins
+		 * @param draw - the draws
+		 * @param loss - the losses
+		 */
+		public void add(long key, int move, int win, int draw, int loss) {
+			if(size == 0 || moves[size - 1] != move) {
+				this.key = key;
+				moves[size] = move;
+				wins[size] = 0;
+				draws[size] = 0;
+				losses[size] = 0;
+				size++;
+			}
+
+			wins[size - 1] += win;
+			draws[size - 1] += draw;
+			losses[size - 1] += loss;
+		}
+
+		/**
+		 * Writes the book entries of the moves played in at least the specified number of games, heaviest first, and empties the group.
+		 * @param out - the book file
+		 * @param buffer - the output buffer
+		 * @param min - the fewest games a move must be played in
+		 * @return the number of entries written
+		 * @throws IOException if the book file cannot be written
+		 */
+		public int write(FileChannel out, ByteBuffer buffer, int min) throws IOException {
+			//Compute the weights
+			long weights[] = new long[size];
+			long max = 0;
+
+			for(int i = 0; i < size; ++i) {
+				weights[i] = (wins[i] + draws[i] + losses[i] >= min) ? wins[i] * 2 + draws[i] : 0;
+				max = Math.max(max, weights[i]);
+			}
+
+			//Write the moves heaviest first, scaling the weights into 16 bits
+			int count = 0;
+
+			for(int i = 0; i < size; ++i) {
+				int best = 0;
+
+				for(int j = 1; j < size; ++j) {
+					if(weights[j] > weights[best]) best = j;
+				}
+
+				if(weights[best] == 0) break;
+
+				if(buffer.remaining() < ENTRY_SIZE) {
+					buffer.flip();
+
+					while(buffer.hasRemaining())
+						out.write(buffer);
+
+					buffer.clear();
+				}
+
+				buffer.putLong(key).putShort((short)moves[best]).putShort((short)Math.max(1, (max > 0xFFFF) ? weights[best] * 0xFFFF / max : weights[best])).putInt(0);
+				weights[best] = 0;
+				count++;
+			}
+
+			size = 0;
+			return count;
+		}
+	}
+
+	/**
+	 * Run reads the sorted entries of a run file while the runs are merged.
+	 */
+	private static class Run {
+
+		/** The run file. */
+		private FileChannel channel;
+		/** Input buffer. */
+		private ByteBuffer buffer;
+		/** Key of the current entry. */
+		private long key;
+		/** Move of the current entry. */
+		private int move;
+		/** Wins of the current entry. */
+		private int wins;
+		/** Draws of the current entry. */
+		private int draws;
+		/** Losses of the current entry. */
+		private int losses;
+
+		/**
+		 * Constructor for Run that opens the specified run file.
+		 * @param path - the run file
+		 * @throws IOException if the run file cannot be opened
+		 */
+		public Run(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			buffer = ByteBuffer.allocate(BookTable.SLOT_SIZE * 4096);
+			buffer.limit(0);
+		}
+
+		/**
+		 * Closes the run file.
+		 * @throws IOException if the run file cannot be closed
+		 */
+		public void close() throws IOException { channel.close(); }
+
+		/**
+		 * Reads the next entry.
+		 * @return true if an entry was read, false at the end of the run
+		 * @throws IOException if the run file cannot be read
+		 */
+		public boolean next() throws IOException {
+			//Refill the buffer when it is empty
+			if(!buffer.hasRemaining()) {
+				buffer.clear();
+
+				while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+
+				buffer.flip();
+
+				if(!buffer.hasRemaining()) return false;
+			}
+
+			key = buffer.getLong();
+			move = buffer.getInt();
+			wins = buffer.getInt();
+			draws = buffer.getInt();
+			losses = buffer.getInt();
+			return true;
+		}
+	}
+}
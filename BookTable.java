@@ -0,0 +1,224 @@
+package com.chess.book;
+
+import java.nio.ByteBuffer;
+
+/**
+ * BookTable counts wins, draws and losses per position key and move in an open addressing hash table kept off the heap, in a direct buffer of fixed size, so the heap
+ * does not grow with the number of positions. Each slot holds a key, a move (0 for an empty slot) and three int counters. The table is filled up to its load limit, then
+ * sorted in place and emptied by the book builder.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+class BookTable {
+
+	/** Slot size in bytes. */
+	static final int SLOT_SIZE = 24;
+
+	/** Maximum load of the table, in slots per 16 slots. */
+	private static final int MAX_LOAD = 12;
+	/** Maximum number of slots (a direct buffer is limited to 2 GB). */
+	private static final int MAX_SLOTS = 1 << 26;
+
+	/** The slots. */
+	private ByteBuffer slots;
+	/** Slot index mask. */
+	private int mask;
+	/** Number of entries. */
+	private int size;
+
+	/**
+	 * Constructor for BookTable that creates a table of (at most) the specified size.
+	 * @param bytes - the table size in bytes
+	 */
+	public BookTable(long bytes) {
+		//Initialize variables (the number of slots is a power of two)
+		int count = (int)Math.min(MAX_SLOTS, Long.highestOneBit(Math.max(1024, bytes / SLOT_SIZE)));
+
+		slots = ByteBuffer.allocateDirect(count * SLOT_SIZE);
+		mask = count - 1;
+		size = 0;
+	}
+
+	/**
+	 * Adds a game result to the counters of the specified position key and move.
+	 * @param key - the position key
+	 * @param move - the move (not 0)
+	 * @param result - the result for the side to move (1 for a win, 0 for a draw, -1 for a loss)
+	 */
+	public void add(long key, int move, int result) {
+		//Find the entry or the empty slot it goes in (linear probing)
+		long hash = (key ^ move) * 0x9E3779B97F4A7C15L;
+		int index = (int)(hash >>> 38) & mask;
+
+		while(true) {
+			int slot = index * SLOT_SIZE;
+			int slotMove = slots.getInt(slot + 8);
+
+			if(slotMove == 0) {
+				slots.putLong(slot, key);
+				slots.putInt(slot + 8, move);
+				slots.putInt(slot + 12, 0);
+				slots.putInt(slot + 16, 0);
+				slots.putInt(slot + 20, 0);
+				size++;
+			}
+			else if(slotMove != move || slots.getLong(slot) != key) {
+				index = (index + 1) & mask;
+				continue;
+			}
+
+			//Count the result
+			int counter = slot + ((result > 0) ? 12 : (result == 0) ? 16 : 20);
+
+			slots.putInt(counter, slots.getInt(counter) + 1);
+			return;
+		}
+	}
+
+	/**
+	 * Removes all entries from the table.
+	 */
+	public void clear() {
+		for(int i = 0; i <= mask; ++i)
+			slots.putInt(i * SLOT_SIZE + 8, 0);
+
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of draws of the entry at the specified index (after sort).
+	 * @param index - the entry index
+	 * @return the number of draws
+	 */
+	public int getDraws(int index) { return slots.getInt(index * SLOT_SIZE + 16); }
+
+	/**
+	 * Returns the key of the entry at the specified index (after sort).
+	 * @param index - the entry index
+	 * @return the position key
+	 */
+	public long getKey(int index) { return slots.getLong(index * SLOT_SIZE); }
+
+	/**
+	 * Returns the number of losses of the entry at the specified index (after sort).
+	 * @param index - the entry index
+	 * @return the number of losses
+	 */
+	public int getLosses(int index) { return slots.getInt(index * SLOT_SIZE + 20); }
+
+	/**
+	 * Returns the move of the entry at the specified index (after sort).
+	 * @param index - the entry index
+	 * @return the move
+	 */
+	public int getMove(int index) { return slots.getInt(index * SLOT_SIZE + 8); }
+
+	/**
+	 * Returns the number of wins of the entry at the specified index (after sort).
+	 * @param index - the entry index
+	 * @return the number of wins
+	 */
+	public int getWins(int index) { return slots.getInt(index * SLOT_SIZE + 12); }
+
+	/**
+	 * Returns if the table has reached its load limit and should be emptied.
+	 * @return true if the table is full, false otherwise
+	 */
+	public boolean isFull() { return size >= ((mask + 1) / 16) * MAX_LOAD; }
+
+	/**
+	 * Returns the number of entries.
+	 * @return the number of entries
+	 */
+	public int size() { return size; }
+
+	/**
+	 * Moves the entries to the first slots and sorts them by key (taken as unsigned) and move. The table can only be read by index, then cleared, after sorting.
+	 */
+	public void sort() {
+		//Move the entries to the first slots
+		int count = 0;
+
+		for(int i = 0; i <= mask; ++i) {
+			if(getMove(i) != 0) {
+				if(i != count) swap(i, count);
+				count++;
+			}
+		}
+
+		sort(0, count - 1);
+	}
+
+	/**
+	 * Compares the entries at the specified indices.
+	 * @param a - the first entry index
+	 * @param b - the second entry index
+	 * @return a negative value, 0 or a positive value if the first entry is before, equal to or after the second
+	 */
+	private int compare(int a, int b) {
+		int c = Long.compareUnsigned(getKey(a), getKey(b));
+		return (c != 0) ? c : Integer.compare(getMove(a), getMove(b));
+	}
+
+	/**
+	 * Sorts the entries in the specified range with a quicksort (recursing into the smaller part) that finishes small ranges with an insertion sort.
+	 * @param low - the first entry index
+	 * @param high - the last entry index
+	 */
+	private void sort(int low, int high) {
+		while(high - low > 16) {
+			//Partition around the median of the first, middle and last entries
+			int mid = (low + high) >>> 1;
+
+			if(compare(mid, low) < 0) swap(mid, low);
+			if(compare(high, low) < 0) swap(high, low);
+			if(compare(high, mid) < 0) swap(high, mid);
+
+			swap(mid, high - 1);
+
+			int i = low;
+			int j = high - 1;
+
+			while(true) {
+				while(compare(++i, high - 1) < 0);
+				while(compare(--j, high - 1) > 0);
+
+				if(i >= j) break;
+				swap(i, j);
+			}
+
+			swap(i, high - 1);
+
+			if(i - low < high - i) {
+				sort(low, i - 1);
+				low = i + 1;
+			}
+			else {
+				sort(i + 1, high);
+				high = i - 1;
+			}
+		}
+
+		for(int i = low + 1; i <= high; ++i) {
+			for(int j = i; j > low && compare(j, j - 1) < 0; --j)
+				swap(j, j - 1);
+		}
+	}
+
+	/**
+	 * Swaps the slots at the specified indices.
+	 * @param a - the first slot index
+	 * @param b - the second slot index
+	 */
+	private void swap(int a, int b) {
+		a *= SLOT_SIZE;
+		b *= SLOT_SIZE;
+
+		for(int i = 0; i < SLOT_SIZE; i += 8) {
+			long t = slots.getLong(a + i);
+
+			slots.putLong(a + i, slots.getLong(b + i));
+			slots.putLong(b + i, t);
+		}
+	}
+}
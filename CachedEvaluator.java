@@ -0,0 +1,76 @@
+package com.chess.nan.search;
+
+import com.chess.Position;
+
+/**
+ * CachedEvaluator puts an EvalCache in front of another evaluator, so a position's score is only computed the first time it is evaluated while it stays in the cache.
+ * The cache may be shared by the evaluators of several searches (each search still needs its own CachedEvaluator and evaluator), as long as they all wrap evaluators
+ * giving the same scores.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class CachedEvaluator extends Evaluator {
+
+	/** The evaluator computing scores that are not cached. */
+	private Evaluator evaluator;
+	/** The evaluation cache. */
+	private EvalCache cache;
+
+	/**
+	 * Constructor for CachedEvaluator that caches the scores of the specified evaluator.
+	 * @param eval - the evaluator
+	 * @param evalCache - the evaluation cache
+	 */
+	public CachedEvaluator(Evaluator eval, EvalCache evalCache) {
+		//Initialize variables
+		evaluator = eval;
+		cache = evalCache;
+	}
+
+	/**
+	 * Returns an evaluator for another thread that shares this evaluator's cache, with a copy of the evaluator computing scores that are not cached.
+	 * @return the evaluator for another thread
+	 */
+	@Override
+	public Evaluator copy() { return new CachedEvaluator(evaluator.copy(), cache); }
+
+	/**
+	 * Evaluates the specified position, returning its cached score if it has one.
+	 * @param position - the position to evaluate
+	 * @return the score of the position in centipawns from the point of view of the side to move
+	 */
+	@Override
+	public int evaluate(Position position) {
+		//Initialize variables
+		long key = position.getKey();
+		int score = cache.probe(key);
+
+		if(score == EvalCache.MISS) {
+			score = evaluator.evaluate(position);
+			cache.store(key, score);
+		}
+
+		return score;
+	}
+
+	/**
+	 * Returns the evaluation cache.
+	 * @return the evaluation cache
+	 */
+	public EvalCache getCache() { return cache; }
+
+	/**
+	 * Returns the evaluator computing scores that are not cached.
+	 * @return the evaluator
+	 */
+	public Evaluator getEvaluator() { return evaluator; }
+
+	/**
+	 * Sets the evaluator computing scores that are not cached. The cache is cleared, since its scores came from the old evaluator.
+	 * @param eval - the evaluator
+	 */
+	public void setEvaluator(Evaluator eval) {
+		evaluator = eval;
+		cache.clear();
+	}
+}
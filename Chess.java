@@ -12,6 +12,8 @@ import java.awt.Point;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executor;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
@@ -20,7 +22,8 @@ import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UIManager.LookAndFeelInfo;
 
-import com.chess.ChessBoard.GameState;
+import com.chess.event.ChessBoardEvent;
+import com.chess.event.ChessBoardListener;
 import com.chess.gui.dialog.NewGameDialog;
 import com.chess.gui.event.ProgressEvent;
 import com.chess.gui.event.ProgressUpdateListener;
@@ -46,6 +49,8 @@ public class Chess {
 	public static String WORKING_DIR = "C:/Synap/Projects/Java/Chess/";
 	/** Resources directory. */
 	public static String RESOURCES_DIR = WORKING_DIR + "resources/";
+	/** Game journal file (the chess.journal system property, or .chess/game.journal in the user's home directory). */
+	public static String JOURNAL_FILE = System.getProperty("chess.journal", Paths.get(System.getProperty("user.home"), ".chess", "game.journal").toString());
 	
 	/** Chess icon image. */ 
 	public static ImageIcon ICON = new ImageIcon(Chess.RESOURCES_DIR + "chess_ico.png");
@@ -159,6 +164,8 @@ public class Chess {
 	private static ChessBoard board;
 	/** The chess clock. */
 	private static ChessClock clock;
+	/** The game journal. */
+	private static GameJournal journal;
 	/** Black pawn image. */
 	private static BufferedImage bpimg;
 	/** Black rook image. */
@@ -259,8 +266,55 @@ public class Chess {
 		                board = new ChessBoard();
 		                
 		                //Create new chess clock
-		                clock = new ChessClock();
+		                clock = new ChessClock(board);
+		                board.setNANPlayer(clock, new Executor() {
+		                	@Override
+		                	public void execute(Runnable r) {
+		                		SwingUtilities.invokeLater(r);
+		                	}
+		                });
+
+		                //Keep the chess clock and window in step with the chess board
+		                board.addChessBoardListener(new ChessBoardListener() {
+		                	@Override
+		                	public void gameEnded(ChessBoardEvent e) {
+		                		clock.pauseClocks();
+		                		if(cf != null) cf.repaint();
+		                	}
+
+		                	@Override
+		                	public void gamePaused(ChessBoardEvent e) {
+		                		clock.pauseClocks();
+		                		if(cf != null) cf.repaint();
+		                	}
+
+		                	@Override
+		                	public void gameResumed(ChessBoardEvent e) {
+		                		clock.resumeClocks();
+		                		if(cf != null) cf.repaint();
+		                	}
+
+		                	@Override
+		                	public void pieceMoved(ChessBoardEvent e) {
+		                		clock.switchTurn();
+		                	}
+
+		                	@Override
+		                	public void turnChanged(ChessBoardEvent e) {
+		                		if(cf != null) cf.repaint();
+		                	}
+		                });
 		                
+		                //Restore the game that was being played when the program last closed, then journal the game (after the clock has switched turns)
+		                try {
+		                	GameJournal.restore(Paths.get(JOURNAL_FILE), board, clock);
+		                	journal = new GameJournal(Paths.get(JOURNAL_FILE), board, clock);
+		                	board.addChessBoardListener(journal);
+		                	clock.addStopwatchListener(journal);
+		                } catch (IOException | RuntimeException e) {
+		                	System.err.println("Failed to restore the game journal: " + e.getMessage());
+		                }
+
 		            	//Update progress bar
 		            	if(progressListener != null) progressListener.updateProgress(new ProgressEvent(this, 75));
 		            	
@@ -283,6 +337,7 @@ public class Chess {
 		            	
 		            	//Create new chess window
 		                cf = new ChessFrame();
+		                clock.addStopwatchListener(cf);
             		}
             	};
             	
@@ -304,13 +359,7 @@ public class Chess {
 	/**
 	 * This causes the current game to end where it is at. If a player has not officially won, a draw is concluded.
 	 */
-	public static void endGame() {
-		//If a player didn't win or a stalemate didn't occur
-		if(board.getGameState() != GameState.PLAYER_WINS && board.getGameState() != GameState.NAN_WINS && board.getGameState() != GameState.PAUSED &&
-				board.getGameState() != GameState.NONE)
-			//Set game to a draw
-			board.setGameState(GameState.DRAW);
-	}
+	public static void endGame() { board.endGame(); }
 	
 	/**
 	 * Returns the current chess board.
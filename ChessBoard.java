@@ -1,9 +1,21 @@
 package com.chess;
 
-import java.awt.Point;
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
+import com.chess.event.ChessBoardEvent;
+import com.chess.event.ChessBoardListener;
+import com.chess.nan.itf.event.NANActionEvent;
+import com.chess.nan.itf.event.listener.NANActionListener;
+import com.chess.nan.search.Evaluator;
+import com.chess.nan.search.Search;
+import com.chess.nan.search.SearchLimits;
+import com.chess.nan.search.SearchType;
+import com.chess.nan.search.TranspositionTable;
 import com.chess.pieces.Bishop;
 import com.chess.pieces.ChessPiece;
 import com.chess.pieces.King;
@@ -13,11 +25,12 @@ import com.chess.pieces.Queen;
 import com.chess.pieces.Rook;
 
 /**
- * ChessBoard contains and handles the current state of the chess board and chess pieces.
+ * ChessBoard contains and handles the current state of the chess board and chess pieces. The rules of the game are applied by a Position that mirrors the chess pieces, and
+ * changes to the board are reported to ChessBoardListeners, so a chess board can be used without the GUI.
  * @author Monroe Gordon
  * @since 5/30/2022
  */
-public class ChessBoard {
+public class ChessBoard implements NANActionListener {
 	
 	/**
 	 * GameState enum contains the values of all possible game states during a game of chess (or none if no game is in session).
@@ -66,16 +79,39 @@ public class ChessBoard {
 	public static final int BOARD_ROWS = 8;
 	/** Number of columns on the board. */
 	public static final int BOARD_COLS = 8;
+	/** Time the NAN searches each move of an untimed game, in milliseconds. */
+	public static final long NAN_MOVE_TIME = 3000;
 	
-	/** No legal moves return value. */
-	public static final int NO_LEGAL_MOVES = -2;
-	/** No threat line index return index. */
-	public static final int NO_THREAT_LINE_INDEX = -1;
+	/** NAN action bits of the destination space. */
+	private static final int ACTION_SPACE = 0x000000FF;
+	/** NAN action bits of the moving piece's number. */
+	private static final int ACTION_NUMBER = 0x00000F00;
+	/** NAN action bit of a black piece (of the white king when the action has no piece number). */
+	private static final int ACTION_BLACK = 0x00001000;
+	/** NAN action bit of the black king. */
+	private static final int ACTION_BLACK_KING = 0x00002000;
+	/** Piece type of each NAN action piece number. */
+	private static final int ACTION_PIECES[] = { Position.KING, Position.PAWN, Position.PAWN, Position.PAWN, Position.PAWN, Position.PAWN, Position.PAWN, Position.PAWN,
+		Position.PAWN, Position.ROOK, Position.ROOK, Position.KNIGHT, Position.KNIGHT, Position.BISHOP, Position.BISHOP, Position.QUEEN };
+	/** Number of the piece of its type and color of each NAN action piece number (0 for the first). */
+	private static final int ACTION_NUMBERS[] = { 0, 0, 1, 2, 3, 4, 5, 6, 7, 0, 1, 0, 1, 0, 1, 0 };
 	
 	/** The player's color. */
 	private boolean player;
 	/** The NAN's color. */
 	private boolean nan;
+	/** The type of search the NAN plays the current game with. */
+	private SearchType searchType;
+	/** The chess clock timing the NAN's searches, or null if the NAN does not play its own turns. */
+	private ChessClock nanClock;
+	/** The executor the NAN's moves are made on, or null to make them on the NAN's search thread. */
+	private Executor nanMoveExecutor;
+	/** The executor running the NAN's searches (created when the NAN first plays a turn). */
+	private ExecutorService nanExecutor;
+	/** The NAN's search (created for its type when the NAN first plays a turn). */
+	private Search search;
+	/** The type of the NAN's search. */
+	private SearchType nanSearchType;
 	/** The current player's turn flag. */
 	private boolean turn;
 	/** The current move number. */
@@ -115,6 +151,18 @@ public class ChessBoard {
 	
 	/** All pieces. */
 	private ChessPiece pieces[];
+	/** Pieces indexed by the board space they are on (null for empty spaces). */
+	private ChessPiece squares[];
+	/** Legal moves for the current turn. */
+	private MoveList moveList;
+	/** Position used to apply the rules of the game (always with white starting on rows 6 - 7). */
+	private Position position;
+	/** Legal moves of the position for the current turn. */
+	private MoveList positionMoves;
+	/** FEN of the position the current game started from. */
+	private String startFEN;
+	/** Chess board listeners. */
+	private ArrayList<ChessBoardListener> listener;
 	
 	/**
 	 * Default constructor for the ChessBoard that initializes the board with white on bottom and black on top.
@@ -123,6 +171,12 @@ public class ChessBoard {
 		//Initialize variables
 		player = WHITE;
 		nan = BLACK;
+		searchType = SearchType.ALPHA_BETA;
+		nanClock = null;
+		nanMoveExecutor = null;
+		nanExecutor = null;
+		search = null;
+		nanSearchType = null;
 		turn = BLACK;
 		moveNum = 0;
 		gameState = GameState.NONE;
@@ -141,6 +195,12 @@ public class ChessBoard {
 		whiteQueen = new Queen(WHITE, 3, 7);
 		whiteKing = new King(WHITE, 4, 7);
 		pieces = new ChessPiece[32];
+		squares = new ChessPiece[BOARD_SPACES];
+		moveList = new MoveList();
+		position = new Position();
+		positionMoves = new MoveList();
+		startFEN = Position.START_FEN;
+		listener = new ArrayList<ChessBoardListener>(0);
 		
 		for(int i = 0; i < 8; ++i) {
 			blackPawn[i] = new Pawn(BLACK, i, 1, i + 1);
@@ -156,205 +216,34 @@ public class ChessBoard {
 			}
 		}
 		
-		for(int i = 0; i < 8; ++i) {
-			pieces[i] = blackPawn[i];
-			pieces[i + 8] = whitePawn[i];
-			
-			if(i < 2) {
-				pieces[i + 16] = blackRook[i];
-				pieces[i + 18] = blackKnight[i];
-				pieces[i + 20] = blackBishop[i];
-				pieces[i + 22] = whiteRook[i];
-				pieces[i + 24] = whiteKnight[i];
-				pieces[i + 26] = whiteBishop[i];
-			}
-		}
-		
-		pieces[28] = blackQueen;
-		pieces[29] = blackKing;
-		pieces[30] = whiteQueen;
-		pieces[31] = whiteKing;
+		collectPieces();
 	}
 	
 	/**
-	 * Return a list of all the chess pieces.
-	 * @return a list of all the chess pieces
-	 */
-	public ChessPiece[] getAllPieces() { return pieces; }
-	
-	/**
-	 * This checks the diagonal paths (top-left, top-right, bottom-right, and bottom-left diagonal) from the position of the specified piece to locate legal moves based on
-	 * the position of all other pieces.
-	 * @param piece - the piece to check
+	 * Adds a chess board listener to the list of chess board listeners.
+	 * @param l - the chess board listener to add
 	 */
-	public void checkDiagonalPaths(ChessPiece piece) {
-		//Initialize variables
-		ChessPiece[] pieces = getAllPieces();
-		int i = 0;
-		boolean legal = true;
-		
-		//Check top-left diagonal
-		i = 1;
-		legal = true;
-			
-		while(legal && piece.getPositionPoint().y - i >= 0 && piece.getPositionPoint().x - i >= 0) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x - i, piece.getPositionPoint().y - i);
-			if(legal) ++i;
-		}
-		
-		//Check top-right diagonal
-		i = 1;
-		legal = true;
-		
-		while(legal && piece.getPositionPoint().y - i >= 0 && piece.getPositionPoint().x + i < ChessBoard.BOARD_COLS) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x + i, piece.getPositionPoint().y - i);
-			if(legal) ++i;
-		}
-		
-		//Check bottom-right diagonal
-		i = 1;
-		legal = true;
-		
-		while(legal && piece.getPositionPoint().y + i < ChessBoard.BOARD_ROWS && piece.getPositionPoint().x + i < ChessBoard.BOARD_COLS) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x + i, piece.getPositionPoint().y + i);
-			if(legal) ++i;
-		}
-		
-		//Check bottom-left diagonal
-		i = 1;
-		legal = true;
-		
-		while(legal && piece.getPositionPoint().y + i < ChessBoard.BOARD_ROWS && piece.getPositionPoint().x - i >= 0) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x - i, piece.getPositionPoint().y + i);
-			if(legal) ++i;
-		}
-	}
-	
-	/**
-	 * Check if the specified piece is unable to move due to its king having unblocked threat lines, or if the piece can only move along the threat line it alone is blocking
-	 * for its king.
-	 * @param piece - the piece to check
-	 * @return NO_LEGAL_MOVES if the king has multiple threat lines blocked by the piece, or if one of the king's threat lines is unblocked; NO_THREAT_INDEX if the piece is
-	 * not blocking a threat line alone or if the king has no threat lines; the index of the threat line that the piece is blocking alone
-	 */
-	public int checkKing(ChessPiece piece) {
-		//Initialize variables
-		ChessPiece[] pieces = Chess.getChessBoard().getAllPieces();
-		King king = piece.getColor() ? Chess.getChessBoard().getWhiteKing() : Chess.getChessBoard().getBlackKing();
-		boolean intersects = false;
-		boolean blocking = false;
-		boolean blocked = false;
-		int i = 0;
-		int blockers = 0;
-		ArrayList<Integer> blocks = new ArrayList<Integer>(0);
-		
-		//If this pawn's king has multiple threat lines
-		if(king.getThreatCount() > 1) {
-			//Check if the threat lines are blocked by other pieces
-			do {
-				//Reset blocking, blocked and blockers
-				blocking = false;
-				blocked = false;
-				blockers = 0;
-				
-				//Check if a piece's position intersects with the current threat line
-				for(int j = 0; j < pieces.length; ++j) {
-					intersects = pieces[j].getPosition().intersects(king.getThreatLine(i).getLine());
-					blocked |= intersects;
-					
-					//If this threat line is intersected by another piece
-					if(intersects) {
-						//Increment number of blockers
-						blockers++;
-						
-						//If the only intersecting piece is this pawn then set blocking
-						blocking = pieces[j].getPosition().equals(piece.getPosition()) && (blockers == 1);
-					}
-				}
-				
-				//If this pawn is the only piece blocking this threat line
-				if(blocking)
-					//Add current threat line index to the list of blocks
-					blocks.add(i);
-				
-				//Increment i
-				++i;
-			} while(blocked && i < king.getThreatCount());
-			
-			//If a threat line is not blocked or if this pawn is the only piece blocking multiple threat lines, return no legal moves
-			if(!blocked || blocks.size() > 1)
-				return NO_LEGAL_MOVES;
-		}
-		
-		//If the piece is blocking a threat line, return the threat line's index, else return no threat line index
-		return (blocks.size() > 0) ? blocks.get(0) : NO_THREAT_LINE_INDEX;
+	public void addChessBoardListener(ChessBoardListener l) {
+		if(l != null) listener.add(l);
 	}
 	
 	/**
-	 * Checks both kings' legal moves to prevent overlapping legal moves, meaning moves that would cause a king to check a king.
+	 * Return a list of all the chess pieces.
+	 * @return a list of all the chess pieces
 	 */
-	public void checkKingVsKing() {
-		//Create a set that contains the same legal moves from the kings, if any
-		BitSet kingsMoves = (BitSet)whiteKing.getLegalMoves().clone();
-		kingsMoves.and(blackKing.getLegalMoves());
-		
-		//Remove any moves that overlap with the set of same legal moves
-		whiteKing.getLegalMoves().xor(kingsMoves);
-		blackKing.getLegalMoves().xor(kingsMoves);
-	}
+	public ChessPiece[] getAllPieces() { return pieces; }
 	
 	/**
-	 * This checks the straight paths (top, right, bottom, and left) from the position of the specified piece to locate legal moves based on the position of all other pieces.
-	 * @param piece - the piece to check
+	 * This causes the current game to end where it is at. If a player has not officially won, a draw is concluded.
 	 */
-	public void checkStraightPaths(ChessPiece piece) {
-		//Initialize variables
-		ChessPiece[] pieces = getAllPieces();
-		int i = 0;
-		boolean legal = true;
-		
-		//Check top path
-		i = 1;
-		legal = true;
+	public void endGame() {
+		//If a player didn't win or a stalemate didn't occur
+		if(gameState != GameState.PLAYER_WINS && gameState != GameState.NAN_WINS && gameState != GameState.PAUSED && gameState != GameState.NONE && gameState != GameState.DRAW) {
+			//Set game to a draw
+			gameState = GameState.DRAW;
 			
-		while(legal && piece.getPositionPoint().y - i >= 0) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x, piece.getPositionPoint().y - i);
-			if(legal) ++i;
-		}
-		
-		//Check right path
-		i = 1;
-		legal = true;
-		
-		while(legal && piece.getPositionPoint().x + i < ChessBoard.BOARD_COLS) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x + i, piece.getPositionPoint().y);
-			if(legal) ++i;
-		}
-		
-		//Check bottom path
-		i = 1;
-		legal = true;
-		
-		while(legal && piece.getPositionPoint().y + i < ChessBoard.BOARD_ROWS) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x, piece.getPositionPoint().y + i);
-			if(legal) ++i;
-		}
-		
-		//Check left path
-		i = 1;
-		legal = true;
-		
-		while(legal && piece.getPositionPoint().x - i >= 0) {
-			//Check next space
-			legal = piece.checkSpace(pieces, piece.getPositionPoint().x - i, piece.getPositionPoint().y);
-			if(legal) ++i;
+			//Inform listeners
+			for(int i = 0; i < listener.size(); ++i) listener.get(i).gameEnded(new ChessBoardEvent(this));
 		}
 	}
 	
@@ -426,6 +315,12 @@ public class ChessBoard {
 	 */
 	public GameState getGameState() { return gameState; }
 	
+	/**
+	 * Return the legal moves of the side whose turn it is.
+	 * @return the legal moves for the current turn
+	 */
+	public MoveList getLegalMoveList() { return moveList; }
+	
 	/**
 	 * Return the current move number.
 	 * @return the current move number
@@ -440,23 +335,41 @@ public class ChessBoard {
 	
 	/**
 	 * Returns the piece that is on the specified board square, or null if the board square is empty.
-	 * @param square - the board square to check
+	 * @param x - the x position of the board square (0 - 7)
+	 * @param y - the y position of the board square (0 - 7)
 	 * @return the piece of the specified board square, or null if the board square is empty
 	 */
-	public ChessPiece getPieceOnSquare(Point square) {
-		for(int i = 0; i < pieces.length; ++i) {
-			if(pieces[i].getPositionPoint().equals(square)) return pieces[i];
-		}
+	public ChessPiece getPieceOnSquare(int x, int y) {
+		if(x < 0 || x >= BOARD_COLS || y < 0 || y >= BOARD_ROWS)
+			return null;
 		
-		return null;
+		return squares[x + (y * BOARD_COLS)];
 	}
 	
+	/**
+	 * Returns the position used to apply the rules of the game. The position always has white starting on rows 6 - 7, see toPositionSpace.
+	 * @return the position
+	 */
+	public Position getPosition() { return position; }
+	
 	/**
 	 * Return the color of the player's pieces.
 	 * @return the color of the player's pieces
 	 */
 	public boolean getPlayerColor() { return player; }
 	
+	/**
+	 * Return the type of search the NAN plays the current game with.
+	 * @return the search type
+	 */
+	public SearchType getSearchType() { return searchType; }
+	
+	/**
+	 * Returns the FEN of the position the current game started from. The moves made since are kept by the position (see Position.getMove).
+	 * @return the starting FEN
+	 */
+	public String getStartFEN() { return startFEN; }
+	
 	/**
 	 * Return the color of the current turn.
 	 * @return the color of the current turn
@@ -526,10 +439,22 @@ public class ChessBoard {
 	}
 	
 	/**
-	 * Starts and runs a new game of chess.
+	 * Starts and runs a new game of chess. The NAN keeps the search type of the last game.
 	 * @param playerColor - the human player's piece color for this game.
 	 */
 	public void newGame(boolean playerColor) {
+		newGame(playerColor, searchType);
+	}
+	
+	/**
+	 * Starts and runs a new game of chess with the NAN using the specified type of search.
+	 * @param playerColor - the human player's piece color for this game.
+	 * @param type - the type of search the NAN plays the game with
+	 */
+	public void newGame(boolean playerColor, SearchType type) {
+		//Set the NAN's search type
+		searchType = type;
+		
 		//Set player colors
 		player = playerColor;
 		nan = !playerColor;
@@ -545,31 +470,86 @@ public class ChessBoard {
 	}
 	
 	/**
-	 * Processes the NAN's turn.
+	 * Processes the NAN's turn. If the NAN plays its own turns (see setNANPlayer) and the game is in play, the NAN's search of the game's search type searches a copy
+	 * of the position on the board's search thread, and its move is submitted through the NAN's move executor unless the game was paused or moved on in the meantime.
 	 */
 	public void NANTurn() {
+		//Only search the NAN's turns of a game in play
+		if(nanClock == null || gameState != GameState.PLAYING || turn != nan)
+			return;
+		
+		//Create the search when the game's search type changed
+		if(search == null || nanSearchType != searchType) {
+			search = searchType.createSearch(new Evaluator(), TranspositionTable.DEF_SIZE_MB);
+			nanSearchType = searchType;
+		}
+		
+		//Time the search by the NAN's clock, or by the fixed move time of an untimed game
+		SearchLimits limits = new SearchLimits();
+		
+		if(nanClock.getPreset() != null) {
+			limits.setWhiteTime(nanClock.getWhiteClock().getTime() * 1000L);
+			limits.setBlackTime(nanClock.getBlackClock().getTime() * 1000L);
+		}
+		else {
+			limits.setMoveTime(NAN_MOVE_TIME);
+		}
+		
+		//Create the search thread, which runs one search at a time
+		if(nanExecutor == null) {
+			nanExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "NAN Search");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		
+		//Search on the search thread, then submit the move through the move executor if the position has not changed
+		Search nanSearch = search;
+		Executor moveExecutor = nanMoveExecutor;
+		Position copy = new Position(position);
+		long key = position.getKey();
+		int ply = position.getPly();
 		
+		nanExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				int move = nanSearch.search(copy, limits);
+				Runnable submit = new Runnable() {
+					@Override
+					public void run() {
+						if(move != Move.NO_MOVE && gameState == GameState.PLAYING && turn == nan && position.getKey() == key && position.getPly() == ply)
+							submitMove(Move.encode(toPositionSpace(Move.getFrom(move)), toPositionSpace(Move.getTo(move)), Move.getPromotion(move)));
+					}
+				};
+				
+				if(moveExecutor != null)
+					moveExecutor.execute(submit);
+				else
+					submit.run();
+			}
+		});
 	}
 	
 	/**
 	 * Switches the players' turns and re-evaluates legal moves and game state.
 	 */
 	public void nextTurn() {
-		//Switch turns
-		turn = !turn;
+		//Switch turns and update the move number to match the position
+		turn = position.getTurn();
+		moveNum = position.getFullMoves();
 		
-		//If it's white's turn again, increment move number
-		if(turn == WHITE) moveNum++;
-		
-		//Find pieces current legal moves for this turn
-		for(int i = 0; i < pieces.length; ++i)
-			pieces[i].findLegalMoves(this);
+		//Find legal moves for this turn
+		updateMoveList();
 		
-		//Check for king vs king move possibility
-		checkKingVsKing();
+		//Check for check, checkmate and draws
+		updateGameState();
 		
-		//Repaint the chess board
-		Chess.repaint();
+		//Inform listeners
+		for(int i = 0; i < listener.size(); ++i) listener.get(i).turnChanged(new ChessBoardEvent(this));
 		
 		//If it's the NAN's turn
 		if(turn == nan)
@@ -577,11 +557,25 @@ public class ChessBoard {
 	}
 	
 	/**
-	 * Informs the chess board that a piece was moved and it's time to switch turns.
+	 * Handles a NAN action by decoding the move it carries (see decodeAction) and submitting it directly to the board, instead of broadcasting the action to every piece.
+	 * @param e - the NAN action event
+	 */
+	@Override
+	public void performAction(NANActionEvent e) {
+		//Initialize variables
+		int move = decodeAction(e.getAction().get());
+		
+		if(move != Move.NO_MOVE)
+			submitMove(move);
+	}
+	
+	/**
+	 * Informs listeners that a piece was moved and switches turns.
+	 * @param move - the encoded move that was made (in chess board spaces)
 	 */
-	public void pieceMoved() {
-		//Switch clocks and start next move
-		Chess.getChessClock().switchTurn();
+	private void pieceMoved(int move) {
+		//Inform listeners (switches clocks) and start next move
+		for(int i = 0; i < listener.size(); ++i) listener.get(i).pieceMoved(new ChessBoardEvent(this, move));
 		nextTurn();
 	}
 	
@@ -591,14 +585,12 @@ public class ChessBoard {
 	public void pauseGame() {
 		//If a game is in session
 		if(gameState == GameState.PLAYING) {
-			//Set game state to paused
+			//Set game state to paused and stop the NAN's search
 			gameState = GameState.PAUSED;
+			if(search != null) search.stop();
 			
-			//Pause clocks
-			Chess.getChessClock().pauseClocks();
-			
-			//Repaint the board
-			Chess.repaint();
+			//Inform listeners (pauses clocks)
+			for(int i = 0; i < listener.size(); ++i) listener.get(i).gamePaused(new ChessBoardEvent(this));
 		}
 	}
 	
@@ -606,6 +598,16 @@ public class ChessBoard {
 	 * Resets the chess board to the start of a new game, with the human player's pieces positioned at the bottom of the board.
 	 */
 	private void resetBoard() {
+		//Restore any promoted pawns and reset each piece
+		collectPieces();
+		
+		for(int i = 0; i < pieces.length; ++i)
+			pieces[i].reset();
+		
+		//Reset the position
+		position.reset();
+		startFEN = Position.START_FEN;
+		
 		//If player is white, put white pieces at the bottom and black at the top
 		if(player == WHITE) {
 			blackQueen.setPosition(3, 0);
@@ -659,11 +661,12 @@ public class ChessBoard {
 			//Set game state to playing
 			gameState = GameState.PLAYING;
 			
-			//Resume clocks
-			Chess.getChessClock().resumeClocks();
+			//Inform listeners (resumes clocks)
+			for(int i = 0; i < listener.size(); ++i) listener.get(i).gameResumed(new ChessBoardEvent(this));
 			
-			//Repaint the board
-			Chess.repaint();
+			//If it's the NAN's turn
+			if(turn == nan)
+				NANTurn();
 		}
 	}
 	
@@ -681,6 +684,18 @@ public class ChessBoard {
 	 */
 	public void setGameState(GameState state) { gameState = state; }
 	
+	/**
+	 * Sets the chess clock timing the NAN's searches, so the NAN searches and plays its own turns with the game's search type, and the executor its moves are made on.
+	 * The GUI passes an executor that makes them on the event-dispatching thread; a null executor makes them on the NAN's search thread. Boards whose moves are made by
+	 * their caller (self-play, matches and the UCI engine) leave the clock null, the default.
+	 * @param clock - the chess clock, or null if the NAN does not play its own turns
+	 * @param executor - the executor the NAN's moves are made on, or null to make them on the search thread
+	 */
+	public void setNANPlayer(ChessClock clock, Executor executor) {
+		nanClock = clock;
+		nanMoveExecutor = executor;
+	}
+	
 	/**
 	 * Sets the player's piece color and sets the NAN's piece color to the opposite.
 	 * @param color - the player's piece color
@@ -690,6 +705,71 @@ public class ChessBoard {
 		nan = !player;
 	}
 	
+	/**
+	 * Sets up the chess board from the specified Forsyth-Edwards Notation (FEN) string, keeping the current player colors. The position, side to move, castling rights, en
+	 * passant space and move counters are all taken from the FEN, and the pieces are placed directly on their spaces, so positions with captured or promoted pieces can be set
+	 * up. Like newGame, the game is left paused until it is resumed.
+	 * @param fen - the FEN string (see Position.setFEN)
+	 * @throws IllegalArgumentException if the FEN is not a valid position, in which case the chess board is not changed
+	 */
+	public void setPosition(String fen) {
+		//Check the FEN on a scratch position first, so an invalid FEN leaves the position and its move history unchanged
+		new Position().setFEN(fen);
+		
+		//Set up the position
+		position.setFEN(fen);
+		
+		//Place the pieces on the position's spaces
+		placePieces();
+		startFEN = position.toFEN();
+		
+		//Set game state to PAUSED
+		gameState = GameState.PAUSED;
+		
+		//Setup the side to move
+		nextTurn();
+	}
+	
+	/**
+	 * Submits the specified encoded move (see Move) for the side whose turn it is. The move is resolved to the matching move of the legal move list and, if legal, applied
+	 * to the piece on the move's origin board space. A pawn move to the last row with no promotion value promotes to a queen.
+	 * @param move - the encoded move to make
+	 * @return true if the move was legal and made, false otherwise
+	 */
+	public boolean submitMove(int move) {
+		//Find the legal move (with its promotion piece), rejecting the move if it is not legal for the side to move
+		int legal = moveList.find(move);
+		
+		if(legal == Move.NO_MOVE)
+			return false;
+		
+		//Convert the move to position spaces
+		int positionMove = Move.encode(toPositionSpace(Move.getFrom(legal)), toPositionSpace(Move.getTo(legal)), Move.getPromotion(legal));
+		
+		//Move the chess pieces, then apply the move to the position
+		movePieces(positionMove);
+		position.makeMove(positionMove);
+		
+		//Switch turns
+		pieceMoved(legal);
+		
+		return true;
+	}
+	
+	/**
+	 * Converts a chess board space to a position space, or a position space to a chess board space. The spaces are the same when the player is white, and are mirrored
+	 * vertically when the player is black (white starts at the top of the chess board).
+	 * @param space - the board space (0 - 63)
+	 * @return the converted board space
+	 */
+	public int toPositionSpace(int space) { return (player == WHITE) ? space : space ^ 56; }
+	
+	/**
+	 * Returns the current position in Forsyth-Edwards Notation (FEN).
+	 * @return the FEN string
+	 */
+	public String toFEN() { return position.toFEN(); }
+	
 	/**
 	 * Set the current state of the white king.
 	 * @param state - the white king's state
@@ -697,4 +777,248 @@ public class ChessBoard {
 	public void setWhiteKingState(KingState state) {
 		if(state != null) whiteKingState = state;
 	}
+	
+	/**
+	 * Fills the list of all pieces from the black and white piece lists. This also removes any pieces created by promoting pawns.
+	 */
+	private void collectPieces() {
+		for(int i = 0; i < 8; ++i) {
+			pieces[i] = blackPawn[i];
+			pieces[i + 8] = whitePawn[i];
+			
+			if(i < 2) {
+				pieces[i + 16] = blackRook[i];
+				pieces[i + 18] = blackKnight[i];
+				pieces[i + 20] = blackBishop[i];
+				pieces[i + 22] = whiteRook[i];
+				pieces[i + 24] = whiteKnight[i];
+				pieces[i + 26] = whiteBishop[i];
+			}
+		}
+		
+		pieces[28] = blackQueen;
+		pieces[29] = blackKing;
+		pieces[30] = whiteQueen;
+		pieces[31] = whiteKing;
+	}
+	
+	/**
+	 * Creates the piece a pawn is promoted to.
+	 * @param promotion - the promotion value of the move
+	 * @param color - the pawn's color
+	 * @param x - the x position of the board (0 - 7)
+	 * @param y - the y position of the board (0 - 7)
+	 * @return the promoted piece
+	 */
+	private static ChessPiece createPromotedPiece(int promotion, boolean color, int x, int y) {
+		switch(promotion) {
+		case Move.PROMOTE_KNIGHT:
+			return new Knight(color, x, y, 1);
+		case Move.PROMOTE_BISHOP:
+			return new Bishop(color, x, y, 1);
+		case Move.PROMOTE_ROOK:
+			return new Rook(color, x, y, 1);
+		default:
+			return new Queen(color, x, y);
+		}
+	}
+	
+	/**
+	 * Decodes a NAN action into an encoded move (see Move). NAN actions keep the NAN's own layout: the destination space is in bits 0 - 7 as (x * BOARD_ROWS) + y, the
+	 * number of the moving piece within its color is in bits 8 - 11 (pawns 1 - 8, rooks 9 - 10, knights 11 - 12, bishops 13 - 14 and the queen 15) and bit 12 is set for a
+	 * black piece. The kings have no number: bit 12 alone is the white king and bit 13 the black king. A promoted pawn keeps its pawn's number.
+	 * @param action - the NAN action
+	 * @return the encoded move (in chess board spaces), or NO_MOVE if the action does not move a piece that is on the board
+	 */
+	private int decodeAction(int action) {
+		//Initialize variables
+		int number = (action & ACTION_NUMBER) >>> 8;
+		int target = action & ACTION_SPACE;
+		boolean black = (number == 0) ? (action & ACTION_BLACK_KING) != 0 : (action & ACTION_BLACK) != 0;
+		
+		//An action with no piece number must name a king
+		if(number == 0 && (action & (ACTION_BLACK | ACTION_BLACK_KING)) == 0)
+			return Move.NO_MOVE;
+		
+		//Find the space of the moving piece
+		int index = getPieceIndex(ACTION_PIECES[number] | (black ? Position.BLACK_PIECE : 0), ACTION_NUMBERS[number]);
+		int from = pieces[index].getSpace();
+		
+		if(from < 0 || target >= BOARD_SPACES)
+			return Move.NO_MOVE;
+		
+		return Move.encode(from, (target / BOARD_ROWS) + ((target % BOARD_COLS) * BOARD_COLS));
+	}
+	
+	/**
+	 * Returns the index in the list of all pieces of a starting piece (see collectPieces).
+	 * @param piece - the position's piece value
+	 * @param n - the number of the piece of this type and color (0 for the first)
+	 * @return the index of the starting piece, or -1 if there are only n starting pieces of this type and color
+	 */
+	private static int getPieceIndex(int piece, int n) {
+		//Initialize variables
+		boolean color = (piece & Position.BLACK_PIECE) == 0;
+		
+		switch(piece & Position.PIECE_TYPE_MASK) {
+		case Position.PAWN:
+			return (n < 8) ? n + (color ? 8 : 0) : -1;
+		case Position.ROOK:
+			return (n < 2) ? n + (color ? 22 : 16) : -1;
+		case Position.KNIGHT:
+			return (n < 2) ? n + (color ? 24 : 18) : -1;
+		case Position.BISHOP:
+			return (n < 2) ? n + (color ? 26 : 20) : -1;
+		case Position.QUEEN:
+			return (n < 1) ? (color ? 30 : 28) : -1;
+		default:
+			return (n < 1) ? (color ? 31 : 29) : -1;
+		}
+	}
+	
+	/**
+	 * Moves the chess pieces for the specified move before it is made on the position. This moves the castling rook, removes captured pieces (including en passant) and
+	 * replaces promoted pawns.
+	 * @param move - the encoded move (in position spaces)
+	 */
+	private void movePieces(int move) {
+		//Initialize variables
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int type = position.getPiece(from) & Position.PIECE_TYPE_MASK;
+		int target = toPositionSpace(to);
+		ChessPiece piece = squares[toPositionSpace(from)];
+		
+		//Remove the captured piece (the pawn behind the target space for en passant)
+		int captureSpace = (type == Position.PAWN && to == position.getEnPassant()) ? to + (turn ? BOARD_COLS : -BOARD_COLS) : to;
+		ChessPiece captured = squares[toPositionSpace(captureSpace)];
+		
+		if(captured != null)
+			captured.capture();
+		
+		//Move the piece
+		piece.applyMove(target % BOARD_COLS, target / BOARD_COLS);
+		
+		//Move the rook when castling
+		if(type == Position.KING && Math.abs(to - from) == 2) {
+			int rookFrom = toPositionSpace((to > from) ? from + 3 : from - 4);
+			int rookTo = toPositionSpace((to > from) ? from + 1 : from - 1);
+			squares[rookFrom].applyMove(rookTo % BOARD_COLS, rookTo / BOARD_COLS);
+		}
+		
+		//Replace a pawn that reached the last row with its promoted piece
+		if(type == Position.PAWN && (to < BOARD_COLS || to >= BOARD_SPACES - BOARD_COLS)) {
+			piece.capture();
+			
+			for(int i = 0; i < pieces.length; ++i) {
+				if(pieces[i] == piece)
+					pieces[i] = createPromotedPiece(Move.getPromotion(move), piece.getColor(), target % BOARD_COLS, target / BOARD_COLS);
+			}
+		}
+	}
+	
+	/**
+	 * Places the chess pieces on the spaces of the current position. Each piece on the position takes the next unused starting piece of the same type and color, and any
+	 * extra piece (from a promotion) replaces an unused starting piece of the same color, so each color never has more than 16 pieces. This takes two passes over the board.
+	 */
+	private void placePieces() {
+		//Initialize variables
+		int used[] = new int[Position.PIECE_VALUES];
+		int extra[] = new int[BOARD_SPACES];
+		int extras = 0;
+		
+		//Restore any promoted pawns and take every piece off the board
+		collectPieces();
+		
+		for(int i = 0; i < pieces.length; ++i) {
+			pieces[i].reset();
+			pieces[i].capture();
+		}
+		
+		//Place starting pieces on the spaces with matching pieces
+		for(int i = 0; i < BOARD_SPACES; ++i) {
+			int piece = position.getPiece(i);
+			
+			if(piece == Position.EMPTY)
+				continue;
+			
+			int index = getPieceIndex(piece, used[piece]++);
+			int space = toPositionSpace(i);
+			
+			if(index >= 0) pieces[index].setPosition(space % BOARD_COLS, space / BOARD_COLS);
+			else extra[extras++] = i;
+		}
+		
+		//Replace unused starting pieces with the extra pieces
+		for(int i = 0, j = 0; i < extras; ++i) {
+			int piece = position.getPiece(extra[i]);
+			boolean color = (piece & Position.BLACK_PIECE) == 0;
+			int space = toPositionSpace(extra[i]);
+			
+			while(pieces[j].getSpace() >= 0 || pieces[j].getColor() != color) j = (j + 1) % pieces.length;
+			
+			pieces[j] = createPromotedPiece((piece & Position.PIECE_TYPE_MASK) - 1, color, space % BOARD_COLS, space / BOARD_COLS);
+		}
+	}
+	
+	/**
+	 * Updates the king states and the game state after the legal moves of the side to move have been found. A king with no legal moves is checkmated or stalemated, and the
+	 * game is a draw after the fifty move rule, a third repetition or when neither side can checkmate.
+	 */
+	private void updateGameState() {
+		//Find the state of the king of the side to move
+		KingState state = KingState.SAFE;
+		
+		if(position.isInCheck())
+			state = moveList.isEmpty() ? KingState.CHECKMATED : KingState.CHECKED;
+		else if(moveList.isEmpty())
+			state = KingState.STALEMATED;
+		
+		whiteKingState = (turn == WHITE) ? state : KingState.SAFE;
+		blackKingState = (turn == BLACK) ? state : KingState.SAFE;
+		
+		//If no game is in session, do not change the game state
+		if(gameState == GameState.NONE)
+			return;
+		
+		//Set the result of a finished game
+		if(state == KingState.CHECKMATED)
+			gameState = (turn == player) ? GameState.NAN_WINS : GameState.PLAYER_WINS;
+		else if(state == KingState.STALEMATED || position.getHalfMoves() >= 100 || position.countRepetitions() >= 2 || position.isInsufficientMaterial())
+			gameState = GameState.DRAW;
+		else
+			return;
+		
+		//Inform listeners
+		for(int i = 0; i < listener.size(); ++i) listener.get(i).gameEnded(new ChessBoardEvent(this));
+	}
+	
+	/**
+	 * Rebuilds the board space lookup, the legal move list and each piece's legal moves for the side whose turn it is.
+	 */
+	private void updateMoveList() {
+		//Reset board spaces and legal moves
+		Arrays.fill(squares, null);
+		moveList.clear();
+		
+		for(int i = 0; i < pieces.length; ++i) {
+			pieces[i].getLegalMoves().clear();
+			
+			//Skip pieces that have been captured
+			int space = pieces[i].getPosition().nextSetBit(0);
+			if(space >= 0) squares[space] = pieces[i];
+		}
+		
+		//Convert the position's legal moves to chess board spaces
+		position.generateLegalMoves(positionMoves);
+		
+		for(int i = 0; i < positionMoves.size(); ++i) {
+			int move = positionMoves.get(i);
+			int from = toPositionSpace(Move.getFrom(move));
+			int to = toPositionSpace(Move.getTo(move));
+			
+			moveList.add(Move.encode(from, to, Move.getPromotion(move)));
+			squares[from].getLegalMoves().set(to);
+		}
+	}
 }
@@ -0,0 +1,53 @@
+package com.chess.event;
+
+import java.util.EventObject;
+
+import com.chess.ChessBoard;
+import com.chess.Move;
+
+/**
+ * ChessBoardEvent is sent to ChessBoardListeners to inform them of a change to a chess board.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class ChessBoardEvent extends EventObject {
+
+	/** ChessBoardEvent serial version ID value. */
+	private static final long serialVersionUID = 2853716004193472250L;
+
+	/** The move that caused this event. */
+	private int move;
+
+	/**
+	 * Constructor for ChessBoardEvent that creates a chess board event with no move.
+	 * @param source - the chess board creating this event
+	 */
+	public ChessBoardEvent(ChessBoard source) {
+		this(source, Move.NO_MOVE);
+	}
+
+	/**
+	 * Constructor for ChessBoardEvent that creates a chess board event for the specified move.
+	 * @param source - the chess board creating this event
+	 * @param move - the encoded move that caused this event
+	 */
+	public ChessBoardEvent(ChessBoard source, int move) {
+		//Call parent constructor
+		super(source);
+
+		//Initialize variables
+		this.move = move;
+	}
+
+	/**
+	 * Returns the chess board attached to this event.
+	 * @return the chess board
+	 */
+	public ChessBoard getChessBoard() { return (ChessBoard)source; }
+
+	/**
+	 * Returns the encoded move that caused this event (in chess board spaces), or Move.NO_MOVE.
+	 * @return the encoded move
+	 */
+	public int getMove() { return move; }
+}
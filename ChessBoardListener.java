@@ -0,0 +1,41 @@
+package com.chess.event;
+
+import java.util.EventListener;
+
+/**
+ * ChessBoardListener is an interface implemented by objects to receive chess board events.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public interface ChessBoardListener extends EventListener {
+
+	/**
+	 * Informs listening objects that the game ended. The result is the chess board's game state.
+	 * @param e - the chess board event triggering this call
+	 */
+	public void gameEnded(ChessBoardEvent e);
+
+	/**
+	 * Informs listening objects that the game was paused.
+	 * @param e - the chess board event triggering this call
+	 */
+	public void gamePaused(ChessBoardEvent e);
+
+	/**
+	 * Informs listening objects that the game was resumed.
+	 * @param e - the chess board event triggering this call
+	 */
+	public void gameResumed(ChessBoardEvent e);
+
+	/**
+	 * Informs listening objects that a piece was moved. This is called before the turn changes.
+	 * @param e - the chess board event triggering this call
+	 */
+	public void pieceMoved(ChessBoardEvent e);
+
+	/**
+	 * Informs listening objects that the turn changed and legal moves were re-evaluated.
+	 * @param e - the chess board event triggering this call
+	 */
+	public void turnChanged(ChessBoardEvent e);
+}
@@ -12,7 +12,7 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
+import java.util.BitSet;
 
 import javax.swing.JPanel;
 import javax.swing.event.MouseInputListener;
@@ -22,6 +22,7 @@ import com.chess.Chess.BoardOption;
 import com.chess.ChessBoard;
 import com.chess.ChessBoard.GameState;
 import com.chess.gui.frame.ChessFrame;
+import com.chess.gui.painter.PieceRenderer;
 import com.chess.pieces.ChessPiece;
 
 /**
@@ -236,9 +237,13 @@ public class ChessBoardPanel extends JPanel implements MouseInputListener {
 		
 		//Draw all chess pieces
 		for(int i = 0; i < piece.length; ++i) {
-			g2.drawImage(piece[i].getImage(), 
-					piece[i].getPositionPoint().x * squareSize + boardOffset, piece[i].getPositionPoint().y * squareSize + boardOffset, 
-					piece[i].getPositionPoint().x * squareSize + squareSize + boardOffset, piece[i].getPositionPoint().y * squareSize + squareSize + boardOffset, 
+			//Skip pieces that are not on the board
+			if(piece[i].getSpace() == -1)
+				continue;
+			
+			g2.drawImage(PieceRenderer.getImage(piece[i]), 
+					piece[i].getX() * squareSize + boardOffset, piece[i].getY() * squareSize + boardOffset, 
+					piece[i].getX() * squareSize + squareSize + boardOffset, piece[i].getY() * squareSize + squareSize + boardOffset, 
 					0, 0, imgWidth, imgHeight, null);
 		}
 		
@@ -307,14 +312,14 @@ public class ChessBoardPanel extends JPanel implements MouseInputListener {
 				//Draw selection highlight around the square the piece is on
 				g2.setColor(SELECTION_COLOR);
 				g2.setStroke(new BasicStroke((int)(squareSize * 0.1)));
-				g2.drawRect(boardOffset + (selected.getPositionPoint().x * squareSize), boardOffset + (selected.getPositionPoint().y * squareSize), squareSize, squareSize);
+				g2.drawRect(boardOffset + (selected.getX() * squareSize), boardOffset + (selected.getY() * squareSize), squareSize, squareSize);
 				
 				//Highlight selected piece's legal moves
-				ArrayList<Point> legalMoves = selected.getLegalMovesPoints();
+				BitSet legalMoves = selected.getLegalMoves();
 				g2.setColor(LEGAL_MOVE_COLOR);
 				
-				for(int i = 0; i < legalMoves.size(); ++i) {
-					g2.fillRect(boardOffset + (legalMoves.get(i).x * squareSize), boardOffset + (legalMoves.get(i).y * squareSize), squareSize, squareSize);
+				for(int i = legalMoves.nextSetBit(0); i != -1; i = legalMoves.nextSetBit(i + 1)) {
+					g2.fillRect(boardOffset + ((i % ChessBoard.BOARD_COLS) * squareSize), boardOffset + ((i / ChessBoard.BOARD_COLS) * squareSize), squareSize, squareSize);
 				}
 			}
 		}
@@ -340,7 +345,7 @@ public class ChessBoardPanel extends JPanel implements MouseInputListener {
 						//If no piece is selected
 						if(selected == null) {
 							//If a player's piece is clicked on, set selected to that piece
-							selected = Chess.getChessBoard().getPieceOnSquare(new Point(i % ChessBoard.BOARD_COLS, i / ChessBoard.BOARD_ROWS));
+							selected = Chess.getChessBoard().getPieceOnSquare(i % ChessBoard.BOARD_COLS, i / ChessBoard.BOARD_COLS);
 							
 							if(selected != null && selected.getColor() != Chess.getChessBoard().getPlayerColor())
 								selected = null;
@@ -348,15 +353,16 @@ public class ChessBoardPanel extends JPanel implements MouseInputListener {
 						//If a piece is selected
 						else {
 							//If the board square is a legal move for the selected piece
-							ArrayList<Point> legal = selected.getLegalMovesPoints();
+							BitSet legal = selected.getLegalMoves();
 							Rectangle legalSquare = new Rectangle();
 							
-							for(int j = 0; j < legal.size(); ++j) {
-								legalSquare.setBounds(boardOffset + (squareSize * legal.get(j).x), boardOffset + (squareSize * legal.get(j).y), squareSize, squareSize);
+							for(int j = legal.nextSetBit(0); j != -1 && selected != null; j = legal.nextSetBit(j + 1)) {
+								legalSquare.setBounds(boardOffset + (squareSize * (j % ChessBoard.BOARD_COLS)), boardOffset + (squareSize * (j / ChessBoard.BOARD_COLS)), 
+										squareSize, squareSize);
 								
 								if(boardSquare[i].contains(legalSquare)) {
 									//Move the piece to that square
-									selected.move(i % ChessBoard.BOARD_COLS, i / ChessBoard.BOARD_ROWS);
+									selected.move(Chess.getChessBoard(), i % ChessBoard.BOARD_COLS, i / ChessBoard.BOARD_COLS);
 									selected = null;
 								}
 							}
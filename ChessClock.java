@@ -1,17 +1,20 @@
 package com.chess;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import com.chess.event.StopwatchListener;
 
 /**
  * ChessClock handles the black and white game clock timers. Chess clock stages are added to the chess clock to tell the clock how much time to give each player, how long of a
  * delay to have before starting each timer each turn, and/or how much of a time increment is earned after each player's turn. The stages are started and stopped based on the
- * current move number in the game. Several clock presets are available from the Handbook, Section C.02.7.3.22.
+ * current move number in the game. Several clock presets are available from the Handbook, Section C.02.7.3.22. Clock timers run on a shared daemon timer thread.
  * @author Monroe Gordon
  * @since 6/6/2022
  */
-public class ChessClock implements ActionListener {
+public class ChessClock {
 	
 	/** Preset chess clocks enum. */
 	public enum ClockPreset {
@@ -53,39 +56,56 @@ public class ChessClock implements ActionListener {
 		CLK_G1
 	}
 
+	/** Shared timer used by all chess clocks' stopwatches and delay timers. */
+	private static ScheduledExecutorService timer;
+
+	/** Chess board whose turns this clock times. */
+	private ChessBoard board;
 	/** Chess clock stages. */
 	private ArrayList<ChessClockStage> stage;
 	/** Current clock stage index. */
 	private int currStage;
+	/** Clock preset in use, or null if no chess clock is being used. */
+	private ClockPreset preset;
+	/** Stopwatch listeners added to every stage's clocks. */
+	private ArrayList<StopwatchListener> listener;
 	
 	/**
-	 * Default constructor for the ChessClock that initializes and empty list of clock stages, meaning no chess clock is being used.
+	 * Constructor for the ChessClock that initializes an empty list of clock stages for the specified chess board, meaning no chess clock is being used.
+	 * @param board - the chess board whose turns this clock times
 	 */
-	public ChessClock() {
+	public ChessClock(ChessBoard board) {
 		//Initialize variables
+		this.board = board;
 		stage = new ArrayList<ChessClockStage>(0);
 		currStage = 0;
+		preset = null;
+		listener = new ArrayList<StopwatchListener>(0);
 	}
 	
-	public ChessClock(ClockPreset clock) {
+	/**
+	 * Constructor for the ChessClock that initializes the clock stages of the specified clock preset for the specified chess board.
+	 * @param board - the chess board whose turns this clock times
+	 * @param clock - the clock preset to use
+	 */
+	public ChessClock(ChessBoard board, ClockPreset clock) {
 		//Initialize variables based on clock
-		stage = new ArrayList<ChessClockStage>(0);
-		currStage = 0;
+		this(board);
 		setClock(clock);
 	}
 	
-	//Respond to delay timer expiration
-	@Override
-	public void actionPerformed(ActionEvent e) {
-		//If black's turn
-		if(Chess.getChessBoard().getTurn() == ChessBoard.BLACK) {
-			//Start black's clock
-			stage.get(currStage).startBlackClock();
-		}
-		//If white's turn
-		else {
-			//Start white's clock
-			stage.get(currStage).startBlackClock();
+	/**
+	 * Adds a stopwatch listener to the black and white clocks of every clock stage, including stages added by later calls to setClock.
+	 * @param l - the stopwatch listener to add
+	 */
+	public void addStopwatchListener(StopwatchListener l) {
+		if(l != null) {
+			listener.add(l);
+			
+			for(int i = 0; i < stage.size(); ++i) {
+				stage.get(i).getBlackClock().addStopwatchListener(l);
+				stage.get(i).getWhiteClock().addStopwatchListener(l);
+			}
 		}
 	}
 	
@@ -159,6 +179,22 @@ public class ChessClock implements ActionListener {
 		return preset;
 	}
 	
+	/**
+	 * Starts the clock of the player whose turn it is. The current clock stage calls this when its delay timer expires.
+	 */
+	public void delayExpired() {
+		//If black's turn
+		if(board.getTurn() == ChessBoard.BLACK) {
+			//Start black's clock
+			stage.get(currStage).startBlackClock();
+		}
+		//If white's turn
+		else {
+			//Start white's clock
+			stage.get(currStage).startWhiteClock();
+		}
+	}
+	
 	/**
 	 * Returns the black clock currently in use.
 	 * @return the black clock
@@ -179,6 +215,37 @@ public class ChessClock implements ActionListener {
 		return preset[index]; 
 	}
 	
+	/**
+	 * Returns the clock preset in use.
+	 * @return the clock preset, or null if no chess clock is being used
+	 */
+	public ClockPreset getPreset() { return preset; }
+	
+	/**
+	 * Returns the index of the current clock stage.
+	 * @return the current clock stage index
+	 */
+	public int getStageIndex() { return currStage; }
+	
+	/**
+	 * Returns the shared timer used to run stopwatches and delay timers. The timer thread is created the first time a clock is started.
+	 * @return the shared timer
+	 */
+	static synchronized ScheduledExecutorService getTimer() {
+		if(timer == null) {
+			timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Chess Clock");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		
+		return timer;
+	}
+	
 	/**
 	 * Returns the white clock currently in use.
 	 * @return the white clock
@@ -198,103 +265,141 @@ public class ChessClock implements ActionListener {
 	 */
 	public void resumeClocks() {
 		//If it's white's turn, start white's clock
-		if(Chess.getChessBoard().getTurn() == ChessBoard.WHITE)
+		if(board.getTurn() == ChessBoard.WHITE)
 			stage.get(currStage).startWhiteClock();
 		//If it's black's turn, start black's clock
 		else
 			stage.get(currStage).startBlackClock();
 	}
 	
+	/**
+	 * Restores a saved clock state: the current clock stage and the time remaining on both clocks. Both clocks are left paused and any running delay timer is cancelled, so
+	 * the clocks resume with the game.
+	 * @param stageIndex - the clock stage index
+	 * @param whiteTime - the time remaining on the white clock (in seconds)
+	 * @param blackTime - the time remaining on the black clock (in seconds)
+	 */
+	public void restore(int stageIndex, int whiteTime, int blackTime) {
+		//Check parameters
+		if(stageIndex < 0 || stageIndex >= stage.size())
+			throw new IndexOutOfBoundsException("Clock stage index out of bounds");
+		
+		//Stop every stage's clocks and delay timer
+		for(int i = 0; i < stage.size(); ++i) {
+			stage.get(i).cancelDelayTimer();
+			stage.get(i).pauseBlackClock();
+			stage.get(i).pauseWhiteClock();
+		}
+		
+		//Set the current stage's remaining times
+		currStage = stageIndex;
+		stage.get(currStage).getWhiteClock().setTimeLength(whiteTime);
+		stage.get(currStage).getBlackClock().setTimeLength(blackTime);
+	}
+	
 	/**
 	 * Sets the clock preset the chess clock will use
 	 * @param clock - the clock preset to use
 	 */
 	public void setClock(ClockPreset clock) {
+		//Remove the stages of the previous clock
+		stage.clear();
+		currStage = 0;
+		preset = clock;
+		
 		switch(clock) {
 		//40 moves in 100 minutes, 20 moves in 50 minutes, 15 minutes and 30 seconds per move from move 1
 		case CLK_40_100_20_50_15_30_1:
-			stage.add(new ChessClockStage(0, 40, 6000, 0, 30, true));
-			stage.add(new ChessClockStage(41, 60, 3000, 0, 30, true));
-			stage.add(new ChessClockStage(61, ChessClockStage.END_OF_GAME, 900, 0, 30, true));
+			stage.add(new ChessClockStage(this, 0, 40, 6000, 0, 30, true));
+			stage.add(new ChessClockStage(this, 41, 60, 3000, 0, 30, true));
+			stage.add(new ChessClockStage(this, 61, ChessClockStage.END_OF_GAME, 900, 0, 30, true));
 			break;
 		//40 moves in 90 minutes, 30 minutes and 30 seconds per move from move 1
 		case CLK_40_90_30_30_1:
-			stage.add(new ChessClockStage(0, 40, 5400, 0, 30, true));
-			stage.add(new ChessClockStage(41, ChessClockStage.END_OF_GAME, 1800, 0, 30, true));
+			stage.add(new ChessClockStage(this, 0, 40, 5400, 0, 30, true));
+			stage.add(new ChessClockStage(this, 41, ChessClockStage.END_OF_GAME, 1800, 0, 30, true));
 			break;
 		//Game in 90 minutes and 30 seconds per move from move 1
 		case CLK_G90_30_1:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 5400, 0, 30, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 5400, 0, 30, true));
 			break;
 		//40 moves in 120 minutes, 20 moves in 60 minutes, 15 minutes and 30 seconds per move from move 61
 		case CLK_40_120_20_60_15_30:
-			stage.add(new ChessClockStage(0, 40, 6000, 0, 0, false));
-			stage.add(new ChessClockStage(41, 60, 3600, 0, 0, false));
-			stage.add(new ChessClockStage(61, ChessClockStage.END_OF_GAME, 900, 0, 30, false));
+			stage.add(new ChessClockStage(this, 0, 40, 6000, 0, 0, false));
+			stage.add(new ChessClockStage(this, 41, 60, 3600, 0, 0, false));
+			stage.add(new ChessClockStage(this, 61, ChessClockStage.END_OF_GAME, 900, 0, 30, false));
 			break;
 		//40 moves in 120 minutes, 20 moves in 60 minutes, 30 minutes
 		case CLK_40_120_20_60_30:
-			stage.add(new ChessClockStage(0, 40, 7200, 0, 0, false));
-			stage.add(new ChessClockStage(41, 60, 3600, 0, 0, false));
-			stage.add(new ChessClockStage(61, ChessClockStage.END_OF_GAME, 1800, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, 40, 7200, 0, 0, false));
+			stage.add(new ChessClockStage(this, 41, 60, 3600, 0, 0, false));
+			stage.add(new ChessClockStage(this, 61, ChessClockStage.END_OF_GAME, 1800, 0, 0, false));
 			break;
 		//40 moves in 120 minutes, 30 minutes
 		case CLK_40_120_30:
-			stage.add(new ChessClockStage(0, 40, 7200, 0, 0, false));
-			stage.add(new ChessClockStage(41, ChessClockStage.END_OF_GAME, 1800, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, 40, 7200, 0, 0, false));
+			stage.add(new ChessClockStage(this, 41, ChessClockStage.END_OF_GAME, 1800, 0, 0, false));
 			break;
 		//40 moves in 120 minutes, 60 minutes
 		case CLK_G60:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 3600, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 3600, 0, 0, false));
 			break;
 		//40 moves in 120 minutes, 60 minutes
 		case CLK_40_120_60:
-			stage.add(new ChessClockStage(0, 40, 7200, 0, 0, false));
-			stage.add(new ChessClockStage(41, ChessClockStage.END_OF_GAME, 3600, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, 40, 7200, 0, 0, false));
+			stage.add(new ChessClockStage(this, 41, ChessClockStage.END_OF_GAME, 3600, 0, 0, false));
 			break;
 		//Game in 15 minutes and 10 seconds per move from move 1
 		case CLK_G15_10:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 900, 0, 10, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 900, 0, 10, true));
 			break;
 		//Game in 25 minutes and 10 seconds per move from move 1
 		case CLK_G15_5:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 900, 0, 5, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 900, 0, 5, true));
 			break;
 		//Game in 25 minutes and 10 seconds per move from move 1
 		case CLK_G25_10:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 1500, 0, 10, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 1500, 0, 10, true));
 			break;
 		//Game in 25 minutes
 		case CLK_G25:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 1500, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 1500, 0, 0, false));
 			break;
 		//Game in 5 minutes
 		case CLK_G5:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 300, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 300, 0, 0, false));
 			break;
 		//Game in 5 minutes and 3 seconds per move from move 1
 		case CLK_G5_3:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 300, 0, 3, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 300, 0, 3, true));
 			break;
 		//Game in 5 minutes and 2 seconds per move from move 1
 		case CLK_G5_2:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 300, 0, 2, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 300, 0, 2, true));
 			break;
 		//Game in 3 minutes and 2 seconds per move from move 1
 		case CLK_G3_2:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 180, 0, 2, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 180, 0, 2, true));
 			break;
 		//Game in 2 minutes and 1 second per move from move 1
 		case CLK_G2_1:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 120, 0, 1, true));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 120, 0, 1, true));
 			break;
 		//Game in 1 minute
 		case CLK_G1:
-			stage.add(new ChessClockStage(0, ChessClockStage.END_OF_GAME, 60, 0, 0, false));
+			stage.add(new ChessClockStage(this, 0, ChessClockStage.END_OF_GAME, 60, 0, 0, false));
 			break;
 		//No clock
 		default:
 		}
+		
+		//Add stopwatch listeners to the new stages' clocks
+		for(int i = 0; i < stage.size(); ++i) {
+			for(int j = 0; j < listener.size(); ++j) {
+				stage.get(i).getBlackClock().addStopwatchListener(listener.get(j));
+				stage.get(i).getWhiteClock().addStopwatchListener(listener.get(j));
+			}
+		}
 	}
 	
 	/**
@@ -303,12 +408,12 @@ public class ChessClock implements ActionListener {
 	 */
 	public void switchTurn() {
 		//If it's white's turn
-		if(Chess.getChessBoard().getTurn() == ChessBoard.WHITE) {
+		if(board.getTurn() == ChessBoard.WHITE) {
 			//Pause black's clock
 			stage.get(currStage).pauseBlackClock();
 			
 			//If move number is the end of the current stage
-			if(Chess.getChessBoard().getMoveNumber() > stage.get(currStage).getEndingMove()) {
+			if(board.getMoveNumber() > stage.get(currStage).getEndingMove()) {
 				//Move to next stage, if there is one
 				if(currStage + 1 < stage.size()) {
 					currStage++;
@@ -318,7 +423,7 @@ public class ChessClock implements ActionListener {
 					stage.get(currStage).addWhiteTimeLength(stage.get(currStage - 1).getWhiteTime());
 					
 					//If black moved last turn, add time increment to black's clock
-					if(Chess.getChessBoard().getMoveNumber() > 0 || stage.get(currStage).incrementFirstMove())
+					if(board.getMoveNumber() > 0 || stage.get(currStage).incrementFirstMove())
 						stage.get(currStage).addBlackTimeLength(stage.get(currStage).getIncrement());
 					
 					//Start the delay timer
@@ -326,7 +431,7 @@ public class ChessClock implements ActionListener {
 				}
 				//If there is not a next stage then end the game
 				else {
-					Chess.endGame();
+					board.endGame();
 				}
 			}
 			//If move number is not at the end of the current stage
@@ -341,7 +446,7 @@ public class ChessClock implements ActionListener {
 			stage.get(currStage).pauseWhiteClock();
 			
 			//If white moved last turn, add time increment to white's clock
-			if(Chess.getChessBoard().getMoveNumber() > 0 || stage.get(currStage).incrementFirstMove())
+			if(board.getMoveNumber() > 0 || stage.get(currStage).incrementFirstMove())
 				stage.get(currStage).addWhiteTimeLength(stage.get(currStage).getIncrement());
 			
 			//Start the delay timer
@@ -1,6 +1,7 @@
 package com.chess;
 
-import javax.swing.Timer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ChessClockStage handles the black and white timers for a single stage of the game. A stage is specified by the starting move number and ending move number. Between those two
@@ -25,40 +26,46 @@ public class ChessClockStage {
 	private Stopwatch blackClock;
 	/** White player's clock. */
 	private Stopwatch whiteClock;
-	/** Delay timer. */
-	private Timer delay;
+	/** Chess clock this stage belongs to. */
+	private ChessClock clock;
+	/** Delay time length (in milliseconds). */
+	private int delay;
+	/** Delay timer, or null while the delay timer is not running. */
+	private ScheduledFuture<?> delayTimer;
 	/** Time increment. */
 	private int increment;
 	/** Move 1 flag. */
 	private boolean moveOne;
 	
 	/**
-	 * Default constructor for the ChessClockStage that initializes a default chess clock stage belonging to the chess clock.
-	 * @param clock
+	 * Constructor for the ChessClockStage that initializes a default chess clock stage belonging to the specified chess clock.
+	 * @param clock - the chess clock this stage belongs to
 	 */
-	public ChessClockStage() {
+	public ChessClockStage(ChessClock clock) {
 		//Initialize variables
+		this.clock = clock;
 		moveStart = 0;
 		moveEnd = END_OF_GAME;
 		blackClock = new Stopwatch(DEF_TIME_LIMIT);
 		whiteClock = new Stopwatch(DEF_TIME_LIMIT);
-		delay = new Timer(0, Chess.getChessClock());
-		delay.setRepeats(false);
+		delay = 0;
+		delayTimer = null;
 		increment = 0;
 		moveOne = false;
 	}
 	
 	/**
 	 * Constructor for the ChessClockStage that initializes the starting move, ending move, players' time limit, delay time, increment time and if the increment is applied on
-	 * move one.
+	 * move one. The stage belongs to the specified chess clock, which adds its stopwatch listeners to the stage's clocks.
+	 * @param clock - the chess clock this stage belongs to
 	 * @param start - the move number that starts this stage
 	 * @param end - the move number that ends this stage
 	 * @param timeLimit - the number of seconds each player has to complete the specified number or moves (or complete the game)
-	 * @param delay - the delay time before starting the player's clock
+	 * @param delay - the delay time (in milliseconds) before starting the player's clock
 	 * @param increment - the time increment to add at the end of each player's turn
 	 * @oaram firstMove - apply increment on move 1
 	 */
-	public ChessClockStage(int start, int end, int timeLimit, int delay, int increment, boolean firstMove) {
+	public ChessClockStage(ChessClock clock, int start, int end, int timeLimit, int delay, int increment, boolean firstMove) {
 		//Check parameters
 		if(start < 0 || end < 0 || timeLimit < 0 || delay < 0 || increment < 0)
 			throw new IllegalArgumentException("ChessClockStage input parameters cannot be negative");
@@ -67,14 +74,13 @@ public class ChessClockStage {
 			throw new IllegalArgumentException("Ending move number must exceed starting move number");
 		
 		//Initialize variables
+		this.clock = clock;
 		moveStart = start;
 		moveEnd = end;
 		blackClock = new Stopwatch(timeLimit);
-		blackClock.addStopwatchListener(Chess.getChessFrame());
 		whiteClock = new Stopwatch(timeLimit);
-		whiteClock.addStopwatchListener(Chess.getChessFrame());
-		this.delay = new Timer(delay, Chess.getChessClock());
-		this.delay.setRepeats(false);
+		this.delay = delay;
+		delayTimer = null;
 		this.increment = increment;
 		moveOne = firstMove;
 	}
@@ -91,6 +97,16 @@ public class ChessClockStage {
 	 */
 	public void addWhiteTimeLength(int time) { whiteClock.setTimeLength(whiteClock.getTime() + time); }
 	
+	/**
+	 * Cancels the delay timer if it is running, so the chess clock is not informed that it expired.
+	 */
+	public synchronized void cancelDelayTimer() {
+		if(delayTimer != null) {
+			delayTimer.cancel(false);
+			delayTimer = null;
+		}
+	}
+	
 	/**
 	 * Returns the black clock;
 	 * @return the black clock
@@ -107,7 +123,7 @@ public class ChessClockStage {
 	 * Returns the delay time length at the start of each player's turn before their clock starts.
 	 * @return the delay time length
 	 */
-	public int getDelayTime() { return delay.getDelay(); }
+	public int getDelayTime() { return delay; }
 	
 	/**
 	 * Returns the move number this clock stage ends on.
@@ -161,9 +177,20 @@ public class ChessClockStage {
 	public void startBlackClock() { blackClock.start(); }
 	
 	/**
-	 * Starts the delay timer.
+	 * Starts the delay timer. The chess clock is informed when the delay expires. If the delay timer is already running, it is restarted.
 	 */
-	public void startDelayTimer() { delay.start(); }
+	public synchronized void startDelayTimer() {
+		//Cancel a delay that is still running
+		if(delayTimer != null)
+			delayTimer.cancel(false);
+		
+		delayTimer = ChessClock.getTimer().schedule(new Runnable() {
+			@Override
+			public void run() {
+				clock.delayExpired();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
 	
 	/**
 	 * Starts the white player's clock. If the clock was paused, the clock continues from where it left off.
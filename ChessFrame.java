@@ -16,11 +16,12 @@ import java.awt.event.WindowListener;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import com.chess.Chess;
+import com.chess.event.StopwatchEvent;
+import com.chess.event.StopwatchListener;
 import com.chess.gui.bar.ChessHeaderBar;
-import com.chess.gui.event.StopwatchEvent;
-import com.chess.gui.event.StopwatchListener;
 import com.chess.gui.panel.ChessBoardPanel;
 
 /**
@@ -369,31 +370,13 @@ public class ChessFrame extends JFrame implements KeyListener, MouseListener, Mo
 	//Handle stopwatch started
 	@Override
 	public void stopwatchStarted(StopwatchEvent e) {
-		//If event was triggered by the black clock
-		if(e.getSource().equals(Chess.getChessClock().getBlackClock())) {
-			//Update the black clock with the current time
-			cbpanel.updateBlackClock(Chess.getChessClock().getBlackClock().getTime());
-		}
-		//If event was triggered by the white clock
-		else {
-			//Update the white clock with the current time
-			cbpanel.updateWhiteClock(Chess.getChessClock().getWhiteClock().getTime());
-		}
+		updateClock(e);
 	}
 
 	//Handle stopwatch ticked
 	@Override
 	public void stopwatchTicked(StopwatchEvent e) {
-		//If event was triggered by the black clock
-		if(e.getSource().equals(Chess.getChessClock().getBlackClock())) {
-			//Update the black clock with the current time
-			cbpanel.updateBlackClock(Chess.getChessClock().getBlackClock().getTime());
-		}
-		//If event was triggered by the white clock
-		else {
-			//Update the white clock with the current time
-			cbpanel.updateWhiteClock(Chess.getChessClock().getWhiteClock().getTime());
-		}
+		updateClock(e);
 	}
 
 	//Handle stopwatch stopped
@@ -402,6 +385,29 @@ public class ChessFrame extends JFrame implements KeyListener, MouseListener, Mo
 		
 	}
 
+	/**
+	 * Updates the chess board panel's clock for the stopwatch that triggered the specified event. Stopwatches tick on their own thread, so the update is made on the
+	 * event-dispatching thread.
+	 * @param e - the stopwatch event triggering this update
+	 */
+	private void updateClock(StopwatchEvent e) {
+		//Initialize variables
+		boolean black = e.getSource().equals(Chess.getChessClock().getBlackClock());
+		int time = e.getTime();
+		
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				//If event was triggered by the black clock, update the black clock with the current time
+				if(black)
+					cbpanel.updateBlackClock(time);
+				//If event was triggered by the white clock, update the white clock with the current time
+				else
+					cbpanel.updateWhiteClock(time);
+			}
+		});
+	}
+
 	//Handle window opened.
 	@Override
 	public void windowOpened(WindowEvent e) {
@@ -438,4 +444,4 @@ public class ChessFrame extends JFrame implements KeyListener, MouseListener, Mo
 	@Override
 	public void windowDeactivated(WindowEvent e) {
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
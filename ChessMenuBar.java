@@ -4,17 +4,28 @@ import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 import javax.swing.ButtonGroup;
+import javax.swing.JFileChooser;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JRadioButtonMenuItem;
 import javax.swing.UIDefaults;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.chess.Chess;
 import com.chess.Chess.BoardOption;
 import com.chess.gui.painter.MenuBarBgPainter;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnWriter;
 
 /**
  * ChessMenuBar creates and controls the chess menu bar, menus and menu items.
@@ -38,6 +49,8 @@ public class ChessMenuBar extends JMenuBar implements ActionListener {
 	private JMenuItem saveGameAsItem;
 	/** Exit menu item. */
 	private JMenuItem exitItem;
+	/** File the current game was last saved to. */
+	private File gameFile;
 	
 	/** Options menu. */
 	private JMenu optionsMenu;
@@ -135,11 +148,13 @@ public class ChessMenuBar extends JMenuBar implements ActionListener {
 		}
 		//Handle save game menu item
 		else if(e.getSource().equals(saveGameItem)) {
-			
+			//Save to the last file, or ask for one
+			if(gameFile != null) saveGame(gameFile);
+			else saveGameAs();
 		}
 		//Handle save game as menu item
 		else if(e.getSource().equals(saveGameAsItem)) {
-			
+			saveGameAs();
 		}
 		//Handle exit menu item
 		else if(e.getSource().equals(exitItem)) {
@@ -163,5 +178,41 @@ public class ChessMenuBar extends JMenuBar implements ActionListener {
 		}
 	}
 	
+	/**
+	 * Saves the current game to the specified PGN file.
+	 * @param file - the file to save to
+	 */
+	private void saveGame(File file) {
+		//Record the game played on the chess board
+		PgnGame game = new PgnGame(Chess.getChessBoard());
+		game.setTag("Event", "Casual Game");
+		game.setTag("Date", new SimpleDateFormat("yyyy.MM.dd").format(new Date()));
+		
+		//Write the game
+		try(PgnWriter writer = new PgnWriter(FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+			writer.write(game);
+			gameFile = file;
+		} catch (IOException e) {
+			JOptionPane.showMessageDialog(Chess.getChessFrame(), "Failed to save the game: " + e.getMessage(), "Save Game", JOptionPane.ERROR_MESSAGE);
+		}
+	}
 	
+	/**
+	 * Asks for a PGN file and saves the current game to it.
+	 */
+	private void saveGameAs() {
+		//Initialize variables
+		JFileChooser chooser = new JFileChooser(gameFile);
+		chooser.setFileFilter(new FileNameExtensionFilter("PGN Files (*.pgn)", "pgn"));
+		
+		//Save to the chosen file, adding the PGN extension if it has none
+		if(chooser.showSaveDialog(Chess.getChessFrame()) == JFileChooser.APPROVE_OPTION) {
+			File file = chooser.getSelectedFile();
+			
+			if(!file.getName().toLowerCase().endsWith(".pgn"))
+				file = new File(file.getParentFile(), file.getName() + ".pgn");
+			
+			saveGame(file);
+		}
+	}
 }
@@ -1,21 +1,16 @@
 package com.chess.pieces;
 
-import java.awt.Point;
-import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 import java.util.BitSet;
 
-import com.chess.Chess;
 import com.chess.ChessBoard;
-import com.chess.ThreatLine;
-import com.chess.nan.itf.event.listener.NANActionListener;
+import com.chess.Move;
 
 /**
  * ChessPiece is the base class for all chess pieces.
  * @author Monroe Gordon
  * @since 5/30/2022
  */
-public abstract class ChessPiece implements NANActionListener {
+public abstract class ChessPiece {
 
 	/** The color of the chess piece. */
 	protected boolean color;
@@ -29,8 +24,6 @@ public abstract class ChessPiece implements NANActionListener {
 	protected int totalSpacesMoved;
 	/** The chess piece's legal moves. */
 	protected BitSet legalMoves;
-	/** Threat lines that are threatening the chess piece. */
-	protected ArrayList<ThreatLine> threat;
 	
 	/**
 	 * Default constructor for the ChessPiece that initializes class variables.
@@ -43,7 +36,6 @@ public abstract class ChessPiece implements NANActionListener {
 		spacesMoved = 0;
 		totalSpacesMoved = 0;
 		legalMoves = new BitSet(ChessBoard.BOARD_SPACES);
-		threat = new ArrayList<ThreatLine>(0);
 	}
 	
 	/**
@@ -64,39 +56,32 @@ public abstract class ChessPiece implements NANActionListener {
 		spacesMoved = 0;
 		totalSpacesMoved = 0;
 		legalMoves = new BitSet(ChessBoard.BOARD_SPACES);
-		threat = new ArrayList<ThreatLine>(0);
 		
 		position.set(x + (y * ChessBoard.BOARD_COLS));
 	}
 	
 	/**
-	 * Add a threat line to the current list of threat lines for this chess piece.
-	 * @param t - the threat line to add
+	 * Moves this chess piece to the specified position and updates its move counters. The chess board calls this after it has checked that the move is legal.
+	 * @param x - the x position of the new position of this chess piece (0 - 7)
+	 * @param y - the y position of the new position of this chess piece (0 - 7)
 	 */
-	public void addThreatLine(ThreatLine t) {
-		if(t != null) threat.add(t);
+	public void applyMove(int x, int y) {
+		//Initialize variables
+		int from = position.nextSetBit(0);
+		
+		//Count spaces moved (the larger of the x and y distance)
+		spacesMoved = Math.max(Math.abs(x - (from % ChessBoard.BOARD_COLS)), Math.abs(y - (from / ChessBoard.BOARD_COLS)));
+		totalSpacesMoved += spacesMoved;
+		moveCount++;
+		
+		//Set new position
+		setPosition(x, y);
 	}
 	
 	/**
-	 * Checks the space at the specified x and y coordinates to see if the piece can legally move there.
-	 * @param pieces - all the chess pieces
-	 * @param y - the y board space coordinate
-	 * @param x - the x board space coordinate
-	 * @return true if the space checked is inaccessible to this piece, false otherwise
-	 */
-	public abstract boolean checkSpace(ChessPiece[] pieces, int x, int y);
-	
-	/**
-	 * Removes all threat lines from this chess piece. This is performed at the start of each player's turn before legal moves and new threat lines are re-evaluated.
-	 */
-	public void clearThreatLines() { threat.clear(); }
-	
-	/**
-	 * Find the legal moves this chess piece can make based on the current chess board.
-	 * @param board - the current chess board
-	 * @return the legal moves this chess piece can make
+	 * Removes this chess piece from the board after it has been captured.
 	 */
-	public abstract BitSet findLegalMoves(ChessBoard board);
+	public void capture() { position.clear(); }
 	
 	/**
 	 * Return the color of this chess piece (black or white).
@@ -104,12 +89,6 @@ public abstract class ChessPiece implements NANActionListener {
 	 */
 	public boolean getColor() { return color; }
 	
-	/**
-	 * Return the image of this chess piece.
-	 * @return the image of this chess piece
-	 */
-	public abstract BufferedImage getImage();
-	
 	/**
 	 * Return the board position of this chess piece.
 	 * @return the board position of this chess piece
@@ -117,16 +96,10 @@ public abstract class ChessPiece implements NANActionListener {
 	public BitSet getPosition() { return position; }
 	
 	/**
-	 * Return the board position of this chess piece as a point on the board.
-	 * @return the position of this chess piece as a point on the board
+	 * Return the board space of this chess piece.
+	 * @return the board space of this chess piece (0 - 63), or -1 if it is not on the board
 	 */
-	public Point getPositionPoint() {
-		//Get index of set position bit
-		int pIndex = position.nextSetBit(0);
-		
-		//Convert index value to a point on the chess board
-		return new Point(pIndex % ChessBoard.BOARD_COLS, pIndex / ChessBoard.BOARD_ROWS);
-	}
+	public int getSpace() { return position.nextSetBit(0); }
 	
 	/**
 	 * Return the legal moves this chess piece can make.
@@ -134,29 +107,6 @@ public abstract class ChessPiece implements NANActionListener {
 	 */
 	public BitSet getLegalMoves() { return legalMoves; }
 	
-	/**
-	 * Returns legal moves as a list of points on the board.
-	 * @return legal moves as a list of points on the board
-	 */
-	public ArrayList<Point> getLegalMovesPoints() {
-		//Initialize variables
-		ArrayList<Point> moves = new ArrayList<Point>(0);
-		int i = 0;
-		
-		//Convert all legal moves to board spaces
-		while(i < ChessBoard.BOARD_SPACES && i != -1) {
-			i = legalMoves.nextSetBit(i);
-			
-			if(i != -1) {
-				moves.add(new Point(i % ChessBoard.BOARD_COLS, i / ChessBoard.BOARD_ROWS));
-				i++;
-			}
-		}
-		
-		//Return moves
-		return moves;
-	}
-	
 	/**
 	 * Returns the number of moves this chess piece has made in the current game.
 	 * @return the number of moves this chess piece has made
@@ -170,34 +120,28 @@ public abstract class ChessPiece implements NANActionListener {
 	public int getSpacesMoved() { return spacesMoved; }
 	
 	/**
-	 * Returns the number of threat lines this chess piece has.
-	 * @return the number of threat lines
+	 * Returns the total number of spaces this chess piece has moved throughout the game currently.
+	 * @return the total number of spaces this chess piece has moved throughout the game currently
 	 */
-	public int getThreatCount() { return threat.size(); }
+	public int getTotalSpacesMoved() { return totalSpacesMoved; }
 	
 	/**
-	 * Return the threat line at the specified index.
-	 * @param index - the index of the threat line to return
-	 * @return the threat line at the specified index
+	 * Returns the type of this chess piece as a position piece value (Position.PAWN - Position.KING). The GUI uses this to look up the piece's image.
+	 * @return the type of this chess piece
 	 */
-	public ThreatLine getThreatLine(int index) {
-		if(index < 0 || index >= threat.size())
-			throw new IndexOutOfBoundsException("Threat line index out of bounds");
-		
-		return threat.get(index);
-	}
+	public abstract int getType();
 	
 	/**
-	 * Returns the current list of threat lines.
-	 * @return the list of threat lines
+	 * Return the x position of this chess piece on the board.
+	 * @return the x position of this chess piece (0 - 7)
 	 */
-	public ArrayList<ThreatLine> getThreatLines() { return threat; }
+	public int getX() { return position.nextSetBit(0) % ChessBoard.BOARD_COLS; }
 	
 	/**
-	 * Returns the total number of spaces this chess piece has moved throughout the game currently.
-	 * @return the total number of spaces this chess piece has moved throughout the game currently
+	 * Return the y position of this chess piece on the board.
+	 * @return the y position of this chess piece (0 - 7)
 	 */
-	public int getTotalSpacesMoved() { return totalSpacesMoved; }
+	public int getY() { return position.nextSetBit(0) / ChessBoard.BOARD_COLS; }
 	
 	/**
 	 * Returns if this chess piece has ever moved yet in the current game (moveCount > 0).
@@ -218,61 +162,34 @@ public abstract class ChessPiece implements NANActionListener {
 	public abstract boolean isPawn();
 	
 	/**
-	 * Move this chess piece to the specified new position, if it is a legal move.
+	 * Move this chess piece to the specified new position, if it is a legal move. The move is submitted to the chess board, which checks it against the legal moves of the
+	 * current turn. A pawn moved to the last row is promoted to a queen.
+	 * @param board - the chess board this chess piece is on
 	 * @param x - the x position of the new position of this chess piece (0 - 7)
 	 * @param y - the y position of the new position of this chess piece (0 - 7)
 	 * @return true if the move is legal, otherwise false
 	 */
-	public boolean move(int x, int y) {
+	public boolean move(ChessBoard board, int x, int y) {
 		//Check parameters
 		if(y < 0 || y >= ChessBoard.BOARD_ROWS || x < 0 || x >= ChessBoard.BOARD_COLS)
 			throw new IllegalArgumentException("ChessPiece @ setPosition: y and x must be a value between 0 and 7.");
 		
-		//Convert y and x to a position bitset
-		BitSet newPos = new BitSet(ChessBoard.BOARD_SPACES);
-		newPos.set(x + (y * ChessBoard.BOARD_COLS));
+		//Return false if this piece is not on the board
+		if(position.isEmpty())
+			return false;
 		
-		//If newPos is a legal move
-		if(newPos.intersects(legalMoves)) {
-			//Set position to newPos, increment moveCount, and return true
-			position = newPos;
-			moveCount++;
-			
-			//Check if move captures an opponent's piece
-			ChessPiece pieces[] = Chess.getChessBoard().getAllPieces();
-			
-			for(int i = 0; i < pieces.length; ++i) {
-				if(pieces[i].getColor() != color && position.intersects(pieces[i].getPosition())) {
-					//Remove opponent piece from board
-					pieces[i].position.clear();
-					
-					//Remove any threat lines the opponent piece caused other pieces
-					for(int j = 0; j < pieces.length; ++j) {
-						if(j != i) removeThreatLine(pieces[i]);
-					}
-				}
-			}
-			
-			//Inform the board that a piece has moved
-			Chess.getChessBoard().pieceMoved();
-			
-			//Return true
-			return true;
-		}
-		
-		//Return false if newPos is an illegal move
-		return false;
+		//Submit the move to the chess board
+		return board.submitMove(Move.encode(position.nextSetBit(0), x + (y * ChessBoard.BOARD_COLS)));
 	}
 	
 	/**
-	 * Remove any threat lines caused by the specified piece.
-	 * @param piece - the piece to check for
+	 * Resets this chess piece's move counters and legal moves for a new game.
 	 */
-	public void removeThreatLine(ChessPiece piece) {
-		for(int i = threat.size() - 1; i >= 0; ++i) {
-			if(threat.get(i).getThreat().equals(piece))
-				threat.remove(i);
-		}
+	public void reset() {
+		moveCount = 0;
+		spacesMoved = 0;
+		totalSpacesMoved = 0;
+		legalMoves.clear();
 	}
 	
 	/**
@@ -0,0 +1,168 @@
+package com.chess.match;
+
+import com.chess.nan.search.Evaluator;
+import com.chess.nan.search.Search;
+import com.chess.nan.search.SearchType;
+
+/**
+ * EngineConfig describes one version of the NAN by its name and search settings, so different versions can be played against each other. A configuration is written as
+ * "name:setting=value,setting=value", where the settings are lmr (LMR reduction, 0 - Search.MAX_DEPTH plies), lmrmoves (moves searched before LMR, at least 0), null
+ * (null move reduction, 0 - Search.MAX_DEPTH plies), futility (futility margin, at least 0 centipawns) and search (AlphaBeta or MonteCarlo, see SearchType). Settings
+ * that are left out keep the search's defaults.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class EngineConfig {
+
+	/** Engine name. */
+	private String name;
+	/** LMR reduction. */
+	private int lmrReduction;
+	/** Moves searched before LMR. */
+	private int lmrMoves;
+	/** Null move reduction. */
+	private int nullMoveReduction;
+	/** Futility margin. */
+	private int futilityMargin;
+	/** Search type. */
+	private SearchType searchType;
+
+	/**
+	 * Constructor for EngineConfig that creates a configuration with the specified name and the search's default settings.
+	 * @param name - the engine name
+	 */
+	public EngineConfig(String name) {
+		//Initialize variables
+		this.name = name;
+		lmrReduction = Search.DEF_LMR_REDUCTION;
+		lmrMoves = Search.DEF_LMR_MOVES;
+		nullMoveReduction = Search.DEF_NULL_MOVE_REDUCTION;
+		futilityMargin = Search.DEF_FUTILITY_MARGIN;
+		searchType = SearchType.ALPHA_BETA;
+	}
+
+	/**
+	 * Creates a new search using this configuration's settings. The alpha-beta settings have no effect on a Monte Carlo search.
+	 * @param hashSize - the transposition table (or Monte Carlo tree) size in megabytes
+	 * @return the new search
+	 */
+	public Search createSearch(int hashSize) {
+		//Initialize variables
+		Search search = searchType.createSearch(new Evaluator(), hashSize);
+
+		search.setLMRReduction(lmrReduction);
+		search.setLMRMoves(lmrMoves);
+		search.setNullMoveReduction(nullMoveReduction);
+		search.setFutilityMargin(futilityMargin);
+
+		return search;
+	}
+
+	/**
+	 * Returns the engine name.
+	 * @return the engine name
+	 */
+	public String getName() { return name; }
+
+	/**
+	 * Returns the value of the specified numeric setting (lmr, lmrmoves, null or futility).
+	 * @param setting - the setting name
+	 * @return the setting's value
+	 */
+	public int getSetting(String setting) {
+		switch(setting) {
+		case "lmr":
+			return lmrReduction;
+		case "lmrmoves":
+			return lmrMoves;
+		case "null":
+			return nullMoveReduction;
+		case "futility":
+			return futilityMargin;
+		default:
+			throw new IllegalArgumentException("EngineConfig: unknown setting " + setting);
+		}
+	}
+
+	/**
+	 * Parses an engine configuration in the form "name:setting=value,setting=value".
+	 * @param config - the engine configuration
+	 * @return the engine configuration
+	 */
+	public static EngineConfig parse(String config) {
+		//Initialize variables
+		int colon = config.indexOf(':');
+		EngineConfig engine = new EngineConfig((colon == -1) ? config : config.substring(0, colon));
+
+		if(colon == -1 || colon == config.length() - 1)
+			return engine;
+
+		//Read settings
+		for(String setting : config.substring(colon + 1).split(",")) {
+			String[] pair = setting.split("=");
+
+			if(pair.length != 2)
+				throw new IllegalArgumentException("EngineConfig: invalid setting " + setting);
+
+			//The search type is the only setting that is not a number
+			if(pair[0].trim().equals("search")) {
+				engine.searchType = SearchType.parse(pair[1].trim());
+				continue;
+			}
+
+			try {
+				engine.setSetting(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("EngineConfig: invalid value for " + setting);
+			}
+		}
+
+		return engine;
+	}
+
+	/**
+	 * Sets the value of the specified numeric setting (lmr, lmrmoves, null or futility).
+	 * @param setting - the setting name
+	 * @param value - the setting's value
+	 * @throws IllegalArgumentException if the setting is unknown or the value is outside the setting's range
+	 */
+	public void setSetting(String setting, int value) {
+		switch(setting) {
+		case "lmr":
+			if(value < 0 || value > Search.MAX_DEPTH)
+				throw new IllegalArgumentException("EngineConfig: lmr must be 0 - " + Search.MAX_DEPTH);
+
+			lmrReduction = value;
+			break;
+		case "lmrmoves":
+			if(value < 0)
+				throw new IllegalArgumentException("EngineConfig: lmrmoves cannot be negative");
+
+			lmrMoves = value;
+			break;
+		case "null":
+			if(value < 0 || value > Search.MAX_DEPTH)
+				throw new IllegalArgumentException("EngineConfig: null must be 0 - " + Search.MAX_DEPTH);
+
+			nullMoveReduction = value;
+			break;
+		case "futility":
+			if(value < 0)
+				throw new IllegalArgumentException("EngineConfig: futility cannot be negative");
+
+			futilityMargin = value;
+			break;
+		default:
+			throw new IllegalArgumentException("EngineConfig: unknown setting " + setting);
+		}
+	}
+
+	/**
+	 * Returns the engine configuration in the form "name:setting=value,setting=value".
+	 * @return the engine configuration
+	 */
+	@Override
+	public String toString() {
+		return name + ":lmr=" + lmrReduction + ",lmrmoves=" + lmrMoves + ",null=" + nullMoveReduction + ",futility=" + futilityMargin + ",search=" + searchType.getOptionName();
+	}
+}
@@ -0,0 +1,183 @@
+package com.chess.nan.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EvalCache remembers evaluator scores by position key so positions reached again, in later iterations or by other search threads, are not evaluated again. Each entry
+ * is a single long holding the upper key bits, a valid bit, a reference bit and the score, so entries are read and written whole without locks, and a key is only matched
+ * when all of its tag bits agree. Entries are grouped in buckets of BUCKET_SIZE (one 64 byte cache line), and a full bucket evicts with the CLOCK (second chance) policy:
+ * its hand skips entries that were hit since the hand last passed them, clearing their reference bit, and replaces the first entry that was not.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class EvalCache {
+
+	/** Probe result when the key is not in the cache. */
+	public static final int MISS = Integer.MIN_VALUE;
+	/** Number of entries in a bucket. */
+	public static final int BUCKET_SIZE = 8;
+	/** Default cache size in megabytes. */
+	public static final int DEF_SIZE_MB = 8;
+
+	/** Score bits of an entry. */
+	private static final long SCORE_MASK = 0xFFFFL;
+	/** Reference bit of an entry. */
+	private static final long REFERENCED = 1L << 16;
+	/** Valid bit of an entry. */
+	private static final long VALID = 1L << 17;
+	/** Key tag bits of an entry. */
+	private static final long TAG_MASK = -1L << 18;
+	/** Atomic access to the entries. */
+	private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/** The entries. */
+	private long entries[];
+	/** The clock hand of each bucket. */
+	private byte hands[];
+	/** Number of probes. */
+	private LongAdder probes;
+	/** Number of probes that found their key. */
+	private LongAdder hits;
+
+	/**
+	 * Constructor for EvalCache that creates a cache of (at most) the specified size.
+	 * @param megabytes - the cache size in megabytes
+	 */
+	public EvalCache(int megabytes) {
+		//Initialize variables
+		probes = new LongAdder();
+		hits = new LongAdder();
+
+		resize(megabytes);
+	}
+
+	/**
+	 * Removes all entries from the cache and resets the hit rate.
+	 */
+	public void clear() {
+		for(int i = 0; i < entries.length; ++i)
+			ENTRIES.setOpaque(entries, i, 0L);
+
+		resetStatistics();
+	}
+
+	/**
+	 * Returns the fraction of probes that found their key since the statistics were reset.
+	 * @return the hit rate (0.0 - 1.0)
+	 */
+	public double getHitRate() {
+		long count = probes.sum();
+		return (count > 0) ? hits.sum() / (double)count : 0.0;
+	}
+
+	/**
+	 * Returns the number of probes that found their key since the statistics were reset.
+	 * @return the number of hits
+	 */
+	public long getHits() { return hits.sum(); }
+
+	/**
+	 * Returns the number of probes since the statistics were reset.
+	 * @return the number of probes
+	 */
+	public long getProbes() { return probes.sum(); }
+
+	/**
+	 * Returns the number of entries.
+	 * @return the number of entries
+	 */
+	public int getSize() { return entries.length; }
+
+	/**
+	 * Returns the score stored for the specified key, marking the entry as referenced.
+	 * @param key - the position key
+	 * @return the score, or MISS
+	 */
+	public int probe(long key) {
+		//Initialize variables (the bucket index comes from the same array as the entries, in case the cache is resized)
+		long table[] = entries;
+		int bucket = ((int)key & (table.length / BUCKET_SIZE - 1)) * BUCKET_SIZE;
+		long tag = (key & TAG_MASK) | VALID;
+
+		probes.increment();
+
+		for(int i = bucket; i < bucket + BUCKET_SIZE; ++i) {
+			long entry = (long)ENTRIES.getOpaque(table, i);
+
+			if((entry & (TAG_MASK | VALID)) == tag) {
+				//Give the entry a second chance
+				if((entry & REFERENCED) == 0) ENTRIES.setOpaque(table, i, entry | REFERENCED);
+
+				hits.increment();
+				return (short)(entry & SCORE_MASK);
+			}
+		}
+
+		return MISS;
+	}
+
+	/**
+	 * Resets the hit rate statistics.
+	 */
+	public void resetStatistics() {
+		probes.reset();
+		hits.reset();
+	}
+
+	/**
+	 * Resizes the cache to the largest power of two number of buckets that fits in the specified size. All entries are removed.
+	 * @param megabytes - the cache size in megabytes
+	 */
+	public void resize(int megabytes) {
+		//Check parameters
+		if(megabytes < 1)
+			throw new IllegalArgumentException("Evaluation cache size must be at least 1 MB");
+
+		//Each bucket uses 8 bytes per entry
+		int buckets = Integer.highestOneBit((int)Math.min(1L << 26, ((long)megabytes << 20) / (BUCKET_SIZE * 8)));
+		entries = new long[buckets * BUCKET_SIZE];
+		hands = new byte[buckets];
+
+		resetStatistics();
+	}
+
+	/**
+	 * Stores a score for the specified key, replacing an entry of its bucket chosen by the bucket's clock hand if the key is not already stored.
+	 * @param key - the position key
+	 * @param score - the score (saturated to 16 bits)
+	 */
+	public void store(long key, int score) {
+		//Initialize variables (the arrays are read once and the hand index masked by its own array, in case the cache is resized)
+		long table[] = entries;
+		byte clock[] = hands;
+		int b = (int)key & (table.length / BUCKET_SIZE - 1);
+		int bucket = b * BUCKET_SIZE;
+		long tag = (key & TAG_MASK) | VALID;
+		long entry = tag | (Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)) & SCORE_MASK);
+		int victim = -1;
+
+		//Update the key's entry, or use an empty entry
+		for(int i = bucket; i < bucket + BUCKET_SIZE && victim < 0; ++i) {
+			long e = (long)ENTRIES.getOpaque(table, i);
+
+			if((e & VALID) == 0 || (e & (TAG_MASK | VALID)) == tag) victim = i;
+		}
+
+		//Advance the clock hand past referenced entries, clearing their reference bit (two turns at most, since the first clears every bit)
+		int hand = clock[b & (clock.length - 1)] & (BUCKET_SIZE - 1);
+
+		for(int n = 0; n < 2 * BUCKET_SIZE && victim < 0; ++n, hand = (hand + 1) & (BUCKET_SIZE - 1)) {
+			long e = (long)ENTRIES.getOpaque(table, bucket + hand);
+
+			if((e & REFERENCED) != 0) ENTRIES.setOpaque(table, bucket + hand, e & ~REFERENCED);
+			else victim = bucket + hand;
+		}
+
+		if(victim < 0) victim = bucket + hand;
+
+		clock[b & (clock.length - 1)] = (byte)hand;
+		ENTRIES.setOpaque(table, victim, entry);
+	}
+}
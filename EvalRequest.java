@@ -0,0 +1,84 @@
+package com.chess.nan.nnue;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.chess.Position;
+
+/**
+ * EvalRequest is a position submitted to a BatchEvaluator, completed with the position's score once its batch is evaluated. The request keeps the position's features
+ * (from the side to move's and the other side's point of view), so the position can change as soon as it is submitted, and records when it was submitted and completed.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class EvalRequest extends CompletableFuture<Integer> {
+
+	/** Feature pairs of each piece (side to move's feature, then other side's feature). */
+	private int features[];
+	/** Time the request was submitted, in nanoseconds. */
+	private long submitTime;
+	/** Time the request was completed, in nanoseconds. */
+	private volatile long completeTime;
+
+	/**
+	 * Constructor for EvalRequest that takes the features of the specified position.
+	 * @param position - the position to evaluate
+	 */
+	public EvalRequest(Position position) {
+		//Initialize variables
+		long occupied = position.getOccupiedBits();
+		boolean turn = position.getTurn();
+		int i = 0;
+
+		features = new int[2 * Long.bitCount(occupied)];
+
+		for(long bits = occupied; bits != 0L; bits &= bits - 1) {
+			int space = Long.numberOfTrailingZeros(bits);
+			int piece = position.getPiece(space);
+
+			features[i++] = Network.getFeature(turn, piece, space);
+			features[i++] = Network.getFeature(!turn, piece, space);
+		}
+
+		submitTime = System.nanoTime();
+	}
+
+	/**
+	 * Completes the request with the specified score, recording the completion time.
+	 * @param score - the score in centipawns from the point of view of the side to move
+	 * @return true if this call completed the request, false if it was already completed
+	 */
+	@Override
+	public boolean complete(Integer score) {
+		completeTime = System.nanoTime();
+		return super.complete(score);
+	}
+
+	/**
+	 * Completes the request with the specified exception, recording the completion time.
+	 * @param ex - the exception
+	 * @return true if this call completed the request, false if it was already completed
+	 */
+	@Override
+	public boolean completeExceptionally(Throwable ex) {
+		completeTime = System.nanoTime();
+		return super.completeExceptionally(ex);
+	}
+
+	/**
+	 * Returns the feature pairs of each piece: the side to move's feature followed by the other side's feature.
+	 * @return the features
+	 */
+	int[] getFeatures() { return features; }
+
+	/**
+	 * Returns the time from submitting to completing the request.
+	 * @return the latency in nanoseconds, or -1 if the request is not complete
+	 */
+	public long getLatency() { return isDone() ? completeTime - submitTime : -1; }
+
+	/**
+	 * Returns the time the request was submitted.
+	 * @return the submit time in nanoseconds (see System.nanoTime)
+	 */
+	public long getSubmitTime() { return submitTime; }
+}
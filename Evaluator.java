@@ -0,0 +1,205 @@
+package com.chess.nan.search;
+
+import com.chess.ChessBoard;
+import com.chess.Position;
+
+/**
+ * Evaluator scores a position for the NAN's search using material, piece-square tables and simple pawn structure terms. Scores are in centipawns from the point of view of
+ * the side to move. Piece-square tables are written from white's point of view with row 0 at the top of the board, and are mirrored for black.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class Evaluator {
+
+	/** Piece material values (indexed by piece type). */
+	public static final int MATERIAL[] = { 0, 100, 320, 330, 500, 900, 0 };
+
+	/** Doubled pawn penalty. */
+	public static final int DOUBLED_PAWN = -12;
+	/** Isolated pawn penalty. */
+	public static final int ISOLATED_PAWN = -15;
+	/** Passed pawn bonus for each row advanced from the starting row. */
+	public static final int PASSED_PAWN = 10;
+
+	/** Pawn piece-square table. */
+	private static final int PAWN_TABLE[] = {
+		 0,   0,   0,   0,   0,   0,   0,   0,
+		50,  50,  50,  50,  50,  50,  50,  50,
+		10,  10,  20,  30,  30,  20,  10,  10,
+		 5,   5,  10,  25,  25,  10,   5,   5,
+		 0,   0,   0,  20,  20,   0,   0,   0,
+		 5,  -5, -10,   0,   0, -10,  -5,   5,
+		 5,  10,  10, -20, -20,  10,  10,   5,
+		 0,   0,   0,   0,   0,   0,   0,   0
+	};
+
+	/** Knight piece-square table. */
+	private static final int KNIGHT_TABLE[] = {
+		-50, -40, -30, -30, -30, -30, -40, -50,
+		-40, -20,   0,   0,   0,   0, -20, -40,
+		-30,   0,  10,  15,  15,  10,   0, -30,
+		-30,   5,  15,  20,  20,  15,   5, -30,
+		-30,   0,  15,  20,  20,  15,   0, -30,
+		-30,   5,  10,  15,  15,  10,   5, -30,
+		-40, -20,   0,   5,   5,   0, -20, -40,
+		-50, -40, -30, -30, -30, -30, -40, -50
+	};
+
+	/** Bishop piece-square table. */
+	private static final int BISHOP_TABLE[] = {
+		-20, -10, -10, -10, -10, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,  10,  10,   5,   0, -10,
+		-10,   5,   5,  10,  10,   5,   5, -10,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-10,  10,  10,  10,  10,  10,  10, -10,
+		-10,   5,   0,   0,   0,   0,   5, -10,
+		-20, -10, -10, -10, -10, -10, -10, -20
+	};
+
+	/** Rook piece-square table. */
+	private static final int ROOK_TABLE[] = {
+		 0,   0,   0,   0,   0,   0,   0,   0,
+		 5,  10,  10,  10,  10,  10,  10,   5,
+		-5,   0,   0,   0,   0,   0,   0,  -5,
+		-5,   0,   0,   0,   0,   0,   0,  -5,
+		-5,   0,   0,   0,   0,   0,   0,  -5,
+		-5,   0,   0,   0,   0,   0,   0,  -5,
+		-5,   0,   0,   0,   0,   0,   0,  -5,
+		 0,   0,   0,   5,   5,   0,   0,   0
+	};
+
+	/** Queen piece-square table. */
+	private static final int QUEEN_TABLE[] = {
+		-20, -10, -10,  -5,  -5, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		 -5,   0,   5,   5,   5,   5,   0,  -5,
+		  0,   0,   5,   5,   5,   5,   0,  -5,
+		-10,   5,   5,   5,   5,   5,   0, -10,
+		-10,   0,   5,   0,   0,   0,   0, -10,
+		-20, -10, -10,  -5,  -5, -10, -10, -20
+	};
+
+	/** King piece-square table (middle game). */
+	private static final int KING_TABLE[] = {
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-20, -30, -30, -40, -40, -30, -30, -20,
+		-10, -20, -20, -20, -20, -20, -20, -10,
+		 20,  20,   0,   0,   0,   0,  20,  20,
+		 20,  30,  10,   0,   0,  10,  30,  20
+	};
+
+	/** Piece-square tables (indexed by piece type). */
+	private static final int TABLES[][] = { null, PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_TABLE };
+
+	/**
+	 * Default constructor for the Evaluator.
+	 */
+	public Evaluator() {}
+
+	/**
+	 * Returns an evaluator giving the same scores that can be used by another thread. This evaluator keeps no state between evaluations, so it is returned itself.
+	 * @return the evaluator for another thread
+	 */
+	public Evaluator copy() { return this; }
+
+	/**
+	 * Evaluates the specified position.
+	 * @param position - the position to evaluate
+	 * @return the score of the position in centipawns from the point of view of the side to move
+	 */
+	public int evaluate(Position position) {
+		//Initialize variables
+		int score = 0;
+
+		//Add material and piece-square values for each piece
+		for(long bits = position.getOccupiedBits(); bits != 0L; bits &= bits - 1) {
+			int space = Long.numberOfTrailingZeros(bits);
+			int piece = position.getPiece(space);
+			int type = piece & Position.PIECE_TYPE_MASK;
+
+			if((piece & Position.BLACK_PIECE) == 0)
+				score += MATERIAL[type] + TABLES[type][space];
+			else
+				score -= MATERIAL[type] + TABLES[type][space ^ 56];
+		}
+
+		//Add pawn structure
+		score += evaluatePawns(position, ChessBoard.WHITE) - evaluatePawns(position, ChessBoard.BLACK);
+
+		//Return score for the side to move
+		return (position.getTurn() == ChessBoard.WHITE) ? score : -score;
+	}
+
+	/**
+	 * Returns the value of the specified piece-square table entry.
+	 * @param type - the piece type
+	 * @param space - the board space, from white's point of view
+	 * @return the piece-square value in centipawns
+	 */
+	public static int getTableValue(int type, int space) { return TABLES[type][space]; }
+
+	/**
+	 * Evaluates the pawn structure of the specified color.
+	 * @param position - the position to evaluate
+	 * @param color - the color to evaluate
+	 * @return the pawn structure score of the color
+	 */
+	protected int evaluatePawns(Position position, boolean color) {
+		return evaluatePawns(position.getPieceBits(Position.createPiece(Position.PAWN, color)), position.getPieceBits(Position.createPiece(Position.PAWN, !color)),
+				color, DOUBLED_PAWN, ISOLATED_PAWN, PASSED_PAWN);
+	}
+
+	/**
+	 * Evaluates the pawn structure of the specified color with the specified term weights. The score is linear in the weights, so a weight of 1 with the others 0
+	 * counts the pawns a term applies to (the evaluation tuner uses this).
+	 * @param own - the pawns of the color
+	 * @param enemy - the pawns of the other color
+	 * @param color - the color to evaluate
+	 * @param doubled - the doubled pawn weight
+	 * @param isolated - the isolated pawn weight
+	 * @param passed - the passed pawn weight for each row advanced
+	 * @return the pawn structure score of the color
+	 */
+	public static int evaluatePawns(long own, long enemy, boolean color, int doubled, int isolated, int passed) {
+		//Initialize variables
+		int score = 0;
+
+		for(long bits = own; bits != 0L; bits &= bits - 1) {
+			int space = Long.numberOfTrailingZeros(bits);
+			int x = space % ChessBoard.BOARD_COLS;
+			int y = space / ChessBoard.BOARD_COLS;
+			long column = 0x0101010101010101L << x;
+			long neighbors = ((x > 0) ? column >>> 1 : 0L) | ((x < ChessBoard.BOARD_COLS - 1) ? column << 1 : 0L);
+
+			//Doubled pawn (counted once for each pawn behind another)
+			if(Long.bitCount(own & column) > 1 && (own & column & ahead(space, color)) != 0L)
+				score += doubled;
+
+			//Isolated pawn
+			if((own & neighbors) == 0L)
+				score += isolated;
+
+			//Passed pawn
+			if((enemy & (column | neighbors) & ahead(space, color)) == 0L)
+				score += passed * (color ? 6 - y : y - 1);
+		}
+
+		return score;
+	}
+
+	/**
+	 * Returns a bit mask of the rows ahead of the specified space for a pawn of the specified color.
+	 * @param space - the board space
+	 * @param color - the pawn's color
+	 * @return the rows ahead of the space
+	 */
+	private static long ahead(int space, boolean color) {
+		int y = space / ChessBoard.BOARD_COLS;
+		return color ? (-1L >>> ((ChessBoard.BOARD_ROWS - y) * ChessBoard.BOARD_COLS)) : ((y == 7) ? 0L : (-1L << ((y + 1) * ChessBoard.BOARD_COLS)));
+	}
+}
@@ -0,0 +1,206 @@
+package com.chess.nan.nnue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import com.chess.Position;
+
+/**
+ * FloatNetwork holds the NAN network's weights as floats, the form they are trained and saved in. The network has one input for each piece-square feature seen from each
+ * side (see Network.getFeature), a first layer of HIDDEN neurons computed for both sides, a hidden layer of L1 neurons over both sides' first layers (side to move first),
+ * and one output, with activations clipped to 0 - 1. The output times OUTPUT_SCALE is the score in centipawns for the side to move.
+ * <p>
+ * A float network file holds a header (magic, version and layer sizes) followed by the input weights (feature by feature), input biases, hidden weights (first layer neuron
+ * by first layer neuron), hidden biases, output weights and output bias, as big-endian floats. Searches use the quantized Network made from it.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class FloatNetwork {
+
+	/** Float network file magic number ("NANF"). */
+	public static final int MAGIC = 0x4E414E46;
+	/** Float network file version. */
+	public static final int VERSION = 1;
+	/** Number of input features. */
+	public static final int INPUTS = 768;
+	/** Number of first layer neurons for each side. */
+	public static final int HIDDEN = 256;
+	/** Number of hidden layer neurons. */
+	public static final int L1 = 32;
+	/** Output to centipawn scale. */
+	public static final int OUTPUT_SCALE = 400;
+
+	/** Input weights (HIDDEN for each feature). */
+	float inputWeights[];
+	/** Input biases. */
+	float inputBiases[];
+	/** Hidden weights (L1 for each of the 2 * HIDDEN first layer neurons, side to move first). */
+	float hiddenWeights[];
+	/** Hidden biases. */
+	float hiddenBiases[];
+	/** Output weights. */
+	float outputWeights[];
+	/** Output bias. */
+	float outputBias;
+
+	/**
+	 * Constructor for FloatNetwork that creates a network with small random weights, as a starting point for training.
+	 * @param seed - the random seed
+	 */
+	public FloatNetwork(long seed) {
+		//Initialize variables
+		SplittableRandom random = new SplittableRandom(seed);
+
+		inputWeights = randomWeights(random, INPUTS * HIDDEN, 32);
+		inputBiases = new float[HIDDEN];
+		hiddenWeights = randomWeights(random, L1 * 2 * HIDDEN, 2 * HIDDEN);
+		hiddenBiases = new float[L1];
+		outputWeights = randomWeights(random, L1, L1);
+		outputBias = 0;
+	}
+
+	/**
+	 * Evaluates the specified position with a full forward pass in floating point. Used to train and check the network, searches use Network and Accumulator.
+	 * @param position - the position to evaluate
+	 * @return the score in centipawns from the point of view of the side to move
+	 */
+	public float evaluate(Position position) {
+		//Initialize variables
+		float us[] = inputBiases.clone();
+		float them[] = inputBiases.clone();
+		boolean turn = position.getTurn();
+
+		//Sum the input weights of each piece's features
+		for(long bits = position.getOccupiedBits(); bits != 0L; bits &= bits - 1) {
+			int space = Long.numberOfTrailingZeros(bits);
+			int piece = position.getPiece(space);
+			int ourFeature = Network.getFeature(turn, piece, space) * HIDDEN;
+			int theirFeature = Network.getFeature(!turn, piece, space) * HIDDEN;
+
+			for(int i = 0; i < HIDDEN; ++i) {
+				us[i] += inputWeights[ourFeature + i];
+				them[i] += inputWeights[theirFeature + i];
+			}
+		}
+
+		//Hidden layer
+		float sums[] = hiddenBiases.clone();
+
+		for(int i = 0; i < HIDDEN; ++i) {
+			for(int j = 0; j < L1; ++j)
+				sums[j] += clip(us[i]) * hiddenWeights[i * L1 + j] + clip(them[i]) * hiddenWeights[(HIDDEN + i) * L1 + j];
+		}
+
+		//Output layer
+		float output = outputBias;
+
+		for(int j = 0; j < L1; ++j)
+			output += clip(sums[j]) * outputWeights[j];
+
+		return output * OUTPUT_SCALE;
+	}
+
+	/**
+	 * Reads a float network file.
+	 * @param file - the network file
+	 * @return the network
+	 * @throws IOException if the file cannot be read or is not a float network file
+	 */
+	public static FloatNetwork read(Path file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			//Check the header
+			if(in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException("FloatNetwork: " + file + " is not a version " + VERSION + " float network file");
+
+			if(in.readInt() != INPUTS || in.readInt() != HIDDEN || in.readInt() != L1)
+				throw new IOException("FloatNetwork: " + file + " has different layer sizes");
+
+			//Read the weights
+			FloatNetwork network = new FloatNetwork(0);
+
+			readFloats(in, network.inputWeights);
+			readFloats(in, network.inputBiases);
+			readFloats(in, network.hiddenWeights);
+			readFloats(in, network.hiddenBiases);
+			readFloats(in, network.outputWeights);
+			network.outputBias = in.readFloat();
+
+			return network;
+		}
+	}
+
+	/**
+	 * Writes the network to a float network file.
+	 * @param file - the network file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(INPUTS);
+			out.writeInt(HIDDEN);
+			out.writeInt(L1);
+
+			writeFloats(out, inputWeights);
+			writeFloats(out, inputBiases);
+			writeFloats(out, hiddenWeights);
+			writeFloats(out, hiddenBiases);
+			writeFloats(out, outputWeights);
+			out.writeFloat(outputBias);
+		}
+	}
+
+	/**
+	 * Clips an activation to 0 - 1.
+	 * @param x - the activation
+	 * @return the clipped activation
+	 */
+	private static float clip(float x) { return Math.max(0.0f, Math.min(1.0f, x)); }
+
+	/**
+	 * Returns uniformly distributed random weights for a layer with the specified number of inputs.
+	 * @param random - the random number generator
+	 * @param count - the number of weights
+	 * @param inputs - the number of inputs summed by each neuron
+	 * @return the weights
+	 */
+	private static float[] randomWeights(SplittableRandom random, int count, int inputs) {
+		//Initialize variables
+		float weights[] = new float[count];
+		double range = 1.0 / Math.sqrt(inputs);
+
+		for(int i = 0; i < count; ++i)
+			weights[i] = (float)random.nextDouble(-range, range);
+
+		return weights;
+	}
+
+	/**
+	 * Reads floats into the specified array.
+	 * @param in - the input to read from
+	 * @param values - the array to fill
+	 * @throws IOException if the input cannot be read
+	 */
+	private static void readFloats(DataInputStream in, float[] values) throws IOException {
+		for(int i = 0; i < values.length; ++i)
+			values[i] = in.readFloat();
+	}
+
+	/**
+	 * Writes the floats of the specified array.
+	 * @param out - the output to write to
+	 * @param values - the values
+	 * @throws IOException if the output cannot be written
+	 */
+	private static void writeFloats(DataOutputStream out, float[] values) throws IOException {
+		for(int i = 0; i < values.length; ++i)
+			out.writeFloat(values[i]);
+	}
+}
@@ -0,0 +1,408 @@
+package com.chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+import com.chess.event.ChessBoardEvent;
+import com.chess.event.ChessBoardListener;
+import com.chess.event.StopwatchEvent;
+import com.chess.event.StopwatchListener;
+
+/**
+ * GameJournal keeps an append-only journal of the game being played, so the game survives the program dying. A record is appended when a game starts (the player's color,
+ * clock preset and starting FEN), for every move (with the clock stage and both clocks' remaining times) and for clock times when the game is paused and every
+ * CLOCK_INTERVAL seconds. Listeners only queue records, so journalling never blocks the event-dispatching thread: a writer thread writes everything queued in one write
+ * through a FileChannel and forces it to disk once per batch (group commit).
+ * <p>
+ * Each record is its payload length, the CRC32 of its payload and the payload, so a record torn by a crash is detected and dropped. Starting a game truncates the journal,
+ * so it only ever holds the current game, which restore replays on startup. A record is also appended when the game ends, so a finished game is not resumed.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class GameJournal implements ChessBoardListener, StopwatchListener, Closeable {
+
+	/** Seconds between clock records while a clock runs. */
+	public static final int CLOCK_INTERVAL = 10;
+
+	/** Game start record type. */
+	private static final byte START = 1;
+	/** Move record type. */
+	private static final byte MOVE = 2;
+	/** Clock record type. */
+	private static final byte CLOCK = 3;
+	/** Game end record type. */
+	private static final byte FINISH = 4;
+	/** Record header size in bytes (payload length and CRC32). */
+	private static final int HEADER_SIZE = 8;
+	/** Largest valid payload size in bytes. */
+	private static final int MAX_PAYLOAD = 1024;
+	/** Queue marker that stops the writer thread. */
+	private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+	/** The journal file. */
+	private FileChannel channel;
+	/** The chess board being journalled. */
+	private ChessBoard board;
+	/** The chess clock being journalled. */
+	private ChessClock clock;
+	/** Records waiting to be written. */
+	private LinkedBlockingQueue<ByteBuffer> queue;
+	/** The writer thread. */
+	private Thread writer;
+	/** First error of the writer thread, or null. */
+	private volatile IOException failure;
+
+	/**
+	 * Constructor for GameJournal that opens (or creates, along with its directory) the specified journal file, appending to the records already in it, and starts the
+	 * writer thread. The journal must be added as a listener of the chess board and chess clock to record them.
+	 * @param file - the journal file
+	 * @param board - the chess board
+	 * @param clock - the chess clock
+	 * @throws IOException if the file cannot be opened
+	 */
+	public GameJournal(Path file, ChessBoard board, ChessClock clock) throws IOException {
+		//Initialize variables
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		this.board = board;
+		this.clock = clock;
+		queue = new LinkedBlockingQueue<ByteBuffer>();
+		failure = null;
+
+		//Start the writer thread
+		writer = new Thread("Game Journal") {
+			@Override
+			public void run() {
+				writeRecords();
+			}
+		};
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Writes the queued records, stops the writer thread and closes the journal file.
+	 * @throws IOException if the journal file could not be written or closed
+	 */
+	@Override
+	public void close() throws IOException {
+		queue.add(END);
+
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		channel.close();
+
+		if(failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Records the end of the game with the clock times.
+	 * @param e - the chess board event triggering this call
+	 */
+	@Override
+	public void gameEnded(ChessBoardEvent e) { appendClock(FINISH, Move.NO_MOVE); }
+
+	/**
+	 * Records the clock times when the game is paused.
+	 * @param e - the chess board event triggering this call
+	 */
+	@Override
+	public void gamePaused(ChessBoardEvent e) { appendClock(CLOCK, Move.NO_MOVE); }
+
+	/**
+	 * Does nothing, as the clock times do not change when the game is resumed.
+	 * @param e - the chess board event triggering this call
+	 */
+	@Override
+	public void gameResumed(ChessBoardEvent e) {}
+
+	/**
+	 * Records a move with the clock times after the clock switched turns.
+	 * @param e - the chess board event triggering this call
+	 */
+	@Override
+	public void pieceMoved(ChessBoardEvent e) {
+		//Convert the move to position spaces
+		int move = e.getMove();
+
+		appendClock(MOVE, Move.encode(board.toPositionSpace(Move.getFrom(move)), board.toPositionSpace(Move.getTo(move)), Move.getPromotion(move)));
+	}
+
+	/**
+	 * Replays the game in the specified journal file onto the chess board and chess clock: the game is started with the journalled player color, clock preset and starting
+	 * position, every journalled move is made and the clocks are set to the last journalled times. A torn record at the end of the file is cut off. The game is left paused,
+	 * unless it had already finished (it was journalled as ended, it ended on the board or a clock ran out): the final position is then shown with the game's result, or a
+	 * draw if it ended without one, so the game cannot be resumed. This must be called before a journal is added as a listener, so the replayed moves are not journalled
+	 * again.
+	 * @param file - the journal file
+	 * @param board - the chess board
+	 * @param clock - the chess clock
+	 * @return true if a game was restored to be resumed, false if the journal holds no game or a finished one
+	 * @throws IOException if the journal file cannot be read
+	 */
+	public static boolean restore(Path file, ChessBoard board, ChessClock clock) throws IOException {
+		//Check the file
+		if(!Files.exists(file))
+			return false;
+
+		//Read the valid records, then cut off a torn one
+		ArrayList<ByteBuffer> records = new ArrayList<ByteBuffer>();
+
+		try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer data = ByteBuffer.allocate((int)in.size());
+
+			while(data.hasRemaining() && in.read(data) >= 0);
+
+			data.flip();
+
+			while(data.remaining() >= HEADER_SIZE) {
+				int length = data.getInt(data.position());
+				int crc = data.getInt(data.position() + 4);
+
+				if(length <= 0 || length > MAX_PAYLOAD || data.remaining() - HEADER_SIZE < length)
+					break;
+
+				ByteBuffer payload = data.slice(data.position() + HEADER_SIZE, length);
+
+				if(crc != checksum(payload))
+					break;
+
+				records.add(payload);
+				data.position(data.position() + HEADER_SIZE + length);
+			}
+
+			if(data.hasRemaining()) in.truncate(data.position());
+		}
+
+		//Find the last game
+		int start = records.size() - 1;
+
+		while(start >= 0 && records.get(start).get(0) != START) start--;
+
+		if(start < 0)
+			return false;
+
+		//Start the game
+		ByteBuffer record = records.get(start);
+		boolean player = record.get(1) != 0;
+		int preset = record.get(2);
+		byte fen[] = new byte[record.getShort(3)];
+
+		record.get(5, fen);
+
+		if(preset >= 0) clock.setClock(ChessClock.getClockPreset(preset));
+		board.newGame(player);
+
+		String startFEN = new String(fen, StandardCharsets.UTF_8);
+
+		if(!startFEN.equals(board.getStartFEN())) board.setPosition(startFEN);
+
+		//Make the moves (converted to chess board spaces) and restore the last clock times
+		int stage = -1;
+		int whiteTime = 0;
+		int blackTime = 0;
+		boolean finished = false;
+
+		for(int i = start + 1; i < records.size(); ++i) {
+			record = records.get(i);
+
+			if(record.get(0) == MOVE) {
+				int move = record.getInt(1);
+
+				if(!board.submitMove(Move.encode(board.toPositionSpace(Move.getFrom(move)), board.toPositionSpace(Move.getTo(move)), Move.getPromotion(move))))
+					throw new IOException("GameJournal: illegal move " + Move.toNotation(move) + " in " + file);
+			}
+			else if(record.get(0) == FINISH) {
+				finished = true;
+			}
+
+			stage = record.get(5);
+			whiteTime = record.getInt(6);
+			blackTime = record.getInt(10);
+		}
+
+		if(preset >= 0 && stage >= 0) clock.restore(stage, whiteTime, blackTime);
+		else if(preset >= 0) clock.restore(0, clock.getWhiteClock().getTimeLength(), clock.getBlackClock().getTimeLength());
+
+		//Do not resume a game that had already finished
+		if(board.getGameState() != ChessBoard.GameState.PAUSED)
+			return false;
+
+		if(finished || (preset >= 0 && stage >= 0 && (whiteTime == 0 || blackTime == 0))) {
+			board.setGameState(ChessBoard.GameState.DRAW);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Does nothing, as the clock times are recorded with the game.
+	 * @param e - the stopwatch event triggering this call
+	 */
+	@Override
+	public void stopwatchPaused(StopwatchEvent e) {}
+
+	/**
+	 * Does nothing, as the clock times are recorded with the game.
+	 * @param e - the stopwatch event triggering this call
+	 */
+	@Override
+	public void stopwatchStarted(StopwatchEvent e) {}
+
+	/**
+	 * Records the clock times every CLOCK_INTERVAL seconds.
+	 * @param e - the stopwatch event triggering this call
+	 */
+	@Override
+	public void stopwatchTicked(StopwatchEvent e) {
+		if(e.getTime() % CLOCK_INTERVAL == 0) appendClock(CLOCK, Move.NO_MOVE);
+	}
+
+	/**
+	 * Records the clock times when a clock runs out.
+	 * @param e - the stopwatch event triggering this call
+	 */
+	@Override
+	public void stopwatchStopped(StopwatchEvent e) { appendClock(CLOCK, Move.NO_MOVE); }
+
+	/**
+	 * Records the start of a game when the first turn of a new game (or set up position) begins.
+	 * @param e - the chess board event triggering this call
+	 */
+	@Override
+	public void turnChanged(ChessBoardEvent e) {
+		//Only the first turn starts a game
+		if(board.getPosition().getPly() != 0)
+			return;
+
+		//Initialize variables
+		byte fen[] = board.getStartFEN().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer payload = ByteBuffer.allocate(5 + fen.length);
+
+		payload.put(START);
+		payload.put((byte)(board.getPlayerColor() ? 1 : 0));
+		payload.put((byte)((clock.getPreset() != null) ? clock.getPreset().ordinal() : -1));
+		payload.putShort((short)fen.length);
+		payload.put(fen);
+		append(payload);
+	}
+
+	/**
+	 * Queues a record for the writer thread.
+	 * @param payload - the record payload (filled up to its limit)
+	 */
+	private void append(ByteBuffer payload) {
+		//Initialize variables
+		ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.position());
+
+		payload.flip();
+		record.putInt(payload.remaining());
+		record.putInt(checksum(payload));
+		record.put(payload);
+		record.flip();
+
+		queue.add(record);
+	}
+
+	/**
+	 * Queues a move or clock record holding the clock stage and both clocks' remaining times.
+	 * @param type - the record type (MOVE or CLOCK)
+	 * @param move - the move (in position spaces), or Move.NO_MOVE
+	 */
+	private void appendClock(byte type, int move) {
+		ByteBuffer payload = ByteBuffer.allocate(14);
+		boolean timed = clock.getPreset() != null;
+
+		payload.put(type);
+		payload.putInt(move);
+		payload.put((byte)(timed ? clock.getStageIndex() : -1));
+		payload.putInt(timed ? clock.getWhiteClock().getTime() : 0);
+		payload.putInt(timed ? clock.getBlackClock().getTime() : 0);
+		append(payload);
+	}
+
+	/**
+	 * Returns the CRC32 of the remaining bytes of the specified buffer, without moving its position.
+	 * @param data - the bytes
+	 * @return the CRC32
+	 */
+	private static int checksum(ByteBuffer data) {
+		CRC32 crc = new CRC32();
+
+		crc.update(data.duplicate());
+		return (int)crc.getValue();
+	}
+
+	/**
+	 * Writes queued records until the END marker is queued. Each batch holds every record queued while the previous batch was written, and is forced to disk once. A batch
+	 * holding a game start record is written from that record, over a truncated journal.
+	 */
+	private void writeRecords() {
+		//Initialize variables
+		ArrayList<ByteBuffer> batch = new ArrayList<ByteBuffer>();
+		boolean running = true;
+
+		while(running) {
+			//Wait for a record, then take every queued record
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				break;
+			}
+
+			queue.drainTo(batch);
+
+			if(batch.get(batch.size() - 1) == END) {
+				batch.remove(batch.size() - 1);
+				running = false;
+			}
+
+			//Start from the last game start
+			int first = 0;
+			boolean start = false;
+
+			for(int i = 0; i < batch.size(); ++i) {
+				if(batch.get(i).get(HEADER_SIZE) == START) {
+					first = i;
+					start = true;
+				}
+			}
+
+			try {
+				if(start) channel.truncate(0).position(0);
+
+				ByteBuffer buffers[] = batch.subList(first, batch.size()).toArray(new ByteBuffer[0]);
+
+				for(int i = 0; i < buffers.length; ++i) {
+					while(buffers[i].hasRemaining())
+						channel.write(buffers, i, buffers.length - i);
+				}
+
+				channel.force(false);
+			} catch (IOException e) {
+				if(failure == null) {
+					failure = e;
+					System.err.println("GameJournal: failed to write the journal: " + e.getMessage());
+				}
+			}
+
+			batch.clear();
+		}
+	}
+}
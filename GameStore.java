@@ -0,0 +1,432 @@
+package com.chess.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chess.MoveList;
+import com.chess.Position;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnListener;
+import com.chess.pgn.PgnReader;
+
+/**
+ * GameStore reads a binary game store written by GameStoreWriter. The file is memory mapped, so any game can be read directly through the offset index and iterating the
+ * whole store is done by several threads without copying the file. Decoding a move only needs the pseudo-legal moves of the position, which is much cheaper than resolving
+ * SAN text.
+ * <p>
+ * The file starts with a 64 byte header (magic, version, game count and the offsets of each section), followed by the move records, the tag records, the tag dictionary
+ * and the offset index. A move record is a varint holding the result and number of moves, then one varint per move. A tag record is a varint tag count, then the
+ * dictionary ids of each tag name and value. The index holds the absolute move record and tag record offsets of each game as longs.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class GameStore implements Closeable {
+
+	/** Store file magic number ("NANG"). */
+	public static final int MAGIC = 0x4E414E47;
+	/** Store file format version. */
+	public static final int VERSION = 1;
+	/** Header size in bytes. */
+	public static final int HEADER_SIZE = 64;
+	/** Maximum number of tags in a game. */
+	public static final int MAX_TAGS = 256;
+	/** Maximum size of a single move or tag record in bytes. */
+	public static final int MAX_RECORD_SIZE = 5 + (Position.MAX_PLY * 2) + (MAX_TAGS * 10);
+
+	/** Size of each mapped chunk of the file. */
+	private static final long CHUNK_SIZE = 1L << 30;
+	/** Overlap of the mapped chunks, so a record starting in a chunk always ends in the same chunk. */
+	private static final long CHUNK_OVERLAP = 1L << 16;
+	/** Result values, indexed by result code. */
+	private static final String[] RESULTS = { PgnGame.UNKNOWN, PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW };
+
+	/** The store file. */
+	private FileChannel channel;
+	/** Mapped chunks of the file. */
+	private MappedByteBuffer chunks[];
+	/** Number of games. */
+	private int count;
+	/** Offset of the offset index. */
+	private long indexOffset;
+	/** Tag dictionary. */
+	private String dictionary[];
+	/** Position used by readGame. */
+	private Position position;
+	/** Move list used by readGame. */
+	private MoveList moves;
+
+	/**
+	 * Constructor for GameStore that opens and maps the specified store file.
+	 * @param file - the store file
+	 * @throws IOException if the file cannot be read or is not a game store
+	 */
+	public GameStore(Path file) throws IOException {
+		//Open and map the file
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+
+		try {
+			long size = channel.size();
+
+			chunks = new MappedByteBuffer[(int)Math.max(1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+
+			for(int i = 0; i < chunks.length; ++i) {
+				long start = i * CHUNK_SIZE;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, CHUNK_SIZE + CHUNK_OVERLAP));
+			}
+
+			//Read the header
+			ByteBuffer header = chunks[0];
+
+			if(size < HEADER_SIZE || header.getInt(0) != MAGIC)
+				throw new IOException("GameStore: " + file + " is not a game store");
+
+			if(header.getInt(4) != VERSION)
+				throw new IOException("GameStore: unsupported version " + header.getInt(4));
+
+			count = header.getInt(8);
+			indexOffset = header.getLong(32);
+
+			if(header.getLong(40) != size)
+				throw new IOException("GameStore: " + file + " is incomplete");
+
+			//Read the dictionary (each string starts a new cursor, as the dictionary can span chunks)
+			Cursor cursor = new Cursor(header.getLong(24));
+
+			dictionary = new String[cursor.readVarint()];
+
+			for(int i = 0; i < dictionary.length; ++i) {
+				cursor = new Cursor(cursor.getOffset());
+				dictionary[i] = cursor.readString(cursor.readVarint());
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+
+		position = new Position();
+		moves = new MoveList();
+	}
+
+	/**
+	 * Program entry point method that converts a PGN file to a game store ("convert in.pgn out.ngs") or reads every game of a game store ("scan in.ngs") and reports the
+	 * size and speed. Both take a -threads option.
+	 * @param args - the command, files and options
+	 */
+	public static void main(String[] args) {
+		//Check arguments
+		if(args.length < 2 || (args[0].equals("convert") && args.length < 3)) {
+			System.err.println("Usage: GameStore convert <in.pgn> <out.ngs> [-threads n] | scan <in.ngs> [-threads n]");
+			System.exit(2);
+		}
+
+		//Initialize variables
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		for(int i = 0; i < args.length - 1; ++i) {
+			if(args[i].equals("-threads")) threads = Integer.parseInt(args[i + 1]);
+		}
+
+		try {
+			long start = System.nanoTime();
+
+			if(args[0].equals("convert")) {
+				//Convert a PGN file
+				Path pgn = Paths.get(args[1]);
+				Path store = Paths.get(args[2]);
+				long skipped[] = new long[1];
+				long games = convert(pgn, store, threads, skipped);
+				double seconds = (System.nanoTime() - start) / 1e9;
+
+				System.out.printf("%d games converted (%d skipped) in %.2f s (%.0f games/minute), %d bytes -> %d bytes (%.1fx smaller)%n", games, skipped[0], seconds,
+						games * 60 / seconds, Files.size(pgn), Files.size(store), Files.size(pgn) / (double)Files.size(store));
+			}
+			else if(args[0].equals("scan")) {
+				//Read every game
+				AtomicLong plies = new AtomicLong();
+
+				try(GameStore store = new GameStore(Paths.get(args[1]))) {
+					store.read(new PgnListener() {
+						@Override
+						public void gameRead(PgnGame game) {
+							plies.addAndGet(game.getMoveCount());
+						}
+					}, threads);
+
+					double seconds = (System.nanoTime() - start) / 1e9;
+
+					System.out.printf("%d games (%d plies) read in %.2f s: %.0f games/minute on %d threads%n", store.getGameCount(), plies.get(), seconds,
+							store.getGameCount() * 60 / seconds, threads);
+				}
+			}
+			else {
+				System.err.println("Unknown command " + args[0]);
+				System.exit(2);
+			}
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Closes the store file. The mapped chunks stay valid until they are garbage collected, but no games can be read after closing.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		chunks = new MappedByteBuffer[0];
+		channel.close();
+	}
+
+	/**
+	 * Converts the specified PGN file to a game store, parsing the PGN file with the specified number of threads. Games are stored in the order they are parsed, except
+	 * games longer than Position.MAX_PLY moves or with more than MAX_TAGS tags, which are skipped.
+	 * @param pgn - the PGN file
+	 * @param store - the game store file to create
+	 * @param threads - the number of parser threads
+	 * @param skipped - receives the number of games skipped in its first element
+	 * @return the number of games stored
+	 * @throws IOException if a file cannot be read or written
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public static long convert(Path pgn, Path store, int threads, long skipped[]) throws IOException, InterruptedException {
+		try(FileChannel in = FileChannel.open(pgn, StandardOpenOption.READ); GameStoreWriter writer = new GameStoreWriter(store)) {
+			new PgnReader(in).read(new PgnListener() {
+				@Override
+				public void gameRead(PgnGame game) {
+					try {
+						writer.add(game);
+					} catch (IOException e) {
+						throw new IllegalStateException("GameStore: failed to write " + store, e);
+					}
+				}
+			}, threads);
+
+			skipped[0] = writer.getSkippedCount();
+
+			return writer.getGameCount();
+		} catch (IllegalStateException e) {
+			if(e.getCause() instanceof IOException) throw (IOException)e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of games in the store.
+	 * @return the number of games
+	 */
+	public int getGameCount() { return count; }
+
+	/**
+	 * Reads every game in the store and passes each one to the specified listener. The games are split into one range per thread, so the listener is called from each
+	 * thread at the same time and must be thread safe. Games within a range are read in order.
+	 * @param listener - the listener that receives each game
+	 * @param threads - the number of threads
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public void read(PgnListener listener, int threads) throws InterruptedException {
+		//Check parameters
+		if(threads <= 0)
+			throw new IllegalArgumentException("GameStore: threads must be positive");
+
+		//Initialize variables
+		Thread readers[] = new Thread[threads];
+		RuntimeException failure[] = new RuntimeException[1];
+
+		for(int i = 0; i < threads; ++i) {
+			int first = (int)((long)count * i / threads);
+			int last = (int)((long)count * (i + 1) / threads);
+
+			readers[i] = new Thread("Game Store Reader " + (i + 1)) {
+				@Override
+				public void run() {
+					//Initialize variables
+					PgnGame game = new PgnGame();
+					Position pos = new Position();
+					MoveList list = new MoveList();
+
+					try {
+						for(int j = first; j < last && failure[0] == null; ++j) {
+							decode(j, game, pos, list);
+							listener.gameRead(game);
+						}
+					} catch (RuntimeException e) {
+						failure[0] = e;
+					}
+				}
+			};
+			readers[i].start();
+		}
+
+		for(int i = 0; i < threads; ++i)
+			readers[i].join();
+
+		if(failure[0] != null)
+			throw failure[0];
+	}
+
+	/**
+	 * Reads the game at the specified index into the specified game.
+	 * @param index - the game index (0 - getGameCount() - 1)
+	 * @param game - the game to fill
+	 */
+	public synchronized void readGame(int index, PgnGame game) {
+		//Check parameters
+		if(index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("GameStore: no game " + index);
+
+		decode(index, game, position, moves);
+	}
+
+	/**
+	 * Returns the result of the specified result code.
+	 * @param code - the result code (0 - 3)
+	 * @return the result (see PgnGame)
+	 */
+	static String decodeResult(int code) { return RESULTS[code]; }
+
+	/**
+	 * Returns the result code of the specified result.
+	 * @param result - the result (see PgnGame)
+	 * @return the result code (0 - 3)
+	 */
+	static int encodeResult(String result) {
+		for(int i = 1; i < RESULTS.length; ++i) {
+			if(RESULTS[i].equals(result)) return i;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Writes the specified value as an unsigned varint (7 bits per byte, low bits first) into the specified buffer.
+	 * @param buf - the buffer
+	 * @param pos - the index to write at
+	 * @param value - the value (not negative)
+	 * @return the index after the varint
+	 */
+	static int putVarint(byte buf[], int pos, int value) {
+		while((value & ~0x7F) != 0) {
+			buf[pos++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		buf[pos++] = (byte)value;
+		return pos;
+	}
+
+	/**
+	 * Decodes the game at the specified index: its tags first (the FEN tag gives the starting position), then its moves.
+	 * @param index - the game index
+	 * @param game - the game to fill
+	 * @param pos - the position used to decode moves
+	 * @param list - the move list buffer
+	 */
+	void decode(int index, PgnGame game, Position pos, MoveList list) {
+		//Initialize variables
+		long entry = indexOffset + (index * 16L);
+		Cursor moveCursor = new Cursor(readLong(entry));
+		Cursor tagCursor = new Cursor(readLong(entry + 8));
+
+		game.clear();
+
+		//Read the tags
+		for(int i = tagCursor.readVarint(); i > 0; --i)
+			game.setTag(dictionary[tagCursor.readVarint()], dictionary[tagCursor.readVarint()]);
+
+		//Read the result and moves
+		int header = moveCursor.readVarint();
+
+		game.setResult(RESULTS[header & 3]);
+		if(game.getTag("FEN") != null) pos.setFEN(game.getTag("FEN"));
+		else pos.reset();
+
+		for(int i = header >>> 2; i > 0; --i) {
+			pos.generateMoves(list);
+
+			int move = list.get(moveCursor.readVarint());
+
+			pos.makeMove(move);
+			game.addMove(move);
+		}
+	}
+
+	/**
+	 * Reads a long at the specified file offset.
+	 * @param offset - the file offset
+	 * @return the long
+	 */
+	private long readLong(long offset) {
+		return chunks[(int)(offset / CHUNK_SIZE)].getLong((int)(offset % CHUNK_SIZE));
+	}
+
+	/**
+	 * Cursor reads varints and strings from the mapped file, starting at a file offset. Each cursor reads within a single mapped chunk.
+	 */
+	private class Cursor {
+
+		/** The chunk being read. */
+		private ByteBuffer chunk;
+		/** File offset of the chunk. */
+		private long base;
+		/** Index within the chunk. */
+		private int pos;
+
+		/**
+		 * Constructor for Cursor that starts reading at the specified file offset.
+		 * @param offset - the file offset
+		 */
+		public Cursor(long offset) {
+			chunk = chunks[(int)(offset / CHUNK_SIZE)];
+			base = offset - (offset % CHUNK_SIZE);
+			pos = (int)(offset % CHUNK_SIZE);
+		}
+
+		/**
+		 * Returns the file offset of the next byte to read.
+		 * @return the file offset
+		 */
+		public long getOffset() { return base + pos; }
+
+		/**
+		 * Reads a UTF-8 string of the specified length.
+		 * @param length - the length in bytes
+		 * @return the string
+		 */
+		public String readString(int length) {
+			byte bytes[] = new byte[length];
+
+			chunk.get(pos, bytes);
+			pos += length;
+
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Reads an unsigned varint.
+		 * @return the value
+		 */
+		public int readVarint() {
+			int value = 0;
+
+			for(int shift = 0;; shift += 7) {
+				byte b = chunk.get(pos++);
+				value |= (b & 0x7F) << shift;
+
+				if(b >= 0) return value;
+			}
+		}
+	}
+}
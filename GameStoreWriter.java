@@ -0,0 +1,259 @@
+package com.chess.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.chess.MoveList;
+import com.chess.Position;
+import com.chess.pgn.PgnGame;
+
+/**
+ * GameStoreWriter writes games to a binary game store (see GameStore). Each move is stored as its index in the pseudo-legal move list of its position, packed as a varint
+ * (almost always a single byte), and each tag name and value is stored once in a dictionary and referenced by a varint id. Move records are streamed to the file as they
+ * are added, while the much smaller tag records, dictionary and offset index are kept in memory and written when the store is closed.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class GameStoreWriter implements Closeable {
+
+	/** The store file. */
+	private FileChannel channel;
+	/** Output buffer for move records. */
+	private ByteBuffer buffer;
+	/** Offset of the next move record. */
+	private long offset;
+	/** Tag records. */
+	private ByteArrayOutputStream tags;
+	/** Dictionary ids of each string. */
+	private HashMap<String, Integer> ids;
+	/** Dictionary strings, in id order. */
+	private ArrayList<String> dictionary;
+	/** Move record offset of each game. */
+	private long moveOffsets[];
+	/** Tag record offset (within the tag records) of each game. */
+	private long tagOffsets[];
+	/** Number of games. */
+	private int count;
+	/** Number of games skipped because they are too long or have too many tags to store. */
+	private long skipped;
+	/** Position used to encode moves. */
+	private Position position;
+	/** Move list buffer. */
+	private MoveList moves;
+	/** Record buffer. */
+	private byte record[];
+
+	/**
+	 * Constructor for GameStoreWriter that creates (or replaces) the specified store file.
+	 * @param file - the store file
+	 * @throws IOException if the file cannot be created
+	 */
+	public GameStoreWriter(Path file) throws IOException {
+		//Initialize variables
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		buffer = ByteBuffer.allocate(1 << 16);
+		offset = GameStore.HEADER_SIZE;
+		tags = new ByteArrayOutputStream(1 << 16);
+		ids = new HashMap<String, Integer>();
+		dictionary = new ArrayList<String>();
+		moveOffsets = new long[1024];
+		tagOffsets = new long[1024];
+		count = 0;
+		skipped = 0;
+		position = new Position();
+		moves = new MoveList();
+		record = new byte[GameStore.MAX_RECORD_SIZE];
+
+		//Leave room for the header
+		channel.position(GameStore.HEADER_SIZE);
+	}
+
+	/**
+	 * Adds a game to the store. The game's moves must be legal from its starting position. A game longer than Position.MAX_PLY moves or with more than
+	 * GameStore.MAX_TAGS tags cannot be stored, and is skipped and counted instead (see getSkippedCount).
+	 * @param game - the game to add
+	 * @throws IOException if the store file cannot be written
+	 */
+	public synchronized void add(PgnGame game) throws IOException {
+		//Skip games that are too long or have too many tags to store
+		if(game.getMoveCount() > Position.MAX_PLY || game.getTagCount() > GameStore.MAX_TAGS) {
+			skipped++;
+			return;
+		}
+
+		//Initialize variables
+		int length = 0;
+
+		//Encode the moves as indices in the pseudo-legal move list of each position
+		if(game.getTag("FEN") != null) position.setFEN(game.getTag("FEN"));
+		else position.reset();
+
+		length = GameStore.putVarint(record, length, GameStore.encodeResult(game.getResult()) | (game.getMoveCount() << 2));
+
+		for(int i = 0; i < game.getMoveCount(); ++i) {
+			int move = game.getMove(i);
+			int index = -1;
+
+			position.generateMoves(moves);
+
+			for(int j = 0; j < moves.size() && index < 0; ++j) {
+				if(moves.get(j) == move) index = j;
+			}
+
+			if(index < 0 || !position.makeMove(move))
+				throw new IllegalArgumentException("GameStoreWriter: illegal move at ply " + i);
+
+			length = GameStore.putVarint(record, length, index);
+		}
+
+		//Grow the offset index
+		if(count == moveOffsets.length) {
+			moveOffsets = Arrays.copyOf(moveOffsets, count * 2);
+			tagOffsets = Arrays.copyOf(tagOffsets, count * 2);
+		}
+
+		moveOffsets[count] = offset;
+		tagOffsets[count] = tags.size();
+		count++;
+
+		//Write the move record
+		write(record, length);
+
+		//Encode the tags as dictionary ids
+		length = GameStore.putVarint(record, 0, game.getTagCount());
+
+		for(int i = 0; i < game.getTagCount(); ++i) {
+			length = GameStore.putVarint(record, length, getId(game.getTagName(i)));
+			length = GameStore.putVarint(record, length, getId(game.getTagValue(i)));
+		}
+
+		tags.write(record, 0, length);
+	}
+
+	/**
+	 * Writes the tag records, dictionary, offset index and header, and closes the store file.
+	 * @throws IOException if the store file cannot be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			//Tag records
+			long tagsOffset = offset;
+			byte tagBytes[] = tags.toByteArray();
+
+			write(tagBytes, tagBytes.length);
+
+			//Dictionary
+			long dictionaryOffset = offset;
+
+			write(record, GameStore.putVarint(record, 0, dictionary.size()));
+
+			for(int i = 0; i < dictionary.size(); ++i) {
+				byte bytes[] = dictionary.get(i).getBytes(StandardCharsets.UTF_8);
+
+				write(record, GameStore.putVarint(record, 0, bytes.length));
+				write(bytes, bytes.length);
+			}
+
+			//Offset index (the tag offsets are made absolute)
+			long indexOffset = offset;
+
+			for(int i = 0; i < count; ++i) {
+				if(buffer.remaining() < 16) flush();
+
+				buffer.putLong(moveOffsets[i]);
+				buffer.putLong(tagsOffset + tagOffsets[i]);
+				offset += 16;
+			}
+
+			flush();
+
+			//Header
+			ByteBuffer header = ByteBuffer.allocate(GameStore.HEADER_SIZE);
+
+			header.putInt(GameStore.MAGIC);
+			header.putInt(GameStore.VERSION);
+			header.putInt(count);
+			header.putInt(0);
+			header.putLong(tagsOffset);
+			header.putLong(dictionaryOffset);
+			header.putLong(indexOffset);
+			header.putLong(offset);
+			header.clear();
+
+			while(header.hasRemaining())
+				channel.write(header, header.position());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Returns the number of games added.
+	 * @return the number of games
+	 */
+	public synchronized int getGameCount() { return count; }
+
+	/**
+	 * Returns the number of games skipped because they are longer than Position.MAX_PLY moves or have more than GameStore.MAX_TAGS tags.
+	 * @return the number of skipped games
+	 */
+	public synchronized long getSkippedCount() { return skipped; }
+
+	/**
+	 * Writes the output buffer to the store file.
+	 * @throws IOException if the store file cannot be written
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+
+		buffer.clear();
+	}
+
+	/**
+	 * Returns the dictionary id of the specified string, adding the string to the dictionary if it is new.
+	 * @param str - the string
+	 * @return the dictionary id
+	 */
+	private int getId(String str) {
+		Integer id = ids.get(str);
+
+		if(id == null) {
+			id = dictionary.size();
+			ids.put(str, id);
+			dictionary.add(str);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Writes bytes to the store file through the output buffer.
+	 * @param bytes - the bytes
+	 * @param length - the number of bytes
+	 * @throws IOException if the store file cannot be written
+	 */
+	private void write(byte bytes[], int length) throws IOException {
+		for(int i = 0; i < length;) {
+			if(!buffer.hasRemaining()) flush();
+
+			int n = Math.min(length - i, buffer.remaining());
+			buffer.put(bytes, i, n);
+			i += n;
+		}
+
+		offset += length;
+	}
+}
@@ -0,0 +1,344 @@
+package com.chess.match;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.chess.selfplay.SelfPlayGame;
+import com.chess.selfplay.VirtualClock;
+
+/**
+ * MatchRunner is a headless entry point that plays two engine configurations against each other until a sequential probability ratio test (SPRT) decides which one is
+ * stronger. Games are played in pairs from a balanced opening set with the engines swapping colors, pairs are run in parallel across the CPU cores, and the Elo
+ * difference, its error bar and the log-likelihood ratio are printed after every pair.
+ * <p>
+ * Searches are limited by virtual time (see VirtualClock), so a game is fully decided by its opening and two pairs from the same opening would be the same games counted
+ * twice. Each pair therefore plays a few random plies after its opening line, from its own seed, and both games of the pair play the same random plies. With no random
+ * plies the match stops once every opening has been played.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class MatchRunner {
+
+	/** Default time control (in seconds). */
+	public static final String DEF_TIME_CONTROL = "10+0.1";
+	/** Default transposition table size (in megabytes) for each search. */
+	public static final int DEF_HASH_MB = 4;
+	/** Default maximum number of game pairs. */
+	public static final int DEF_MAX_PAIRS = 20000;
+	/** Default H0 Elo difference. */
+	public static final double DEF_ELO0 = 0;
+	/** Default H1 Elo difference. */
+	public static final double DEF_ELO1 = 5;
+	/** Default false positive and false negative rate. */
+	public static final double DEF_ALPHA_BETA = 0.05;
+	/** Default number of random plies played after each opening line. */
+	public static final int DEF_RANDOM_PLIES = 2;
+
+	/** Balanced opening set (each line is played twice, once with each engine as white). */
+	public static final String[] BALANCED_OPENINGS = {
+		"e2e4 e7e5 g1f3 b8c6", "e2e4 e7e5 g1f3 g8f6", "e2e4 e7e5 f1c4 g8f6", "e2e4 c7c5 g1f3 d7d6", "e2e4 c7c5 g1f3 b8c6", "e2e4 c7c5 b1c3 b8c6",
+		"e2e4 c7c5 c2c3 g8f6", "e2e4 e7e6 d2d4 d7d5", "e2e4 c7c6 d2d4 d7d5", "e2e4 d7d6 d2d4 g8f6", "e2e4 g7g6 d2d4 f8g7", "e2e4 d7d5 e4d5 d8d5",
+		"d2d4 d7d5 c2c4 e7e6", "d2d4 d7d5 c2c4 c7c6", "d2d4 d7d5 g1f3 g8f6", "d2d4 g8f6 c2c4 g7g6", "d2d4 g8f6 c2c4 e7e6", "d2d4 g8f6 g1f3 e7e6",
+		"d2d4 f7f5 g2g3 g8f6", "c2c4 e7e5 b1c3 g8f6", "c2c4 c7c5 g1f3 g8f6", "g1f3 d7d5 g2g3 g8f6", "g1f3 g8f6 c2c4 b7b6", "e2e4 b7b6 d2d4 c8b7"
+	};
+
+	/** First engine (the engine being tested). */
+	private EngineConfig engine1;
+	/** Second engine (the baseline). */
+	private EngineConfig engine2;
+	/** Opening lines. */
+	private List<String> openings;
+	/** Time control. */
+	private String timeControl;
+	/** Virtual nodes per second. */
+	private long virtualNps;
+	/** Transposition table size (in megabytes) for each search. */
+	private int hashSize;
+	/** Number of CPU threads that run searches. */
+	private int threads;
+	/** Maximum number of game pairs. */
+	private int maxPairs;
+	/** Number of random plies played after each opening line. */
+	private int randomPlies;
+	/** Random seed used to shuffle the openings and, with the pair number, to pick each pair's random plies. */
+	private long seed;
+	/** The sequential probability ratio test. */
+	private SPRT sprt;
+	/** Match stopped flag. */
+	private AtomicBoolean stopped;
+
+	/**
+	 * Default constructor for the MatchRunner that plays the default engine against itself with the default settings.
+	 */
+	public MatchRunner() {
+		//Initialize variables
+		engine1 = new EngineConfig("new");
+		engine2 = new EngineConfig("base");
+		openings = new ArrayList<String>(List.of(BALANCED_OPENINGS));
+		timeControl = DEF_TIME_CONTROL;
+		virtualNps = VirtualClock.DEF_VIRTUAL_NPS;
+		hashSize = DEF_HASH_MB;
+		threads = Runtime.getRuntime().availableProcessors();
+		maxPairs = DEF_MAX_PAIRS;
+		randomPlies = DEF_RANDOM_PLIES;
+		seed = 0;
+		sprt = new SPRT(DEF_ELO0, DEF_ELO1, DEF_ALPHA_BETA, DEF_ALPHA_BETA);
+		stopped = new AtomicBoolean(false);
+	}
+
+	/**
+	 * Program entry point method that runs an SPRT match. Options are -engine1 and -engine2 (see EngineConfig), -openings (a file with one opening line of coordinate
+	 * notation moves per line), -tc (base+increment in seconds), -nps (virtual nodes per second), -hash (megabytes per search), -threads, -max-pairs, -random-plies
+	 * (random plies after each opening line), -seed and -sprt (elo0,elo1,alpha,beta).
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		MatchRunner runner = new MatchRunner();
+
+		try {
+			runner.parseOptions(args);
+			runner.run();
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("Failed to read openings: " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Match interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns the sequential probability ratio test of this match.
+	 * @return the SPRT
+	 */
+	public SPRT getSPRT() { return sprt; }
+
+	/**
+	 * Reads the match settings from the specified command line options.
+	 * @param args - the options
+	 * @throws IOException if the opening file cannot be read
+	 */
+	public void parseOptions(String[] args) throws IOException {
+		for(int i = 0; i < args.length; ++i) {
+			//Every option has a value
+			if(i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing value for option " + args[i]);
+
+			try {
+				switch(args[i]) {
+				case "-engine1":
+					engine1 = EngineConfig.parse(args[++i]);
+					break;
+				case "-engine2":
+					engine2 = EngineConfig.parse(args[++i]);
+					break;
+				case "-openings":
+					openings = readOpenings(args[++i]);
+					break;
+				case "-tc":
+					timeControl = args[++i];
+					break;
+				case "-nps":
+					virtualNps = Long.parseLong(args[++i]);
+					break;
+				case "-hash":
+					hashSize = Integer.parseInt(args[++i]);
+					break;
+				case "-threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "-max-pairs":
+					maxPairs = Integer.parseInt(args[++i]);
+					break;
+				case "-random-plies":
+					randomPlies = Integer.parseInt(args[++i]);
+					break;
+				case "-seed":
+					seed = Long.parseLong(args[++i]);
+					break;
+				case "-sprt":
+					String[] sprtArgs = args[++i].split(",");
+
+					if(sprtArgs.length != 4)
+						throw new IllegalArgumentException("-sprt must be elo0,elo1,alpha,beta");
+
+					sprt = new SPRT(Double.parseDouble(sprtArgs[0]), Double.parseDouble(sprtArgs[1]), Double.parseDouble(sprtArgs[2]), Double.parseDouble(sprtArgs[3]));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid value for option " + args[i - 1] + ": " + args[i]);
+			}
+		}
+
+		if(hashSize <= 0 || threads <= 0 || maxPairs <= 0 || randomPlies < 0 || openings.isEmpty())
+			throw new IllegalArgumentException("Hash, threads and maximum pairs must be positive, random plies cannot be negative and at least one opening is needed");
+
+		//Check the time control
+		VirtualClock.parse(timeControl, virtualNps);
+	}
+
+	/**
+	 * Plays game pairs until the SPRT accepts a hypothesis or the maximum number of pairs is played, then prints the final result.
+	 * @throws InterruptedException if the match is interrupted
+	 */
+	public void run() throws InterruptedException {
+		//Initialize variables
+		ExecutorService cpuPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count = 0;
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "NAN Search " + (++count));
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		Semaphore slots = new Semaphore(threads * 2);
+		SplittableRandom random = new SplittableRandom(seed);
+		int pairs = maxPairs;
+
+		//Shuffle the openings so any prefix of the match is balanced
+		for(int i = openings.size() - 1; i > 0; --i) {
+			int j = random.nextInt(i + 1);
+			openings.set(i, openings.set(j, openings.get(i)));
+		}
+
+		System.out.println(engine1 + " vs " + engine2 + ", tc " + timeControl + " at " + virtualNps + " virtual nps, " + openings.size() + " openings with " + randomPlies +
+				" random plies, LLR bounds (" + String.format("%.2f, %.2f", sprt.getLowerBound(), sprt.getUpperBound()) + ")");
+
+		//Without random plies, a repeated opening replays the same games, so stop when every opening has been played
+		if(randomPlies == 0 && pairs > openings.size()) {
+			pairs = openings.size();
+			System.out.println("No random plies: the match stops after " + pairs + " pairs, when every opening has been played once");
+		}
+
+		//Play each pair on its own virtual thread, keeping enough pairs in flight to fill the CPU pool
+		try(ExecutorService pairPool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for(int i = 0; i < pairs && !stopped.get(); ++i) {
+				int index = i;
+
+				slots.acquire();
+
+				pairPool.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							playPair(index, cpuPool);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} catch (RuntimeException e) {
+							System.err.println("Pair " + index + " failed: " + e);
+						} finally {
+							slots.release();
+						}
+					}
+				});
+			}
+		}
+
+		cpuPool.shutdown();
+
+		//Print the final result
+		switch(sprt.getState()) {
+		case SPRT.ACCEPT_H1:
+			System.out.println("H1 accepted: " + engine1.getName() + " is stronger");
+			break;
+		case SPRT.ACCEPT_H0:
+			System.out.println("H0 accepted: " + engine1.getName() + " is not stronger");
+			break;
+		default:
+			System.out.println("No decision after " + sprt.getPairCount() + " pairs");
+		}
+	}
+
+	/**
+	 * Plays one game pair from the opening and random plies for the specified pair number, with each engine playing white once, and adds the pair to the SPRT.
+	 * @param index - the pair number
+	 * @param cpuPool - the CPU pool that runs searches
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	private void playPair(int index, ExecutorService cpuPool) throws InterruptedException {
+		//Initialize variables
+		String opening = openings.get(index % openings.size());
+		double first = playGame(engine1, engine2, opening, seed + index, cpuPool);
+		double second = 1 - playGame(engine2, engine1, opening, seed + index, cpuPool);
+
+		//Skip pairs that finish after the test has stopped
+		if(stopped.get())
+			return;
+
+		sprt.addPair(first, second);
+		report();
+
+		if(sprt.getState() != SPRT.CONTINUE)
+			stopped.set(true);
+	}
+
+	/**
+	 * Plays one game from the specified opening and random plies and returns white's score.
+	 * @param white - white's engine
+	 * @param black - black's engine
+	 * @param opening - the opening moves
+	 * @param pairSeed - the seed of the random plies played after the opening
+	 * @param cpuPool - the CPU pool that runs searches
+	 * @return white's score (0, 0.5 or 1)
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	private double playGame(EngineConfig white, EngineConfig black, String opening, long pairSeed, ExecutorService cpuPool) throws InterruptedException {
+		//Initialize variables
+		SelfPlayGame game = new SelfPlayGame(white.createSearch(hashSize), black.createSearch(hashSize), VirtualClock.parse(timeControl, virtualNps), cpuPool);
+
+		game.setOpening(opening);
+		game.setRandomOpening(randomPlies, pairSeed);
+
+		//Play the game
+		String result = game.play();
+
+		return result.equals(SelfPlayGame.WHITE_WINS) ? 1.0 : result.equals(SelfPlayGame.DRAW) ? 0.5 : 0.0;
+	}
+
+	/**
+	 * Reads opening lines from the specified file. Blank lines and lines starting with '#' are skipped.
+	 * @param file - the opening file
+	 * @return the opening lines
+	 * @throws IOException if the file cannot be read
+	 */
+	private static List<String> readOpenings(String file) throws IOException {
+		//Initialize variables
+		List<String> lines = new ArrayList<String>();
+
+		for(String line : Files.readAllLines(Paths.get(file))) {
+			if(!line.isBlank() && !line.startsWith("#"))
+				lines.add(line.trim());
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Prints the current match score, Elo difference, error bar and log-likelihood ratio.
+	 */
+	private synchronized void report() {
+		//Initialize variables
+		long[] games = sprt.getGames();
+		long[] pairs = sprt.getPentanomial();
+
+		System.out.printf("Games %d: +%d =%d -%d  Elo %.1f +/- %.1f  LLR %.2f (%.2f, %.2f)  pairs [%d %d %d %d %d]%n", games[0] + games[1] + games[2], games[0], games[1],
+				games[2], sprt.getElo(), sprt.getEloError(), sprt.getLLR(), sprt.getLowerBound(), sprt.getUpperBound(), pairs[0], pairs[1], pairs[2], pairs[3], pairs[4]);
+	}
+}
@@ -0,0 +1,748 @@
+package com.chess.nan.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * MonteCarloSearch is a PUCT tree search for the NAN, an alternative to the alpha-beta Search with the same interface. Each playout descends the tree choosing the child
+ * with the highest value plus exploration bonus (prior * sqrt(parent visits) / (1 + visits)), expands the leaf it reaches, and backs up the leaf's evaluation (mapped to
+ * -1 - 1 with tanh) along its path. The NAN's network has no policy head, so move priors come from a softmax over the material each move wins. The best move is the most
+ * visited child of the root.
+ * <p>
+ * Nodes are kept in a pool of primitive arrays (one entry per node, with each node's children stored next to each other) that is allocated once. Several threads can
+ * descend the tree at once: a thread passing through a child counts a virtual loss for it, so other threads prefer different paths until its playout is backed up, and
+ * a node is expanded by the first thread to claim it. When the next search's position is in the tree, because it follows the last searched position by moves the tree
+ * already holds, that subtree is copied to the front of a second pool and becomes the new tree, keeping its visits. Once the pool is full the tree stops growing, and
+ * playouts keep refining the visits of the nodes it has.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class MonteCarloSearch extends Search {
+
+	/** Default exploration constant. */
+	public static final float DEF_EXPLORATION = 1.5f;
+	/** Default virtual loss (in visits lost) of a thread passing through a node. */
+	public static final int DEF_VIRTUAL_LOSS = 3;
+	/** Default number of search threads. */
+	public static final int DEF_THREADS = 1;
+	/** Centipawn score mapped to a value of tanh(0.5). */
+	public static final int VALUE_SCALE = 400;
+
+	/** Bytes used by each node (in both pools). */
+	private static final int NODE_BYTES = 2 * 24;
+	/** Fixed point scale of value sums. */
+	private static final long VALUE_ONE = 1L << 16;
+	/** Value subtracted from the parent's value for unvisited children. */
+	private static final float FPU_REDUCTION = 0.2f;
+	/** Material (in centipawns) that raises a move's prior logit by 1. */
+	private static final float PRIOR_SCALE = 200.0f;
+	/** Time between progress reports in milliseconds. */
+	private static final long REPORT_INTERVAL = 1000;
+	/** Number of playouts of the calling thread between limit checks. */
+	private static final int CHECK_PLAYOUTS = 64;
+
+	/** Node states. */
+	private static final byte NEW = 0, EXPANDING = 1, EXPANDED = 2, MATED = 3, STALEMATE = 4;
+
+	/** Atomic access to node states. */
+	private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+	/** Atomic access to node visits. */
+	private static final VarHandle VISITS = MethodHandles.arrayElementVarHandle(int[].class);
+	/** Atomic access to node value sums. */
+	private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/** Nodes of the tree. */
+	private NodePool pool;
+	/** Pool the tree is copied to when it is reused, or null until first needed. */
+	private NodePool spare;
+	/** Number of nodes used in the pool (may pass the capacity when the pool is full). */
+	private AtomicInteger size;
+	/** The position at the root of the tree, or null if there is no tree. */
+	private Position treePosition;
+	/** Search listener. */
+	private SearchListener listener;
+
+	/** Exploration constant. */
+	private float exploration;
+	/** Virtual loss. */
+	private int virtualLoss;
+	/** Number of search threads. */
+	private int threads;
+
+	/** Stop flag. */
+	private volatile boolean stopped;
+	/** Set when an expansion did not fit in the pool, after which playouts stop at the tree's leaves. */
+	private volatile boolean full;
+	/** Nodes searched (moves made while descending). */
+	private AtomicLong nodes;
+	/** Playouts. */
+	private AtomicLong playouts;
+	/** Deepest playout. */
+	private AtomicInteger maxDepth;
+	/** Search start time in milliseconds. */
+	private long startTime;
+	/** Score of the best move. */
+	private int score;
+	/** Best move. */
+	private int bestMove;
+	/** Principal variation (most visited line). */
+	private int bestLine[];
+	/** Principal variation length. */
+	private int bestLineLength;
+
+	/**
+	 * Constructor for MonteCarloSearch that creates a search with the specified evaluator and tree size.
+	 * @param eval - the position evaluator
+	 * @param treeSize - the tree size in megabytes
+	 */
+	public MonteCarloSearch(Evaluator eval, int treeSize) {
+		//The alpha-beta transposition table is not used
+		super(eval, 1);
+
+		//Initialize variables
+		pool = new NodePool((int)Math.max(1024, Math.min(Integer.MAX_VALUE / 2, ((long)treeSize << 20) / NODE_BYTES)));
+		spare = null;
+		size = new AtomicInteger();
+		treePosition = null;
+		listener = null;
+		exploration = DEF_EXPLORATION;
+		virtualLoss = DEF_VIRTUAL_LOSS;
+		threads = DEF_THREADS;
+		nodes = new AtomicLong();
+		playouts = new AtomicLong();
+		maxDepth = new AtomicInteger();
+		bestLine = new int[MAX_DEPTH + 1];
+	}
+
+	/**
+	 * Clears the tree, for example at the start of a new game.
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		treePosition = null;
+		size.set(0);
+	}
+
+	/**
+	 * Returns the most visited move of the last search.
+	 * @return the encoded best move, or Move.NO_MOVE
+	 */
+	@Override
+	public int getBestMove() { return bestMove; }
+
+	/**
+	 * Returns the length of the longest playout of the last search.
+	 * @return the depth
+	 */
+	@Override
+	public int getDepth() { return maxDepth.get(); }
+
+	/**
+	 * Returns the time elapsed since the search started.
+	 * @return the elapsed time in milliseconds
+	 */
+	@Override
+	public long getElapsedTime() { return System.currentTimeMillis() - startTime; }
+
+	/**
+	 * Returns the exploration constant.
+	 * @return the exploration constant
+	 */
+	public float getExploration() { return exploration; }
+
+	/**
+	 * Returns the number of nodes searched, counting every move made while descending the tree.
+	 * @return the number of nodes
+	 */
+	@Override
+	public long getNodes() { return nodes.get(); }
+
+	/**
+	 * Returns the number of playouts of the last search.
+	 * @return the number of playouts
+	 */
+	public long getPlayouts() { return playouts.get(); }
+
+	/**
+	 * Returns the move at the specified index of the most visited line.
+	 * @param index - the index of the move
+	 * @return the encoded move
+	 */
+	@Override
+	public int getPrincipalVariation(int index) {
+		if(index < 0 || index >= bestLineLength)
+			throw new IndexOutOfBoundsException("Principal variation index out of bounds");
+
+		return bestLine[index];
+	}
+
+	/**
+	 * Returns the length of the most visited line.
+	 * @return the principal variation length
+	 */
+	@Override
+	public int getPrincipalVariationLength() { return bestLineLength; }
+
+	/**
+	 * Returns the value of the best move, converted back to centipawns.
+	 * @return the score in centipawns from the point of view of the side to move
+	 */
+	@Override
+	public int getScore() { return score; }
+
+	/**
+	 * Returns the number of search threads.
+	 * @return the number of threads
+	 */
+	public int getThreads() { return threads; }
+
+	/**
+	 * Returns the number of nodes in the tree.
+	 * @return the number of nodes
+	 */
+	public int getTreeSize() { return Math.min(size.get(), pool.capacity); }
+
+	/**
+	 * Returns the virtual loss.
+	 * @return the virtual loss in visits
+	 */
+	public int getVirtualLoss() { return virtualLoss; }
+
+	/**
+	 * Searches the specified position within the specified limits and returns the most visited move. A depth limit stops the search when a playout reaches that depth. The
+	 * calling thread runs playouts and checks the limits, and threads - 1 more threads run playouts until it stops them. The position is restored when the search ends.
+	 * @param pos - the position to search
+	 * @param limits - the search limits
+	 * @return the encoded best move, or Move.NO_MOVE if there are no legal moves
+	 */
+	@Override
+	public int search(Position pos, SearchLimits limits) {
+		//Initialize search
+		stopped = false;
+		full = false;
+		nodes.set(0);
+		playouts.set(0);
+		maxDepth.set(0);
+		startTime = System.currentTimeMillis();
+		score = 0;
+		bestMove = Move.NO_MOVE;
+		bestLineLength = 0;
+
+		MoveList moves = new MoveList();
+
+		pos.generateLegalMoves(moves);
+
+		if(moves.isEmpty())
+			return Move.NO_MOVE;
+
+		//Keep the subtree of the position if it is in the tree, otherwise start a new tree
+		if(!reuseTree(pos)) {
+			pool.reset(0, Move.NO_MOVE, 0.0f);
+			size.set(1);
+		}
+
+		treePosition = new Position(pos);
+
+		//Start the helper threads
+		Evaluator evaluator = getEvaluator();
+		Thread helpers[] = new Thread[threads - 1];
+
+		for(int i = 0; i < helpers.length; ++i) {
+			Position position = new Position(pos);
+			Evaluator eval = evaluator.copy();
+
+			helpers[i] = new Thread("NAN Monte Carlo Search " + (i + 1)) {
+				@Override
+				public void run() {
+					runPlayouts(position, eval, null, 0, 0, 0);
+				}
+			};
+			helpers[i].start();
+		}
+
+		//Run playouts on this thread until a limit is reached, then wait for the helpers
+		runPlayouts(pos, evaluator, limits, limits.allocateTime(pos.getTurn()), limits.getNodes(), limits.getDepth());
+		stopped = true;
+
+		for(int i = 0; i < helpers.length; ++i) {
+			try {
+				helpers[i].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		//Report the results
+		updateResults();
+
+		if(listener != null) listener.iterationCompleted(this);
+
+		return bestMove;
+	}
+
+	/**
+	 * Sets the exploration constant.
+	 * @param c - the exploration constant
+	 */
+	public void setExploration(float c) { exploration = c; }
+
+	/**
+	 * Sets the search listener, informed about once a second and when the search ends.
+	 * @param l - the search listener, or null
+	 */
+	@Override
+	public void setSearchListener(SearchListener l) {
+		super.setSearchListener(l);
+		listener = l;
+	}
+
+	/**
+	 * Sets the number of search threads used by the next search.
+	 * @param count - the number of threads (at least 1)
+	 */
+	public void setThreads(int count) {
+		//Check parameters
+		if(count < 1)
+			throw new IllegalArgumentException("Monte Carlo search needs at least 1 thread");
+
+		threads = count;
+	}
+
+	/**
+	 * Sets the virtual loss.
+	 * @param loss - the virtual loss in visits
+	 */
+	public void setVirtualLoss(int loss) { virtualLoss = loss; }
+
+	/**
+	 * Stops the search. The most visited move so far is returned by search().
+	 */
+	@Override
+	public void stop() { stopped = true; }
+
+	/**
+	 * Copies the subtree of the specified node to the front of the spare pool and makes it the tree.
+	 * @param root - the node becoming the root
+	 */
+	private void compact(int root) {
+		//Initialize variables
+		NodePool from = pool;
+		NodePool to = (spare != null) ? spare : new NodePool(pool.capacity);
+		int next = 1;
+
+		//Copy breadth first, keeping each node's children together (a copied node's children slot holds its original node until the node is copied)
+		to.children[0] = root;
+
+		for(int i = 0; i < next; ++i) {
+			int node = to.children[i];
+
+			to.moves[i] = from.moves[node];
+			to.priors[i] = from.priors[node];
+			to.states[i] = from.states[node];
+			to.visits[i] = from.visits[node];
+			to.values[i] = from.values[node];
+			to.childCounts[i] = from.childCounts[node];
+			to.children[i] = 0;
+
+			if(from.states[node] == EXPANDED) {
+				int count = from.childCounts[node] & 0xFF;
+
+				for(int k = 0; k < count; ++k)
+					to.children[next + k] = from.children[node] + k;
+
+				to.children[i] = next;
+				next += count;
+			}
+		}
+
+		spare = from;
+		pool = to;
+		size.set(next);
+	}
+
+	/**
+	 * Expands the specified node if no other thread has claimed it, and returns its value.
+	 * @param node - the node
+	 * @param position - the node's position
+	 * @param eval - the evaluator
+	 * @param moves - move list scratch
+	 * @param logits - prior scratch
+	 * @return the value of the node for the side that moved into it
+	 */
+	private float expand(int node, Position position, Evaluator eval, MoveList moves, float[] logits) {
+		//Initialize variables
+		NodePool p = pool;
+
+		//Only evaluate a node another thread is expanding, or any node once the pool is full
+		if(full || !STATES.compareAndSet(p.states, node, NEW, EXPANDING))
+			return leafValue(position, eval);
+
+		position.generateLegalMoves(moves);
+
+		//Checkmate or stalemate
+		if(moves.isEmpty()) {
+			boolean mated = position.isInCheck();
+
+			STATES.setRelease(p.states, node, mated ? MATED : STALEMATE);
+			return mated ? 1.0f : 0.0f;
+		}
+
+		//Allocate the children, or give up the node if the pool is full
+		int count = moves.size();
+		int first = size.getAndAdd(count);
+
+		if(first + count > p.capacity) {
+			full = true;
+			STATES.setRelease(p.states, node, NEW);
+			return leafValue(position, eval);
+		}
+
+		//Priors are a softmax over the material each move wins
+		float max = Float.NEGATIVE_INFINITY;
+		float sum = 0.0f;
+
+		for(int k = 0; k < count; ++k) {
+			logits[k] = materialGain(position, moves.get(k)) / PRIOR_SCALE;
+			max = Math.max(max, logits[k]);
+		}
+
+		for(int k = 0; k < count; ++k) {
+			logits[k] = (float)Math.exp(logits[k] - max);
+			sum += logits[k];
+		}
+
+		for(int k = 0; k < count; ++k)
+			p.reset(first + k, moves.get(k), logits[k] / sum);
+
+		p.children[node] = first;
+		p.childCounts[node] = (byte)count;
+		STATES.setRelease(p.states, node, EXPANDED);
+
+		return leafValue(position, eval);
+	}
+
+	/**
+	 * Returns the value of the specified position for the side that moved into it.
+	 * @param position - the position
+	 * @param eval - the evaluator
+	 * @return the value (-1 - 1)
+	 */
+	private static float leafValue(Position position, Evaluator eval) {
+		return (float)-Math.tanh(eval.evaluate(position) / (2.0 * VALUE_SCALE));
+	}
+
+	/**
+	 * Returns the material won by the specified move, used for its prior.
+	 * @param position - the position the move is made in
+	 * @param move - the encoded move
+	 * @return the material won in centipawns (captured piece and promotion)
+	 */
+	private static int materialGain(Position position, int move) {
+		//Initialize variables
+		int gain = 0;
+
+		if(position.isCapture(move)) {
+			int captured = position.getPiece(Move.getTo(move)) & Position.PIECE_TYPE_MASK;
+			gain += Evaluator.MATERIAL[(captured == Position.EMPTY) ? Position.PAWN : captured];
+		}
+
+		if(Move.getPromotion(move) != Move.PROMOTE_NONE)
+			gain += Evaluator.MATERIAL[Move.getPromotion(move) + 1] - Evaluator.MATERIAL[Position.PAWN];
+
+		return gain;
+	}
+
+	/**
+	 * Returns the most visited child of the specified expanded node.
+	 * @param node - the node
+	 * @return the child
+	 */
+	private int mostVisited(int node) {
+		//Initialize variables
+		NodePool p = pool;
+		int first = p.children[node];
+		int best = first;
+
+		for(int c = first + 1; c < first + (p.childCounts[node] & 0xFF); ++c) {
+			if(p.visits[c] > p.visits[best] || (p.visits[c] == p.visits[best] && p.priors[c] > p.priors[best])) best = c;
+		}
+
+		return best;
+	}
+
+	/**
+	 * Runs one playout from the root: descends to a leaf, evaluates or expands it, and backs up its value.
+	 * @param position - the root position (restored before returning)
+	 * @param eval - the evaluator
+	 * @param path - path scratch
+	 * @param moves - move list scratch
+	 * @param logits - prior scratch
+	 */
+	private void playout(Position position, Evaluator eval, int[] path, MoveList moves, float[] logits) {
+		//Initialize variables
+		NodePool p = pool;
+		int node = 0;
+		int ply = 0;
+		float value;
+
+		//Descend to a leaf
+		while(true) {
+			byte state = (byte)STATES.getAcquire(p.states, node);
+
+			if(state == MATED) {
+				value = 1.0f;
+				break;
+			}
+
+			if(state == STALEMATE) {
+				value = 0.0f;
+				break;
+			}
+
+			if(state != EXPANDED) {
+				value = expand(node, position, eval, moves, logits);
+				break;
+			}
+
+			if(ply >= MAX_DEPTH) {
+				value = leafValue(position, eval);
+				break;
+			}
+
+			//Count a virtual loss for the chosen child until the playout is backed up
+			node = select(node);
+			VISITS.getAndAdd(p.visits, node, virtualLoss);
+			VALUES.getAndAdd(p.values, node, -virtualLoss * VALUE_ONE);
+
+			position.makeMove(p.moves[node] & 0xFFFF);
+			path[++ply] = node;
+
+			if(position.isDraw()) {
+				value = 0.0f;
+				break;
+			}
+		}
+
+		//Back up the value, alternating sides, and remove the virtual losses
+		for(int i = ply; i > 0; --i) {
+			VISITS.getAndAdd(p.visits, path[i], 1 - virtualLoss);
+			VALUES.getAndAdd(p.values, path[i], Math.round(value * VALUE_ONE) + virtualLoss * VALUE_ONE);
+			value = -value;
+			position.unmakeMove();
+		}
+
+		VISITS.getAndAdd(p.visits, 0, 1);
+		VALUES.getAndAdd(p.values, 0, Math.round(value * VALUE_ONE));
+
+		nodes.addAndGet(ply);
+		playouts.incrementAndGet();
+
+		for(int depth = maxDepth.get(); ply > depth && !maxDepth.compareAndSet(depth, ply); depth = maxDepth.get());
+	}
+
+	/**
+	 * Returns if the subtree of the specified position can be kept, making it the tree if it can.
+	 * @param pos - the position to search
+	 * @return true if the tree was kept, false otherwise
+	 */
+	private boolean reuseTree(Position pos) {
+		//Initialize variables
+		NodePool p = pool;
+		int node = 0;
+
+		if(treePosition == null || size.get() == 0 || pos.getPly() < treePosition.getPly())
+			return false;
+
+		//Follow the moves made since the tree's position
+		Position walk = new Position(treePosition);
+
+		for(int ply = treePosition.getPly(); ply < pos.getPly(); ++ply) {
+			int move = pos.getMove(ply);
+			int child = -1;
+
+			if(p.states[node] != EXPANDED)
+				return false;
+
+			for(int c = p.children[node]; c < p.children[node] + (p.childCounts[node] & 0xFF) && child < 0; ++c) {
+				if((p.moves[c] & 0xFFFF) == move) child = c;
+			}
+
+			if(child < 0 || !walk.makeMove(move))
+				return false;
+
+			node = child;
+		}
+
+		if(walk.getKey() != pos.getKey())
+			return false;
+
+		if(node != 0) compact(node);
+
+		return true;
+	}
+
+	/**
+	 * Runs playouts until the search is stopped. The thread with limits checks them and reports progress, the helper threads run until it stops them.
+	 * @param position - the root position
+	 * @param eval - the evaluator
+	 * @param limits - the search limits, or null for a helper thread
+	 * @param timeLimit - the time limit in milliseconds, or SearchLimits.UNLIMITED
+	 * @param nodeLimit - the node limit, or SearchLimits.UNLIMITED
+	 * @param depthLimit - the depth limit, or SearchLimits.UNLIMITED
+	 */
+	private void runPlayouts(Position position, Evaluator eval, SearchLimits limits, long timeLimit, long nodeLimit, int depthLimit) {
+		//Initialize variables
+		int path[] = new int[MAX_DEPTH + 1];
+		MoveList moves = new MoveList();
+		float logits[] = new float[MoveList.MAX_MOVES];
+		long lastReport = startTime;
+
+		for(int count = 1; !stopped; ++count) {
+			playout(position, eval, path, moves, logits);
+
+			if(limits == null)
+				continue;
+
+			//Stop at a limit
+			if((nodeLimit != SearchLimits.UNLIMITED && nodes.get() >= nodeLimit) || (depthLimit != SearchLimits.UNLIMITED && maxDepth.get() >= depthLimit))
+				break;
+
+			if(count % CHECK_PLAYOUTS == 0) {
+				long now = System.currentTimeMillis();
+
+				if(!limits.isInfinite() && timeLimit != SearchLimits.UNLIMITED && now - startTime >= timeLimit)
+					break;
+
+				if(listener != null && now - lastReport >= REPORT_INTERVAL) {
+					lastReport = now;
+					updateResults();
+					listener.iterationCompleted(this);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the child of the specified expanded node with the highest value plus exploration bonus.
+	 * @param node - the node
+	 * @return the child
+	 */
+	private int select(int node) {
+		//Initialize variables
+		NodePool p = pool;
+		int first = p.children[node];
+		int count = p.childCounts[node] & 0xFF;
+		int parentVisits = (int)VISITS.getOpaque(p.visits, node);
+		float sqrtVisits = (float)Math.sqrt(Math.max(1, parentVisits));
+		float unvisited = (parentVisits > 0) ? -(float)((long)VALUES.getOpaque(p.values, node) / (double)(VALUE_ONE * parentVisits)) - FPU_REDUCTION : 0.0f;
+		int best = first;
+		float bestScore = Float.NEGATIVE_INFINITY;
+
+		for(int c = first; c < first + count; ++c) {
+			int n = (int)VISITS.getOpaque(p.visits, c);
+			float q = (n > 0) ? (float)((long)VALUES.getOpaque(p.values, c) / (double)(VALUE_ONE * n)) : unvisited;
+			float s = q + exploration * p.priors[c] * sqrtVisits / (1 + n);
+
+			if(s > bestScore) {
+				bestScore = s;
+				best = c;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Updates the best move, score and principal variation from the tree.
+	 */
+	private void updateResults() {
+		//Initialize variables
+		NodePool p = pool;
+
+		if((byte)STATES.getAcquire(p.states, 0) != EXPANDED)
+			return;
+
+		//Follow the most visited children
+		int node = 0;
+		int length = 0;
+
+		while(length < MAX_DEPTH && (byte)STATES.getAcquire(p.states, node) == EXPANDED) {
+			int child = mostVisited(node);
+
+			if(p.visits[child] <= 0 && length > 0)
+				break;
+
+			bestLine[length++] = p.moves[child] & 0xFFFF;
+			node = child;
+		}
+
+		//Convert the best child's value back to centipawns
+		int best = mostVisited(0);
+		double q = (p.visits[best] > 0) ? Math.max(-0.9999, Math.min(0.9999, p.values[best] / (double)(VALUE_ONE * p.visits[best]))) : 0.0;
+
+		bestLineLength = length;
+		bestMove = bestLine[0];
+		score = (int)Math.round(VALUE_SCALE * Math.log((1.0 + q) / (1.0 - q)));
+	}
+
+	/**
+	 * NodePool holds the tree's nodes in primitive arrays indexed by node. A node's children are stored next to each other, starting at its children index.
+	 */
+	private static class NodePool {
+
+		/** Number of nodes. */
+		final int capacity;
+		/** Move into each node. */
+		final short moves[];
+		/** Prior of each node. */
+		final float priors[];
+		/** First child of each node. */
+		final int children[];
+		/** Number of children of each node. */
+		final byte childCounts[];
+		/** State of each node. */
+		final byte states[];
+		/** Visits of each node, including virtual losses. */
+		final int visits[];
+		/** Sum of the values backed up through each node (fixed point), for the side that moved into it. */
+		final long values[];
+
+		/**
+		 * Constructor for NodePool that allocates the specified number of nodes.
+		 * @param capacity - the number of nodes
+		 */
+		NodePool(int capacity) {
+			this.capacity = capacity;
+			moves = new short[capacity];
+			priors = new float[capacity];
+			children = new int[capacity];
+			childCounts = new byte[capacity];
+			states = new byte[capacity];
+			visits = new int[capacity];
+			values = new long[capacity];
+		}
+
+		/**
+		 * Resets a node to an unvisited, unexpanded node.
+		 * @param node - the node
+		 * @param move - the move into the node
+		 * @param prior - the node's prior
+		 */
+		void reset(int node, int move, float prior) {
+			moves[node] = (short)move;
+			priors[node] = prior;
+			children[node] = 0;
+			childCounts[node] = 0;
+			states[node] = NEW;
+			visits[node] = 0;
+			values[node] = 0;
+		}
+	}
+}
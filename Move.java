@@ -0,0 +1,350 @@
+package com.chess;
+
+/**
+ * Move encodes a chess move as a single int so moves can be stored, compared and submitted to the chess board without creating objects. The origin board space is kept
+ * in bits 0 - 5, the destination board space in bits 6 - 11 and the promotion piece in bits 12 - 14. Board spaces use the same index as the chess board's bit sets
+ * (x + (y * BOARD_COLS)).
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public final class Move {
+
+	/** No move value. */
+	public static final int NO_MOVE = 0;
+
+	/** No promotion value. */
+	public static final int PROMOTE_NONE = 0;
+	/** Promote to knight value. */
+	public static final int PROMOTE_KNIGHT = 1;
+	/** Promote to bishop value. */
+	public static final int PROMOTE_BISHOP = 2;
+	/** Promote to rook value. */
+	public static final int PROMOTE_ROOK = 3;
+	/** Promote to queen value. */
+	public static final int PROMOTE_QUEEN = 4;
+
+	/** Board space bit mask. */
+	private static final int SPACE_MASK = 0x0000003F;
+	/** Destination board space bit shift. */
+	private static final int TO_SHIFT = 6;
+	/** Promotion piece bit shift. */
+	private static final int PROMOTION_SHIFT = 12;
+	/** Promotion piece bit mask. */
+	private static final int PROMOTION_MASK = 0x00000007;
+
+	/**
+	 * Private constructor, Move only contains static methods.
+	 */
+	private Move() {}
+
+	/**
+	 * Encodes a move from the specified board space to the specified board space with no promotion.
+	 * @param from - the board space the piece moves from (0 - 63)
+	 * @param to - the board space the piece moves to (0 - 63)
+	 * @return the encoded move
+	 */
+	public static int encode(int from, int to) { return encode(from, to, PROMOTE_NONE); }
+
+	/**
+	 * Encodes a move from the specified board space to the specified board space with the specified promotion piece.
+	 * @param from - the board space the piece moves from (0 - 63)
+	 * @param to - the board space the piece moves to (0 - 63)
+	 * @param promotion - the promotion piece value (PROMOTE_NONE - PROMOTE_QUEEN)
+	 * @return the encoded move
+	 */
+	public static int encode(int from, int to, int promotion) {
+		//Check parameters
+		if(from < 0 || from >= ChessBoard.BOARD_SPACES || to < 0 || to >= ChessBoard.BOARD_SPACES)
+			throw new IllegalArgumentException("Move: board spaces must be a value between 0 and 63.");
+
+		if(promotion < PROMOTE_NONE || promotion > PROMOTE_QUEEN)
+			throw new IllegalArgumentException("Move: invalid promotion value.");
+
+		return from | (to << TO_SHIFT) | (promotion << PROMOTION_SHIFT);
+	}
+
+	/**
+	 * Returns the board space the encoded move starts from.
+	 * @param move - the encoded move
+	 * @return the origin board space (0 - 63)
+	 */
+	public static int getFrom(int move) { return move & SPACE_MASK; }
+
+	/**
+	 * Returns the promotion piece value of the encoded move.
+	 * @param move - the encoded move
+	 * @return the promotion piece value (PROMOTE_NONE - PROMOTE_QUEEN)
+	 */
+	public static int getPromotion(int move) { return (move >>> PROMOTION_SHIFT) & PROMOTION_MASK; }
+
+	/**
+	 * Returns the board space the encoded move ends on.
+	 * @param move - the encoded move
+	 * @return the destination board space (0 - 63)
+	 */
+	public static int getTo(int move) { return (move >>> TO_SHIFT) & SPACE_MASK; }
+
+	/**
+	 * Returns the name of the specified board space in algebraic notation (for example "e4"), assuming white starts on rows 6 - 7.
+	 * @param space - the board space (0 - 63)
+	 * @return the board space name
+	 */
+	public static String getSpaceName(int space) {
+		return "" + (char)('a' + (space % ChessBoard.BOARD_COLS)) + (char)('8' - (space / ChessBoard.BOARD_COLS));
+	}
+
+	/**
+	 * Returns if the specified string is an algebraic notation board space name (a - h followed by 1 - 8).
+	 * @param name - the string to check
+	 * @return true if the string is a board space name, false otherwise
+	 */
+	public static boolean isSpaceName(String name) {
+		return name != null && name.length() == 2 && name.charAt(0) >= 'a' && name.charAt(0) <= 'h' && name.charAt(1) >= '1' && name.charAt(1) <= '8';
+	}
+
+	/**
+	 * Returns the board space of the specified algebraic notation board space name (for example "e4"), assuming white starts on rows 6 - 7.
+	 * @param name - the board space name
+	 * @return the board space (0 - 63)
+	 */
+	public static int parseSpace(String name) {
+		//Check parameters
+		if(!isSpaceName(name))
+			throw new IllegalArgumentException("Move: invalid board space name " + name);
+
+		return (name.charAt(0) - 'a') + (('8' - name.charAt(1)) * ChessBoard.BOARD_COLS);
+	}
+
+	/**
+	 * Returns the encoded move in coordinate notation (for example "e2e4" or "e7e8q"), assuming white starts on rows 6 - 7.
+	 * @param move - the encoded move
+	 * @return the move in coordinate notation
+	 */
+	public static String toNotation(int move) {
+		String str = getSpaceName(getFrom(move)) + getSpaceName(getTo(move));
+		return (getPromotion(move) != PROMOTE_NONE) ? str + " nbrq".charAt(getPromotion(move)) : str;
+	}
+
+	/**
+	 * Returns the legal move in the specified move list matching the specified coordinate notation move (for example "e2e4" or "e7e8q").
+	 * @param notation - the move in coordinate notation
+	 * @param legal - the legal moves
+	 * @return the encoded move, or NO_MOVE if the notation is malformed or the move is not legal
+	 */
+	public static int parseNotation(String notation, MoveList legal) {
+		//Check parameters
+		if(notation == null || notation.length() < 4 || notation.length() > 5)
+			return NO_MOVE;
+
+		//Decode move
+		String fromName = notation.substring(0, 2);
+		String toName = notation.substring(2, 4);
+
+		if(!isSpaceName(fromName) || !isSpaceName(toName))
+			return NO_MOVE;
+
+		int from = parseSpace(fromName);
+		int to = parseSpace(toName);
+		int promotion = (notation.length() == 5) ? " nbrq".indexOf(Character.toLowerCase(notation.charAt(4))) : PROMOTE_NONE;
+
+		//Find matching legal move
+		for(int i = 0; i < legal.size(); ++i) {
+			int move = legal.get(i);
+
+			if(getFrom(move) == from && getTo(move) == to && getPromotion(move) == promotion)
+				return move;
+		}
+
+		return NO_MOVE;
+	}
+
+	/**
+	 * Returns the move in the specified position matching the specified standard algebraic notation (SAN) move (for example "Nbd7", "exd5", "e8=Q+" or "O-O"). Check,
+	 * mate and annotation symbols are ignored, and a pawn move to the last row with no promotion piece is read as a queen promotion. Only the pseudo-legal moves that match
+	 * the notation are tried on the position, so this is much faster than generating every legal move.
+	 * @param san - the move in standard algebraic notation
+	 * @param position - the position the move is made from (unchanged when this returns)
+	 * @param moves - a move list used as a buffer
+	 * @return the encoded move, or NO_MOVE if the move is not legal or is ambiguous
+	 */
+	public static int parseSAN(CharSequence san, Position position, MoveList moves) {
+		//Initialize variables
+		int end = san.length();
+		int start = 0;
+		int type = Position.PAWN;
+		int promotion = PROMOTE_NONE;
+		int fromX = -1;
+		int fromY = -1;
+		int to;
+
+		//Ignore check, mate and annotation symbols
+		while(end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+
+		if(end < 2)
+			return NO_MOVE;
+
+		//Castling (the king moves two spaces)
+		if(san.charAt(0) == 'O' || san.charAt(0) == '0') {
+			int king = position.getKingSpace(position.getTurn());
+
+			if(end == 3) to = king + 2;
+			else if(end == 5) to = king - 2;
+			else return NO_MOVE;
+
+			type = Position.KING;
+			fromX = king % ChessBoard.BOARD_COLS;
+			fromY = king / ChessBoard.BOARD_COLS;
+		}
+		else {
+			//Piece letter (pawn moves have none)
+			int letter = "PNBRQK".indexOf(san.charAt(0));
+
+			if(letter >= 0) {
+				type = letter + Position.PAWN;
+				start = 1;
+			}
+
+			//Promotion piece, with or without '='
+			int piece = " NBRQ".indexOf(san.charAt(end - 1));
+
+			if(piece > 0 && type == Position.PAWN) {
+				promotion = piece;
+				end -= (san.charAt(end - 2) == '=') ? 2 : 1;
+			}
+
+			//Destination space
+			if(end - start < 2)
+				return NO_MOVE;
+
+			char file = san.charAt(end - 2);
+			char rank = san.charAt(end - 1);
+
+			if(file < 'a' || file > 'h' || rank < '1' || rank > '8')
+				return NO_MOVE;
+
+			to = (file - 'a') + (('8' - rank) * ChessBoard.BOARD_COLS);
+
+			//Origin file and rank given to tell pieces apart
+			for(int i = start; i < end - 2; ++i) {
+				char c = san.charAt(i);
+
+				if(c >= 'a' && c <= 'h') fromX = c - 'a';
+				else if(c >= '1' && c <= '8') fromY = '8' - c;
+				else if(c != 'x' && c != ':' && c != '-') return NO_MOVE;
+			}
+
+			//A pawn reaching the last row promotes to a queen if no piece is given
+			if(type == Position.PAWN && promotion == PROMOTE_NONE && (to < ChessBoard.BOARD_COLS || to >= ChessBoard.BOARD_SPACES - ChessBoard.BOARD_COLS))
+				promotion = PROMOTE_QUEEN;
+		}
+
+		//Find the single legal move matching the notation
+		int found = NO_MOVE;
+
+		position.generateMoves(moves);
+
+		for(int i = 0; i < moves.size(); ++i) {
+			int move = moves.get(i);
+			int from = getFrom(move);
+
+			if(getTo(move) != to || getPromotion(move) != promotion || (position.getPiece(from) & Position.PIECE_TYPE_MASK) != type)
+				continue;
+
+			if((fromX >= 0 && from % ChessBoard.BOARD_COLS != fromX) || (fromY >= 0 && from / ChessBoard.BOARD_COLS != fromY))
+				continue;
+
+			//Check the move is legal
+			if(!position.makeMove(move))
+				continue;
+
+			position.unmakeMove();
+
+			if(found != NO_MOVE)
+				return NO_MOVE;
+
+			found = move;
+		}
+
+		return found;
+	}
+
+	/**
+	 * Returns the specified legal move in standard algebraic notation (SAN), including the origin file or rank when another piece of the same type can move to the same
+	 * space, and a check ('+') or mate ('#') symbol.
+	 * @param move - the encoded legal move
+	 * @param position - the position the move is made from (unchanged when this returns)
+	 * @param moves - a move list used as a buffer
+	 * @return the move in standard algebraic notation
+	 */
+	public static String toSAN(int move, Position position, MoveList moves) {
+		//Initialize variables
+		StringBuilder san = new StringBuilder(8);
+		int from = getFrom(move);
+		int to = getTo(move);
+		int piece = position.getPiece(from);
+		int type = piece & Position.PIECE_TYPE_MASK;
+
+		//Castling
+		if(type == Position.KING && Math.abs(to - from) == 2) {
+			san.append((to > from) ? "O-O" : "O-O-O");
+		}
+		//Pawn moves name the origin file when capturing
+		else if(type == Position.PAWN) {
+			if(position.isCapture(move)) san.append(getSpaceName(from).charAt(0)).append('x');
+
+			san.append(getSpaceName(to));
+
+			if(getPromotion(move) != PROMOTE_NONE) san.append('=').append(" NBRQ".charAt(getPromotion(move)));
+		}
+		//Piece moves name the origin file, rank or both when another piece of the same type can move to the same space
+		else {
+			boolean ambiguous = false;
+			boolean sameFile = false;
+			boolean sameRank = false;
+
+			position.generateMoves(moves);
+
+			for(int i = 0; i < moves.size(); ++i) {
+				int other = moves.get(i);
+				int otherFrom = getFrom(other);
+
+				if(otherFrom == from || getTo(other) != to || position.getPiece(otherFrom) != piece || !position.makeMove(other))
+					continue;
+
+				position.unmakeMove();
+				ambiguous = true;
+				sameFile |= (otherFrom % ChessBoard.BOARD_COLS) == (from % ChessBoard.BOARD_COLS);
+				sameRank |= (otherFrom / ChessBoard.BOARD_COLS) == (from / ChessBoard.BOARD_COLS);
+			}
+
+			san.append("PNBRQK".charAt(type - Position.PAWN));
+
+			if(ambiguous && (!sameFile || sameRank)) san.append(getSpaceName(from).charAt(0));
+			if(ambiguous && sameFile) san.append(getSpaceName(from).charAt(1));
+			if(position.isCapture(move)) san.append('x');
+
+			san.append(getSpaceName(to));
+		}
+
+		//Check and mate symbols
+		if(position.makeMove(move)) {
+			if(position.isInCheck()) {
+				position.generateLegalMoves(moves);
+				san.append(moves.isEmpty() ? '#' : '+');
+			}
+
+			position.unmakeMove();
+		}
+
+		return san.toString();
+	}
+
+	/**
+	 * Returns the encoded move as a readable string of board space indices (for example "52-36").
+	 * @param move - the encoded move
+	 * @return the move as a string
+	 */
+	public static String toString(int move) {
+		return getFrom(move) + "-" + getTo(move) + ((getPromotion(move) != PROMOTE_NONE) ? "=" + getPromotion(move) : "");
+	}
+}
@@ -0,0 +1,122 @@
+package com.chess;
+
+/**
+ * MoveList contains the legal moves for the side to move as encoded moves (see Move). Alongside the list, a destination mask is kept for every origin board space so that
+ * checking if a move is legal takes constant time instead of searching the list.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class MoveList {
+
+	/** Maximum number of moves in any legal chess position. */
+	public static final int MAX_MOVES = 256;
+
+	/** Encoded moves. */
+	private int moves[];
+	/** Number of moves in the list. */
+	private int size;
+	/** Destination board spaces for each origin board space. */
+	private long targets[];
+
+	/**
+	 * Default constructor for the MoveList that creates an empty move list.
+	 */
+	public MoveList() {
+		//Initialize variables
+		moves = new int[MAX_MOVES];
+		size = 0;
+		targets = new long[ChessBoard.BOARD_SPACES];
+	}
+
+	/**
+	 * Adds the specified encoded move to the list.
+	 * @param move - the encoded move to add
+	 */
+	public void add(int move) {
+		if(size == MAX_MOVES)
+			throw new IndexOutOfBoundsException("Move list is full");
+
+		moves[size++] = move;
+		targets[Move.getFrom(move)] |= 1L << Move.getTo(move);
+	}
+
+	/**
+	 * Removes all moves from the list.
+	 */
+	public void clear() {
+		//Only reset the destination masks of moves that are in the list
+		for(int i = 0; i < size; ++i)
+			targets[Move.getFrom(moves[i])] = 0L;
+
+		size = 0;
+	}
+
+	/**
+	 * Returns if the specified encoded move is in the list. Promotion values are not part of the check.
+	 * @param move - the encoded move to check
+	 * @return true if the move is in the list, false otherwise
+	 */
+	public boolean contains(int move) { return (targets[Move.getFrom(move)] & (1L << Move.getTo(move))) != 0L; }
+
+	/**
+	 * Returns the move in the list with the same origin, destination and promotion as the specified encoded move. A move with no promotion value matches the queen
+	 * promotion, so a pawn moved to the last row without choosing a piece is promoted to a queen.
+	 * @param move - the encoded move to find
+	 * @return the matching move in the list, or Move.NO_MOVE if there is none
+	 */
+	public int find(int move) {
+		//Initialize variables
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int promotion = Move.getPromotion(move);
+
+		//Check the destination mask before searching the list
+		if(!contains(move))
+			return Move.NO_MOVE;
+
+		for(int i = 0; i < size; ++i) {
+			int listed = moves[i];
+
+			if(Move.getFrom(listed) == from && Move.getTo(listed) == to
+					&& (Move.getPromotion(listed) == promotion || (promotion == Move.PROMOTE_NONE && Move.getPromotion(listed) == Move.PROMOTE_QUEEN)))
+				return listed;
+		}
+
+		return Move.NO_MOVE;
+	}
+
+	/**
+	 * Returns the encoded move at the specified index.
+	 * @param index - the index of the move
+	 * @return the encoded move at the specified index
+	 */
+	public int get(int index) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Move list index out of bounds");
+
+		return moves[index];
+	}
+
+	/**
+	 * Returns if the list contains no moves.
+	 * @return true if the list is empty, false otherwise
+	 */
+	public boolean isEmpty() { return size == 0; }
+
+	/**
+	 * Returns the number of moves in the list.
+	 * @return the number of moves
+	 */
+	public int size() { return size; }
+
+	/**
+	 * Swaps the moves at the specified indices. Used to order moves during a search.
+	 * @param i - the index of the first move
+	 * @param j - the index of the second move
+	 */
+	public void swap(int i, int j) {
+		int move = moves[i];
+		moves[i] = moves[j];
+		moves[j] = move;
+	}
+}
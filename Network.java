@@ -0,0 +1,301 @@
+package com.chess.nan.nnue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.chess.ChessBoard;
+import com.chess.Position;
+
+/**
+ * Network is the quantized form of the NAN network (see FloatNetwork) used by searches. Input weights and biases are int16 in units of 1 / QA, so a first layer neuron
+ * is the int16 sum of the weight columns of the active features (kept up to date by an Accumulator) and its clipped activation is 0 - QA. Hidden weights are int8 in units
+ * of 1 / QB, and output weights are int16 in units of 1 / QO, so the rest of the network is evaluated in integer arithmetic. The hidden layer is computed one first layer
+ * neuron at a time, adding its L1 weights times its activation, so the many neurons clipped to 0 are skipped. The inner loops are run by NetworkKernels, which use the
+ * Vector API when it is available.
+ * <p>
+ * A feature is a piece on a space seen from one side: that side's pieces come first, and spaces are mirrored for black, so both sides see the board the same way.
+ * <p>
+ * A quantized network file holds a HEADER_SIZE byte header (magic, version, layer sizes, scales, output bias and file length) followed by the input weights, input biases,
+ * hidden weights, hidden biases and output weights, little-endian and each section 64 byte aligned. Loading a file maps it read-only and uses the input weights, nearly all
+ * of the file, in place, so loading costs almost nothing and engine processes using the same file share its pages. Only the small hidden layer is copied to the heap.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class Network {
+
+	/** First layer activation scale. */
+	public static final int QA = 127;
+	/** Hidden weight scale. */
+	public static final int QB = 64;
+	/** Output weight scale. */
+	public static final int QO = 256;
+
+	/** Number of input features. */
+	public static final int INPUTS = FloatNetwork.INPUTS;
+	/** Number of first layer neurons for each side. */
+	public static final int HIDDEN = FloatNetwork.HIDDEN;
+	/** Number of hidden layer neurons. */
+	public static final int L1 = FloatNetwork.L1;
+
+	/** Quantized network file magic number ("NANQ"). */
+	public static final int MAGIC = 0x4E414E51;
+	/** Quantized network file version. */
+	public static final int VERSION = 1;
+	/** Quantized network file header size in bytes. */
+	public static final int HEADER_SIZE = 64;
+
+	/** Offset of the input weights in a quantized network file. */
+	private static final int INPUT_WEIGHTS = HEADER_SIZE;
+	/** Offset of the input biases in a quantized network file. */
+	private static final int INPUT_BIASES = INPUT_WEIGHTS + INPUTS * HIDDEN * 2;
+	/** Offset of the hidden weights in a quantized network file. */
+	private static final int HIDDEN_WEIGHTS = INPUT_BIASES + HIDDEN * 2;
+	/** Offset of the hidden biases in a quantized network file. */
+	private static final int HIDDEN_BIASES = HIDDEN_WEIGHTS + 2 * HIDDEN * L1;
+	/** Offset of the output weights in a quantized network file. */
+	private static final int OUTPUT_WEIGHTS = HIDDEN_BIASES + L1 * 4;
+	/** Quantized network file length. */
+	private static final int FILE_LENGTH = OUTPUT_WEIGHTS + L1 * 2;
+
+	/** Input weights (HIDDEN for each feature), on the heap or mapped from a file. */
+	ShortBuffer inputWeights;
+	/** Input biases. */
+	short inputBiases[];
+	/** Hidden weights (L1 for each of the 2 * HIDDEN first layer neurons). */
+	byte hiddenWeights[];
+	/** Hidden biases, in units of 1 / (QA * QB). */
+	int hiddenBiases[];
+	/** Output weights. */
+	short outputWeights[];
+	/** Output bias, in units of 1 / (QA * QO). */
+	int outputBias;
+	/** The kernels. */
+	NetworkKernels kernels;
+
+	/**
+	 * Constructor for Network that quantizes the specified float network.
+	 * @param network - the float network
+	 */
+	public Network(FloatNetwork network) {
+		//Initialize variables
+		short weights[] = new short[INPUTS * HIDDEN];
+
+		inputWeights = ShortBuffer.wrap(weights);
+		inputBiases = new short[HIDDEN];
+		hiddenWeights = new byte[L1 * 2 * HIDDEN];
+		hiddenBiases = new int[L1];
+		outputWeights = new short[L1];
+		kernels = NetworkKernels.DEFAULT;
+
+		//Round each weight to its scale, saturating weights that do not fit
+		for(int i = 0; i < weights.length; ++i)
+			weights[i] = (short)quantize(network.inputWeights[i], QA, Short.MAX_VALUE);
+
+		for(int i = 0; i < HIDDEN; ++i)
+			inputBiases[i] = (short)quantize(network.inputBiases[i], QA, Short.MAX_VALUE);
+
+		for(int i = 0; i < hiddenWeights.length; ++i)
+			hiddenWeights[i] = (byte)quantize(network.hiddenWeights[i], QB, Byte.MAX_VALUE);
+
+		for(int i = 0; i < L1; ++i) {
+			hiddenBiases[i] = quantize(network.hiddenBiases[i], QA * QB, Integer.MAX_VALUE);
+			outputWeights[i] = (short)quantize(network.outputWeights[i], QO, Short.MAX_VALUE);
+		}
+
+		outputBias = quantize(network.outputBias, QA * QO, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Constructor for Network that uses the weights of a mapped quantized network file.
+	 * @param file - the mapped file (little-endian)
+	 */
+	private Network(ByteBuffer file) {
+		//Initialize variables
+		inputWeights = file.slice(INPUT_WEIGHTS, INPUT_BIASES - INPUT_WEIGHTS).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+		inputBiases = new short[HIDDEN];
+		hiddenWeights = new byte[L1 * 2 * HIDDEN];
+		hiddenBiases = new int[L1];
+		outputWeights = new short[L1];
+		outputBias = file.getInt(32);
+		kernels = NetworkKernels.DEFAULT;
+
+		//Copy the small layers to the heap
+		file.slice(INPUT_BIASES, HIDDEN * 2).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(inputBiases);
+		file.get(HIDDEN_WEIGHTS, hiddenWeights);
+		file.slice(HIDDEN_BIASES, L1 * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(hiddenBiases);
+		file.slice(OUTPUT_WEIGHTS, L1 * 2).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(outputWeights);
+	}
+
+	/**
+	 * Adds the input weights of the specified feature to a side's first layer.
+	 * @param values - the side's first layer neurons
+	 * @param feature - the feature index
+	 * @param column - scratch space for a weight column (HIDDEN, used if the weights are mapped)
+	 */
+	public void addFeature(short[] values, int feature, short[] column) { kernels.add(values, inputWeights, feature * HIDDEN, column); }
+
+	/**
+	 * Adds the input weights of the specified feature to several first layers, reading the weights once.
+	 * @param values - the first layers
+	 * @param targets - the indices in values of the first layers to add to
+	 * @param count - the number of targets
+	 * @param feature - the feature index
+	 * @param column - scratch space for a weight column (HIDDEN, used if the weights are mapped)
+	 */
+	public void addFeature(short[][] values, int[] targets, int count, int feature, short[] column) {
+		kernels.add(values, targets, count, inputWeights, feature * HIDDEN, column);
+	}
+
+	/**
+	 * Evaluates the hidden and output layers from both sides' first layers.
+	 * @param us - the side to move's first layer neurons
+	 * @param them - the other side's first layer neurons
+	 * @param sums - scratch space for the L1 hidden layer sums
+	 * @param active - scratch space for HIDDEN first layer neuron indices
+	 * @return the score in centipawns from the point of view of the side to move
+	 */
+	public int evaluate(short[] us, short[] them, int[] sums, int[] active) {
+		//Hidden layer, skipping first layer neurons clipped to 0
+		System.arraycopy(hiddenBiases, 0, sums, 0, L1);
+
+		kernels.addActivations(us, hiddenWeights, 0, sums, active);
+		kernels.addActivations(them, hiddenWeights, HIDDEN * L1, sums, active);
+
+		//Output layer
+		int output = outputBias;
+
+		for(int j = 0; j < L1; ++j)
+			output += Math.max(0, Math.min(QA, sums[j] / QB)) * outputWeights[j];
+
+		return (int)((long)output * FloatNetwork.OUTPUT_SCALE / (QA * QO));
+	}
+
+	/**
+	 * Returns the name of the kernels running the network's inner loops.
+	 * @return the kernel name
+	 */
+	public String getKernelName() { return kernels.getName(); }
+
+	/**
+	 * Returns the index of the feature for a piece on a space, seen from the specified side.
+	 * @param side - the side seeing the piece
+	 * @param piece - the piece value
+	 * @param space - the board space
+	 * @return the feature index (0 - INPUTS - 1)
+	 */
+	public static int getFeature(boolean side, int piece, int space) {
+		int type = (piece & Position.PIECE_TYPE_MASK) - Position.PAWN;
+		boolean color = (piece & Position.BLACK_PIECE) == 0;
+
+		return (((color == side) ? type : type + 6) << 6) | ((side == ChessBoard.WHITE) ? space : space ^ 56);
+	}
+
+	/**
+	 * Returns if the input weights are mapped from a quantized network file.
+	 * @return true if the weights are mapped, false if they are on the heap
+	 */
+	public boolean isMapped() { return inputWeights.isDirect(); }
+
+	/**
+	 * Loads a network file: a quantized network file is mapped read-only, and a float network file is read and quantized.
+	 * @param file - the network file
+	 * @return the network
+	 * @throws IOException if the file cannot be read or is not a network file
+	 */
+	public static Network load(Path file) throws IOException {
+		//Read the magic number
+		int magic;
+
+		try(DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			magic = in.readInt();
+		}
+
+		if(magic == FloatNetwork.MAGIC)
+			return new Network(FloatNetwork.read(file));
+
+		//Map the quantized network file and check its header
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if(channel.size() != FILE_LENGTH)
+				throw new IOException("Network: " + file + " is not a quantized network file of this architecture");
+
+			MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_LENGTH);
+
+			map.order(ByteOrder.LITTLE_ENDIAN);
+
+			if(map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+				throw new IOException("Network: " + file + " is not a version " + VERSION + " quantized network file");
+
+			if(map.getInt(8) != INPUTS || map.getInt(12) != HIDDEN || map.getInt(16) != L1 || map.getInt(20) != QA || map.getInt(24) != QB || map.getInt(28) != QO
+					|| map.getInt(36) != FILE_LENGTH)
+				throw new IOException("Network: " + file + " has different layer sizes or scales");
+
+			return new Network(map);
+		}
+	}
+
+	/**
+	 * Sets a side's first layer to the input biases.
+	 * @param values - the side's first layer neurons
+	 */
+	public void resetFeatures(short[] values) { System.arraycopy(inputBiases, 0, values, 0, HIDDEN); }
+
+	/**
+	 * Subtracts the input weights of the specified feature from a side's first layer.
+	 * @param values - the side's first layer neurons
+	 * @param feature - the feature index
+	 * @param column - scratch space for a weight column (HIDDEN, used if the weights are mapped)
+	 */
+	public void subtractFeature(short[] values, int feature, short[] column) { kernels.subtract(values, inputWeights, feature * HIDDEN, column); }
+
+	/**
+	 * Writes the network to a quantized network file.
+	 * @param file - the network file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		//Initialize variables
+		ByteBuffer buffer = ByteBuffer.allocate(FILE_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+		//Header
+		buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, INPUTS).putInt(12, HIDDEN).putInt(16, L1);
+		buffer.putInt(20, QA).putInt(24, QB).putInt(28, QO).putInt(32, outputBias).putInt(36, FILE_LENGTH);
+
+		//Weights
+		for(int i = 0; i < INPUTS * HIDDEN; ++i)
+			buffer.putShort(INPUT_WEIGHTS + i * 2, inputWeights.get(i));
+
+		for(int i = 0; i < HIDDEN; ++i)
+			buffer.putShort(INPUT_BIASES + i * 2, inputBiases[i]);
+
+		buffer.put(HIDDEN_WEIGHTS, hiddenWeights);
+
+		for(int i = 0; i < L1; ++i) {
+			buffer.putInt(HIDDEN_BIASES + i * 4, hiddenBiases[i]);
+			buffer.putShort(OUTPUT_WEIGHTS + i * 2, outputWeights[i]);
+		}
+
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while(buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Rounds a weight to the specified scale, saturating it at the specified limit.
+	 * @param weight - the weight
+	 * @param scale - the scale
+	 * @param limit - the largest magnitude allowed
+	 * @return the quantized weight
+	 */
+	private static int quantize(float weight, int scale, int limit) {
+		return (int)Math.max(-limit, Math.min(limit, Math.round((double)weight * scale)));
+	}
+}
@@ -0,0 +1,297 @@
+package com.chess.nan.nnue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * NetworkBench measures the per-evaluation latency of the network with the scalar and the Vector API kernels (see NetworkKernels) on the same positions, and checks that
+ * both give the same scores. Each path is timed for evaluating an accumulated position, for a make, evaluate and unmake (the cost per search node) and for a full refresh
+ * of the accumulator. Run it with --add-modules jdk.incubator.vector to time the Vector API kernels.
+ * <p>
+ * The benchmark then measures a BatchEvaluator at each batch size: one thread keeps a window of requests in flight (as that many search threads would) and the time per
+ * position, the latency of each request from submission to completion and the average batch size are reported. A window the size of the batch fills every batch, a window
+ * of half the batch makes every batch wait for the maximum latency.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class NetworkBench {
+
+	/** Default number of positions. */
+	public static final int DEF_POSITIONS = 4096;
+	/** Default number of timed rounds over the positions. */
+	public static final int DEF_ROUNDS = 20;
+	/** Default batch sizes measured. */
+	public static final String DEF_BATCH_SIZES = "1,2,4,8,16,32,64";
+
+	/**
+	 * Program entry point method that runs the benchmark. Options are -net (network file, a random network by default), -positions, -rounds, -seed, -batch-sizes (comma
+	 * separated, or none) and -max-latency (batch evaluator deadline in microseconds).
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		String file = null;
+		int positions = DEF_POSITIONS;
+		int rounds = DEF_ROUNDS;
+		long seed = 1;
+		String batchSizes = DEF_BATCH_SIZES;
+		long maxLatency = BatchEvaluator.DEF_MAX_LATENCY;
+
+		try {
+			for(int i = 0; i + 1 < args.length; i += 2) {
+				switch(args[i]) {
+				case "-net":
+					file = args[i + 1];
+					break;
+				case "-positions":
+					positions = Integer.parseInt(args[i + 1]);
+					break;
+				case "-rounds":
+					rounds = Integer.parseInt(args[i + 1]);
+					break;
+				case "-seed":
+					seed = Long.parseLong(args[i + 1]);
+					break;
+				case "-batch-sizes":
+					batchSizes = args[i + 1];
+					break;
+				case "-max-latency":
+					maxLatency = Long.parseLong(args[i + 1]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+
+			//Create the network and positions
+			Network network = (file != null) ? Network.load(Paths.get(file)) : new Network(new FloatNetwork(seed));
+			Position samples[] = createPositions(positions, seed);
+			NetworkKernels kernels[] = (network.kernels instanceof ScalarKernels) ? new NetworkKernels[] { network.kernels } : new NetworkKernels[] { new ScalarKernels(), network.kernels };
+			double nodeTimes[] = new double[kernels.length];
+			long checksums[] = new long[kernels.length];
+
+			System.out.println("Timing " + positions + " positions x " + rounds + " rounds (startup kernels: " + network.getKernelName() + ")");
+
+			for(int k = 0; k < kernels.length; ++k) {
+				network.kernels = kernels[k];
+
+				//Warm up, then time each operation
+				time(network, samples, rounds, new long[3]);
+
+				long times[] = new long[3];
+				checksums[k] = time(network, samples, rounds, times);
+				nodeTimes[k] = times[1] / (double)(positions * rounds);
+
+				System.out.printf("%-16s evaluate %7.1f ns   make+evaluate+unmake %7.1f ns   refresh %8.1f ns%n", kernels[k].getName(), times[0] / (double)(positions * rounds),
+						nodeTimes[k], times[2] / (double)(positions * rounds));
+			}
+
+			if(kernels.length > 1) {
+				System.out.printf("Speedup %.2fx per node, scores %s%n", nodeTimes[0] / nodeTimes[1], (checksums[0] == checksums[1]) ? "identical" : "DIFFER");
+
+				if(checksums[0] != checksums[1])
+					System.exit(1);
+			}
+
+			//Batch size versus latency
+			if(!batchSizes.equals("none")) {
+				network.kernels = kernels[kernels.length - 1];
+
+				if(!timeBatches(network, samples, rounds, batchSizes, maxLatency))
+					System.exit(1);
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number: " + e.getMessage());
+			System.exit(2);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("Failed to read network: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Creates positions by playing random legal moves from the starting position.
+	 * @param count - the number of positions
+	 * @param seed - the random seed
+	 * @return the positions (each with at least one legal move)
+	 */
+	static Position[] createPositions(int count, long seed) {
+		//Initialize variables
+		Position positions[] = new Position[count];
+		SplittableRandom random = new SplittableRandom(seed);
+		MoveList moves = new MoveList();
+		Position position = new Position();
+
+		for(int i = 0; i < count;) {
+			position.generateLegalMoves(moves);
+
+			//Start a new game when this one ends or gets long
+			if(moves.isEmpty() || position.getPly() >= 200) {
+				position.reset();
+				continue;
+			}
+
+			positions[i++] = new Position(position);
+			position.makeMove(moves.get(random.nextInt(moves.size())));
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Times a batch evaluator at each of the specified batch sizes, with a window of requests the size of the batch and half its size, and prints the results.
+	 * @param network - the network
+	 * @param positions - the positions
+	 * @param rounds - the number of rounds
+	 * @param batchSizes - the batch sizes (comma separated)
+	 * @param maxLatency - the maximum latency of the batch evaluator in microseconds
+	 * @return true if every batch score matched the accumulator's score, false otherwise
+	 */
+	private static boolean timeBatches(Network network, Position[] positions, int rounds, String batchSizes, long maxLatency) {
+		//Find the expected scores
+		Accumulator accumulator = new Accumulator(network);
+		int expected[] = new int[positions.length];
+		boolean matched = true;
+
+		for(int i = 0; i < positions.length; ++i) {
+			positions[i].setPositionListener(accumulator);
+			expected[i] = accumulator.evaluate(positions[i].getTurn());
+			positions[i].setPositionListener(null);
+		}
+
+		System.out.printf("Batch evaluator (max latency %d us):%n", maxLatency);
+		System.out.println("  batch  window   ns/position   mean latency us   p99 latency us   average batch");
+
+		for(String size : batchSizes.split(",")) {
+			int batchSize = Integer.parseInt(size.trim());
+
+			//A full window, then half a window (waiting for the deadline)
+			for(int window = batchSize; window >= Math.max(1, batchSize / 2); window = (window == 1) ? 0 : window / 2) {
+				try(BatchEvaluator evaluator = new BatchEvaluator(network, batchSize, maxLatency)) {
+					long latencies[] = new long[positions.length * rounds];
+
+					//Warm up, then time the rounds
+					matched &= timeWindow(evaluator, positions, expected, 1, window, latencies);
+
+					long batches = evaluator.getBatches();
+					long evaluations = evaluator.getEvaluations();
+					long start = System.nanoTime();
+
+					matched &= timeWindow(evaluator, positions, expected, rounds, window, latencies);
+
+					long time = System.nanoTime() - start;
+					double mean = 0;
+
+					for(int i = 0; i < latencies.length; ++i)
+						mean += latencies[i];
+
+					Arrays.sort(latencies);
+
+					System.out.printf("  %5d  %6d   %11.1f   %15.1f   %14.1f   %13.1f%n", batchSize, window, time / (double)latencies.length, mean / latencies.length / 1000,
+							latencies[(int)(latencies.length * 0.99)] / 1000.0, (evaluator.getEvaluations() - evaluations) / (double)(evaluator.getBatches() - batches));
+				}
+			}
+		}
+
+		System.out.println("Batch scores " + (matched ? "identical" : "DIFFER"));
+
+		return matched;
+	}
+
+	/**
+	 * Evaluates the positions for the specified number of rounds with a batch evaluator, keeping a window of requests in flight.
+	 * @param evaluator - the batch evaluator
+	 * @param positions - the positions
+	 * @param expected - the expected scores
+	 * @param rounds - the number of rounds
+	 * @param window - the number of requests in flight
+	 * @param latencies - the latency of each request (at least positions.length * rounds)
+	 * @return true if every score was the expected score, false otherwise
+	 */
+	private static boolean timeWindow(BatchEvaluator evaluator, Position[] positions, int[] expected, int rounds, int window, long[] latencies) {
+		//Initialize variables
+		EvalRequest requests[] = new EvalRequest[window];
+		int indices[] = new int[window];
+		int total = positions.length * rounds;
+		boolean matched = true;
+
+		//Complete the oldest request in the window before submitting the next
+		for(int i = 0; i < total + window; ++i) {
+			int slot = i % window;
+
+			if(i >= window) {
+				matched &= requests[slot].join() == expected[indices[slot]];
+				latencies[i - window] = requests[slot].getLatency();
+			}
+
+			if(i < total) {
+				indices[slot] = i % positions.length;
+				requests[slot] = evaluator.submit(positions[indices[slot]]);
+			}
+		}
+
+		return matched;
+	}
+
+	/**
+	 * Times evaluating, making, evaluating and unmaking a move, and refreshing the accumulator of every position for the specified number of rounds.
+	 * @param network - the network
+	 * @param positions - the positions
+	 * @param rounds - the number of rounds
+	 * @param times - the total times (in nanoseconds) of the three operations
+	 * @return a checksum of the scores
+	 */
+	private static long time(Network network, Position[] positions, int rounds, long[] times) {
+		//Initialize variables
+		Accumulator accumulators[] = new Accumulator[positions.length];
+		MoveList moves = new MoveList();
+		int firstMoves[] = new int[positions.length];
+		long checksum = 0;
+
+		for(int i = 0; i < positions.length; ++i) {
+			accumulators[i] = new Accumulator(network);
+			positions[i].setPositionListener(accumulators[i]);
+			positions[i].generateLegalMoves(moves);
+			firstMoves[i] = moves.get(0);
+		}
+
+		for(int r = 0; r < rounds; ++r) {
+			long start = System.nanoTime();
+
+			for(int i = 0; i < positions.length; ++i)
+				checksum = checksum * 31 + accumulators[i].evaluate(positions[i].getTurn());
+
+			long evaluated = System.nanoTime();
+
+			for(int i = 0; i < positions.length; ++i) {
+				positions[i].makeMove(firstMoves[i]);
+				checksum = checksum * 31 + accumulators[i].evaluate(positions[i].getTurn());
+				positions[i].unmakeMove();
+			}
+
+			long searched = System.nanoTime();
+
+			for(int i = 0; i < positions.length; ++i)
+				positions[i].setPositionListener(accumulators[i]);
+
+			long refreshed = System.nanoTime();
+
+			times[0] += evaluated - start;
+			times[1] += searched - evaluated;
+			times[2] += refreshed - searched;
+		}
+
+		for(int i = 0; i < positions.length; ++i)
+			positions[i].setPositionListener(null);
+
+		return checksum;
+	}
+}
@@ -0,0 +1,60 @@
+package com.chess.nan.nnue;
+
+import com.chess.Position;
+import com.chess.nan.search.Evaluator;
+
+/**
+ * NetworkEvaluator scores positions for the NAN's search with a Network instead of hand written terms. The first position it evaluates gets the evaluator's Accumulator
+ * as its listener, so the search's makeMove and unmakeMove keep the first layer up to date and each evaluation only computes the hidden and output layers. Like a Search,
+ * an evaluator must only be used by one thread.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class NetworkEvaluator extends Evaluator {
+
+	/** The accumulator. */
+	private Accumulator accumulator;
+	/** The position the accumulator is attached to, or null. */
+	private Position position;
+
+	/**
+	 * Constructor for NetworkEvaluator that evaluates with the specified network.
+	 * @param network - the network
+	 */
+	public NetworkEvaluator(Network network) {
+		//Initialize variables
+		accumulator = new Accumulator(network);
+		position = null;
+	}
+
+	/**
+	 * Returns a new evaluator with its own accumulator for the same network, to be used by another thread.
+	 * @return the evaluator for another thread
+	 */
+	@Override
+	public Evaluator copy() { return new NetworkEvaluator(getNetwork()); }
+
+	/**
+	 * Evaluates the specified position, attaching the accumulator to it if it is not the position evaluated last.
+	 * @param pos - the position to evaluate
+	 * @return the score of the position in centipawns from the point of view of the side to move
+	 */
+	@Override
+	public int evaluate(Position pos) {
+		//Move the accumulator to a new position
+		if(pos != position || pos.getPositionListener() != accumulator) {
+			if(position != null && position.getPositionListener() == accumulator) position.setPositionListener(null);
+
+			position = pos;
+			position.setPositionListener(accumulator);
+		}
+
+		return accumulator.evaluate(pos.getTurn());
+	}
+
+	/**
+	 * Returns the network.
+	 * @return the network
+	 */
+	public Network getNetwork() { return accumulator.getNetwork(); }
+}
@@ -0,0 +1,127 @@
+package com.chess.nan.nnue;
+
+import java.nio.ShortBuffer;
+
+/**
+ * NetworkKernels are the inner loops of a Network: adding and subtracting weight columns of the first layer and adding the clipped first layer activations times the
+ * hidden weights. The kernels are chosen once, when the first network is created: the Vector API kernels if the jdk.incubator.vector module is present (run with
+ * --add-modules jdk.incubator.vector) and the CPU has vectors of at least 256 bits, otherwise the scalar kernels. Setting the system property nan.simd to false forces the
+ * scalar kernels.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+abstract class NetworkKernels {
+
+	/** The kernels chosen at startup. */
+	static final NetworkKernels DEFAULT = select();
+
+	/**
+	 * Adds a weight column to a side's first layer.
+	 * @param values - the side's first layer neurons (Network.HIDDEN)
+	 * @param weights - the input weights
+	 * @param offset - the offset of the column in the weights
+	 */
+	abstract void add(short[] values, short[] weights, int offset);
+
+	/**
+	 * Adds a weight column of the input weights to a side's first layer. Weights that are not on the heap are copied to the column scratch space first.
+	 * @param values - the side's first layer neurons (Network.HIDDEN)
+	 * @param weights - the input weights
+	 * @param offset - the offset of the column in the weights
+	 * @param column - scratch space for a column (Network.HIDDEN)
+	 */
+	void add(short[] values, ShortBuffer weights, int offset, short[] column) {
+		if(weights.hasArray()) {
+			add(values, weights.array(), weights.arrayOffset() + offset);
+		}
+		else {
+			weights.get(offset, column, 0, Network.HIDDEN);
+			add(values, column, 0);
+		}
+	}
+
+	/**
+	 * Adds a weight column of the input weights to several first layers, reading the column once. Weights that are not on the heap are copied to the column scratch space
+	 * first.
+	 * @param values - the first layers (Network.HIDDEN neurons each)
+	 * @param targets - the indices in values of the first layers to add to
+	 * @param count - the number of targets
+	 * @param weights - the input weights
+	 * @param offset - the offset of the column in the weights
+	 * @param column - scratch space for a column (Network.HIDDEN)
+	 */
+	void add(short[][] values, int[] targets, int count, ShortBuffer weights, int offset, short[] column) {
+		//Initialize variables
+		short source[] = column;
+		int start = 0;
+
+		if(weights.hasArray()) {
+			source = weights.array();
+			start = weights.arrayOffset() + offset;
+		}
+		else {
+			weights.get(offset, column, 0, Network.HIDDEN);
+		}
+
+		for(int i = 0; i < count; ++i)
+			add(values[targets[i]], source, start);
+	}
+
+	/**
+	 * Adds the hidden weights times the clipped activation of each of a side's first layer neurons above 0 to the hidden layer sums.
+	 * @param values - the side's first layer neurons (Network.HIDDEN)
+	 * @param weights - the hidden weights (Network.L1 for each first layer neuron)
+	 * @param offset - the offset of the side's hidden weights
+	 * @param sums - the hidden layer sums (Network.L1)
+	 * @param active - scratch space for Network.HIDDEN neuron indices
+	 */
+	abstract void addActivations(short[] values, byte[] weights, int offset, int[] sums, int[] active);
+
+	/**
+	 * Returns the name of the kernels.
+	 * @return the name
+	 */
+	abstract String getName();
+
+	/**
+	 * Subtracts a weight column from a side's first layer.
+	 * @param values - the side's first layer neurons (Network.HIDDEN)
+	 * @param weights - the input weights
+	 * @param offset - the offset of the column in the weights
+	 */
+	abstract void subtract(short[] values, short[] weights, int offset);
+
+	/**
+	 * Subtracts a weight column of the input weights from a side's first layer. Weights that are not on the heap are copied to the column scratch space first.
+	 * @param values - the side's first layer neurons (Network.HIDDEN)
+	 * @param weights - the input weights
+	 * @param offset - the offset of the column in the weights
+	 * @param column - scratch space for a column (Network.HIDDEN)
+	 */
+	void subtract(short[] values, ShortBuffer weights, int offset, short[] column) {
+		if(weights.hasArray()) {
+			subtract(values, weights.array(), weights.arrayOffset() + offset);
+		}
+		else {
+			weights.get(offset, column, 0, Network.HIDDEN);
+			subtract(values, column, 0);
+		}
+	}
+
+	/**
+	 * Returns the Vector API kernels if they can be used, otherwise the scalar kernels.
+	 * @return the kernels
+	 */
+	static NetworkKernels select() {
+		if(!Boolean.parseBoolean(System.getProperty("nan.simd", "true")) || !ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+			return new ScalarKernels();
+
+		try {
+			if(VectorKernels.isSupported()) return new VectorKernels();
+		} catch (LinkageError e) {
+			//Fall back to the scalar kernels
+		}
+
+		return new ScalarKernels();
+	}
+}
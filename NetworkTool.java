@@ -0,0 +1,147 @@
+package com.chess.nan.nnue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.chess.Position;
+import com.chess.nan.train.TrainingDataReader;
+import com.chess.nan.train.TrainingSample;
+
+/**
+ * NetworkTool converts float network files to quantized network files and reports how much accuracy quantization loses. The validate command evaluates positions with
+ * the float network's full forward pass and with the quantized network (mapped from its file, or quantized in memory), and prints the error of the quantized scores.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class NetworkTool {
+
+	/** Default number of positions validated. */
+	public static final int DEF_POSITIONS = 100000;
+
+	/**
+	 * Program entry point method. Commands are "quantize <float file> <quantized file>" and "validate <float file> [quantized file] [-data <shard directory>]
+	 * [-positions <count>]". Positions are read from training data shards if a directory is given, otherwise they are made by random play.
+	 * @param args - the command and its arguments
+	 */
+	public static void main(String[] args) {
+		try {
+			if(args.length == 3 && args[0].equals("quantize")) {
+				long start = System.nanoTime();
+
+				new Network(FloatNetwork.read(Paths.get(args[1]))).write(Paths.get(args[2]));
+				System.out.printf("Wrote %s in %.1f ms%n", args[2], (System.nanoTime() - start) / 1e6);
+			}
+			else if(args.length >= 2 && args[0].equals("validate")) {
+				validate(args);
+			}
+			else {
+				System.err.println("Usage: NetworkTool quantize <float file> <quantized file>");
+				System.err.println("       NetworkTool validate <float file> [quantized file] [-data <shard directory>] [-positions <count>]");
+				System.exit(2);
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number: " + e.getMessage());
+			System.exit(2);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("Failed: " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns the validation positions read from training data shards.
+	 * @param directory - the shard directory
+	 * @param count - the maximum number of positions
+	 * @return the positions
+	 * @throws IOException if a shard cannot be read
+	 * @throws InterruptedException if the thread is interrupted while reading
+	 */
+	private static Position[] readPositions(String directory, int count) throws IOException, InterruptedException {
+		//Initialize variables
+		ArrayList<Position> positions = new ArrayList<Position>();
+		TrainingSample sample = new TrainingSample();
+
+		try(TrainingDataReader reader = new TrainingDataReader(Paths.get(directory), 1)) {
+			while(positions.size() < count && reader.next(sample)) {
+				Position position = new Position();
+
+				position.setFEN(sample.toFEN());
+				positions.add(position);
+			}
+		}
+
+		return positions.toArray(new Position[positions.size()]);
+	}
+
+	/**
+	 * Handles the validate command.
+	 * @param args - the command and its arguments
+	 * @throws IOException if a file cannot be read
+	 * @throws InterruptedException if the thread is interrupted while reading positions
+	 */
+	private static void validate(String[] args) throws IOException, InterruptedException {
+		//Initialize variables
+		String quantized = null;
+		String data = null;
+		int count = DEF_POSITIONS;
+
+		for(int i = 2; i < args.length; ++i) {
+			if(args[i].equals("-data") && i + 1 < args.length) data = args[++i];
+			else if(args[i].equals("-positions") && i + 1 < args.length) count = Integer.parseInt(args[++i]);
+			else if(quantized == null && !args[i].startsWith("-")) quantized = args[i];
+			else throw new IllegalArgumentException("Unknown option " + args[i]);
+		}
+
+		//Load the networks and positions
+		FloatNetwork reference = FloatNetwork.read(Paths.get(args[1]));
+		String kernels = NetworkKernels.DEFAULT.getName();
+		long start = System.nanoTime();
+		Network network = (quantized != null) ? Network.load(Paths.get(quantized)) : new Network(reference);
+		long loadTime = System.nanoTime() - start;
+		Position positions[] = (data != null) ? readPositions(data, count) : NetworkBench.createPositions(count, 1);
+		Accumulator accumulator = new Accumulator(network);
+
+		if(positions.length == 0)
+			throw new IllegalArgumentException("No positions to validate");
+
+		//Compare the scores
+		double errors[] = new double[positions.length];
+		double sum = 0;
+		double squares = 0;
+		int agree = 0;
+
+		for(int i = 0; i < positions.length; ++i) {
+			float expected = reference.evaluate(positions[i]);
+
+			positions[i].setPositionListener(accumulator);
+
+			int actual = accumulator.evaluate(positions[i].getTurn());
+
+			positions[i].setPositionListener(null);
+
+			errors[i] = Math.abs(actual - expected);
+			sum += errors[i];
+			squares += errors[i] * errors[i];
+
+			if(Math.signum(actual) == Math.signum(Math.round(expected))) agree++;
+		}
+
+		Arrays.sort(errors);
+
+		//Report the accuracy loss
+		System.out.printf("Network: %s (%s, %s kernels, loaded in %.2f ms)%n", (quantized != null) ? quantized : "quantized in memory", network.isMapped() ? "mapped" : "heap",
+				kernels, loadTime / 1e6);
+		System.out.printf("Positions: %d%n", positions.length);
+		System.out.printf("Error (cp): mean %.2f, rms %.2f, median %.0f, 99th percentile %.0f, max %.0f%n", sum / positions.length, Math.sqrt(squares / positions.length),
+				errors[positions.length / 2], errors[(int)(positions.length * 0.99)], errors[positions.length - 1]);
+		System.out.printf("Same sign as the float network: %.2f%%%n", agree * 100.0 / positions.length);
+	}
+}
@@ -0,0 +1,789 @@
+package com.chess.nan.nnue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.chess.ChessBoard;
+import com.chess.nan.train.TrainingDataReader;
+import com.chess.nan.train.TrainingSample;
+
+/**
+ * NetworkTrainer trains a FloatNetwork on self-play training data shards with mini-batch gradient descent and Adam. Each sample's target mixes the search score and the
+ * game result (both from the side to move's point of view, with the score mapped to 0 - 1 by a sigmoid), and the loss is the squared error of the network's output
+ * through the same sigmoid.
+ * <p>
+ * The main thread packs each mini-batch into primitive arrays while the previous batch is trained. Training a batch runs two rounds of one task per thread on a
+ * ForkJoinPool: first each task sums the gradients of its share of the batch into its own gradient buffers, then each task reduces one slice of every parameter array
+ * over all the buffers (clearing them for the next batch) and applies Adam to that slice, so no two threads write the same memory. Samples are never allocated: shards are
+ * read into one TrainingSample and every buffer is allocated up front.
+ * <p>
+ * One shard in ten (at least one, if there are two or more) is held out and its positions are used to compute a validation loss after each epoch. After each epoch, the
+ * network is written to the output directory as network.nanf and epoch-N.nanf, with the optimizer state in optimizer.bin, so -resume can continue an interrupted run.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class NetworkTrainer {
+
+	/** Default number of epochs. */
+	public static final int DEF_EPOCHS = 10;
+	/** Default mini-batch size. */
+	public static final int DEF_BATCH_SIZE = 16384;
+	/** Default learning rate. */
+	public static final float DEF_LEARNING_RATE = 0.001f;
+	/** Default weight of the search score in the target (the rest is the game result). */
+	public static final float DEF_LAMBDA = 0.5f;
+	/** Default maximum number of validation samples. */
+	public static final int DEF_VALIDATION_SAMPLES = 1 << 17;
+	/** Default output directory. */
+	public static final String DEF_OUTPUT = "training";
+	/** Centipawns mapped to a win probability of 1 / (1 + e^-1). */
+	public static final float WDL_SCALE = 400.0f;
+
+	/** Latest network file name. */
+	public static final String NETWORK_NAME = "network.nanf";
+	/** Optimizer state file name. */
+	public static final String OPTIMIZER_NAME = "optimizer.bin";
+	/** Optimizer state magic number ("NANO"). */
+	public static final int OPTIMIZER_MAGIC = 0x4E414E4F;
+
+	/** Adam first moment decay. */
+	private static final float BETA1 = 0.9f;
+	/** Adam second moment decay. */
+	private static final float BETA2 = 0.999f;
+	/** Adam epsilon. */
+	private static final float EPSILON = 1e-8f;
+	/** Most pieces in a sample. */
+	private static final int MAX_PIECES = 32;
+	/** Largest hidden weight that can be quantized. */
+	private static final float HIDDEN_WEIGHT_LIMIT = Byte.MAX_VALUE / (float)Network.QB;
+	/** Index of the hidden weights among the parameter arrays. */
+	private static final int HIDDEN_WEIGHTS = 2;
+
+	/** The network being trained. */
+	private FloatNetwork network;
+	/** Parameter arrays (input weights, input biases, hidden weights, hidden biases, output weights and output bias). */
+	private float params[][];
+	/** Adam first moments of each parameter array. */
+	private float moments[][];
+	/** Adam second moments of each parameter array. */
+	private float velocities[][];
+	/** Pool running the workers. */
+	private ForkJoinPool pool;
+	/** One worker for each thread. */
+	private Worker workers[];
+	/** The pool task of each worker. */
+	private ForkJoinTask<?> tasks[];
+	/** Mini-batch size. */
+	private int batchSize;
+	/** Learning rate. */
+	private float learningRate;
+	/** Weight of the search score in the target. */
+	private float lambda;
+	/** Number of optimizer steps taken. */
+	private long step;
+	/** Number of epochs completed. */
+	private int epoch;
+
+	/**
+	 * Constructor for NetworkTrainer that trains the specified network.
+	 * @param network - the network (trained in place)
+	 * @param threads - the number of training threads
+	 * @param batchSize - the mini-batch size
+	 * @param learningRate - the learning rate
+	 * @param lambda - the weight of the search score in the target (0 - 1)
+	 */
+	public NetworkTrainer(FloatNetwork network, int threads, int batchSize, float learningRate, float lambda) {
+		//Check parameters
+		if(threads < 1 || batchSize < threads)
+			throw new IllegalArgumentException("Need at least 1 thread and 1 sample per thread in a batch");
+
+		//Initialize variables
+		this.network = network;
+		this.batchSize = batchSize;
+		this.learningRate = learningRate;
+		this.lambda = lambda;
+		params = new float[][] { network.inputWeights, network.inputBiases, network.hiddenWeights, network.hiddenBiases, network.outputWeights, { network.outputBias } };
+		moments = new float[params.length][];
+		velocities = new float[params.length][];
+		pool = new ForkJoinPool(threads);
+		workers = new Worker[threads];
+		tasks = new ForkJoinTask<?>[threads];
+		step = 0;
+		epoch = 0;
+
+		for(int i = 0; i < params.length; ++i) {
+			moments[i] = new float[params[i].length];
+			velocities[i] = new float[params[i].length];
+		}
+
+		for(int i = 0; i < threads; ++i) {
+			workers[i] = new Worker(this, i);
+			tasks[i] = ForkJoinTask.adapt(workers[i]);
+		}
+	}
+
+	/**
+	 * Returns the number of epochs completed.
+	 * @return the number of epochs
+	 */
+	public int getEpoch() { return epoch; }
+
+	/**
+	 * Returns the network being trained.
+	 * @return the network
+	 */
+	public FloatNetwork getNetwork() { return network; }
+
+	/**
+	 * Program entry point method that trains a network. Options are -data (training shard directory, required), -net (float network to start from, random by default),
+	 * -out (output directory), -epochs, -batch, -threads, -lr (learning rate), -lambda (weight of the search score in the target), -validation (maximum validation
+	 * samples), -seed and -resume (continue from the output directory's checkpoint).
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		String data = null;
+		String start = null;
+		String output = DEF_OUTPUT;
+		int epochs = DEF_EPOCHS;
+		int batchSize = DEF_BATCH_SIZE;
+		int threads = Runtime.getRuntime().availableProcessors();
+		float learningRate = DEF_LEARNING_RATE;
+		float lambda = DEF_LAMBDA;
+		int validationSamples = DEF_VALIDATION_SAMPLES;
+		long seed = 1;
+		boolean resume = false;
+
+		try {
+			for(int i = 0; i < args.length; ++i) {
+				if(args[i].equals("-resume")) {
+					resume = true;
+					continue;
+				}
+
+				if(i + 1 >= args.length)
+					throw new IllegalArgumentException("Missing value for option " + args[i]);
+
+				switch(args[i]) {
+				case "-data":
+					data = args[++i];
+					break;
+				case "-net":
+					start = args[++i];
+					break;
+				case "-out":
+					output = args[++i];
+					break;
+				case "-epochs":
+					epochs = Integer.parseInt(args[++i]);
+					break;
+				case "-batch":
+					batchSize = Integer.parseInt(args[++i]);
+					break;
+				case "-threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "-lr":
+					learningRate = Float.parseFloat(args[++i]);
+					break;
+				case "-lambda":
+					lambda = Float.parseFloat(args[++i]);
+					break;
+				case "-validation":
+					validationSamples = Integer.parseInt(args[++i]);
+					break;
+				case "-seed":
+					seed = Long.parseLong(args[++i]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+
+			if(data == null)
+				throw new IllegalArgumentException("Usage: NetworkTrainer -data <shard directory> [options]");
+
+			//Split the shards into training and validation shards
+			List<Path> shards = TrainingDataReader.listShards(Paths.get(data));
+			List<Path> validation = new ArrayList<Path>();
+			List<Path> training = new ArrayList<Path>();
+
+			for(int i = 0; i < shards.size(); ++i) {
+				if(shards.size() > 1 && i % 10 == 0) validation.add(shards.get(i));
+				else training.add(shards.get(i));
+			}
+
+			//Create or resume the trainer
+			Path directory = Paths.get(output);
+			FloatNetwork network = (resume || start == null) ? new FloatNetwork(seed) : FloatNetwork.read(Paths.get(start));
+
+			if(resume) network = FloatNetwork.read(directory.resolve(NETWORK_NAME));
+
+			NetworkTrainer trainer = new NetworkTrainer(network, threads, batchSize, learningRate, lambda);
+
+			if(resume) trainer.readOptimizer(directory.resolve(OPTIMIZER_NAME));
+
+			Files.createDirectories(directory);
+			System.out.printf("Training on %d shards (%d held out for validation) with %d threads, batch %d, learning rate %g, lambda %.2f%n", training.size(),
+					validation.size(), threads, batchSize, learningRate, lambda);
+
+			Batch validationBatch = validation.isEmpty() ? null : readValidation(validation, validationSamples, lambda);
+
+			//Train, checkpointing after each epoch
+			while(trainer.getEpoch() < epochs) {
+				long time = System.nanoTime();
+				long samples[] = new long[1];
+				double loss = trainer.trainEpoch(training, seed + trainer.getEpoch(), samples);
+				double seconds = (System.nanoTime() - time) / 1e9;
+
+				trainer.writeCheckpoint(directory);
+
+				System.out.printf("Epoch %d: train loss %.6f, validation loss %s, %d samples in %.1f s (%.0f samples/s)%n", trainer.getEpoch(), loss,
+						(validationBatch != null) ? String.format("%.6f", trainer.validate(validationBatch)) : "n/a", samples[0], seconds, samples[0] / seconds);
+			}
+
+			trainer.close();
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number: " + e.getMessage());
+			System.exit(2);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("Training failed: " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Training interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Reads the optimizer state written by writeCheckpoint.
+	 * @param file - the optimizer state file
+	 * @throws IOException if the file cannot be read or does not match the network
+	 */
+	public void readOptimizer(Path file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			if(in.readInt() != OPTIMIZER_MAGIC || in.readInt() != params.length)
+				throw new IOException("NetworkTrainer: " + file + " is not an optimizer state file for this network");
+
+			epoch = in.readInt();
+			step = in.readLong();
+
+			for(int i = 0; i < params.length; ++i) {
+				readFloats(in, moments[i]);
+				readFloats(in, velocities[i]);
+			}
+		}
+	}
+
+	/**
+	 * Stops the training threads.
+	 */
+	public void close() { pool.shutdown(); }
+
+	/**
+	 * Trains one epoch over the specified shards.
+	 * @param shards - the training shards
+	 * @param seed - the shuffle seed
+	 * @param samples - set to the number of samples trained on (first element)
+	 * @return the average training loss
+	 * @throws IOException if a shard cannot be read
+	 * @throws InterruptedException if the thread is interrupted while reading
+	 */
+	public double trainEpoch(List<Path> shards, long seed, long[] samples) throws IOException, InterruptedException {
+		//Initialize variables
+		Batch batches[] = { new Batch(batchSize), new Batch(batchSize) };
+		TrainingSample sample = new TrainingSample();
+		double loss = 0;
+		int current = 0;
+
+		try(TrainingDataReader reader = new TrainingDataReader(shards, TrainingDataReader.DEF_THREADS, TrainingDataReader.DEF_SHUFFLE_SIZE, seed)) {
+			batches[0].fill(reader, sample, lambda);
+
+			//Train each full batch while the next one is read
+			while(batches[current].size == batchSize) {
+				Batch batch = batches[current];
+				ForkJoinTask<?> task = pool.submit(new RecursiveAction() {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected void compute() {
+						trainBatch(batch);
+					}
+				});
+
+				current ^= 1;
+				batches[current].fill(reader, sample, lambda);
+				task.join();
+
+				loss += batch.loss;
+				samples[0] += batch.size;
+			}
+		}
+
+		epoch++;
+
+		return (samples[0] > 0) ? loss / samples[0] : 0.0;
+	}
+
+	/**
+	 * Returns the average loss of the network on the specified samples.
+	 * @param batch - the samples
+	 * @return the average loss
+	 */
+	public double validate(Batch batch) {
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				runWorkers(Worker.VALIDATE, batch);
+			}
+		});
+
+		return (batch.size > 0) ? batch.loss / batch.size : 0.0;
+	}
+
+	/**
+	 * Writes the network and optimizer state to the specified directory. Each file is written to a temporary file first and then moved into place.
+	 * @param directory - the output directory
+	 * @throws IOException if a file cannot be written
+	 */
+	public void writeCheckpoint(Path directory) throws IOException {
+		//Write the network
+		Path temp = directory.resolve(NETWORK_NAME + ".tmp");
+
+		network.outputBias = params[params.length - 1][0];
+		network.write(temp);
+		Files.copy(temp, directory.resolve(String.format("epoch-%03d.nanf", epoch)), StandardCopyOption.REPLACE_EXISTING);
+		Files.move(temp, directory.resolve(NETWORK_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		//Write the optimizer state
+		temp = directory.resolve(OPTIMIZER_NAME + ".tmp");
+
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+			out.writeInt(OPTIMIZER_MAGIC);
+			out.writeInt(params.length);
+			out.writeInt(epoch);
+			out.writeLong(step);
+
+			for(int i = 0; i < params.length; ++i) {
+				writeFloats(out, moments[i]);
+				writeFloats(out, velocities[i]);
+			}
+		}
+
+		Files.move(temp, directory.resolve(OPTIMIZER_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads up to the specified number of validation samples into one batch.
+	 * @param shards - the validation shards
+	 * @param count - the maximum number of samples
+	 * @param lambda - the weight of the search score in the target
+	 * @return the validation samples
+	 * @throws IOException if a shard cannot be read
+	 * @throws InterruptedException if the thread is interrupted while reading
+	 */
+	private static Batch readValidation(List<Path> shards, int count, float lambda) throws IOException, InterruptedException {
+		//Initialize variables
+		Batch batch = new Batch(count);
+
+		try(TrainingDataReader reader = new TrainingDataReader(shards, TrainingDataReader.DEF_THREADS, TrainingDataReader.DEF_SHUFFLE_SIZE, 0)) {
+			batch.fill(reader, new TrainingSample(), lambda);
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Reads floats into the specified array.
+	 * @param in - the input to read from
+	 * @param values - the array to fill
+	 * @throws IOException if the input cannot be read
+	 */
+	private static void readFloats(DataInputStream in, float[] values) throws IOException {
+		for(int i = 0; i < values.length; ++i)
+			values[i] = in.readFloat();
+	}
+
+	/**
+	 * Runs every worker on the specified batch in the specified phase and waits for them. Must be called from a task running on the pool.
+	 * @param phase - the worker phase
+	 * @param batch - the batch
+	 */
+	private void runWorkers(int phase, Batch batch) {
+		for(int i = 0; i < workers.length; ++i) {
+			tasks[i].reinitialize();
+			workers[i].phase = phase;
+			workers[i].batch = batch;
+			workers[i].loss = 0;
+		}
+
+		ForkJoinTask.invokeAll(tasks);
+
+		//Sum the losses
+		batch.loss = 0;
+
+		for(int i = 0; i < workers.length; ++i)
+			batch.loss += workers[i].loss;
+	}
+
+	/**
+	 * Computes the gradients of a batch and takes an optimizer step. Runs on the pool.
+	 * @param batch - the batch
+	 */
+	private void trainBatch(Batch batch) {
+		runWorkers(Worker.GRADIENTS, batch);
+
+		double loss = batch.loss;
+
+		step++;
+		runWorkers(Worker.UPDATE, batch);
+		batch.loss = loss;
+	}
+
+	/**
+	 * Writes the floats of the specified array.
+	 * @param out - the output to write to
+	 * @param values - the values
+	 * @throws IOException if the output cannot be written
+	 */
+	private static void writeFloats(DataOutputStream out, float[] values) throws IOException {
+		for(int i = 0; i < values.length; ++i)
+			out.writeFloat(values[i]);
+	}
+
+	/**
+	 * Batch holds the samples of a mini-batch in primitive arrays: each sample's feature pairs (side to move's, then the other side's, MAX_PIECES pairs per sample), its
+	 * number of pieces and its target.
+	 */
+	static class Batch {
+
+		/** Feature pairs of each sample. */
+		final int features[];
+		/** Number of pieces of each sample. */
+		final byte pieces[];
+		/** Target of each sample (0 - 1). */
+		final float targets[];
+		/** Number of samples. */
+		int size;
+		/** Summed loss of the samples, after they are trained or validated. */
+		double loss;
+
+		/**
+		 * Constructor for Batch that allocates the specified number of samples.
+		 * @param capacity - the number of samples
+		 */
+		Batch(int capacity) {
+			features = new int[capacity * 2 * MAX_PIECES];
+			pieces = new byte[capacity];
+			targets = new float[capacity];
+			size = 0;
+		}
+
+		/**
+		 * Fills the batch with the next samples of the specified reader, skipping samples with too many pieces.
+		 * @param reader - the reader
+		 * @param sample - the sample to read into
+		 * @param lambda - the weight of the search score in the target
+		 * @throws IOException if a shard cannot be read
+		 * @throws InterruptedException if the thread is interrupted while reading
+		 */
+		void fill(TrainingDataReader reader, TrainingSample sample, float lambda) throws IOException, InterruptedException {
+			size = 0;
+
+			while(size < targets.length && reader.next(sample)) {
+				long occupied = sample.getOccupiedBits();
+
+				if(Long.bitCount(occupied) > MAX_PIECES)
+					continue;
+
+				//Features from the side to move's and the other side's point of view
+				boolean turn = sample.getTurn();
+				int offset = size * 2 * MAX_PIECES;
+
+				for(long bits = occupied; bits != 0L; bits &= bits - 1) {
+					int space = Long.numberOfTrailingZeros(bits);
+					int piece = sample.getPiece(space);
+
+					features[offset++] = Network.getFeature(turn, piece, space);
+					features[offset++] = Network.getFeature(!turn, piece, space);
+				}
+
+				//Mix the search score and the game result, both for the side to move
+				int result = (turn == ChessBoard.WHITE) ? sample.getResult() : -sample.getResult();
+
+				pieces[size] = (byte)Long.bitCount(occupied);
+				targets[size] = lambda * sigmoid(sample.getScore() / WDL_SCALE) + (1.0f - lambda) * (result + 1) * 0.5f;
+				size++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the logistic function of x.
+	 * @param x - the input
+	 * @return 1 / (1 + e^-x)
+	 */
+	static float sigmoid(float x) { return 1.0f / (1.0f + (float)Math.exp(-x)); }
+
+	/**
+	 * Worker is one training thread's task. It keeps its own gradient buffers and scratch arrays, and runs one of three phases over its share of a batch: summing
+	 * gradients, reducing one slice of the parameters' gradients over every worker and updating it, or summing the validation loss.
+	 */
+	private static class Worker implements Runnable {
+
+		/** Gradient phase. */
+		static final int GRADIENTS = 0;
+		/** Reduce and update phase. */
+		static final int UPDATE = 1;
+		/** Validation phase. */
+		static final int VALIDATE = 2;
+
+		/** The trainer. */
+		private final NetworkTrainer trainer;
+		/** Index of the worker. */
+		private final int index;
+		/** Gradient of each parameter array. */
+		private final float gradients[][];
+		/** First layer of the side to move. */
+		private final float us[];
+		/** First layer of the other side. */
+		private final float them[];
+		/** Hidden layer sums. */
+		private final float hidden[];
+		/** Hidden layer activation gradients. */
+		private final float hiddenGradients[];
+		/** First layer gradients of the side to move. */
+		private final float usGradients[];
+		/** First layer gradients of the other side. */
+		private final float themGradients[];
+
+		/** Phase to run. */
+		int phase;
+		/** Batch to run the phase on. */
+		Batch batch;
+		/** Summed loss of the worker's samples. */
+		double loss;
+
+		/**
+		 * Constructor for Worker.
+		 * @param trainer - the trainer
+		 * @param index - the index of the worker
+		 */
+		Worker(NetworkTrainer trainer, int index) {
+			this.trainer = trainer;
+			this.index = index;
+			gradients = new float[trainer.params.length][];
+			us = new float[FloatNetwork.HIDDEN];
+			them = new float[FloatNetwork.HIDDEN];
+			hidden = new float[FloatNetwork.L1];
+			hiddenGradients = new float[FloatNetwork.L1];
+			usGradients = new float[FloatNetwork.HIDDEN];
+			themGradients = new float[FloatNetwork.HIDDEN];
+
+			for(int i = 0; i < gradients.length; ++i)
+				gradients[i] = new float[trainer.params[i].length];
+		}
+
+		//Run the phase over this worker's share
+		@Override
+		public void run() {
+			//Initialize variables
+			int workers = trainer.workers.length;
+
+			if(phase == UPDATE) {
+				for(int p = 0; p < trainer.params.length; ++p) {
+					int length = trainer.params[p].length;
+					update(p, (int)((long)length * index / workers), (int)((long)length * (index + 1) / workers));
+				}
+			}
+			else {
+				int end = (int)((long)batch.size * (index + 1) / workers);
+
+				for(int i = (int)((long)batch.size * index / workers); i < end; ++i)
+					loss += sample(i, phase == GRADIENTS);
+			}
+		}
+
+		/**
+		 * Runs the network forward on a sample of the batch and, if training, adds the sample's gradients to this worker's buffers.
+		 * @param s - the index of the sample in the batch
+		 * @param train - true to compute gradients, false to only compute the loss
+		 * @return the sample's loss
+		 */
+		private float sample(int s, boolean train) {
+			//Initialize variables
+			FloatNetwork network = trainer.network;
+			float inputWeights[] = network.inputWeights;
+			float hiddenWeights[] = network.hiddenWeights;
+			float outputWeights[] = network.outputWeights;
+			int offset = s * 2 * MAX_PIECES;
+			int end = offset + 2 * batch.pieces[s];
+			final int H = FloatNetwork.HIDDEN;
+			final int L1 = FloatNetwork.L1;
+
+			//First layer
+			System.arraycopy(network.inputBiases, 0, us, 0, H);
+			System.arraycopy(network.inputBiases, 0, them, 0, H);
+
+			for(int f = offset; f < end; f += 2) {
+				int ours = batch.features[f] * H;
+				int theirs = batch.features[f + 1] * H;
+
+				for(int h = 0; h < H; ++h) {
+					us[h] += inputWeights[ours + h];
+					them[h] += inputWeights[theirs + h];
+				}
+			}
+
+			//Hidden layer, skipping first layer neurons clipped to 0
+			System.arraycopy(network.hiddenBiases, 0, hidden, 0, L1);
+
+			for(int i = 0; i < H; ++i) {
+				float a = clip(us[i]);
+				float b = clip(them[i]);
+
+				if(a > 0) {
+					for(int j = 0; j < L1; ++j)
+						hidden[j] += a * hiddenWeights[i * L1 + j];
+				}
+
+				if(b > 0) {
+					for(int j = 0; j < L1; ++j)
+						hidden[j] += b * hiddenWeights[(H + i) * L1 + j];
+				}
+			}
+
+			//Output layer
+			float output = trainer.params[trainer.params.length - 1][0];
+
+			for(int j = 0; j < L1; ++j)
+				output += clip(hidden[j]) * outputWeights[j];
+
+			float scale = FloatNetwork.OUTPUT_SCALE / WDL_SCALE;
+			float prediction = sigmoid(output * scale);
+			float error = prediction - batch.targets[s];
+
+			if(!train)
+				return error * error;
+
+			//Output gradients
+			float gradient = 2.0f * error * prediction * (1.0f - prediction) * scale;
+			float g[][] = gradients;
+
+			g[5][0] += gradient;
+
+			for(int j = 0; j < L1; ++j) {
+				g[4][j] += gradient * clip(hidden[j]);
+				hiddenGradients[j] = (hidden[j] > 0 && hidden[j] < 1) ? gradient * outputWeights[j] : 0.0f;
+				g[3][j] += hiddenGradients[j];
+			}
+
+			//Hidden layer gradients
+			for(int i = 0; i < H; ++i) {
+				usGradients[i] = hiddenLayer(g[2], hiddenWeights, i, us[i]);
+				themGradients[i] = hiddenLayer(g[2], hiddenWeights, H + i, them[i]);
+				g[1][i] += usGradients[i] + themGradients[i];
+			}
+
+			//First layer gradients of each feature
+			for(int f = offset; f < end; f += 2) {
+				int ours = batch.features[f] * H;
+				int theirs = batch.features[f + 1] * H;
+
+				for(int h = 0; h < H; ++h) {
+					g[0][ours + h] += usGradients[h];
+					g[0][theirs + h] += themGradients[h];
+				}
+			}
+
+			return error * error;
+		}
+
+		/**
+		 * Adds the hidden weight gradients of a first layer neuron and returns the neuron's gradient.
+		 * @param g - the hidden weight gradients
+		 * @param weights - the hidden weights
+		 * @param neuron - the first layer neuron (side to move's first)
+		 * @param value - the neuron's value before clipping
+		 * @return the gradient of the neuron's value
+		 */
+		private float hiddenLayer(float[] g, float[] weights, int neuron, float value) {
+			//Initialize variables
+			final int L1 = FloatNetwork.L1;
+			float activation = clip(value);
+			float gradient = 0.0f;
+			int row = neuron * L1;
+
+			if(activation > 0) {
+				for(int j = 0; j < L1; ++j)
+					g[row + j] += activation * hiddenGradients[j];
+			}
+
+			//Clipped neurons pass no gradient
+			if(value <= 0 || value >= 1)
+				return 0.0f;
+
+			for(int j = 0; j < L1; ++j)
+				gradient += weights[row + j] * hiddenGradients[j];
+
+			return gradient;
+		}
+
+		/**
+		 * Reduces a slice of a parameter array's gradients over every worker, clearing them, and applies Adam to the slice.
+		 * @param p - the parameter array
+		 * @param start - the first parameter of the slice
+		 * @param end - the end of the slice
+		 */
+		private void update(int p, int start, int end) {
+			//Initialize variables
+			float values[] = trainer.params[p];
+			float m[] = trainer.moments[p];
+			float v[] = trainer.velocities[p];
+			Worker workers[] = trainer.workers;
+			float inverseSize = 1.0f / trainer.batchSize;
+			float rate = (float)(trainer.learningRate * Math.sqrt(1.0 - Math.pow(BETA2, trainer.step)) / (1.0 - Math.pow(BETA1, trainer.step)));
+			boolean clipped = (p == HIDDEN_WEIGHTS);
+
+			for(int k = start; k < end; ++k) {
+				float g = 0.0f;
+
+				for(int w = 0; w < workers.length; ++w) {
+					g += workers[w].gradients[p][k];
+					workers[w].gradients[p][k] = 0.0f;
+				}
+
+				g *= inverseSize;
+				m[k] = BETA1 * m[k] + (1.0f - BETA1) * g;
+				v[k] = BETA2 * v[k] + (1.0f - BETA2) * g * g;
+				values[k] -= rate * m[k] / ((float)Math.sqrt(v[k]) + EPSILON);
+
+				if(clipped) values[k] = Math.max(-HIDDEN_WEIGHT_LIMIT, Math.min(HIDDEN_WEIGHT_LIMIT, values[k]));
+			}
+		}
+
+		/**
+		 * Clips an activation to 0 - 1.
+		 * @param x - the activation
+		 * @return the clipped activation
+		 */
+		private static float clip(float x) { return Math.max(0.0f, Math.min(1.0f, x)); }
+	}
+}
@@ -25,6 +25,7 @@ import com.chess.gui.bar.NewGameTitleBar;
 import com.chess.gui.button.CancelButton;
 import com.chess.gui.button.PlayButton;
 import com.chess.gui.dialog.NewGameDialog;
+import com.chess.nan.search.SearchType;
 
 /**
  * NewGamePanel creates and controls the panel of the new game dialog window.
@@ -59,6 +60,10 @@ public class NewGamePanel extends JPanel implements ActionListener, ItemListener
 	private JComboBox<String> cscombo;
 	/** Clock settings description label. */
 	private JLabel csdlbl;
+	/** NAN search type label. */
+	private JLabel stlbl;
+	/** NAN search type combo box. */
+	private JComboBox<String> stcombo;
 	/** Play button. */
 	private PlayButton playbtn;
 	/** Cancel button. */
@@ -150,6 +155,21 @@ public class NewGamePanel extends JPanel implements ActionListener, ItemListener
 		csdlbl.setHorizontalAlignment(SwingConstants.CENTER);
 		csdlbl.setBounds((NewGameDialog.DEF_DIALOG_WIDTH / 2) - 275, 205, 550, 20);
 		
+		//Create NAN search type label
+		stlbl = new JLabel("NAN Search");
+		stlbl.setBackground(Chess.GLASS_BOARD_ALLOWED ? new Color(0, 0, 0, 0) : DEF_BG_COLOR);
+		stlbl.setForeground(Color.white);
+		stlbl.setFont(new Font("Arial", Font.PLAIN, 24));
+		stlbl.setHorizontalAlignment(SwingConstants.CENTER);
+		stlbl.setBounds((NewGameDialog.DEF_DIALOG_WIDTH / 2) - 150, 240, 300, 50);
+		
+		//Create NAN search type combo box (starting with the last game's search type)
+		stcombo = new JComboBox<String>(SearchType.displayNames());
+		stcombo.setBackground(DEF_BG_COLOR);
+		stcombo.setForeground(Color.white);
+		stcombo.setBounds((NewGameDialog.DEF_DIALOG_WIDTH / 2) - 150, 295, 300, 25);
+		stcombo.setSelectedIndex(Chess.getChessBoard().getSearchType().ordinal());
+		
 		//Create play button
 		playbtn = new PlayButton();
 		playbtn.setBounds((NewGameDialog.DEF_DIALOG_WIDTH / 2) - (PlayButton.BUTTON_WIDTH + 5), NewGameDialog.DEF_DIALOG_HEIGHT - PlayButton.BUTTON_HEIGHT - 50,
@@ -168,6 +188,8 @@ public class NewGamePanel extends JPanel implements ActionListener, ItemListener
 		add(cslbl);
 		add(cscombo);
 		add(csdlbl);
+		add(stlbl);
+		add(stcombo);
 		add(playbtn);
 		add(cancelbtn);
 		
@@ -190,9 +212,9 @@ public class NewGamePanel extends JPanel implements ActionListener, ItemListener
 		}
 		//If the play button is pressed
 		else if(e.getSource().equals(playbtn)) {
-			//Start a new game using the selected chess clock and player color
+			//Start a new game using the selected chess clock, player color and NAN search type
 			Chess.getChessClock().setClock(ChessClock.getClockPreset(cscombo.getSelectedIndex()));
-			Chess.getChessBoard().newGame(player);
+			Chess.getChessBoard().newGame(player, SearchType.values()[stcombo.getSelectedIndex()]);
 			
 			//Close the window
 			parent.dispose();
@@ -0,0 +1,235 @@
+package com.chess.pgn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.chess.ChessBoard;
+import com.chess.Position;
+
+/**
+ * PgnGame holds one game of a PGN file: its tag pairs, its moves (encoded moves in position spaces, see Move) and its result. A PgnParser reuses a single PgnGame for every
+ * game it reads, so listeners that keep a game must copy it.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PgnGame {
+
+	/** White wins result value. */
+	public static final String WHITE_WINS = "1-0";
+	/** Black wins result value. */
+	public static final String BLACK_WINS = "0-1";
+	/** Draw result value. */
+	public static final String DRAW = "1/2-1/2";
+	/** Unknown or unfinished result value. */
+	public static final String UNKNOWN = "*";
+
+	/** Tag names, in the order they were added. */
+	private ArrayList<String> tagNames;
+	/** Tag values. */
+	private ArrayList<String> tagValues;
+	/** Moves (in position spaces). */
+	private int moves[];
+	/** Number of moves. */
+	private int moveCount;
+	/** Game result. */
+	private String result;
+
+	/**
+	 * Default constructor for PgnGame that creates an empty game with an unknown result.
+	 */
+	public PgnGame() {
+		//Initialize variables
+		tagNames = new ArrayList<String>(16);
+		tagValues = new ArrayList<String>(16);
+		moves = new int[256];
+		moveCount = 0;
+		result = UNKNOWN;
+	}
+
+	/**
+	 * Constructor for PgnGame that creates a copy of the specified game.
+	 * @param other - the game to copy
+	 */
+	public PgnGame(PgnGame other) {
+		//Initialize variables
+		tagNames = new ArrayList<String>(other.tagNames);
+		tagValues = new ArrayList<String>(other.tagValues);
+		moves = Arrays.copyOf(other.moves, Math.max(1, other.moveCount));
+		moveCount = other.moveCount;
+		result = other.result;
+	}
+
+	/**
+	 * Constructor for PgnGame that records the game played on the specified chess board, from its starting position to its current position. The result is set from the
+	 * board's game state and a FEN tag is added if the game did not start from the standard starting position.
+	 * @param board - the chess board
+	 */
+	public PgnGame(ChessBoard board) {
+		this();
+
+		//Initialize variables
+		Position position = board.getPosition();
+		boolean playerWhite = board.getPlayerColor() == ChessBoard.WHITE;
+
+		//Record the moves
+		for(int i = 0; i < position.getPly(); ++i)
+			addMove(position.getMove(i));
+
+		//Record the result
+		switch(board.getGameState()) {
+		case PLAYER_WINS:
+			result = playerWhite ? WHITE_WINS : BLACK_WINS;
+			break;
+		case NAN_WINS:
+			result = playerWhite ? BLACK_WINS : WHITE_WINS;
+			break;
+		case DRAW:
+			result = DRAW;
+			break;
+		default:
+			result = UNKNOWN;
+		}
+
+		setTag("White", playerWhite ? "Player" : "NAN");
+		setTag("Black", playerWhite ? "NAN" : "Player");
+
+		if(!board.getStartFEN().equals(Position.START_FEN)) {
+			setTag("SetUp", "1");
+			setTag("FEN", board.getStartFEN());
+		}
+	}
+
+	/**
+	 * Adds a move to the end of the game.
+	 * @param move - the encoded move (in position spaces)
+	 */
+	public void addMove(int move) {
+		if(moveCount == moves.length)
+			moves = Arrays.copyOf(moves, moves.length * 2);
+
+		moves[moveCount++] = move;
+	}
+
+	/**
+	 * Removes all tags and moves and sets the result to unknown.
+	 */
+	public void clear() {
+		tagNames.clear();
+		tagValues.clear();
+		moveCount = 0;
+		result = UNKNOWN;
+	}
+
+	/**
+	 * Returns the move at the specified ply.
+	 * @param ply - the ply (0 - getMoveCount() - 1)
+	 * @return the encoded move (in position spaces)
+	 */
+	public int getMove(int ply) {
+		//Check parameters
+		if(ply < 0 || ply >= moveCount)
+			throw new IndexOutOfBoundsException("PgnGame: no move at ply " + ply);
+
+		return moves[ply];
+	}
+
+	/**
+	 * Returns the number of moves (plies) in the game.
+	 * @return the number of moves
+	 */
+	public int getMoveCount() { return moveCount; }
+
+	/**
+	 * Returns the game result (WHITE_WINS, BLACK_WINS, DRAW or UNKNOWN).
+	 * @return the game result
+	 */
+	public String getResult() { return result; }
+
+	/**
+	 * Returns the FEN of the position the game starts from, which is the FEN tag if there is one or the standard starting position.
+	 * @return the starting FEN
+	 */
+	public String getStartFEN() {
+		String fen = getTag("FEN");
+		return (fen != null) ? fen : Position.START_FEN;
+	}
+
+	/**
+	 * Returns the value of the specified tag.
+	 * @param name - the tag name
+	 * @return the tag value, or null if the game has no such tag
+	 */
+	public String getTag(String name) {
+		int index = tagNames.indexOf(name);
+		return (index >= 0) ? tagValues.get(index) : null;
+	}
+
+	/**
+	 * Returns the number of tags.
+	 * @return the number of tags
+	 */
+	public int getTagCount() { return tagNames.size(); }
+
+	/**
+	 * Returns the name of the tag at the specified index.
+	 * @param index - the tag index
+	 * @return the tag name
+	 */
+	public String getTagName(int index) { return tagNames.get(index); }
+
+	/**
+	 * Returns the value of the tag at the specified index.
+	 * @param index - the tag index
+	 * @return the tag value
+	 */
+	public String getTagValue(int index) { return tagValues.get(index); }
+
+	/**
+	 * Plays the game on the specified chess board with the player as white, starting a new game from the game's starting position.
+	 * @param board - the chess board
+	 * @return true if every move was legal and made, false otherwise
+	 */
+	public boolean replay(ChessBoard board) {
+		//Start a new game from the starting position
+		board.newGame(ChessBoard.WHITE);
+
+		if(getTag("FEN") != null)
+			board.setPosition(getTag("FEN"));
+
+		//Make the moves (chess board spaces are position spaces when the player is white)
+		for(int i = 0; i < moveCount; ++i) {
+			if(!board.submitMove(moves[i]))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Sets the game result.
+	 * @param result - the game result (WHITE_WINS, BLACK_WINS, DRAW or UNKNOWN)
+	 */
+	public void setResult(String result) {
+		if(!WHITE_WINS.equals(result) && !BLACK_WINS.equals(result) && !DRAW.equals(result) && !UNKNOWN.equals(result))
+			throw new IllegalArgumentException("PgnGame: invalid result " + result);
+
+		this.result = result;
+	}
+
+	/**
+	 * Sets the value of the specified tag, adding the tag if the game does not have it.
+	 * @param name - the tag name
+	 * @param value - the tag value
+	 */
+	public void setTag(String name, String value) {
+		int index = tagNames.indexOf(name);
+
+		if(index >= 0) {
+			tagValues.set(index, value);
+		}
+		else {
+			tagNames.add(name);
+			tagValues.add(value);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.chess.pgn;
+
+import java.util.EventListener;
+
+/**
+ * PgnListener is an interface implemented by objects to receive the games read from a PGN file.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public interface PgnListener extends EventListener {
+
+	/**
+	 * Informs listening objects that a game was read. The game object is reused for the next game, so it must be copied to be kept. When games are read on more than one
+	 * thread, this is called from each of them at the same time.
+	 * @param game - the game that was read
+	 */
+	public void gameRead(PgnGame game);
+}
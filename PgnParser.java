@@ -0,0 +1,415 @@
+package com.chess.pgn;
+
+import java.nio.charset.StandardCharsets;
+
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * PgnParser reads PGN games straight from bytes. Tags, comments, variations and annotations are tokenized in place, and each SAN move is resolved against the pseudo-legal
+ * moves of the game's position (see Move.parseSAN) without creating a String. One PgnGame, Position and MoveList are reused for every game, so a parser is not thread safe;
+ * each thread reading games needs its own parser. Games with an illegal or unreadable move are skipped and counted as errors.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PgnParser {
+
+	/** Common tag names, reused instead of creating a String for each tag of each game. */
+	private static final String[] COMMON_TAGS = { "Event", "Site", "Date", "Round", "White", "Black", "Result", "WhiteElo", "BlackElo", "ECO", "Opening", "Variation",
+			"TimeControl", "Termination", "PlyCount", "EventDate", "Annotator", "SetUp", "FEN", "WhiteTitle", "BlackTitle", "Time", "UTCDate", "UTCTime" };
+
+	/** The game being read. */
+	private PgnGame game;
+	/** The game's position. */
+	private Position position;
+	/** Move list buffer used to resolve moves. */
+	private MoveList moves;
+	/** SAN token being resolved. */
+	private ByteSequence token;
+	/** Game started flag (a tag or move has been read). */
+	private boolean inGame;
+	/** Move text started flag. */
+	private boolean inMoves;
+	/** Bad game flag (the rest of the game's moves are skipped). */
+	private boolean bad;
+	/** Number of games read. */
+	private long read;
+	/** Number of games skipped because of errors. */
+	private long errors;
+
+	/**
+	 * Default constructor for PgnParser.
+	 */
+	public PgnParser() {
+		//Initialize variables
+		game = new PgnGame();
+		position = new Position();
+		moves = new MoveList();
+		token = new ByteSequence();
+		inGame = false;
+		inMoves = false;
+		bad = false;
+		read = 0;
+		errors = 0;
+	}
+
+	/**
+	 * Returns the number of games skipped because of errors.
+	 * @return the number of games skipped
+	 */
+	public long getErrors() { return errors; }
+
+	/**
+	 * Returns the number of games read.
+	 * @return the number of games read
+	 */
+	public long getGamesRead() { return read; }
+
+	/**
+	 * Reads every game in the specified bytes and passes each one to the specified listener. The bytes should hold whole games; a game that is not finished by a result
+	 * when the bytes end is passed to the listener as it is.
+	 * @param data - the PGN bytes
+	 * @param offset - the index of the first byte
+	 * @param length - the number of bytes
+	 * @param listener - the listener that receives each game
+	 * @return the number of games read
+	 */
+	public int parse(byte data[], int offset, int length, PgnListener listener) {
+		//Initialize variables
+		int end = offset + length;
+		int i = offset;
+		long start = read;
+
+		while(i < end) {
+			switch(data[i]) {
+			case ' ':
+			case '\t':
+			case '\r':
+			case '\n':
+			case ')':
+				i++;
+				break;
+			case '[':
+				//A tag after the move text starts the next game
+				if(inMoves) finishGame(listener);
+
+				startGame();
+				i = readTag(data, i + 1, end);
+				break;
+			case '{':
+				i = skipTo(data, i + 1, end, '}');
+				break;
+			case ';':
+				i = skipTo(data, i + 1, end, '\n');
+				break;
+			case '(':
+				i = skipVariation(data, i + 1, end);
+				break;
+			case '%':
+				//Escaped lines start with '%', anywhere else it is read as a token
+				if(i == offset || data[i - 1] == '\n') {
+					i = skipTo(data, i + 1, end, '\n');
+				}
+				else {
+					startGame();
+					inMoves = true;
+					i = readToken(data, i, end, listener);
+				}
+				break;
+			default:
+				startGame();
+				inMoves = true;
+				i = readToken(data, i, end, listener);
+			}
+		}
+
+		//Finish a game that has no result
+		if(inGame) finishGame(listener);
+
+		return (int)(read - start);
+	}
+
+	/**
+	 * Passes the current game to the listener unless it had an error, and ends the game.
+	 * @param listener - the listener that receives the game
+	 */
+	private void finishGame(PgnListener listener) {
+		if(bad) {
+			errors++;
+		}
+		else {
+			listener.gameRead(game);
+			read++;
+		}
+
+		inGame = false;
+		inMoves = false;
+		bad = false;
+	}
+
+	/**
+	 * Returns the String of a tag name, reusing a common tag name when the bytes match one.
+	 * @param data - the PGN bytes
+	 * @param start - the index of the first byte of the name
+	 * @param end - the index after the last byte of the name
+	 * @return the tag name
+	 */
+	private static String getTagName(byte data[], int start, int end) {
+		for(int i = 0; i < COMMON_TAGS.length; ++i) {
+			String name = COMMON_TAGS[i];
+
+			if(name.length() != end - start)
+				continue;
+
+			int j = 0;
+			while(j < name.length() && name.charAt(j) == data[start + j]) j++;
+
+			if(j == name.length())
+				return name;
+		}
+
+		return new String(data, start, end - start, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Returns if the specified byte ends a move text token.
+	 * @param b - the byte
+	 * @return true if the byte ends a token, false otherwise
+	 */
+	private static boolean isDelimiter(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '{' || b == '(' || b == ')' || b == '[' || b == ';';
+	}
+
+	/**
+	 * Returns if the specified bytes match the specified text.
+	 * @param data - the bytes
+	 * @param start - the index of the first byte
+	 * @param end - the index after the last byte
+	 * @param text - the text to match
+	 * @return true if the bytes match the text, false otherwise
+	 */
+	private static boolean matches(byte data[], int start, int end, String text) {
+		if(end - start != text.length())
+			return false;
+
+		for(int i = 0; i < text.length(); ++i) {
+			if(data[start + i] != text.charAt(i)) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads a tag pair (after its '['), adds it to the game and sets up the game's position from a FEN tag.
+	 * @param data - the PGN bytes
+	 * @param i - the index after the '['
+	 * @param end - the index after the last byte
+	 * @return the index after the tag pair
+	 */
+	private int readTag(byte data[], int i, int end) {
+		//Read the tag name
+		while(i < end && (data[i] == ' ' || data[i] == '\t')) i++;
+
+		int nameStart = i;
+
+		while(i < end && data[i] != ' ' && data[i] != '"' && data[i] != ']' && data[i] != '\n') i++;
+
+		int nameEnd = i;
+
+		//Read the quoted tag value
+		while(i < end && data[i] != '"' && data[i] != ']' && data[i] != '\n') i++;
+
+		if(i >= end || data[i] != '"' || nameEnd == nameStart) {
+			bad = true;
+			return skipTo(data, i, end, '\n');
+		}
+
+		int valueStart = ++i;
+		boolean escaped = false;
+
+		while(i < end && data[i] != '"' && data[i] != '\n') {
+			if(data[i] == '\\') {
+				escaped = true;
+				i++;
+			}
+
+			i++;
+		}
+
+		String value = new String(data, valueStart, Math.min(i, end) - valueStart, StandardCharsets.UTF_8);
+
+		if(escaped) value = value.replace("\\\"", "\"").replace("\\\\", "\\");
+
+		//Add the tag
+		String name = getTagName(data, nameStart, nameEnd);
+		game.setTag(name, value);
+
+		if(name.equals("FEN")) {
+			try {
+				position.setFEN(value);
+			} catch (IllegalArgumentException e) {
+				bad = true;
+			}
+		}
+
+		return skipTo(data, i, end, ']');
+	}
+
+	/**
+	 * Reads a move text token: a move number, annotation, result or SAN move. A result finishes the game.
+	 * @param data - the PGN bytes
+	 * @param i - the index of the first byte of the token
+	 * @param end - the index after the last byte
+	 * @param listener - the listener that receives a finished game
+	 * @return the index after the token
+	 */
+	private int readToken(byte data[], int i, int end, PgnListener listener) {
+		//Initialize variables
+		int start = i;
+
+		while(i < end && !isDelimiter(data[i])) i++;
+
+		//Results finish the game
+		String result = null;
+
+		if(matches(data, start, i, PgnGame.WHITE_WINS)) result = PgnGame.WHITE_WINS;
+		else if(matches(data, start, i, PgnGame.BLACK_WINS)) result = PgnGame.BLACK_WINS;
+		else if(matches(data, start, i, PgnGame.DRAW)) result = PgnGame.DRAW;
+		else if(matches(data, start, i, PgnGame.UNKNOWN)) result = PgnGame.UNKNOWN;
+
+		if(result != null) {
+			game.setResult(result);
+			finishGame(listener);
+			return i;
+		}
+
+		//Skip annotations ($ followed by a number)
+		if(data[start] == '$')
+			return i;
+
+		//Skip a move number ("12." or "12...") in front of the move, unless the move is castling written with zeros ("0-0" or "0-0-0")
+		int s = start;
+		boolean zeroCastling = i - start >= 3 && data[start] == '0' && data[start + 1] == '-' && data[start + 2] == '0';
+
+		while(s < i && !zeroCastling && data[s] >= '0' && data[s] <= '9') s++;
+
+		if(s > start) {
+			if(s < i && data[s] != '.') {
+				bad = true;
+				return i;
+			}
+
+			while(s < i && data[s] == '.') s++;
+		}
+
+		if(s == i || bad)
+			return i;
+
+		//Resolve and make the move
+		token.set(data, s, i - s);
+
+		int move = Move.parseSAN(token, position, moves);
+
+		if(move == Move.NO_MOVE || !position.makeMove(move)) bad = true;
+		else game.addMove(move);
+
+		return i;
+	}
+
+	/**
+	 * Returns the index after the next specified byte, or the end index if there is none.
+	 * @param data - the PGN bytes
+	 * @param i - the index to search from
+	 * @param end - the index after the last byte
+	 * @param b - the byte to find
+	 * @return the index after the byte
+	 */
+	private static int skipTo(byte data[], int i, int end, char b) {
+		while(i < end && data[i] != b) i++;
+		return Math.min(i + 1, end);
+	}
+
+	/**
+	 * Skips a variation (after its '('), including nested variations and comments.
+	 * @param data - the PGN bytes
+	 * @param i - the index after the '('
+	 * @param end - the index after the last byte
+	 * @return the index after the variation
+	 */
+	private static int skipVariation(byte data[], int i, int end) {
+		//Initialize variables
+		int depth = 1;
+
+		while(i < end && depth > 0) {
+			switch(data[i]) {
+			case '(':
+				depth++;
+				i++;
+				break;
+			case ')':
+				depth--;
+				i++;
+				break;
+			case '{':
+				i = skipTo(data, i + 1, end, '}');
+				break;
+			default:
+				i++;
+			}
+		}
+
+		return i;
+	}
+
+	/**
+	 * Starts a new game from the standard starting position if no game has been started.
+	 */
+	private void startGame() {
+		if(inGame)
+			return;
+
+		game.clear();
+		position.reset();
+		inGame = true;
+		inMoves = false;
+		bad = false;
+	}
+
+	/**
+	 * ByteSequence is a reusable view of a range of bytes as characters (ISO-8859-1), so SAN moves can be resolved without creating a String.
+	 */
+	private static class ByteSequence implements CharSequence {
+
+		/** The bytes. */
+		private byte data[];
+		/** Index of the first byte. */
+		private int offset;
+		/** Number of bytes. */
+		private int length;
+
+		/**
+		 * Sets the range of bytes this sequence views.
+		 * @param data - the bytes
+		 * @param offset - the index of the first byte
+		 * @param length - the number of bytes
+		 */
+		public void set(byte data[], int offset, int length) {
+			this.data = data;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public char charAt(int index) { return (char)(data[offset + index] & 0xFF); }
+
+		@Override
+		public int length() { return length; }
+
+		@Override
+		public CharSequence subSequence(int start, int end) { return toString().substring(start, end); }
+
+		@Override
+		public String toString() { return new String(data, offset, length, StandardCharsets.ISO_8859_1); }
+	}
+}
@@ -0,0 +1,290 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * PgnReader streams the games of a PGN file from a channel through a bounded producer/consumer pipeline. The reading thread fills large byte blocks from the channel and
+ * cuts each block at the start of the last game in it, and parser threads each resolve the games of whole blocks with their own PgnParser. Blocks are recycled through a
+ * fixed pool, so reading a file of any size uses a fixed amount of memory, and a slow listener holds back the reading thread instead of filling memory. Games are passed to
+ * the listener in no particular order.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PgnReader {
+
+	/** Default block size in bytes. */
+	public static final int DEF_BLOCK_SIZE = 1 << 20;
+
+	/** The channel games are read from. */
+	private ReadableByteChannel channel;
+	/** Block size in bytes. */
+	private int blockSize;
+	/** Number of games read. */
+	private AtomicLong games;
+	/** Number of games skipped because of errors. */
+	private AtomicLong errors;
+
+	/**
+	 * Constructor for PgnReader that reads games from the specified channel using the default block size.
+	 * @param channel - the channel to read from
+	 */
+	public PgnReader(ReadableByteChannel channel) {
+		this(channel, DEF_BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructor for PgnReader that reads games from the specified channel using the specified block size. Blocks grow if a single game is larger than a block.
+	 * @param channel - the channel to read from
+	 * @param blockSize - the block size in bytes
+	 */
+	public PgnReader(ReadableByteChannel channel, int blockSize) {
+		//Check parameters
+		if(blockSize < 1024)
+			throw new IllegalArgumentException("PgnReader: block size must be at least 1024 bytes");
+
+		//Initialize variables
+		this.channel = channel;
+		this.blockSize = blockSize;
+		games = new AtomicLong();
+		errors = new AtomicLong();
+	}
+
+	/**
+	 * Program entry point method that reads a PGN file and reports how many games were read and how fast. Options are -threads and -block (block size in kilobytes).
+	 * @param args - the PGN file followed by the options
+	 */
+	public static void main(String[] args) {
+		//Check arguments
+		if(args.length == 0 || args.length % 2 == 0) {
+			System.err.println("Usage: PgnReader <file.pgn> [-threads n] [-block kb]");
+			System.exit(2);
+		}
+
+		//Initialize variables
+		int threads = Runtime.getRuntime().availableProcessors();
+		int block = DEF_BLOCK_SIZE;
+
+		try {
+			for(int i = 1; i < args.length; i += 2) {
+				if(args[i].equals("-threads")) threads = Integer.parseInt(args[i + 1]);
+				else if(args[i].equals("-block")) block = Integer.parseInt(args[i + 1]) * 1024;
+				else throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid option value: " + e.getMessage());
+			System.exit(2);
+		}
+
+		//Read the file, counting plies
+		AtomicLong plies = new AtomicLong();
+		long start = System.nanoTime();
+
+		try(FileChannel channel = FileChannel.open(Paths.get(args[0]), StandardOpenOption.READ)) {
+			PgnReader reader = new PgnReader(channel, block);
+
+			reader.read(new PgnListener() {
+				@Override
+				public void gameRead(PgnGame game) {
+					plies.addAndGet(game.getMoveCount());
+				}
+			}, threads);
+
+			double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+			System.out.printf("%d games (%d plies, %d skipped) in %.2f s: %.0f games/minute on %d threads%n", reader.getGamesRead(), plies.get(), reader.getErrors(),
+					seconds, reader.getGamesRead() * 60 / seconds, threads);
+		} catch (IOException e) {
+			System.err.println("Failed to read " + args[0] + ": " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Reading interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns the number of games skipped because of errors.
+	 * @return the number of games skipped
+	 */
+	public long getErrors() { return errors.get(); }
+
+	/**
+	 * Returns the number of games read.
+	 * @return the number of games read
+	 */
+	public long getGamesRead() { return games.get(); }
+
+	/**
+	 * Reads every game from the channel and passes each one to the specified listener. The calling thread reads the channel while the specified number of parser threads
+	 * resolve the games, so the listener is called from the parser threads at the same time and must be thread safe.
+	 * @param listener - the listener that receives each game
+	 * @param threads - the number of parser threads
+	 * @return the number of games read
+	 * @throws IOException if the channel cannot be read
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public long read(PgnListener listener, int threads) throws IOException, InterruptedException {
+		//Check parameters
+		if(threads <= 0)
+			throw new IllegalArgumentException("PgnReader: threads must be positive");
+
+		//Initialize variables
+		BlockingQueue<Block> free = new ArrayBlockingQueue<Block>(threads * 2 + 2);
+		BlockingQueue<Block> full = new ArrayBlockingQueue<Block>(threads * 2 + 2);
+		Thread parsers[] = new Thread[threads];
+		AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+
+		for(int i = 0; i < threads * 2 + 2; ++i)
+			free.add(new Block(blockSize));
+
+		//Start the parser threads
+		for(int i = 0; i < threads; ++i) {
+			parsers[i] = new Thread("PGN Parser " + (i + 1)) {
+				@Override
+				public void run() {
+					//Initialize variables
+					PgnParser parser = new PgnParser();
+
+					try {
+						Block block;
+
+						while((block = full.take()).length >= 0) {
+							try {
+								if(failure.get() == null) parser.parse(block.data, 0, block.length, listener);
+							} catch (RuntimeException e) {
+								//Keep the first failure, the other parser threads skip their remaining blocks
+								failure.compareAndSet(null, e);
+							}
+
+							free.put(block);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						games.addAndGet(parser.getGamesRead());
+						errors.addAndGet(parser.getErrors());
+					}
+				}
+			};
+			parsers[i].setDaemon(true);
+			parsers[i].start();
+		}
+
+		//Read blocks and cut them at the start of their last game
+		try {
+			Block block = free.take();
+
+			block.length = 0;
+
+			while(true) {
+				int n = channel.read(ByteBuffer.wrap(block.data, block.length, block.data.length - block.length));
+
+				if(n < 0) {
+					if(block.length > 0) full.put(block);
+					break;
+				}
+
+				block.length += n;
+
+				//Fill the whole block before cutting it
+				if(block.length < block.data.length)
+					continue;
+
+				int cut = findLastGame(block.data, block.length);
+
+				//A single game fills the block, so make the block larger
+				if(cut <= 0) {
+					block.data = Arrays.copyOf(block.data, block.data.length * 2);
+					continue;
+				}
+
+				//Move the last (possibly unfinished) game to the next block
+				Block next = free.take();
+				int rest = block.length - cut;
+
+				if(next.data.length <= rest) next.data = new byte[rest * 2];
+
+				System.arraycopy(block.data, cut, next.data, 0, rest);
+				next.length = rest;
+				block.length = cut;
+				full.put(block);
+				block = next;
+			}
+		} finally {
+			//Stop the parser threads
+			for(int i = 0; i < threads; ++i)
+				full.put(new Block(0).end());
+
+			for(int i = 0; i < threads; ++i)
+				parsers[i].join();
+		}
+
+		if(failure.get() != null)
+			throw failure.get();
+
+		return games.get();
+	}
+
+	/**
+	 * Returns the index of the start of the last game in the specified bytes: the last line starting with '[' whose previous non-blank line is not a tag.
+	 * @param data - the PGN bytes
+	 * @param length - the number of bytes
+	 * @return the index of the start of the last game, or -1 if there is only one game
+	 */
+	private static int findLastGame(byte data[], int length) {
+		for(int i = length - 1; i > 0; --i) {
+			if(data[i] != '[' || data[i - 1] != '\n')
+				continue;
+
+			//Find the start of the previous non-blank line
+			int j = i - 1;
+
+			while(j > 0 && (data[j] == '\n' || data[j] == '\r' || data[j] == ' ' || data[j] == '\t')) j--;
+
+			while(j > 0 && data[j - 1] != '\n') j--;
+
+			if(data[j] != '[')
+				return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Block is a reusable buffer of PGN bytes passed from the reading thread to a parser thread.
+	 */
+	private static class Block {
+
+		/** The bytes. */
+		private byte data[];
+		/** Number of bytes used, or -1 for the end marker. */
+		private int length;
+
+		/**
+		 * Constructor for Block that creates an empty block of the specified size.
+		 * @param size - the block size in bytes
+		 */
+		public Block(int size) {
+			data = new byte[size];
+			length = 0;
+		}
+
+		/**
+		 * Makes this block the end marker that stops a parser thread.
+		 * @return this block
+		 */
+		public Block end() {
+			length = -1;
+			return this;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+import com.chess.ChessBoard;
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * PgnWriter writes games to a channel in PGN export format: the seven tag roster in its standard order followed by the game's other tags, then the moves in standard
+ * algebraic notation with move numbers, wrapped at 79 characters and ended by the result. Games are encoded into a reused buffer, so writing is safe from several threads.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PgnWriter implements Closeable {
+
+	/** Maximum line length of the move text. */
+	public static final int LINE_LENGTH = 79;
+
+	/** Seven tag roster names. */
+	private static final String[] SEVEN_TAG_ROSTER = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+	/** Seven tag roster default values. */
+	private static final String[] SEVEN_TAG_DEFAULTS = { "?", "?", "????.??.??", "?", "?", "?", PgnGame.UNKNOWN };
+
+	/** The channel games are written to. */
+	private WritableByteChannel channel;
+	/** Text of the game being written. */
+	private StringBuilder text;
+	/** Output buffer. */
+	private ByteBuffer buffer;
+	/** UTF-8 encoder. */
+	private CharsetEncoder encoder;
+	/** Position used to write each move. */
+	private Position position;
+	/** Move list buffer. */
+	private MoveList moves;
+
+	/**
+	 * Constructor for PgnWriter that writes games to the specified channel.
+	 * @param channel - the channel to write to
+	 */
+	public PgnWriter(WritableByteChannel channel) {
+		//Initialize variables
+		this.channel = channel;
+		text = new StringBuilder(4096);
+		buffer = ByteBuffer.allocate(1 << 16);
+		encoder = StandardCharsets.UTF_8.newEncoder();
+		position = new Position();
+		moves = new MoveList();
+	}
+
+	/**
+	 * Flushes buffered games and closes the channel.
+	 * @throws IOException if the channel cannot be written or closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes buffered games to the channel.
+	 * @throws IOException if the channel cannot be written
+	 */
+	public synchronized void flush() throws IOException {
+		buffer.flip();
+
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the specified game. The game's moves must be legal from its starting position.
+	 * @param game - the game to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public synchronized void write(PgnGame game) throws IOException {
+		text.setLength(0);
+
+		//Write the seven tag roster, then the other tags
+		for(int i = 0; i < SEVEN_TAG_ROSTER.length; ++i) {
+			String value = (i == SEVEN_TAG_ROSTER.length - 1) ? game.getResult() : game.getTag(SEVEN_TAG_ROSTER[i]);
+			appendTag(SEVEN_TAG_ROSTER[i], (value != null) ? value : SEVEN_TAG_DEFAULTS[i]);
+		}
+
+		for(int i = 0; i < game.getTagCount(); ++i) {
+			if(!isSevenTagRoster(game.getTagName(i))) appendTag(game.getTagName(i), game.getTagValue(i));
+		}
+
+		text.append('\n');
+
+		//Write the moves from the starting position
+		position.setFEN(game.getStartFEN());
+
+		for(int i = 0; i < game.getMoveCount(); ++i) {
+			int move = game.getMove(i);
+
+			if(position.getTurn() == ChessBoard.WHITE) appendWord(position.getFullMoves() + ".");
+			else if(i == 0) appendWord(position.getFullMoves() + "...");
+
+			appendWord(Move.toSAN(move, position, moves));
+
+			if(!position.makeMove(move))
+				throw new IllegalArgumentException("PgnWriter: illegal move " + Move.toNotation(move) + " at ply " + i);
+		}
+
+		appendWord(game.getResult());
+		text.append("\n\n");
+
+		//Encode the game into the output buffer, flushing it whenever it is full
+		CharBuffer chars = CharBuffer.wrap(text);
+
+		encoder.reset();
+
+		while(encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW)
+			flush();
+	}
+
+	/**
+	 * Appends a tag pair, escaping quotes and backslashes in the value.
+	 * @param name - the tag name
+	 * @param value - the tag value
+	 */
+	private void appendTag(String name, String value) {
+		text.append('[').append(name).append(" \"");
+
+		for(int i = 0; i < value.length(); ++i) {
+			char c = value.charAt(i);
+
+			if(c == '"' || c == '\\') text.append('\\');
+			text.append(c);
+		}
+
+		text.append("\"]\n");
+	}
+
+	/**
+	 * Appends a word of move text, starting a new line if the word does not fit on the current one.
+	 * @param word - the word
+	 */
+	private void appendWord(String word) {
+		//Separate the word from the previous one, unless it starts the move text
+		if(text.charAt(text.length() - 1) != '\n') {
+			int line = text.length() - (text.lastIndexOf("\n") + 1);
+			text.append((line + 1 + word.length() > LINE_LENGTH) ? '\n' : ' ');
+		}
+
+		text.append(word);
+	}
+
+	/**
+	 * Returns if the specified tag name is one of the seven tag roster.
+	 * @param name - the tag name
+	 * @return true if the tag is in the seven tag roster, false otherwise
+	 */
+	private static boolean isSevenTagRoster(String name) {
+		for(int i = 0; i < SEVEN_TAG_ROSTER.length; ++i) {
+			if(SEVEN_TAG_ROSTER[i].equals(name)) return true;
+		}
+
+		return false;
+	}
+}
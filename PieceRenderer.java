@@ -0,0 +1,45 @@
+package com.chess.gui.painter;
+
+import java.awt.image.BufferedImage;
+
+import com.chess.Chess;
+import com.chess.Position;
+import com.chess.pieces.ChessPiece;
+
+/**
+ * PieceRenderer looks up the image used to draw a chess piece. Chess pieces only know their type and color, so the images loaded by the Chess program for the current
+ * board option are resolved here by the GUI.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public final class PieceRenderer {
+
+	/**
+	 * Private constructor, PieceRenderer only contains static methods.
+	 */
+	private PieceRenderer() {}
+
+	/**
+	 * Returns the image of the specified chess piece for the current board option.
+	 * @param piece - the chess piece to draw
+	 * @return the image of the chess piece
+	 */
+	public static BufferedImage getImage(ChessPiece piece) {
+		switch(piece.getType()) {
+		case Position.PAWN:
+			return piece.getColor() ? Chess.getWhitePawnImage() : Chess.getBlackPawnImage();
+		case Position.KNIGHT:
+			return piece.getColor() ? Chess.getWhiteKnightImage() : Chess.getBlackKnightImage();
+		case Position.BISHOP:
+			return piece.getColor() ? Chess.getWhiteBishopImage() : Chess.getBlackBishopImage();
+		case Position.ROOK:
+			return piece.getColor() ? Chess.getWhiteRookImage() : Chess.getBlackRookImage();
+		case Position.QUEEN:
+			return piece.getColor() ? Chess.getWhiteQueenImage() : Chess.getBlackQueenImage();
+		case Position.KING:
+			return piece.getColor() ? Chess.getWhiteKingImage() : Chess.getBlackKingImage();
+		default:
+			throw new IllegalArgumentException("PieceRenderer: unknown chess piece type " + piece.getType());
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.chess.book;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.chess.ChessBoard;
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * PolyglotKeys computes the position keys of Polyglot opening books from the Polyglot Random64 table of 781 numbers: one for each piece on each square, one for each
+ * castling right, one for each en passant file and one for white to move. The table is read from a text file holding its numbers in order in hexadecimal (such as the
+ * Random64 array of the Polyglot sources), and is checked against the example keys of the Polyglot book format before it is used.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PolyglotKeys {
+
+	/** Number of numbers in the Random64 table. */
+	public static final int RANDOM_COUNT = 781;
+
+	/** Offset of the castling numbers (white short, white long, black short, black long). */
+	private static final int CASTLING_OFFSET = 768;
+	/** Offset of the en passant file numbers. */
+	private static final int EN_PASSANT_OFFSET = 772;
+	/** Offset of the white to move number. */
+	private static final int TURN_OFFSET = 780;
+	/** Pattern of a hexadecimal number in a table file. */
+	private static final Pattern NUMBER = Pattern.compile("0[xX]([0-9A-Fa-f]{1,16})");
+	/** Moves of the example positions of the Polyglot book format. */
+	private static final String EXAMPLE_MOVES[] = {"", "e2e4", "e2e4 d7d5", "e2e4 d7d5 e4e5", "e2e4 d7d5 e4e5 f7f5", "e2e4 d7d5 e4e5 f7f5 e1e2",
+		"e2e4 d7d5 e4e5 f7f5 e1e2 e8f7", "a2a4 b7b5 h2h4 b5b4 c2c4", "a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3"};
+	/** Keys of the example positions of the Polyglot book format. */
+	private static final long EXAMPLE_KEYS[] = {0x463B96181691FC9CL, 0x823C9B50FD114196L, 0x0756B94461C50FB0L, 0x662FAFB965DB29D4L, 0x22A48B5A8E47FF78L,
+		0x652A607CA3F242C1L, 0x00FDD303C946BDD9L, 0x3C8123EA7B067637L, 0x5C3F9B829B279560L};
+
+	/** The Random64 table. */
+	private long random[];
+
+	/**
+	 * Constructor for PolyglotKeys that uses the specified Random64 table.
+	 * @param random - the 781 numbers of the table
+	 * @throws IllegalArgumentException if the numbers are not the Random64 table
+	 */
+	public PolyglotKeys(long random[]) {
+		//Check parameters
+		if(random == null || random.length != RANDOM_COUNT)
+			throw new IllegalArgumentException("PolyglotKeys: the table must have " + RANDOM_COUNT + " numbers");
+
+		//Initialize variables
+		this.random = random.clone();
+
+		//Check the table against the example positions
+		Position position = new Position();
+		MoveList moves = new MoveList();
+
+		for(int i = 0; i < EXAMPLE_MOVES.length; ++i) {
+			position.reset();
+
+			for(String notation : EXAMPLE_MOVES[i].split(" ")) {
+				if(notation.isEmpty()) continue;
+
+				position.generateLegalMoves(moves);
+				position.makeMove(Move.parseNotation(notation, moves));
+			}
+
+			if(polyglotKey(position) != EXAMPLE_KEYS[i])
+				throw new IllegalArgumentException("PolyglotKeys: the numbers are not the Polyglot Random64 table");
+		}
+	}
+
+	/**
+	 * Reads the Random64 table from the specified text file. Every hexadecimal number written with a "0x" prefix is read, in order.
+	 * @param file - the table file
+	 * @return the keys
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file does not hold the Random64 table
+	 */
+	public static PolyglotKeys load(Path file) throws IOException {
+		//Initialize variables
+		long random[] = new long[RANDOM_COUNT];
+		int count = 0;
+		Matcher matcher = NUMBER.matcher(new String(Files.readAllBytes(file), "US-ASCII"));
+
+		//Read the numbers
+		while(matcher.find()) {
+			if(count == RANDOM_COUNT)
+				throw new IllegalArgumentException("PolyglotKeys: " + file + " has more than " + RANDOM_COUNT + " numbers");
+
+			random[count++] = Long.parseUnsignedLong(matcher.group(1), 16);
+		}
+
+		if(count < RANDOM_COUNT)
+			throw new IllegalArgumentException("PolyglotKeys: " + file + " has " + count + " of the " + RANDOM_COUNT + " numbers");
+
+		return new PolyglotKeys(random);
+	}
+
+	/**
+	 * Returns the Polyglot key of the specified position. The en passant file is only part of the key when a pawn of the side to move stands beside the pawn that was
+	 * just pushed two spaces, as Polyglot defines it.
+	 * @param position - the position
+	 * @return the Polyglot key
+	 */
+	public long polyglotKey(Position position) {
+		//Initialize variables
+		long key = 0;
+
+		//Add the pieces, with white pieces after black ones of the same type and rows counted from the first rank
+		for(long bits = position.getOccupiedBits(); bits != 0; bits &= bits - 1) {
+			int space = Long.numberOfTrailingZeros(bits);
+			int piece = position.getPiece(space);
+			int kind = ((piece & Position.PIECE_TYPE_MASK) - Position.PAWN) * 2 + (((piece & Position.BLACK_PIECE) == 0) ? 1 : 0);
+
+			key ^= random[kind * 64 + (7 - (space >>> 3)) * 8 + (space & 7)];
+		}
+
+		//Add the castling rights
+		for(int i = 0; i < 4; ++i) {
+			if((position.getCastling() & (1 << i)) != 0) key ^= random[CASTLING_OFFSET + i];
+		}
+
+		//Add the en passant file if a pawn of the side to move can capture there
+		int enPassant = position.getEnPassant();
+
+		if(enPassant != Position.NO_SPACE) {
+			boolean white = position.getTurn() == ChessBoard.WHITE;
+			int pushed = white ? enPassant + 8 : enPassant - 8;
+			int pawn = white ? Position.PAWN : Position.PAWN | Position.BLACK_PIECE;
+			int file = enPassant & 7;
+
+			if((file > 0 && position.getPiece(pushed - 1) == pawn) || (file < 7 && position.getPiece(pushed + 1) == pawn))
+				key ^= random[EN_PASSANT_OFFSET + file];
+		}
+
+		//Add the side to move
+		if(position.getTurn() == ChessBoard.WHITE)
+			key ^= random[TURN_OFFSET];
+
+		return key;
+	}
+}
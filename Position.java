@@ -0,0 +1,1125 @@
+package com.chess;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.chess.event.PositionListener;
+
+/**
+ * Position is a compact representation of a chess position used by the chess board's rules and by the NAN's search. Pieces are kept in a 64 space mailbox (using the same
+ * space index as the chess board, x + (y * BOARD_COLS), with white starting on rows 6 - 7) together with one bit board per piece. Moves are made and unmade in place using an
+ * undo stack, so searching a position does not create any objects. A Zobrist key of the position is updated incrementally with each move.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class Position {
+
+	/** Empty space value. */
+	public static final int EMPTY = 0;
+	/** Pawn piece type. */
+	public static final int PAWN = 1;
+	/** Knight piece type. */
+	public static final int KNIGHT = 2;
+	/** Bishop piece type. */
+	public static final int BISHOP = 3;
+	/** Rook piece type. */
+	public static final int ROOK = 4;
+	/** Queen piece type. */
+	public static final int QUEEN = 5;
+	/** King piece type. */
+	public static final int KING = 6;
+	/** Black piece flag, combined with a piece type to create a black piece value. */
+	public static final int BLACK_PIECE = 8;
+	/** Piece type bit mask. */
+	public static final int PIECE_TYPE_MASK = 7;
+	/** Number of piece values (including unused values). */
+	public static final int PIECE_VALUES = 16;
+
+	/** White king side castling right. */
+	public static final int CASTLE_WHITE_KING = 1;
+	/** White queen side castling right. */
+	public static final int CASTLE_WHITE_QUEEN = 2;
+	/** Black king side castling right. */
+	public static final int CASTLE_BLACK_KING = 4;
+	/** Black queen side castling right. */
+	public static final int CASTLE_BLACK_QUEEN = 8;
+
+	/** No board space value. */
+	public static final int NO_SPACE = -1;
+	/** Number of moves the move history holds before it has to grow (also the longest game a GameStore records). */
+	public static final int MAX_PLY = 1024;
+	/** FEN of the standard starting position. */
+	public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	/** FEN letters of the white piece types (indexed by piece type). */
+	private static final String FEN_PIECES = " PNBRQK";
+
+	/** Knight x offsets. */
+	private static final int KNIGHT_DX[] = { -1, -2, -2, -1, 1, 2, 2, 1 };
+	/** Knight y offsets. */
+	private static final int KNIGHT_DY[] = { -2, -1, 1, 2, 2, 1, -1, -2 };
+	/** King and queen x offsets (straight directions first). */
+	private static final int KING_DX[] = { 0, 1, 0, -1, -1, 1, 1, -1 };
+	/** King and queen y offsets (straight directions first). */
+	private static final int KING_DY[] = { -1, 0, 1, 0, -1, -1, 1, 1 };
+
+	/** Castling rights kept when a piece moves from or to each board space. */
+	private static final int CASTLING_MASK[] = new int[ChessBoard.BOARD_SPACES];
+
+	/** Zobrist keys for each piece value on each board space. */
+	private static final long PIECE_KEYS[][] = new long[PIECE_VALUES][ChessBoard.BOARD_SPACES];
+	/** Zobrist keys for each combination of castling rights. */
+	private static final long CASTLING_KEYS[] = new long[16];
+	/** Zobrist keys for each en passant column. */
+	private static final long EN_PASSANT_KEYS[] = new long[ChessBoard.BOARD_COLS];
+	/** Zobrist key for black to move. */
+	private static final long TURN_KEY;
+
+	static {
+		//Initialize castling masks
+		for(int i = 0; i < ChessBoard.BOARD_SPACES; ++i)
+			CASTLING_MASK[i] = 0x0F;
+
+		CASTLING_MASK[0] &= ~CASTLE_BLACK_QUEEN;
+		CASTLING_MASK[4] &= ~(CASTLE_BLACK_KING | CASTLE_BLACK_QUEEN);
+		CASTLING_MASK[7] &= ~CASTLE_BLACK_KING;
+		CASTLING_MASK[56] &= ~CASTLE_WHITE_QUEEN;
+		CASTLING_MASK[60] &= ~(CASTLE_WHITE_KING | CASTLE_WHITE_QUEEN);
+		CASTLING_MASK[63] &= ~CASTLE_WHITE_KING;
+
+		//Initialize Zobrist keys from a fixed seed so keys are the same in every run
+		SplittableRandom random = new SplittableRandom(0x4E414E5A4F425249L);
+
+		for(int i = 0; i < PIECE_VALUES; ++i) {
+			for(int j = 0; j < ChessBoard.BOARD_SPACES; ++j)
+				PIECE_KEYS[i][j] = random.nextLong();
+		}
+
+		for(int i = 0; i < CASTLING_KEYS.length; ++i)
+			CASTLING_KEYS[i] = random.nextLong();
+
+		for(int i = 0; i < EN_PASSANT_KEYS.length; ++i)
+			EN_PASSANT_KEYS[i] = random.nextLong();
+
+		TURN_KEY = random.nextLong();
+	}
+
+	/** Piece values on each board space. */
+	private int board[];
+	/** Bit board of each piece value. */
+	private long pieceBits[];
+	/** Bit board of each color's pieces (indexed by colorIndex). */
+	private long colorBits[];
+	/** Board space of each color's king (indexed by colorIndex). */
+	private int kingSpace[];
+	/** The color of the side to move. */
+	private boolean turn;
+	/** Castling rights. */
+	private int castling;
+	/** En passant target board space. */
+	private int enPassant;
+	/** Number of half moves since the last capture or pawn move. */
+	private int halfMoves;
+	/** Full move number. */
+	private int fullMoves;
+	/** Zobrist key of this position. */
+	private long key;
+
+	/** Number of moves currently on the undo stack. */
+	private int ply;
+	/** Undo stack moves. */
+	private int undoMove[];
+	/** Undo stack moved pieces. */
+	private int undoPiece[];
+	/** Undo stack captured pieces. */
+	private int undoCaptured[];
+	/** Undo stack castling rights. */
+	private int undoCastling[];
+	/** Undo stack en passant spaces. */
+	private int undoEnPassant[];
+	/** Undo stack half move counters. */
+	private int undoHalfMoves[];
+	/** Undo stack Zobrist keys. */
+	private long undoKey[];
+	/** Pseudo-legal moves buffer used to generate legal moves. */
+	private MoveList pseudoMoves;
+	/** Listener informed of piece changes, or null. */
+	private PositionListener listener;
+
+	/**
+	 * Default constructor for the Position that initializes the standard starting position.
+	 */
+	public Position() {
+		//Initialize variables
+		board = new int[ChessBoard.BOARD_SPACES];
+		pieceBits = new long[PIECE_VALUES];
+		colorBits = new long[2];
+		kingSpace = new int[2];
+		undoMove = new int[MAX_PLY];
+		undoPiece = new int[MAX_PLY];
+		undoCaptured = new int[MAX_PLY];
+		undoCastling = new int[MAX_PLY];
+		undoEnPassant = new int[MAX_PLY];
+		undoHalfMoves = new int[MAX_PLY];
+		undoKey = new long[MAX_PLY];
+		pseudoMoves = new MoveList();
+		listener = null;
+
+		reset();
+	}
+
+	/**
+	 * Copy constructor for the Position that creates an independent copy of the specified position, including its move history. The position listener is not copied.
+	 * @param other - the position to copy
+	 */
+	public Position(Position other) {
+		//Initialize variables
+		board = other.board.clone();
+		pieceBits = other.pieceBits.clone();
+		colorBits = other.colorBits.clone();
+		kingSpace = other.kingSpace.clone();
+		turn = other.turn;
+		castling = other.castling;
+		enPassant = other.enPassant;
+		halfMoves = other.halfMoves;
+		fullMoves = other.fullMoves;
+		key = other.key;
+		ply = other.ply;
+		undoMove = other.undoMove.clone();
+		undoPiece = other.undoPiece.clone();
+		undoCaptured = other.undoCaptured.clone();
+		undoCastling = other.undoCastling.clone();
+		undoEnPassant = other.undoEnPassant.clone();
+		undoHalfMoves = other.undoHalfMoves.clone();
+		undoKey = other.undoKey.clone();
+		pseudoMoves = new MoveList();
+		listener = null;
+	}
+
+	/**
+	 * Removes all pieces and move history from this position. White is set to move with no castling rights.
+	 */
+	public void clear() {
+		for(int i = 0; i < ChessBoard.BOARD_SPACES; ++i)
+			board[i] = EMPTY;
+
+		for(int i = 0; i < PIECE_VALUES; ++i)
+			pieceBits[i] = 0L;
+
+		colorBits[0] = 0L;
+		colorBits[1] = 0L;
+		kingSpace[0] = NO_SPACE;
+		kingSpace[1] = NO_SPACE;
+		turn = ChessBoard.WHITE;
+		castling = 0;
+		enPassant = NO_SPACE;
+		halfMoves = 0;
+		fullMoves = 1;
+		ply = 0;
+		key = computeKey();
+
+		if(listener != null) listener.positionCleared();
+	}
+
+	/**
+	 * Returns the color index (0 for black, 1 for white) of the specified color.
+	 * @param color - the color
+	 * @return the color index of the color
+	 */
+	public static int colorIndex(boolean color) { return color ? 1 : 0; }
+
+	/**
+	 * Computes the Zobrist key of this position from scratch.
+	 * @return the Zobrist key of this position
+	 */
+	public long computeKey() {
+		long k = 0L;
+
+		for(int i = 0; i < ChessBoard.BOARD_SPACES; ++i) {
+			if(board[i] != EMPTY) k ^= PIECE_KEYS[board[i]][i];
+		}
+
+		k ^= CASTLING_KEYS[castling];
+
+		if(enPassant != NO_SPACE) k ^= EN_PASSANT_KEYS[enPassant % ChessBoard.BOARD_COLS];
+		if(turn == ChessBoard.BLACK) k ^= TURN_KEY;
+
+		return k;
+	}
+
+	/**
+	 * Returns the piece value of the specified piece type and color.
+	 * @param type - the piece type (PAWN - KING)
+	 * @param color - the piece color
+	 * @return the piece value
+	 */
+	public static int createPiece(int type, boolean color) { return color ? type : (type | BLACK_PIECE); }
+
+	/**
+	 * Generates the captures and queen promotions of the side to move. The moves are pseudo-legal, see makeMove.
+	 * @param list - the move list to add the moves to (it is cleared first)
+	 */
+	public void generateCaptures(MoveList list) { generate(list, true); }
+
+	/**
+	 * Generates the legal moves of the side to move.
+	 * @param list - the move list to add the moves to (it is cleared first)
+	 */
+	public void generateLegalMoves(MoveList list) {
+		//Generate pseudo-legal moves
+		generate(pseudoMoves, false);
+		list.clear();
+
+		//Keep the moves that do not leave the king in check
+		for(int i = 0; i < pseudoMoves.size(); ++i) {
+			int move = pseudoMoves.get(i);
+
+			if(makeMove(move)) {
+				unmakeMove();
+				list.add(move);
+			}
+		}
+	}
+
+	/**
+	 * Generates the pseudo-legal moves of the side to move. Pseudo-legal moves may leave the king in check, see makeMove.
+	 * @param list - the move list to add the moves to (it is cleared first)
+	 */
+	public void generateMoves(MoveList list) { generate(list, false); }
+
+	/**
+	 * Returns the castling rights of this position.
+	 * @return the castling rights
+	 */
+	public int getCastling() { return castling; }
+
+	/**
+	 * Returns the bit board of the specified color's pieces.
+	 * @param color - the color
+	 * @return the bit board of the color's pieces
+	 */
+	public long getColorBits(boolean color) { return colorBits[colorIndex(color)]; }
+
+	/**
+	 * Returns the en passant target board space, or NO_SPACE if the last move was not a double pawn move.
+	 * @return the en passant target board space
+	 */
+	public int getEnPassant() { return enPassant; }
+
+	/**
+	 * Returns the full move number.
+	 * @return the full move number
+	 */
+	public int getFullMoves() { return fullMoves; }
+
+	/**
+	 * Returns the number of half moves since the last capture or pawn move.
+	 * @return the half move counter
+	 */
+	public int getHalfMoves() { return halfMoves; }
+
+	/**
+	 * Returns the Zobrist key of this position.
+	 * @return the Zobrist key
+	 */
+	public long getKey() { return key; }
+
+	/**
+	 * Returns the board space of the specified color's king.
+	 * @param color - the king's color
+	 * @return the king's board space, or NO_SPACE if there is no king
+	 */
+	public int getKingSpace(boolean color) { return kingSpace[colorIndex(color)]; }
+
+	/**
+	 * Returns the last move made, or Move.NO_MOVE if no move has been made.
+	 * @return the last move made
+	 */
+	public int getLastMove() { return (ply > 0) ? undoMove[ply - 1] : Move.NO_MOVE; }
+
+	/**
+	 * Returns the move made at the specified ply since this position was reset or set up from a FEN.
+	 * @param ply - the ply (0 - getPly() - 1)
+	 * @return the encoded move
+	 */
+	public int getMove(int ply) {
+		//Check parameters
+		if(ply < 0 || ply >= this.ply)
+			throw new IndexOutOfBoundsException("Position: no move at ply " + ply);
+
+		return undoMove[ply];
+	}
+
+	/**
+	 * Returns the bit board of all pieces.
+	 * @return the bit board of all pieces
+	 */
+	public long getOccupiedBits() { return colorBits[0] | colorBits[1]; }
+
+	/**
+	 * Returns the piece value on the specified board space.
+	 * @param space - the board space (0 - 63)
+	 * @return the piece value, or EMPTY
+	 */
+	public int getPiece(int space) { return board[space]; }
+
+	/**
+	 * Returns the bit board of the specified piece value.
+	 * @param piece - the piece value
+	 * @return the bit board of the piece value
+	 */
+	public long getPieceBits(int piece) { return pieceBits[piece]; }
+
+	/**
+	 * Returns the number of moves made from the starting position of this object.
+	 * @return the number of moves made
+	 */
+	public int getPly() { return ply; }
+
+	/**
+	 * Returns the listener informed of piece changes.
+	 * @return the position listener, or null
+	 */
+	public PositionListener getPositionListener() { return listener; }
+
+	/**
+	 * Returns the color of the side to move.
+	 * @return the color of the side to move
+	 */
+	public boolean getTurn() { return turn; }
+
+	/**
+	 * Returns if the specified move captures a piece (including en passant captures).
+	 * @param move - the encoded move
+	 * @return true if the move is a capture, false otherwise
+	 */
+	public boolean isCapture(int move) {
+		int to = Move.getTo(move);
+		return board[to] != EMPTY || ((board[Move.getFrom(move)] & PIECE_TYPE_MASK) == PAWN && to == enPassant);
+	}
+
+	/**
+	 * Returns if this position is a draw by the fifty move rule, repetition or insufficient material. A single repetition is treated as a draw.
+	 * @return true if the position is a draw, false otherwise
+	 */
+	public boolean isDraw() { return halfMoves >= 100 || isRepetition() || isInsufficientMaterial(); }
+
+	/**
+	 * Returns if the side to move is in check.
+	 * @return true if the side to move is in check, false otherwise
+	 */
+	public boolean isInCheck() {
+		int k = kingSpace[colorIndex(turn)];
+		return k != NO_SPACE && isSpaceAttacked(k, !turn);
+	}
+
+	/**
+	 * Returns if neither side has enough material to checkmate (kings only, or a king and a single minor piece against a king).
+	 * @return true if there is insufficient material, false otherwise
+	 */
+	public boolean isInsufficientMaterial() {
+		//Any pawn, rook or queen is enough material
+		for(int i = 0; i < 2; ++i) {
+			boolean color = (i == 1);
+
+			if((pieceBits[createPiece(PAWN, color)] | pieceBits[createPiece(ROOK, color)] | pieceBits[createPiece(QUEEN, color)]) != 0L)
+				return false;
+		}
+
+		//A single minor piece is not enough material
+		return Long.bitCount(getOccupiedBits()) <= 3;
+	}
+
+	/**
+	 * Returns if the current position occurred before since the last capture or pawn move.
+	 * @return true if the position is a repetition, false otherwise
+	 */
+	public boolean isRepetition() {
+		int start = Math.max(0, ply - halfMoves);
+
+		for(int i = ply - 2; i >= start; i -= 2) {
+			if(undoKey[i] == key) return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the number of times the current position occurred before since the last capture or pawn move.
+	 * @return the number of earlier occurrences of the position
+	 */
+	public int countRepetitions() {
+		int start = Math.max(0, ply - halfMoves);
+		int count = 0;
+
+		for(int i = ply - 2; i >= start; i -= 2) {
+			if(undoKey[i] == key) count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns if the specified board space is attacked by any piece of the specified color.
+	 * @param space - the board space (0 - 63)
+	 * @param color - the attacking color
+	 * @return true if the space is attacked, false otherwise
+	 */
+	public boolean isSpaceAttacked(int space, boolean color) {
+		//Initialize variables
+		int x = space % ChessBoard.BOARD_COLS;
+		int y = space / ChessBoard.BOARD_COLS;
+		int pawn = createPiece(PAWN, color);
+		int knight = createPiece(KNIGHT, color);
+		int bishop = createPiece(BISHOP, color);
+		int rook = createPiece(ROOK, color);
+		int queen = createPiece(QUEEN, color);
+		int king = createPiece(KING, color);
+
+		//Check pawn attacks (white pawns attack from the row below, black pawns from the row above)
+		int py = color ? y + 1 : y - 1;
+
+		if(py >= 0 && py < ChessBoard.BOARD_ROWS) {
+			if(x > 0 && board[(x - 1) + (py * ChessBoard.BOARD_COLS)] == pawn) return true;
+			if(x < ChessBoard.BOARD_COLS - 1 && board[(x + 1) + (py * ChessBoard.BOARD_COLS)] == pawn) return true;
+		}
+
+		//Check knight attacks
+		for(int i = 0; i < KNIGHT_DX.length; ++i) {
+			int nx = x + KNIGHT_DX[i];
+			int ny = y + KNIGHT_DY[i];
+
+			if(nx >= 0 && nx < ChessBoard.BOARD_COLS && ny >= 0 && ny < ChessBoard.BOARD_ROWS && board[nx + (ny * ChessBoard.BOARD_COLS)] == knight)
+				return true;
+		}
+
+		//Check king and sliding piece attacks in each direction
+		for(int i = 0; i < KING_DX.length; ++i) {
+			int slider = (i < 4) ? rook : bishop;
+			int nx = x + KING_DX[i];
+			int ny = y + KING_DY[i];
+			boolean adjacent = true;
+
+			while(nx >= 0 && nx < ChessBoard.BOARD_COLS && ny >= 0 && ny < ChessBoard.BOARD_ROWS) {
+				int piece = board[nx + (ny * ChessBoard.BOARD_COLS)];
+
+				if(piece != EMPTY) {
+					if(piece == slider || piece == queen || (adjacent && piece == king)) return true;
+					break;
+				}
+
+				nx += KING_DX[i];
+				ny += KING_DY[i];
+				adjacent = false;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Makes the specified pseudo-legal move. If the move leaves the moving side's king in check, the move is unmade and false is returned. A pawn move to the last row
+	 * without a promotion value promotes to a queen.
+	 * @param move - the encoded move
+	 * @return true if the move was legal and made, false otherwise
+	 */
+	public boolean makeMove(int move) {
+		//Grow the undo stack if it is full
+		if(ply == undoMove.length)
+			growHistory();
+
+		//Initialize variables
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int piece = board[from];
+		int captured = board[to];
+		int type = piece & PIECE_TYPE_MASK;
+		int newEnPassant = NO_SPACE;
+
+		//Save state to the undo stack
+		undoMove[ply] = move;
+		undoPiece[ply] = piece;
+		undoCaptured[ply] = captured;
+		undoCastling[ply] = castling;
+		undoEnPassant[ply] = enPassant;
+		undoHalfMoves[ply] = halfMoves;
+		undoKey[ply] = key;
+		ply++;
+
+		halfMoves++;
+
+		//Remove captured piece
+		if(captured != EMPTY) {
+			removePiece(to);
+			halfMoves = 0;
+		}
+
+		//Move the piece
+		removePiece(from);
+		putPiece(piece, to);
+
+		//Handle special pawn moves
+		if(type == PAWN) {
+			halfMoves = 0;
+
+			//En passant capture removes the pawn behind the target space
+			if(to == enPassant)
+				removePiece(to + (turn ? ChessBoard.BOARD_COLS : -ChessBoard.BOARD_COLS));
+			//Double move sets the en passant target space
+			else if(Math.abs(to - from) == 2 * ChessBoard.BOARD_COLS)
+				newEnPassant = (from + to) / 2;
+			//Promotion replaces the pawn
+			else if(to < ChessBoard.BOARD_COLS || to >= ChessBoard.BOARD_SPACES - ChessBoard.BOARD_COLS) {
+				removePiece(to);
+				putPiece(createPiece(promotionType(Move.getPromotion(move)), turn), to);
+			}
+		}
+		//Castling also moves the rook
+		else if(type == KING && Math.abs(to - from) == 2) {
+			int rookFrom = (to > from) ? from + 3 : from - 4;
+			int rookTo = (to > from) ? from + 1 : from - 1;
+			int rook = board[rookFrom];
+			removePiece(rookFrom);
+			putPiece(rook, rookTo);
+		}
+
+		//Update castling rights
+		key ^= CASTLING_KEYS[castling];
+		castling &= CASTLING_MASK[from] & CASTLING_MASK[to];
+		key ^= CASTLING_KEYS[castling];
+
+		//Update en passant space
+		if(enPassant != NO_SPACE) key ^= EN_PASSANT_KEYS[enPassant % ChessBoard.BOARD_COLS];
+		enPassant = newEnPassant;
+		if(enPassant != NO_SPACE) key ^= EN_PASSANT_KEYS[enPassant % ChessBoard.BOARD_COLS];
+
+		//Switch turns
+		if(turn == ChessBoard.BLACK) fullMoves++;
+		turn = !turn;
+		key ^= TURN_KEY;
+
+		//If the move left the king in check, take it back
+		int k = kingSpace[colorIndex(!turn)];
+
+		if(k != NO_SPACE && isSpaceAttacked(k, turn)) {
+			unmakeMove();
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Passes the turn to the other side without moving a piece. Used by the NAN's search.
+	 */
+	public void makeNullMove() {
+		//Grow the undo stack if it is full
+		if(ply == undoMove.length)
+			growHistory();
+
+		//Save state to the undo stack
+		undoMove[ply] = Move.NO_MOVE;
+		undoPiece[ply] = EMPTY;
+		undoCaptured[ply] = EMPTY;
+		undoCastling[ply] = castling;
+		undoEnPassant[ply] = enPassant;
+		undoHalfMoves[ply] = halfMoves;
+		undoKey[ply] = key;
+		ply++;
+
+		//Clear en passant space and switch turns
+		if(enPassant != NO_SPACE) key ^= EN_PASSANT_KEYS[enPassant % ChessBoard.BOARD_COLS];
+		enPassant = NO_SPACE;
+		halfMoves++;
+		turn = !turn;
+		key ^= TURN_KEY;
+	}
+
+	/**
+	 * Resets this position to the standard starting position.
+	 */
+	public void reset() {
+		//Initialize variables
+		int back[] = { ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK };
+
+		clear();
+
+		//Place pieces
+		for(int i = 0; i < ChessBoard.BOARD_COLS; ++i) {
+			putPiece(createPiece(back[i], ChessBoard.BLACK), i);
+			putPiece(createPiece(PAWN, ChessBoard.BLACK), i + ChessBoard.BOARD_COLS);
+			putPiece(createPiece(PAWN, ChessBoard.WHITE), i + (6 * ChessBoard.BOARD_COLS));
+			putPiece(createPiece(back[i], ChessBoard.WHITE), i + (7 * ChessBoard.BOARD_COLS));
+		}
+
+		castling = CASTLE_WHITE_KING | CASTLE_WHITE_QUEEN | CASTLE_BLACK_KING | CASTLE_BLACK_QUEEN;
+		key = computeKey();
+	}
+
+	/**
+	 * Sets this position from the specified Forsyth-Edwards Notation (FEN) string and clears the move history. The pieces, side to move, castling rights and en passant
+	 * space are read in a single pass over the board. Castling rights that do not match a king and rook on their starting spaces are dropped, and the move counters may be
+	 * left out. If the FEN is not valid, this position is cleared.
+	 * @param fen - the FEN string
+	 * @throws IllegalArgumentException if the FEN is not a valid position
+	 */
+	public void setFEN(String fen) {
+		//Check parameters
+		if(fen == null)
+			throw new IllegalArgumentException("Position: FEN cannot be null");
+
+		try {
+			parseFEN(fen);
+		} catch (IllegalArgumentException e) {
+			clear();
+			throw e;
+		}
+	}
+
+	/**
+	 * Sets the listener informed of piece changes. A new listener is told the position was cleared and then told about every piece, so it starts out up to date.
+	 * @param l - the position listener, or null
+	 */
+	public void setPositionListener(PositionListener l) {
+		listener = l;
+
+		if(listener != null) {
+			listener.positionCleared();
+
+			for(long bits = getOccupiedBits(); bits != 0L; bits &= bits - 1)
+				listener.pieceAdded(board[Long.numberOfTrailingZeros(bits)], Long.numberOfTrailingZeros(bits));
+		}
+	}
+
+	/**
+	 * Returns this position in Forsyth-Edwards Notation (FEN).
+	 * @return the FEN string
+	 */
+	public String toFEN() {
+		//Initialize variables
+		StringBuilder fen = new StringBuilder(90);
+		int empty = 0;
+
+		//Pieces, starting at a8 (space 0)
+		for(int i = 0; i < ChessBoard.BOARD_SPACES; ++i) {
+			if(board[i] == EMPTY) {
+				empty++;
+			}
+			else {
+				if(empty > 0) fen.append(empty);
+				empty = 0;
+
+				char c = FEN_PIECES.charAt(board[i] & PIECE_TYPE_MASK);
+				fen.append(((board[i] & BLACK_PIECE) == 0) ? c : Character.toLowerCase(c));
+			}
+
+			//End of a row
+			if(i % ChessBoard.BOARD_COLS == ChessBoard.BOARD_COLS - 1) {
+				if(empty > 0) fen.append(empty);
+				empty = 0;
+
+				if(i < ChessBoard.BOARD_SPACES - 1) fen.append('/');
+			}
+		}
+
+		//Side to move and castling rights
+		fen.append(turn ? " w " : " b ");
+
+		if(castling == 0) fen.append('-');
+		if((castling & CASTLE_WHITE_KING) != 0) fen.append('K');
+		if((castling & CASTLE_WHITE_QUEEN) != 0) fen.append('Q');
+		if((castling & CASTLE_BLACK_KING) != 0) fen.append('k');
+		if((castling & CASTLE_BLACK_QUEEN) != 0) fen.append('q');
+
+		//En passant space and move counters
+		fen.append(' ').append((enPassant == NO_SPACE) ? "-" : Move.getSpaceName(enPassant));
+		fen.append(' ').append(halfMoves).append(' ').append(fullMoves);
+
+		return fen.toString();
+	}
+
+	/**
+	 * Takes back the last move made by makeMove.
+	 */
+	public void unmakeMove() {
+		//Check undo stack
+		if(ply == 0)
+			throw new IllegalStateException("Position: no move to unmake");
+
+		//Initialize variables
+		ply--;
+		int move = undoMove[ply];
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		int piece = undoPiece[ply];
+
+		//Switch turns back
+		turn = !turn;
+		if(turn == ChessBoard.BLACK) fullMoves--;
+
+		//Move the piece back (which also undoes a promotion)
+		removePiece(to);
+		putPiece(piece, from);
+
+		//Restore captured piece
+		if(undoCaptured[ply] != EMPTY)
+			putPiece(undoCaptured[ply], to);
+		//Restore pawn captured en passant
+		else if((piece & PIECE_TYPE_MASK) == PAWN && to == undoEnPassant[ply])
+			putPiece(createPiece(PAWN, !turn), to + (turn ? ChessBoard.BOARD_COLS : -ChessBoard.BOARD_COLS));
+
+		//Move the castling rook back
+		if((piece & PIECE_TYPE_MASK) == KING && Math.abs(to - from) == 2) {
+			int rookFrom = (to > from) ? from + 3 : from - 4;
+			int rookTo = (to > from) ? from + 1 : from - 1;
+			int rook = board[rookTo];
+			removePiece(rookTo);
+			putPiece(rook, rookFrom);
+		}
+
+		//Restore state
+		castling = undoCastling[ply];
+		enPassant = undoEnPassant[ply];
+		halfMoves = undoHalfMoves[ply];
+		key = undoKey[ply];
+	}
+
+	/**
+	 * Takes back the last null move made by makeNullMove.
+	 */
+	public void unmakeNullMove() {
+		ply--;
+		turn = !turn;
+		enPassant = undoEnPassant[ply];
+		halfMoves = undoHalfMoves[ply];
+		key = undoKey[ply];
+	}
+
+	/**
+	 * Adds a move to the list if the destination space is not occupied by the moving side.
+	 * @param list - the move list
+	 * @param from - the origin space
+	 * @param to - the destination space
+	 * @param capturesOnly - only add the move if it is a capture
+	 * @return true if the destination space was empty (sliding pieces can continue), false otherwise
+	 */
+	private boolean addMove(MoveList list, int from, int to, boolean capturesOnly) {
+		int target = board[to];
+
+		if(target == EMPTY) {
+			if(!capturesOnly) list.add(Move.encode(from, to));
+			return true;
+		}
+
+		if(((target & BLACK_PIECE) == 0) != turn)
+			list.add(Move.encode(from, to));
+
+		return false;
+	}
+
+	/**
+	 * Adds a pawn move to the list, expanding it into all promotions if it reaches the last row.
+	 * @param list - the move list
+	 * @param from - the origin space
+	 * @param to - the destination space
+	 * @param capturesOnly - only add queen promotions
+	 */
+	private void addPawnMove(MoveList list, int from, int to, boolean capturesOnly) {
+		if(to < ChessBoard.BOARD_COLS || to >= ChessBoard.BOARD_SPACES - ChessBoard.BOARD_COLS) {
+			list.add(Move.encode(from, to, Move.PROMOTE_QUEEN));
+
+			if(!capturesOnly) {
+				list.add(Move.encode(from, to, Move.PROMOTE_KNIGHT));
+				list.add(Move.encode(from, to, Move.PROMOTE_ROOK));
+				list.add(Move.encode(from, to, Move.PROMOTE_BISHOP));
+			}
+		}
+		else {
+			list.add(Move.encode(from, to));
+		}
+	}
+
+	/**
+	 * Generates pseudo-legal moves of the side to move.
+	 * @param list - the move list to add the moves to (it is cleared first)
+	 * @param capturesOnly - only generate captures and queen promotions
+	 */
+	private void generate(MoveList list, boolean capturesOnly) {
+		//Initialize variables
+		long own = colorBits[colorIndex(turn)];
+		int forward = turn ? -ChessBoard.BOARD_COLS : ChessBoard.BOARD_COLS;
+		int startRow = turn ? 6 : 1;
+		int lastRow = turn ? 0 : 7;
+
+		list.clear();
+
+		//Generate moves for each of the side's pieces
+		for(long bits = own; bits != 0L; bits &= bits - 1) {
+			int from = Long.numberOfTrailingZeros(bits);
+			int type = board[from] & PIECE_TYPE_MASK;
+			int x = from % ChessBoard.BOARD_COLS;
+			int y = from / ChessBoard.BOARD_COLS;
+
+			switch(type) {
+			case PAWN:
+				int to = from + forward;
+				int toRow = y + (turn ? -1 : 1);
+
+				//Forward moves
+				if(board[to] == EMPTY && (!capturesOnly || toRow == lastRow)) {
+					addPawnMove(list, from, to, capturesOnly);
+
+					if(y == startRow && !capturesOnly && board[to + forward] == EMPTY)
+						list.add(Move.encode(from, to + forward));
+				}
+
+				//Diagonal captures (including en passant)
+				for(int dx = -1; dx <= 1; dx += 2) {
+					if(x + dx < 0 || x + dx >= ChessBoard.BOARD_COLS) continue;
+
+					int target = to + dx;
+
+					if(target == enPassant || (board[target] != EMPTY && ((board[target] & BLACK_PIECE) == 0) != turn))
+						addPawnMove(list, from, target, capturesOnly);
+				}
+				break;
+			case KNIGHT:
+				for(int i = 0; i < KNIGHT_DX.length; ++i) {
+					int nx = x + KNIGHT_DX[i];
+					int ny = y + KNIGHT_DY[i];
+
+					if(nx >= 0 && nx < ChessBoard.BOARD_COLS && ny >= 0 && ny < ChessBoard.BOARD_ROWS)
+						addMove(list, from, nx + (ny * ChessBoard.BOARD_COLS), capturesOnly);
+				}
+				break;
+			case KING:
+				for(int i = 0; i < KING_DX.length; ++i) {
+					int nx = x + KING_DX[i];
+					int ny = y + KING_DY[i];
+
+					if(nx >= 0 && nx < ChessBoard.BOARD_COLS && ny >= 0 && ny < ChessBoard.BOARD_ROWS)
+						addMove(list, from, nx + (ny * ChessBoard.BOARD_COLS), capturesOnly);
+				}
+
+				if(!capturesOnly) generateCastling(list, from);
+				break;
+			default:
+				//Sliding pieces (bishops use diagonal directions, rooks straight directions and queens both)
+				int first = (type == BISHOP) ? 4 : 0;
+				int last = (type == ROOK) ? 4 : 8;
+
+				for(int i = first; i < last; ++i) {
+					int nx = x + KING_DX[i];
+					int ny = y + KING_DY[i];
+
+					while(nx >= 0 && nx < ChessBoard.BOARD_COLS && ny >= 0 && ny < ChessBoard.BOARD_ROWS) {
+						if(!addMove(list, from, nx + (ny * ChessBoard.BOARD_COLS), capturesOnly)) break;
+
+						nx += KING_DX[i];
+						ny += KING_DY[i];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generates castling moves for the king on the specified space. The king may not castle out of, through or into check.
+	 * @param list - the move list
+	 * @param from - the king's board space
+	 */
+	private void generateCastling(MoveList list, int from) {
+		//Initialize variables
+		int kingRight = turn ? CASTLE_WHITE_KING : CASTLE_BLACK_KING;
+		int queenRight = turn ? CASTLE_WHITE_QUEEN : CASTLE_BLACK_QUEEN;
+		int home = turn ? 60 : 4;
+
+		if(from != home || (castling & (kingRight | queenRight)) == 0 || isSpaceAttacked(from, !turn))
+			return;
+
+		//King side castling
+		if((castling & kingRight) != 0 && board[from + 1] == EMPTY && board[from + 2] == EMPTY && !isSpaceAttacked(from + 1, !turn) && !isSpaceAttacked(from + 2, !turn))
+			list.add(Move.encode(from, from + 2));
+
+		//Queen side castling
+		if((castling & queenRight) != 0 && board[from - 1] == EMPTY && board[from - 2] == EMPTY && board[from - 3] == EMPTY && !isSpaceAttacked(from - 1, !turn) &&
+				!isSpaceAttacked(from - 2, !turn))
+			list.add(Move.encode(from, from - 2));
+	}
+
+	/**
+	 * Doubles the size of the undo stack. The stack only grows when a game and the search on top of it pass its size, so this is rare and is never needed again by the
+	 * same position.
+	 */
+	private void growHistory() {
+		//Initialize variables
+		int size = undoMove.length * 2;
+
+		undoMove = Arrays.copyOf(undoMove, size);
+		undoPiece = Arrays.copyOf(undoPiece, size);
+		undoCaptured = Arrays.copyOf(undoCaptured, size);
+		undoCastling = Arrays.copyOf(undoCastling, size);
+		undoEnPassant = Arrays.copyOf(undoEnPassant, size);
+		undoHalfMoves = Arrays.copyOf(undoHalfMoves, size);
+		undoKey = Arrays.copyOf(undoKey, size);
+	}
+
+	/**
+	 * Reads the fields of the specified FEN string into this position, see setFEN.
+	 * @param fen - the FEN string
+	 */
+	private void parseFEN(String fen) {
+		//Initialize variables
+		String fields[] = fen.trim().split("\\s+");
+
+		if(fields.length < 4 || fields.length > 6)
+			throw new IllegalArgumentException("Position: FEN must have 4 - 6 fields: " + fen);
+
+		clear();
+
+		//Place pieces row by row, starting at a8 (space 0)
+		String rows[] = fields[0].split("/", -1);
+
+		if(rows.length != ChessBoard.BOARD_ROWS)
+			throw new IllegalArgumentException("Position: FEN board must have 8 rows: " + fen);
+
+		for(int y = 0; y < ChessBoard.BOARD_ROWS; ++y) {
+			int x = 0;
+
+			for(int i = 0; i < rows[y].length() && x < ChessBoard.BOARD_COLS; ++i) {
+				char c = rows[y].charAt(i);
+				int type = FEN_PIECES.indexOf(Character.toUpperCase(c));
+
+				if(c >= '1' && c <= '8')
+					x += c - '0';
+				else if(type >= PAWN)
+					putPiece(createPiece(type, Character.isUpperCase(c)), x++ + (y * ChessBoard.BOARD_COLS));
+				else
+					throw new IllegalArgumentException("Position: invalid FEN piece '" + c + "': " + fen);
+
+				//A row must end exactly on its last column
+				if(x > ChessBoard.BOARD_COLS || (x == ChessBoard.BOARD_COLS && i + 1 < rows[y].length()))
+					throw new IllegalArgumentException("Position: FEN row " + (y + 1) + " has too many spaces: " + fen);
+			}
+
+			if(x != ChessBoard.BOARD_COLS)
+				throw new IllegalArgumentException("Position: FEN row " + (y + 1) + " has too few spaces: " + fen);
+		}
+
+		//Each side needs exactly one king, at most 8 pawns and at most 16 pieces, and pawns cannot be on the first or last row
+		for(int i = 0; i < 2; ++i) {
+			boolean color = (i == 1);
+
+			if(Long.bitCount(pieceBits[createPiece(KING, color)]) != 1 || Long.bitCount(pieceBits[createPiece(PAWN, color)]) > 8 || Long.bitCount(colorBits[i]) > 16)
+				throw new IllegalArgumentException("Position: FEN must have one king, at most 8 pawns and at most 16 pieces of each color: " + fen);
+		}
+
+		if(((pieceBits[createPiece(PAWN, ChessBoard.WHITE)] | pieceBits[createPiece(PAWN, ChessBoard.BLACK)]) & 0xFF000000000000FFL) != 0L)
+			throw new IllegalArgumentException("Position: FEN has a pawn on the first or last row: " + fen);
+
+		//Side to move
+		if(fields[1].equals("w")) turn = ChessBoard.WHITE;
+		else if(fields[1].equals("b")) turn = ChessBoard.BLACK;
+		else throw new IllegalArgumentException("Position: invalid FEN side to move: " + fen);
+
+		//Castling rights
+		if(!fields[2].equals("-")) {
+			for(int i = 0; i < fields[2].length(); ++i) {
+				int right = "KQkq".indexOf(fields[2].charAt(i));
+
+				if(right < 0)
+					throw new IllegalArgumentException("Position: invalid FEN castling rights: " + fen);
+
+				castling |= 1 << right;
+			}
+		}
+
+		if(board[60] != createPiece(KING, ChessBoard.WHITE)) castling &= ~(CASTLE_WHITE_KING | CASTLE_WHITE_QUEEN);
+		if(board[63] != createPiece(ROOK, ChessBoard.WHITE)) castling &= ~CASTLE_WHITE_KING;
+		if(board[56] != createPiece(ROOK, ChessBoard.WHITE)) castling &= ~CASTLE_WHITE_QUEEN;
+		if(board[4] != createPiece(KING, ChessBoard.BLACK)) castling &= ~(CASTLE_BLACK_KING | CASTLE_BLACK_QUEEN);
+		if(board[7] != createPiece(ROOK, ChessBoard.BLACK)) castling &= ~CASTLE_BLACK_KING;
+		if(board[0] != createPiece(ROOK, ChessBoard.BLACK)) castling &= ~CASTLE_BLACK_QUEEN;
+
+		//En passant space (behind a pawn of the side that just moved)
+		if(!fields[3].equals("-")) {
+			enPassant = Move.parseSpace(fields[3]);
+
+			int pawn = enPassant + (turn ? ChessBoard.BOARD_COLS : -ChessBoard.BOARD_COLS);
+
+			if(enPassant / ChessBoard.BOARD_COLS != (turn ? 2 : 5) || board[pawn] != createPiece(PAWN, !turn) || board[enPassant] != EMPTY)
+				throw new IllegalArgumentException("Position: invalid FEN en passant space: " + fen);
+		}
+
+		//Move counters
+		try {
+			halfMoves = (fields.length > 4) ? Integer.parseInt(fields[4]) : 0;
+			fullMoves = (fields.length > 5) ? Integer.parseInt(fields[5]) : 1;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Position: invalid FEN move counters: " + fen);
+		}
+
+		if(halfMoves < 0 || fullMoves < 1)
+			throw new IllegalArgumentException("Position: invalid FEN move counters: " + fen);
+
+		//The side that just moved cannot be in check
+		if(isSpaceAttacked(kingSpace[colorIndex(!turn)], turn))
+			throw new IllegalArgumentException("Position: the side not to move is in check: " + fen);
+
+		key = computeKey();
+	}
+
+	/**
+	 * Returns the piece type of the specified promotion value (queen if no promotion is specified).
+	 * @param promotion - the promotion value
+	 * @return the piece type
+	 */
+	private static int promotionType(int promotion) {
+		switch(promotion) {
+		case Move.PROMOTE_KNIGHT:
+			return KNIGHT;
+		case Move.PROMOTE_BISHOP:
+			return BISHOP;
+		case Move.PROMOTE_ROOK:
+			return ROOK;
+		default:
+			return QUEEN;
+		}
+	}
+
+	/**
+	 * Places a piece on an empty board space and updates the bit boards and key.
+	 * @param piece - the piece value
+	 * @param space - the board space
+	 */
+	protected void putPiece(int piece, int space) {
+		long bit = 1L << space;
+		boolean color = (piece & BLACK_PIECE) == 0;
+
+		board[space] = piece;
+		pieceBits[piece] |= bit;
+		colorBits[colorIndex(color)] |= bit;
+		key ^= PIECE_KEYS[piece][space];
+
+		if((piece & PIECE_TYPE_MASK) == KING) kingSpace[colorIndex(color)] = space;
+		if(listener != null) listener.pieceAdded(piece, space);
+	}
+
+	/**
+	 * Removes the piece on a board space and updates the bit boards and key.
+	 * @param space - the board space
+	 */
+	protected void removePiece(int space) {
+		int piece = board[space];
+		long bit = 1L << space;
+
+		if(piece == EMPTY) return;
+
+		board[space] = EMPTY;
+		pieceBits[piece] &= ~bit;
+		colorBits[colorIndex((piece & BLACK_PIECE) == 0)] &= ~bit;
+		key ^= PIECE_KEYS[piece][space];
+
+		if(listener != null) listener.pieceRemoved(piece, space);
+	}
+}
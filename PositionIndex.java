@@ -0,0 +1,675 @@
+package com.chess.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import com.chess.ChessBoard;
+import com.chess.MoveList;
+import com.chess.Position;
+import com.chess.pgn.PgnGame;
+
+/**
+ * PositionIndex looks up every occurrence of a position in a game store. The index maps position keys (Zobrist hashes, see Position.getKey) to postings, each holding a
+ * game index, the ply the position occurs at and the game's result, sorted by key and then by game. The file is memory mapped and split into small compressed blocks, so a
+ * lookup is a binary search of the block directory followed by decoding the few blocks that hold the key.
+ * <p>
+ * The file starts with a 64 byte header (magic, version, block count, game count, posting count, key count and the directory offset), followed by the blocks and the block
+ * directory. Each posting in a block is a varint key delta from the previous posting (0 for the first posting of a block, whose key is in the directory), a varint game
+ * index (a delta from the previous posting when the key is the same) and a varint holding the ply and result code. The directory holds the first key and the offset of each
+ * block as longs.
+ * <p>
+ * An index is built from a game store by several threads (see build), which each replay their range of games and sort their postings into runs that are spilled to
+ * temporary files and then merged.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PositionIndex implements Closeable {
+
+	/** Index file magic number ("NANI"). */
+	public static final int MAGIC = 0x4E414E49;
+	/** Index file format version. */
+	public static final int VERSION = 1;
+	/** Header size in bytes. */
+	public static final int HEADER_SIZE = 64;
+	/** Block size in bytes (a block ends with the first posting that reaches this size). */
+	public static final int BLOCK_SIZE = 4096;
+	/** Default memory used to sort postings while building, in bytes. */
+	public static final long DEF_BUILD_MEMORY = 256L << 20;
+
+	/** Mask of the ply and result code bits of a posting. */
+	static final long PLY_RESULT_MASK = (1L << 13) - 1;
+
+	/** Size of each mapped chunk of the file. */
+	private static final long CHUNK_SIZE = 1L << 30;
+	/** Overlap of the mapped chunks, so a block starting in a chunk always ends in the same chunk. */
+	private static final long CHUNK_OVERLAP = 1L << 16;
+
+	/** The index file. */
+	private FileChannel channel;
+	/** Mapped chunks of the file. */
+	private MappedByteBuffer chunks[];
+	/** Number of blocks. */
+	private int blockCount;
+	/** Number of games in the indexed game store. */
+	private int gameCount;
+	/** Number of postings. */
+	private long postingCount;
+	/** Number of distinct keys. */
+	private long keyCount;
+	/** Offset of the block directory. */
+	private long directoryOffset;
+
+	/**
+	 * Constructor for PositionIndex that opens and maps the specified index file.
+	 * @param file - the index file
+	 * @throws IOException if the file cannot be read or is not a position index
+	 */
+	public PositionIndex(Path file) throws IOException {
+		//Open and map the file
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+
+		try {
+			long size = channel.size();
+
+			chunks = new MappedByteBuffer[(int)Math.max(1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+
+			for(int i = 0; i < chunks.length; ++i) {
+				long start = i * CHUNK_SIZE;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, CHUNK_SIZE + CHUNK_OVERLAP));
+			}
+
+			//Read the header
+			ByteBuffer header = chunks[0];
+
+			if(size < HEADER_SIZE || header.getInt(0) != MAGIC)
+				throw new IOException("PositionIndex: " + file + " is not a position index");
+
+			if(header.getInt(4) != VERSION)
+				throw new IOException("PositionIndex: unsupported version " + header.getInt(4));
+
+			if(header.getLong(40) != size)
+				throw new IOException("PositionIndex: " + file + " is incomplete");
+
+			blockCount = header.getInt(8);
+			gameCount = header.getInt(12);
+			postingCount = header.getLong(16);
+			keyCount = header.getLong(24);
+			directoryOffset = header.getLong(32);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Program entry point method that builds a position index from a game store ("build in.ngs out.npi", with -threads and -memory options, the memory in megabytes) or
+	 * looks up a position given as a FEN ("lookup in.npi fen", with a -store option to show the players of each game).
+	 * @param args - the command, files and options
+	 */
+	public static void main(String[] args) {
+		//Check arguments
+		if(args.length < 3) {
+			System.err.println("Usage: PositionIndex build <in.ngs> <out.npi> [-threads n] [-memory mb] | lookup <in.npi> <fen> [-store in.ngs]");
+			System.exit(2);
+		}
+
+		//Initialize variables
+		int threads = Runtime.getRuntime().availableProcessors();
+		long memory = DEF_BUILD_MEMORY;
+		String store = null;
+
+		for(int i = 0; i < args.length - 1; ++i) {
+			if(args[i].equals("-threads")) threads = Integer.parseInt(args[i + 1]);
+			else if(args[i].equals("-memory")) memory = Long.parseLong(args[i + 1]) << 20;
+			else if(args[i].equals("-store")) store = args[i + 1];
+		}
+
+		try {
+			long start = System.nanoTime();
+
+			if(args[0].equals("build")) {
+				//Build an index
+				try(GameStore games = new GameStore(Paths.get(args[1]))) {
+					long postings = build(games, Paths.get(args[2]), threads, memory);
+					double seconds = (System.nanoTime() - start) / 1e9;
+
+					System.out.printf("%d positions of %d games indexed in %.2f s on %d threads, %d bytes%n", postings, games.getGameCount(), seconds, threads,
+							Files.size(Paths.get(args[2])));
+				}
+			}
+			else if(args[0].equals("lookup")) {
+				//Look up a position
+				Position position = new Position();
+
+				position.setFEN(args[2]);
+
+				try(PositionIndex index = new PositionIndex(Paths.get(args[1])); GameStore games = (store != null) ? new GameStore(Paths.get(store)) : null) {
+					start = System.nanoTime();
+
+					long postings[] = index.lookup(position.getKey());
+					double millis = (System.nanoTime() - start) / 1e6;
+					int results[] = new int[4];
+
+					for(int i = 0; i < postings.length; ++i)
+						results[getResultCode(postings[i])]++;
+
+					System.out.printf("%d occurrences in %.3f ms: %d white wins, %d draws, %d black wins, %d unknown%n", postings.length, millis, results[1], results[3],
+							results[2], results[0]);
+
+					//List the first games
+					PgnGame game = new PgnGame();
+
+					for(int i = 0; i < Math.min(postings.length, 20); ++i) {
+						String players = "";
+
+						if(games != null) {
+							games.readGame(getGame(postings[i]), game);
+							players = " " + game.getTag("White") + " - " + game.getTag("Black");
+						}
+
+						System.out.printf("  game %d, ply %d, %s%s%n", getGame(postings[i]), getPly(postings[i]), getResult(postings[i]), players);
+					}
+				}
+			}
+			else {
+				System.err.println("Unknown command " + args[0]);
+				System.exit(2);
+			}
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (IllegalArgumentException e) {
+			System.err.println("Invalid argument: " + e.getMessage());
+			System.exit(2);
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Builds a position index of every position of every game in the specified game store (from each game's starting position to its final position). Each thread replays
+	 * a range of games and collects its postings in a buffer that is sorted and spilled to a temporary run file whenever it is full, and the runs are then merged into the
+	 * index file.
+	 * @param store - the game store
+	 * @param file - the index file to create
+	 * @param threads - the number of threads
+	 * @param memory - the memory used for sorting postings, in bytes
+	 * @return the number of postings
+	 * @throws IOException if a file cannot be read or written
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public static long build(GameStore store, Path file, int threads, long memory) throws IOException, InterruptedException {
+		//Check parameters
+		if(threads <= 0)
+			throw new IllegalArgumentException("PositionIndex: threads must be positive");
+
+		//Initialize variables (each posting takes 32 bytes while sorting: its key and posting, and their radix sort copies)
+		int capacity = (int)Math.min(Integer.MAX_VALUE - 8, Math.max(1 << 16, memory / (threads * 32L)));
+		Path directory = file.toAbsolutePath().getParent();
+		ArrayList<Path> runs = new ArrayList<Path>();
+		Thread builders[] = new Thread[threads];
+		Exception failure[] = new Exception[1];
+
+		try {
+			//Sort the postings of each range of games into runs
+			for(int i = 0; i < threads; ++i) {
+				int first = (int)((long)store.getGameCount() * i / threads);
+				int last = (int)((long)store.getGameCount() * (i + 1) / threads);
+
+				builders[i] = new Thread("Position Index Builder " + (i + 1)) {
+					@Override
+					public void run() {
+						//Initialize variables
+						PgnGame game = new PgnGame();
+						Position pos = new Position();
+						MoveList list = new MoveList();
+						long keys[] = new long[capacity];
+						long postings[] = new long[capacity];
+						long sortKeys[] = new long[capacity];
+						long sortPostings[] = new long[capacity];
+						int size = 0;
+
+						try {
+							for(int j = first; j < last && failure[0] == null; ++j) {
+								store.decode(j, game, pos, list);
+
+								//Replay the game from its starting position, posting every position
+								int result = GameStore.encodeResult(game.getResult());
+
+								if(game.getTag("FEN") != null) pos.setFEN(game.getTag("FEN"));
+								else pos.reset();
+
+								for(int ply = 0; ply <= game.getMoveCount(); ++ply) {
+									if(size == capacity) {
+										spill(keys, postings, sortKeys, sortPostings, size, directory, runs);
+										size = 0;
+									}
+
+									keys[size] = pos.getKey();
+									postings[size] = createPosting(j, ply, result);
+									size++;
+
+									if(ply < game.getMoveCount()) pos.makeMove(game.getMove(ply));
+								}
+							}
+
+							if(size > 0) spill(keys, postings, sortKeys, sortPostings, size, directory, runs);
+						} catch (IOException | RuntimeException e) {
+							failure[0] = e;
+						}
+					}
+				};
+				builders[i].start();
+			}
+
+			for(int i = 0; i < threads; ++i)
+				builders[i].join();
+
+			if(failure[0] instanceof IOException) throw (IOException)failure[0];
+			if(failure[0] != null) throw (RuntimeException)failure[0];
+
+			//Merge the runs into the index
+			return merge(runs, file, store.getGameCount());
+		} finally {
+			for(Path run : runs)
+				Files.deleteIfExists(run);
+		}
+	}
+
+	/**
+	 * Closes the index file. The mapped chunks stay valid until they are garbage collected, but no positions can be looked up after closing.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		chunks = new MappedByteBuffer[0];
+		channel.close();
+	}
+
+	/**
+	 * Returns a posting.
+	 * @param game - the game index
+	 * @param ply - the ply (0 - Position.MAX_PLY)
+	 * @param result - the result code of the game
+	 * @return the posting
+	 */
+	public static long createPosting(int game, int ply, int result) { return ((long)game << 13) | (ply << 2) | result; }
+
+	/**
+	 * Returns the number of blocks.
+	 * @return the number of blocks
+	 */
+	public int getBlockCount() { return blockCount; }
+
+	/**
+	 * Returns the game index of the specified posting.
+	 * @param posting - the posting
+	 * @return the game index
+	 */
+	public static int getGame(long posting) { return (int)(posting >>> 13); }
+
+	/**
+	 * Returns the number of games in the indexed game store.
+	 * @return the number of games
+	 */
+	public int getGameCount() { return gameCount; }
+
+	/**
+	 * Returns the number of distinct position keys.
+	 * @return the number of keys
+	 */
+	public long getKeyCount() { return keyCount; }
+
+	/**
+	 * Returns the ply of the specified posting.
+	 * @param posting - the posting
+	 * @return the ply
+	 */
+	public static int getPly(long posting) { return (int)(posting >>> 2) & 0x7FF; }
+
+	/**
+	 * Returns the number of postings.
+	 * @return the number of postings
+	 */
+	public long getPostingCount() { return postingCount; }
+
+	/**
+	 * Returns the game result of the specified posting.
+	 * @param posting - the posting
+	 * @return the result (see PgnGame)
+	 */
+	public static String getResult(long posting) { return GameStore.decodeResult(getResultCode(posting)); }
+
+	/**
+	 * Returns every occurrence of the current position of the specified chess board.
+	 * @param board - the chess board
+	 * @return the postings, sorted by game
+	 */
+	public long[] lookup(ChessBoard board) { return lookup(board.getPosition().getKey()); }
+
+	/**
+	 * Returns every occurrence of the position with the specified key.
+	 * @param key - the position key
+	 * @return the postings, sorted by game
+	 */
+	public long[] lookup(long key) {
+		//Initialize variables
+		long postings[] = new long[16];
+		int size = 0;
+
+		//Find the first block whose key is not below the key, then start from the block before it, as the key's postings can start at the end of that block
+		int low = 0;
+		int high = blockCount;
+
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+
+			if(Long.compareUnsigned(getBlockKey(mid), key) < 0) low = mid + 1;
+			else high = mid;
+		}
+
+		//Decode blocks until a greater key is found
+		for(int i = Math.max(0, low - 1); i < blockCount && Long.compareUnsigned(getBlockKey(i), key) <= 0; ++i) {
+			Cursor cursor = new Cursor(readLong(directoryOffset + (i * 16L) + 8));
+			long end = (i + 1 < blockCount) ? readLong(directoryOffset + ((i + 1) * 16L) + 8) : directoryOffset;
+			long current = getBlockKey(i);
+			int game = 0;
+			boolean first = true;
+
+			while(cursor.getOffset() < end) {
+				long delta = cursor.readVarlong();
+
+				//The game index is absolute for the first posting of a block and of a key
+				current += delta;
+				game = (first || delta != 0) ? cursor.readVarint() : game + cursor.readVarint();
+				first = false;
+
+				if(Long.compareUnsigned(current, key) > 0)
+					return Arrays.copyOf(postings, size);
+
+				int plyResult = cursor.readVarint();
+
+				if(current == key) {
+					if(size == postings.length) postings = Arrays.copyOf(postings, size * 2);
+					postings[size++] = ((long)game << 13) | plyResult;
+				}
+			}
+		}
+
+		return Arrays.copyOf(postings, size);
+	}
+
+	/**
+	 * Returns the result code of the specified posting.
+	 * @param posting - the posting
+	 * @return the result code (0 - 3)
+	 */
+	static int getResultCode(long posting) { return (int)posting & 3; }
+
+	/**
+	 * Returns the first key of the specified block.
+	 * @param block - the block index
+	 * @return the key
+	 */
+	private long getBlockKey(int block) { return readLong(directoryOffset + (block * 16L)); }
+
+	/**
+	 * Merges the specified sorted run files into an index file.
+	 * @param runs - the run files
+	 * @param file - the index file to create
+	 * @param gameCount - the number of games in the game store
+	 * @return the number of postings
+	 * @throws IOException if a file cannot be read or written
+	 */
+	private static long merge(ArrayList<Path> runs, Path file, int gameCount) throws IOException {
+		//Initialize variables
+		PriorityQueue<Run> queue = new PriorityQueue<Run>(Math.max(1, runs.size()), new Comparator<Run>() {
+			@Override
+			public int compare(Run a, Run b) {
+				int c = Long.compareUnsigned(a.key, b.key);
+				return (c != 0) ? c : Long.compare(a.posting, b.posting);
+			}
+		});
+
+		try(PositionIndexWriter writer = new PositionIndexWriter(file, gameCount)) {
+			try {
+				for(Path path : runs) {
+					Run run = new Run(path);
+
+					if(run.next()) queue.add(run);
+					else run.close();
+				}
+
+				//Write the smallest posting of the runs until every run is read
+				while(!queue.isEmpty()) {
+					Run run = queue.poll();
+
+					writer.add(run.key, run.posting);
+
+					if(run.next()) queue.add(run);
+					else run.close();
+				}
+			} finally {
+				for(Run run : queue)
+					run.close();
+			}
+
+			return writer.getPostingCount();
+		}
+	}
+
+	/**
+	 * Reads a long at the specified file offset.
+	 * @param offset - the file offset
+	 * @return the long
+	 */
+	private long readLong(long offset) {
+		return chunks[(int)(offset / CHUNK_SIZE)].getLong((int)(offset % CHUNK_SIZE));
+	}
+
+	/**
+	 * Sorts postings by key (keeping the order of postings with the same key) with a radix sort on 16 bit digits of the keys, taken as unsigned.
+	 * @param keys - the keys
+	 * @param postings - the postings of each key
+	 * @param sortKeys - buffer for the keys, as large as the keys
+	 * @param sortPostings - buffer for the postings, as large as the postings
+	 * @param size - the number of postings
+	 */
+	private static void sort(long keys[], long postings[], long sortKeys[], long sortPostings[], int size) {
+		//Initialize variables
+		int counts[] = new int[1 << 16];
+
+		for(int shift = 0; shift < 64; shift += 16) {
+			//Count each digit, skipping the pass if every key has the same digit
+			Arrays.fill(counts, 0);
+
+			for(int i = 0; i < size; ++i)
+				counts[(int)(keys[i] >>> shift) & 0xFFFF]++;
+
+			if(counts[(int)(keys[0] >>> shift) & 0xFFFF] == size)
+				continue;
+
+			//Turn the counts into start indices and move each posting to its place
+			for(int i = 0, start = 0; i < counts.length; ++i) {
+				int count = counts[i];
+				counts[i] = start;
+				start += count;
+			}
+
+			for(int i = 0; i < size; ++i) {
+				int index = counts[(int)(keys[i] >>> shift) & 0xFFFF]++;
+
+				sortKeys[index] = keys[i];
+				sortPostings[index] = postings[i];
+			}
+
+			System.arraycopy(sortKeys, 0, keys, 0, size);
+			System.arraycopy(sortPostings, 0, postings, 0, size);
+		}
+	}
+
+	/**
+	 * Sorts postings and writes them to a new temporary run file.
+	 * @param keys - the keys
+	 * @param postings - the postings of each key
+	 * @param sortKeys - buffer for the keys, as large as the keys
+	 * @param sortPostings - buffer for the postings, as large as the postings
+	 * @param size - the number of postings
+	 * @param directory - the directory of the run file
+	 * @param runs - the run files, which the new run file is added to
+	 * @throws IOException if the run file cannot be written
+	 */
+	private static void spill(long keys[], long postings[], long sortKeys[], long sortPostings[], int size, Path directory, ArrayList<Path> runs) throws IOException {
+		//Initialize variables
+		Path path = Files.createTempFile(directory, "positions", ".run");
+
+		synchronized(runs) {
+			runs.add(path);
+		}
+
+		sort(keys, postings, sortKeys, sortPostings, size);
+
+		//Write the sorted postings
+		try(FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+
+			for(int i = 0; i <= size; ++i) {
+				if(i == size || !buffer.hasRemaining()) {
+					buffer.flip();
+
+					while(buffer.hasRemaining())
+						out.write(buffer);
+
+					buffer.clear();
+				}
+
+				if(i < size) buffer.putLong(keys[i]).putLong(postings[i]);
+			}
+		}
+	}
+
+	/**
+	 * Cursor reads varints from the mapped file, starting at a file offset. Each cursor reads within a single mapped chunk.
+	 */
+	private class Cursor {
+
+		/** The chunk being read. */
+		private ByteBuffer chunk;
+		/** File offset of the chunk. */
+		private long base;
+		/** Index within the chunk. */
+		private int pos;
+
+		/**
+		 * Constructor for Cursor that starts reading at the specified file offset.
+		 * @param offset - the file offset
+		 */
+		public Cursor(long offset) {
+			chunk = chunks[(int)(offset / CHUNK_SIZE)];
+			base = offset - (offset % CHUNK_SIZE);
+			pos = (int)(offset % CHUNK_SIZE);
+		}
+
+		/**
+		 * Returns the file offset of the next byte to read.
+		 * @return the file offset
+		 */
+		public long getOffset() { return base + pos; }
+
+		/**
+		 * Reads an unsigned varint.
+		 * @return the value
+		 */
+		public int readVarint() {
+			int value = 0;
+
+			for(int shift = 0;; shift += 7) {
+				byte b = chunk.get(pos++);
+				value |= (b & 0x7F) << shift;
+
+				if(b >= 0) return value;
+			}
+		}
+
+		/**
+		 * Reads an unsigned varint of up to 64 bits.
+		 * @return the value
+		 */
+		public long readVarlong() {
+			long value = 0;
+
+			for(int shift = 0;; shift += 7) {
+				byte b = chunk.get(pos++);
+				value |= (long)(b & 0x7F) << shift;
+
+				if(b >= 0) return value;
+			}
+		}
+	}
+
+	/**
+	 * Run reads the sorted postings of a run file while the runs are merged.
+	 */
+	private static class Run {
+
+		/** The run file. */
+		private FileChannel channel;
+		/** Input buffer. */
+		private ByteBuffer buffer;
+		/** Key of the current posting. */
+		private long key;
+		/** The current posting. */
+		private long posting;
+
+		/**
+		 * Constructor for Run that opens the specified run file.
+		 * @param path - the run file
+		 * @throws IOException if the run file cannot be opened
+		 */
+		public Run(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			buffer = ByteBuffer.allocate(1 << 16);
+			buffer.limit(0);
+		}
+
+		/**
+		 * Closes the run file.
+		 * @throws IOException if the run file cannot be closed
+		 */
+		public void close() throws IOException { channel.close(); }
+
+		/**
+		 * Reads the next posting.
+		 * @return true if a posting was read, false at the end of the run
+		 * @throws IOException if the run file cannot be read
+		 */
+		public boolean next() throws IOException {
+			//Refill the buffer when it is empty
+			if(!buffer.hasRemaining()) {
+				buffer.clear();
+
+				while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+
+				buffer.flip();
+
+				if(!buffer.hasRemaining()) return false;
+			}
+
+			key = buffer.getLong();
+			posting = buffer.getLong();
+			return true;
+		}
+	}
+}
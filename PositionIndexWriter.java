@@ -0,0 +1,210 @@
+package com.chess.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * PositionIndexWriter writes a position index (see PositionIndex) from postings added in ascending key order. Postings are packed into blocks of about BLOCK_SIZE bytes
+ * that are streamed to the file as they fill, while the first key and offset of each block are kept in memory and written as the block directory when the index is
+ * closed.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class PositionIndexWriter implements Closeable {
+
+	/** The index file. */
+	private FileChannel channel;
+	/** Output buffer. */
+	private ByteBuffer buffer;
+	/** Offset of the next block. */
+	private long offset;
+	/** The block being packed. */
+	private byte block[];
+	/** Number of bytes in the block being packed. */
+	private int blockLength;
+	/** First key of each block. */
+	private long blockKeys[];
+	/** Offset of each block. */
+	private long blockOffsets[];
+	/** Number of blocks. */
+	private int blockCount;
+	/** Number of games the postings refer to. */
+	private int gameCount;
+	/** Number of postings. */
+	private long postingCount;
+	/** Number of distinct keys. */
+	private long keyCount;
+	/** Key of the last posting. */
+	private long lastKey;
+	/** The last posting. */
+	private long lastPosting;
+
+	/**
+	 * Constructor for PositionIndexWriter that creates (or replaces) the specified index file.
+	 * @param file - the index file
+	 * @param gameCount - the number of games in the game store the index is built from
+	 * @throws IOException if the file cannot be created
+	 */
+	public PositionIndexWriter(Path file, int gameCount) throws IOException {
+		//Initialize variables
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		buffer = ByteBuffer.allocate(1 << 16);
+		offset = PositionIndex.HEADER_SIZE;
+		block = new byte[PositionIndex.BLOCK_SIZE + 32];
+		blockLength = 0;
+		blockKeys = new long[1024];
+		blockOffsets = new long[1024];
+		blockCount = 0;
+		this.gameCount = gameCount;
+		postingCount = 0;
+		keyCount = 0;
+
+		//Leave room for the header
+		channel.position(PositionIndex.HEADER_SIZE);
+	}
+
+	/**
+	 * Adds a posting to the index. Keys must be added in ascending unsigned order, and the postings of a key in ascending order.
+	 * @param key - the position key
+	 * @param posting - the posting (see PositionIndex.createPosting)
+	 * @throws IOException if the index file cannot be written
+	 */
+	public void add(long key, long posting) throws IOException {
+		//Check parameters
+		if(postingCount > 0 && (Long.compareUnsigned(key, lastKey) < 0 || (key == lastKey && posting < lastPosting)))
+			throw new IllegalArgumentException("PositionIndexWriter: postings must be added in ascending order");
+
+		//Start a new block when the current one is full (the postings of a key can continue in the next block)
+		if(blockLength >= PositionIndex.BLOCK_SIZE)
+			flushBlock();
+
+		boolean newKey = postingCount == 0 || key != lastKey;
+		int game = PositionIndex.getGame(posting);
+
+		if(blockLength == 0) {
+			if(blockCount == blockKeys.length) {
+				blockKeys = Arrays.copyOf(blockKeys, blockCount * 2);
+				blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+			}
+
+			blockKeys[blockCount] = key;
+			blockOffsets[blockCount] = offset;
+			blockCount++;
+
+			//The first posting of a block holds its key delta from the block key (0) and an absolute game index
+			blockLength = putVarlong(block, 0, 0);
+			blockLength = GameStore.putVarint(block, blockLength, game);
+		}
+		else {
+			blockLength = putVarlong(block, blockLength, key - lastKey);
+			blockLength = GameStore.putVarint(block, blockLength, newKey ? game : game - PositionIndex.getGame(lastPosting));
+		}
+
+		blockLength = GameStore.putVarint(block, blockLength, (int)(posting & PositionIndex.PLY_RESULT_MASK));
+
+		if(newKey) keyCount++;
+		postingCount++;
+		lastKey = key;
+		lastPosting = posting;
+	}
+
+	/**
+	 * Writes the last block, the block directory and the header, and closes the index file.
+	 * @throws IOException if the index file cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBlock();
+
+			//Block directory
+			long directoryOffset = offset;
+
+			for(int i = 0; i < blockCount; ++i) {
+				if(buffer.remaining() < 16) flush();
+
+				buffer.putLong(blockKeys[i]);
+				buffer.putLong(blockOffsets[i]);
+				offset += 16;
+			}
+
+			flush();
+
+			//Header
+			ByteBuffer header = ByteBuffer.allocate(PositionIndex.HEADER_SIZE);
+
+			header.putInt(PositionIndex.MAGIC);
+			header.putInt(PositionIndex.VERSION);
+			header.putInt(blockCount);
+			header.putInt(gameCount);
+			header.putLong(postingCount);
+			header.putLong(keyCount);
+			header.putLong(directoryOffset);
+			header.putLong(offset);
+			header.clear();
+
+			while(header.hasRemaining())
+				channel.write(header, header.position());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Returns the number of postings added.
+	 * @return the number of postings
+	 */
+	public long getPostingCount() { return postingCount; }
+
+	/**
+	 * Writes the output buffer to the index file.
+	 * @throws IOException if the index file cannot be written
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the block being packed to the index file through the output buffer.
+	 * @throws IOException if the index file cannot be written
+	 */
+	private void flushBlock() throws IOException {
+		for(int i = 0; i < blockLength;) {
+			if(!buffer.hasRemaining()) flush();
+
+			int n = Math.min(blockLength - i, buffer.remaining());
+			buffer.put(block, i, n);
+			i += n;
+		}
+
+		offset += blockLength;
+		blockLength = 0;
+	}
+
+	/**
+	 * Writes the specified value as an unsigned varint (7 bits per byte, low bits first) into the specified buffer.
+	 * @param buf - the buffer
+	 * @param pos - the index to write at
+	 * @param value - the value (unsigned)
+	 * @return the index after the varint
+	 */
+	private static int putVarlong(byte buf[], int pos, long value) {
+		while((value & ~0x7FL) != 0) {
+			buf[pos++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		buf[pos++] = (byte)value;
+		return pos;
+	}
+}
@@ -0,0 +1,31 @@
+package com.chess.event;
+
+import java.util.EventListener;
+
+/**
+ * PositionListener is an interface implemented by objects that keep state derived from the pieces of a Position up to date as pieces are placed and removed, for example
+ * the NAN network's accumulator. It is called for every piece change, including those made by makeMove and unmakeMove, so implementations must be cheap.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public interface PositionListener extends EventListener {
+
+	/**
+	 * Informs listening objects that a piece was placed on a board space.
+	 * @param piece - the piece value
+	 * @param space - the board space
+	 */
+	public void pieceAdded(int piece, int space);
+
+	/**
+	 * Informs listening objects that a piece was removed from a board space.
+	 * @param piece - the piece value
+	 * @param space - the board space
+	 */
+	public void pieceRemoved(int piece, int space);
+
+	/**
+	 * Informs listening objects that all pieces were removed from the position.
+	 */
+	public void positionCleared();
+}
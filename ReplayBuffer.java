@@ -0,0 +1,252 @@
+package com.chess.nan.train;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chess.Position;
+
+/**
+ * ReplayBuffer holds the most recent positions the NAN played, as training samples (see TrainingSample), for a learner to sample from while games go on. It is a fixed
+ * capacity ring of slots in one direct (off-heap) buffer, so adding positions never allocates or copies and the samples add nothing for the garbage collector to trace.
+ * <p>
+ * One game thread (the single producer) adds each position as it is played with add, then calls endGame with the result, which fills in the game's results and publishes
+ * its positions to the samplers; discardGame drops an unfinished game instead. Any number of learner threads (the consumers) sample published positions, each through its
+ * own Sampler, uniformly or in proportion to their priorities. Nothing is locked: each slot holds a stamp (the position's sequence number) that the producer changes before
+ * and after overwriting the slot, and a sampler that sees the stamp change while it copies a slot discards the copy and picks again, so neither side ever waits for the
+ * other.
+ * <p>
+ * New positions get the highest priority seen so far; a learner can lower or raise a sampled position's priority (for example to its latest loss) with setPriority.
+ * Prioritized sampling picks a published position uniformly and accepts it with its priority over the highest priority, so it is proportional to priority as long as the
+ * highest priority is not far above the rest.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class ReplayBuffer {
+
+	/** Default capacity in positions. */
+	public static final int DEF_CAPACITY = 1 << 20;
+	/** Largest capacity in positions. */
+	public static final int MAX_CAPACITY = 1 << 25;
+	/** Returned by the samplers when no position could be sampled. */
+	public static final long NONE = -1;
+
+	/** Slot size in bytes (stamp, record and priority, padded to a multiple of 8). */
+	private static final int SLOT_SIZE = 48;
+	/** Offset of the record in a slot. */
+	private static final int RECORD = 8;
+	/** Offset of the priority in a slot. */
+	private static final int PRIORITY = RECORD + TrainingSample.RECORD_SIZE;
+	/** Number of rejected picks after which prioritized sampling takes the next valid position. */
+	private static final int MAX_PICKS = 64;
+	/** Number of picks after which a sampler gives up (when a long unfinished game has overwritten every published position). */
+	private static final int MAX_ATTEMPTS = 4096;
+
+	/** Slot stamp access (the slots are 8 byte aligned). */
+	private static final VarHandle STAMPS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+	/** Slot priority access. */
+	private static final VarHandle PRIORITIES = MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+
+	/** The slots. */
+	private final ByteBuffer ring;
+	/** Number of slots minus one. */
+	private final int mask;
+	/** Number of positions published to the samplers. */
+	private volatile long published;
+	/** Sequence number of the next position added (producer only). */
+	private long next;
+	/** Sequence number of the current game's first position (producer only). */
+	private long gameStart;
+	/** Highest priority, as float bits. */
+	private final AtomicInteger maxPriority;
+
+	/**
+	 * Constructor for ReplayBuffer with the default capacity.
+	 */
+	public ReplayBuffer() { this(DEF_CAPACITY); }
+
+	/**
+	 * Constructor for ReplayBuffer with the specified capacity.
+	 * @param capacity - the number of positions held, rounded up to a power of 2 (1 - MAX_CAPACITY)
+	 */
+	public ReplayBuffer(int capacity) {
+		//Check parameters
+		if(capacity < 1 || capacity > MAX_CAPACITY)
+			throw new IllegalArgumentException("Capacity must be 1 - " + MAX_CAPACITY);
+
+		//Initialize variables
+		int slots = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+		ring = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+		mask = slots - 1;
+		published = 0;
+		next = 0;
+		gameStart = 0;
+		maxPriority = new AtomicInteger(Float.floatToIntBits(1.0f));
+	}
+
+	/**
+	 * Adds a position of the current game. Only the game thread may call this. The position is not sampled until the game ends.
+	 * @param position - the position
+	 * @param move - the move played
+	 * @param score - the search score, from the side to move's point of view
+	 */
+	public void add(Position position, int move, int score) {
+		//Initialize variables
+		long sequence = next++;
+		int offset = offset(sequence);
+
+		//Mark the slot as being written, so samplers reading its old position discard it
+		STAMPS.setOpaque(ring, offset, 2 * sequence + 1);
+		VarHandle.storeStoreFence();
+
+		TrainingSample.pack(ring, offset + RECORD, position, score, move, TrainingSample.DRAW);
+		PRIORITIES.setOpaque(ring, offset + PRIORITY, Float.intBitsToFloat(maxPriority.get()));
+
+		STAMPS.setRelease(ring, offset, 2 * sequence + 2);
+	}
+
+	/**
+	 * Drops the positions added since the last game ended. Only the game thread may call this.
+	 */
+	public void discardGame() { next = gameStart; }
+
+	/**
+	 * Sets the result of the current game's positions and publishes them to the samplers. Only the game thread may call this.
+	 * @param result - the game result (TrainingSample.WHITE_WINS, DRAW or BLACK_WINS)
+	 */
+	public void endGame(int result) {
+		//The game's positions are not published yet, so no sampler reads them
+		for(long sequence = Math.max(gameStart, next - (mask + 1)); sequence < next; ++sequence)
+			TrainingSample.setResult(ring, offset(sequence) + RECORD, result);
+
+		gameStart = next;
+		published = next;
+	}
+
+	/**
+	 * Returns the number of positions the buffer holds.
+	 * @return the capacity
+	 */
+	public int getCapacity() { return mask + 1; }
+
+	/**
+	 * Returns the number of positions published since the buffer was created (including overwritten ones).
+	 * @return the number of published positions
+	 */
+	public long getPublished() { return published; }
+
+	/**
+	 * Returns the number of published positions that can be sampled.
+	 * @return the number of positions
+	 */
+	public int getSize() { return (int)Math.min(published, mask + 1); }
+
+	/**
+	 * Creates a sampler for one learner thread.
+	 * @param seed - the sampler's random seed
+	 * @return the sampler
+	 */
+	public Sampler newSampler(long seed) { return new Sampler(seed); }
+
+	/**
+	 * Sets the priority of a sampled position, if it has not been overwritten since. Any thread may call this.
+	 * @param sequence - the position's sequence number, as returned by a sampler
+	 * @param priority - the new priority (positive)
+	 */
+	public void setPriority(long sequence, float priority) {
+		//Initialize variables
+		int offset = offset(sequence);
+		int bits = Float.floatToIntBits(priority);
+
+		if(!(priority > 0.0f) || (long)STAMPS.getAcquire(ring, offset) != 2 * sequence + 2)
+			return;
+
+		PRIORITIES.setOpaque(ring, offset + PRIORITY, priority);
+
+		//Raise the highest priority
+		for(int max = maxPriority.get(); Float.intBitsToFloat(max) < priority && !maxPriority.compareAndSet(max, bits); max = maxPriority.get());
+	}
+
+	/**
+	 * Returns the slot offset of the specified sequence number.
+	 * @param sequence - the sequence number
+	 * @return the offset in the ring
+	 */
+	private int offset(long sequence) { return (int)(sequence & mask) * SLOT_SIZE; }
+
+	/**
+	 * Sampler samples published positions for one learner thread. It holds the thread's random generator and a record copy, so sampling does not allocate.
+	 */
+	public class Sampler {
+
+		/** Random generator. */
+		private final SplittableRandom random;
+		/** Copy of the record being read. */
+		private final ByteBuffer record;
+
+		/**
+		 * Constructor for Sampler.
+		 * @param seed - the random seed
+		 */
+		private Sampler(long seed) {
+			random = new SplittableRandom(seed);
+			record = ByteBuffer.allocate(TrainingSample.RECORD_SIZE);
+		}
+
+		/**
+		 * Samples a published position uniformly.
+		 * @param sample - the sample to unpack the position into
+		 * @return the position's sequence number, or NONE if no position could be sampled
+		 */
+		public long sample(TrainingSample sample) { return pick(sample, false); }
+
+		/**
+		 * Samples a published position with probability proportional to its priority.
+		 * @param sample - the sample to unpack the position into
+		 * @return the position's sequence number, or NONE if no position could be sampled
+		 */
+		public long samplePrioritized(TrainingSample sample) { return pick(sample, true); }
+
+		/**
+		 * Picks published positions until one is accepted and copied without being overwritten, then unpacks it.
+		 * @param sample - the sample to unpack the position into
+		 * @param prioritized - true to accept positions in proportion to their priorities
+		 * @return the position's sequence number, or NONE if no position could be sampled
+		 */
+		private long pick(TrainingSample sample, boolean prioritized) {
+			for(int picks = 1;; ++picks) {
+				//Pick from the positions published and not yet overwritten
+				long end = published;
+				long start = Math.max(0, end - (mask + 1));
+
+				if(end == 0 || picks > MAX_ATTEMPTS)
+					return NONE;
+
+				long sequence = start + random.nextLong(end - start);
+				int offset = offset(sequence);
+				long stamp = (long)STAMPS.getAcquire(ring, offset);
+
+				if(stamp != 2 * sequence + 2)
+					continue;
+
+				if(prioritized && picks < MAX_PICKS && random.nextFloat() * Float.intBitsToFloat(maxPriority.get()) > (float)PRIORITIES.getOpaque(ring, offset + PRIORITY))
+					continue;
+
+				//Copy the record, then check that the slot was not overwritten meanwhile
+				record.put(0, ring, offset + RECORD, TrainingSample.RECORD_SIZE);
+				VarHandle.loadLoadFence();
+
+				if((long)STAMPS.getOpaque(ring, offset) != stamp)
+					continue;
+
+				sample.unpack(record, 0);
+
+				return sequence;
+			}
+		}
+	}
+}
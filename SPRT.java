@@ -0,0 +1,210 @@
+package com.chess.match;
+
+/**
+ * SPRT runs a sequential probability ratio test on the results of game pairs, where each pair is played from the same opening with the engines swapping colors. The test
+ * decides between the hypothesis that the first engine is elo0 stronger (H0) and that it is elo1 stronger (H1). The log-likelihood ratio uses the normal approximation of
+ * the pair score distribution (pentanomial counts), which accounts for the correlation between the two games of a pair.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class SPRT {
+
+	/** Test still running value. */
+	public static final int CONTINUE = 0;
+	/** H0 accepted value. */
+	public static final int ACCEPT_H0 = -1;
+	/** H1 accepted value. */
+	public static final int ACCEPT_H1 = 1;
+
+	/** Pair score values (0 - 2 points for the first engine, as a fraction of 2). */
+	private static final double[] PAIR_SCORE = { 0.0, 0.25, 0.5, 0.75, 1.0 };
+	/** Pseudo count added to each pair result to keep the variance above 0 early on. */
+	private static final double PSEUDO_COUNT = 1e-3;
+	/** Two-sided 95% normal quantile. */
+	private static final double Z_95 = 1.959964;
+
+	/** H0 Elo difference. */
+	private double elo0;
+	/** H1 Elo difference. */
+	private double elo1;
+	/** Lower log-likelihood ratio bound. */
+	private double lowerBound;
+	/** Upper log-likelihood ratio bound. */
+	private double upperBound;
+	/** Number of pairs with each pair score (0, 0.5, 1, 1.5 and 2 points). */
+	private long[] pairs;
+	/** Number of games won, drawn and lost by the first engine. */
+	private long[] games;
+
+	/**
+	 * Constructor for SPRT that tests elo0 against elo1 with the specified false positive (alpha) and false negative (beta) rates.
+	 * @param elo0 - the H0 Elo difference
+	 * @param elo1 - the H1 Elo difference
+	 * @param alpha - the false positive rate
+	 * @param beta - the false negative rate
+	 */
+	public SPRT(double elo0, double elo1, double alpha, double beta) {
+		//Check parameters
+		if(elo1 <= elo0 || alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1)
+			throw new IllegalArgumentException("SPRT: elo1 must exceed elo0 and alpha and beta must be between 0 and 1");
+
+		//Initialize variables
+		this.elo0 = elo0;
+		this.elo1 = elo1;
+		lowerBound = Math.log(beta / (1 - alpha));
+		upperBound = Math.log((1 - beta) / alpha);
+		pairs = new long[PAIR_SCORE.length];
+		games = new long[3];
+	}
+
+	/**
+	 * Adds the result of a game pair.
+	 * @param first - the first engine's score in the first game (0, 0.5 or 1)
+	 * @param second - the first engine's score in the second game (0, 0.5 or 1)
+	 */
+	public synchronized void addPair(double first, double second) {
+		pairs[(int)Math.round((first + second) * 2)]++;
+		addGame(first);
+		addGame(second);
+	}
+
+	/**
+	 * Returns the Elo difference of the first engine estimated from the pair scores.
+	 * @return the Elo difference
+	 */
+	public synchronized double getElo() { return toElo(getMean()); }
+
+	/**
+	 * Returns half the width of the 95% confidence interval of the Elo difference.
+	 * @return the Elo error bar
+	 */
+	public synchronized double getEloError() {
+		//Initialize variables
+		double error = Z_95 * Math.sqrt(getVariance() / Math.max(1, getPairCount()));
+
+		return (toElo(Math.min(getMean() + error, 0.999)) - toElo(Math.max(getMean() - error, 0.001))) / 2;
+	}
+
+	/**
+	 * Returns the number of games won, drawn and lost by the first engine.
+	 * @return the number of games won (0), drawn (1) and lost (2)
+	 */
+	public synchronized long[] getGames() { return games.clone(); }
+
+	/**
+	 * Returns the log-likelihood ratio of H1 against H0.
+	 * @return the log-likelihood ratio
+	 */
+	public synchronized double getLLR() {
+		//Initialize variables
+		double s0 = toScore(elo0);
+		double s1 = toScore(elo1);
+
+		return getPairCount() * (s1 - s0) * ((2 * getMean()) - s0 - s1) / (2 * getVariance());
+	}
+
+	/**
+	 * Returns the lower log-likelihood ratio bound, at which H0 is accepted.
+	 * @return the lower bound
+	 */
+	public double getLowerBound() { return lowerBound; }
+
+	/**
+	 * Returns the number of game pairs played.
+	 * @return the number of game pairs
+	 */
+	public synchronized long getPairCount() {
+		long count = 0;
+
+		for(int i = 0; i < pairs.length; ++i) count += pairs[i];
+
+		return count;
+	}
+
+	/**
+	 * Returns the number of pairs with each pair score.
+	 * @return the number of pairs with 0, 0.5, 1, 1.5 and 2 points for the first engine
+	 */
+	public synchronized long[] getPentanomial() { return pairs.clone(); }
+
+	/**
+	 * Returns the state of the test.
+	 * @return CONTINUE, ACCEPT_H0 or ACCEPT_H1
+	 */
+	public synchronized int getState() {
+		//Initialize variables
+		double llr = getLLR();
+		int scores = 0;
+
+		//Wait until the pairs have more than one score, since the variance is meaningless before then
+		for(int i = 0; i < pairs.length; ++i) if(pairs[i] > 0) scores++;
+
+		if(scores < 2) return CONTINUE;
+		if(llr >= upperBound) return ACCEPT_H1;
+		if(llr <= lowerBound) return ACCEPT_H0;
+		return CONTINUE;
+	}
+
+	/**
+	 * Returns the upper log-likelihood ratio bound, at which H1 is accepted.
+	 * @return the upper bound
+	 */
+	public double getUpperBound() { return upperBound; }
+
+	/**
+	 * Converts a score (0.0 - 1.0) to an Elo difference.
+	 * @param score - the score
+	 * @return the Elo difference
+	 */
+	public static double toElo(double score) { return -400 * Math.log10((1 / score) - 1); }
+
+	/**
+	 * Converts an Elo difference to an expected score (0.0 - 1.0).
+	 * @param elo - the Elo difference
+	 * @return the expected score
+	 */
+	public static double toScore(double elo) { return 1 / (1 + Math.pow(10, -elo / 400)); }
+
+	/**
+	 * Counts a single game result.
+	 * @param score - the first engine's score (0, 0.5 or 1)
+	 */
+	private void addGame(double score) {
+		games[(score == 1) ? 0 : (score == 0) ? 2 : 1]++;
+	}
+
+	/**
+	 * Returns the mean pair score (0.0 - 1.0), with a pseudo count for each pair score.
+	 * @return the mean pair score
+	 */
+	private double getMean() {
+		//Initialize variables
+		double total = 0;
+		double sum = 0;
+
+		for(int i = 0; i < pairs.length; ++i) {
+			total += pairs[i] + PSEUDO_COUNT;
+			sum += (pairs[i] + PSEUDO_COUNT) * PAIR_SCORE[i];
+		}
+
+		return sum / total;
+	}
+
+	/**
+	 * Returns the variance of the pair score, with a pseudo count for each pair score.
+	 * @return the pair score variance
+	 */
+	private double getVariance() {
+		//Initialize variables
+		double mean = getMean();
+		double total = 0;
+		double sum = 0;
+
+		for(int i = 0; i < pairs.length; ++i) {
+			total += pairs[i] + PSEUDO_COUNT;
+			sum += (pairs[i] + PSEUDO_COUNT) * (PAIR_SCORE[i] - mean) * (PAIR_SCORE[i] - mean);
+		}
+
+		return sum / total;
+	}
+}
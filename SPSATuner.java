@@ -0,0 +1,513 @@
+package com.chess.match;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import com.chess.selfplay.SelfPlayGame;
+import com.chess.selfplay.VirtualClock;
+
+/**
+ * SPSATuner tunes the NAN's search settings (see EngineConfig) with simultaneous perturbation stochastic approximation. Every game pair perturbs all of the tuned settings
+ * at once by a random +c or -c each, plays the plus engine against the minus engine from one opening with each side playing white once, and moves the settings towards the
+ * side that scored better. The perturbation c and step size shrink as the run goes on, following the usual SPSA schedules; each setting declares its range and its final
+ * perturbation, and the final step size is R_END times its final perturbation squared.
+ * <p>
+ * Pairs are played in parallel like MatchRunner's, with fast time controls on a virtual clock, and each pair updates the settings as soon as it finishes (a pair uses the
+ * settings from when it started). The settings are printed after every pair and written to the checkpoint file every few pairs, so a run can be stopped and continued with
+ * -resume.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class SPSATuner {
+
+	/** Default time control (in seconds). */
+	public static final String DEF_TIME_CONTROL = "2+0.02";
+	/** Default number of game pairs. */
+	public static final int DEF_PAIRS = 10000;
+	/** Default number of pairs between checkpoints. */
+	public static final int DEF_CHECKPOINT_PAIRS = 10;
+	/** Default checkpoint file. */
+	public static final String DEF_CHECKPOINT = "spsa.txt";
+	/** Final step size over final perturbation squared. */
+	public static final double R_END = 0.002;
+	/** Step size schedule exponent. */
+	public static final double ALPHA = 0.602;
+	/** Perturbation schedule exponent. */
+	public static final double GAMMA = 0.101;
+
+	/** The tuned settings. */
+	private List<Parameter> parameters;
+	/** Opening lines. */
+	private List<String> openings;
+	/** Time control. */
+	private String timeControl;
+	/** Virtual nodes per second. */
+	private long virtualNps;
+	/** Transposition table size (in megabytes) for each search. */
+	private int hashSize;
+	/** Number of CPU threads that run searches. */
+	private int threads;
+	/** Total number of game pairs in the run. */
+	private int pairs;
+	/** Number of pairs between checkpoints. */
+	private int checkpointPairs;
+	/** Checkpoint file. */
+	private Path checkpoint;
+	/** Random seed. */
+	private long seed;
+	/** Number of pairs started. */
+	private int started;
+	/** Number of pairs finished. */
+	private int finished;
+	/** Total score of the plus engines minus the minus engines. */
+	private double totalResult;
+
+	/**
+	 * Default constructor for the SPSATuner that tunes every numeric search setting with the default run settings.
+	 */
+	public SPSATuner() {
+		//Initialize variables
+		parameters = new ArrayList<Parameter>(Parameter.declare());
+		openings = new ArrayList<String>(List.of(MatchRunner.BALANCED_OPENINGS));
+		timeControl = DEF_TIME_CONTROL;
+		virtualNps = VirtualClock.DEF_VIRTUAL_NPS;
+		hashSize = MatchRunner.DEF_HASH_MB;
+		threads = Runtime.getRuntime().availableProcessors();
+		pairs = DEF_PAIRS;
+		checkpointPairs = DEF_CHECKPOINT_PAIRS;
+		checkpoint = Paths.get(DEF_CHECKPOINT);
+		seed = 0;
+		started = 0;
+		finished = 0;
+		totalResult = 0;
+	}
+
+	/**
+	 * Returns the current settings as an engine configuration.
+	 * @param name - the engine name
+	 * @return the engine configuration
+	 */
+	public synchronized EngineConfig getConfig(String name) {
+		//Initialize variables
+		EngineConfig config = new EngineConfig(name);
+
+		for(Parameter parameter : parameters)
+			config.setSetting(parameter.name, parameter.round(parameter.value));
+
+		return config;
+	}
+
+	/**
+	 * Program entry point method that runs an SPSA tuning session. Options are -params (comma separated settings to tune, all by default), -pairs (total game pairs),
+	 * -openings, -tc, -nps, -hash, -threads, -seed (see MatchRunner), -checkpoint (file), -checkpoint-pairs (pairs between checkpoints) and -resume (continue from the
+	 * checkpoint file).
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		SPSATuner tuner = new SPSATuner();
+
+		try {
+			tuner.parseOptions(args);
+			tuner.run();
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("SPSA failed: " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("SPSA interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Reads the tuning settings from the specified command line options.
+	 * @param args - the options
+	 * @throws IOException if the opening or checkpoint file cannot be read
+	 */
+	public void parseOptions(String[] args) throws IOException {
+		//Initialize variables
+		boolean resume = false;
+
+		for(int i = 0; i < args.length; ++i) {
+			if(args[i].equals("-resume")) {
+				resume = true;
+				continue;
+			}
+
+			//Every other option has a value
+			if(i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing value for option " + args[i]);
+
+			try {
+				switch(args[i]) {
+				case "-params":
+					List<Parameter> selected = new ArrayList<Parameter>();
+
+					for(String name : args[++i].split(","))
+						selected.add(findParameter(name.trim()));
+
+					parameters = selected;
+					break;
+				case "-pairs":
+					pairs = Integer.parseInt(args[++i]);
+					break;
+				case "-openings":
+					openings = readOpenings(args[++i]);
+					break;
+				case "-tc":
+					timeControl = args[++i];
+					break;
+				case "-nps":
+					virtualNps = Long.parseLong(args[++i]);
+					break;
+				case "-hash":
+					hashSize = Integer.parseInt(args[++i]);
+					break;
+				case "-threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "-seed":
+					seed = Long.parseLong(args[++i]);
+					break;
+				case "-checkpoint":
+					checkpoint = Paths.get(args[++i]);
+					break;
+				case "-checkpoint-pairs":
+					checkpointPairs = Integer.parseInt(args[++i]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid value for option " + args[i - 1] + ": " + args[i]);
+			}
+		}
+
+		if(hashSize <= 0 || threads <= 0 || pairs <= 0 || checkpointPairs <= 0 || openings.isEmpty() || parameters.isEmpty())
+			throw new IllegalArgumentException("Hash, threads, pairs and checkpoint pairs must be positive and at least one opening and setting are needed");
+
+		//Check the time control
+		VirtualClock.parse(timeControl, virtualNps);
+
+		if(resume) readCheckpoint();
+	}
+
+	/**
+	 * Plays the remaining game pairs of the run, updating the settings after each one, then writes a final checkpoint and prints the tuned configuration.
+	 * @throws IOException if the checkpoint file cannot be written
+	 * @throws InterruptedException if the run is interrupted
+	 */
+	public void run() throws IOException, InterruptedException {
+		//Initialize variables
+		ExecutorService cpuPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count = 0;
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "NAN Search " + (++count));
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		Semaphore slots = new Semaphore(threads * 2);
+
+		System.out.println("SPSA on " + parameters + ", " + pairs + " pairs from " + started + ", tc " + timeControl + " at " + virtualNps + " virtual nps, " +
+				openings.size() + " openings");
+
+		//Play each pair on its own virtual thread, keeping enough pairs in flight to fill the CPU pool
+		try(ExecutorService pairPool = Executors.newVirtualThreadPerTaskExecutor()) {
+			while(started < pairs) {
+				slots.acquire();
+
+				Pair pair = startPair();
+
+				pairPool.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							finishPair(pair, playPair(pair, cpuPool));
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} catch (IOException | RuntimeException e) {
+							System.err.println("Pair " + pair.index + " failed: " + e);
+						} finally {
+							slots.release();
+						}
+					}
+				});
+			}
+		}
+
+		cpuPool.shutdown();
+		writeCheckpoint();
+		System.out.println("Tuned: " + getConfig("tuned"));
+	}
+
+	/**
+	 * Returns the declared parameter with the specified name.
+	 * @param name - the setting name
+	 * @return the parameter
+	 */
+	private static Parameter findParameter(String name) {
+		for(Parameter parameter : Parameter.declare()) {
+			if(parameter.name.equals(name)) return parameter;
+		}
+
+		throw new IllegalArgumentException("Unknown setting " + name);
+	}
+
+	/**
+	 * Applies a finished pair's result to the settings, prints the settings and writes a checkpoint every few pairs.
+	 * @param pair - the pair
+	 * @param result - the plus engine's pair score minus the minus engine's (-2 to 2)
+	 * @throws IOException if the checkpoint file cannot be written
+	 */
+	private synchronized void finishPair(Pair pair, double result) throws IOException {
+		//Move each setting towards the side that scored better
+		StringBuilder line = new StringBuilder(String.format("Pair %d: %+.1f ", pair.index + 1, result));
+
+		for(int i = 0; i < parameters.size(); ++i) {
+			Parameter parameter = parameters.get(i);
+			double step = R_END * parameter.cEnd * parameter.cEnd * Math.pow(0.1 * pairs + pairs, ALPHA) / Math.pow(0.1 * pairs + pair.index + 1, ALPHA);
+
+			parameter.value = Math.max(parameter.min, Math.min(parameter.max, parameter.value + step / pair.perturbation[i] * result * pair.signs[i]));
+			line.append(String.format(" %s=%.3f", parameter.name, parameter.value));
+		}
+
+		finished++;
+		totalResult += result;
+		System.out.println(line.append(String.format("  (average %+.3f)", totalResult / finished)));
+
+		if(finished % checkpointPairs == 0)
+			writeCheckpoint();
+	}
+
+	/**
+	 * Plays one game pair between the plus and minus engines of the specified pair.
+	 * @param pair - the pair
+	 * @param cpuPool - the CPU pool that runs searches
+	 * @return the plus engine's pair score minus the minus engine's (-2 to 2)
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	private double playPair(Pair pair, ExecutorService cpuPool) throws InterruptedException {
+		//Initialize variables
+		String opening = openings.get(pair.index % openings.size());
+		double score = playGame(pair.plus, pair.minus, opening, cpuPool) + 1 - playGame(pair.minus, pair.plus, opening, cpuPool);
+
+		return 2 * score - 2;
+	}
+
+	/**
+	 * Plays one game from the specified opening and returns white's score.
+	 * @param white - white's engine
+	 * @param black - black's engine
+	 * @param opening - the opening moves
+	 * @param cpuPool - the CPU pool that runs searches
+	 * @return white's score (0, 0.5 or 1)
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	private double playGame(EngineConfig white, EngineConfig black, String opening, ExecutorService cpuPool) throws InterruptedException {
+		//Initialize variables
+		SelfPlayGame game = new SelfPlayGame(white.createSearch(hashSize), black.createSearch(hashSize), VirtualClock.parse(timeControl, virtualNps), cpuPool);
+
+		game.setOpening(opening);
+
+		//Play the game
+		String result = game.play();
+
+		return result.equals(SelfPlayGame.WHITE_WINS) ? 1.0 : result.equals(SelfPlayGame.DRAW) ? 0.5 : 0.0;
+	}
+
+	/**
+	 * Reads the pair count and settings from the checkpoint file.
+	 * @throws IOException if the checkpoint file cannot be read
+	 */
+	private void readCheckpoint() throws IOException {
+		for(String line : Files.readAllLines(checkpoint)) {
+			int equals = line.indexOf('=');
+
+			if(line.isBlank() || line.startsWith("#") || equals == -1)
+				continue;
+
+			String key = line.substring(0, equals).trim();
+			String value = line.substring(equals + 1).trim();
+
+			try {
+				if(key.equals("pairs")) {
+					started = finished = Integer.parseInt(value);
+					continue;
+				}
+
+				if(key.equals("result")) {
+					totalResult = Double.parseDouble(value);
+					continue;
+				}
+
+				for(Parameter parameter : parameters) {
+					if(parameter.name.equals(key)) parameter.value = Double.parseDouble(value);
+				}
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid checkpoint line " + line);
+			}
+		}
+
+		System.out.println("Resumed from " + checkpoint + " after " + finished + " pairs: " + getConfig("resumed"));
+	}
+
+	/**
+	 * Reads opening lines from the specified file. Blank lines and lines starting with '#' are skipped.
+	 * @param file - the opening file
+	 * @return the opening lines
+	 * @throws IOException if the file cannot be read
+	 */
+	private static List<String> readOpenings(String file) throws IOException {
+		//Initialize variables
+		List<String> lines = new ArrayList<String>();
+
+		for(String line : Files.readAllLines(Paths.get(file))) {
+			if(!line.isBlank() && !line.startsWith("#"))
+				lines.add(line.trim());
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Starts the next pair: draws each setting's perturbation sign and creates the plus and minus engines from the current settings.
+	 * @return the pair
+	 */
+	private synchronized Pair startPair() {
+		//Initialize variables
+		Pair pair = new Pair(started++, parameters.size());
+		SplittableRandom random = new SplittableRandom(seed ^ (pair.index * 0x9E3779B97F4A7C15L));
+
+		pair.plus = new EngineConfig("plus");
+		pair.minus = new EngineConfig("minus");
+
+		for(int i = 0; i < parameters.size(); ++i) {
+			Parameter parameter = parameters.get(i);
+
+			//Perturbation for this pair, at least one setting step so the engines differ
+			pair.signs[i] = random.nextBoolean() ? 1 : -1;
+			pair.perturbation[i] = Math.max(1.0, parameter.cEnd * Math.pow(pairs, GAMMA) / Math.pow(pair.index + 1, GAMMA));
+			pair.plus.setSetting(parameter.name, parameter.round(parameter.value + pair.perturbation[i] * pair.signs[i]));
+			pair.minus.setSetting(parameter.name, parameter.round(parameter.value - pair.perturbation[i] * pair.signs[i]));
+		}
+
+		return pair;
+	}
+
+	/**
+	 * Writes the pair count and settings to the checkpoint file, through a temporary file so an interrupted write keeps the last checkpoint.
+	 * @throws IOException if the checkpoint file cannot be written
+	 */
+	private synchronized void writeCheckpoint() throws IOException {
+		//Initialize variables
+		Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+
+		try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp))) {
+			out.println("# SPSA checkpoint, tuned: " + getConfig("tuned"));
+			out.println("pairs=" + finished);
+			out.println("result=" + totalResult);
+
+			for(Parameter parameter : parameters)
+				out.println(parameter.name + "=" + parameter.value);
+		}
+
+		Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Parameter is a tuned search setting: its current value, its range and its final perturbation.
+	 */
+	private static class Parameter {
+
+		/** Setting name (see EngineConfig). */
+		final String name;
+		/** Smallest value. */
+		final double min;
+		/** Largest value. */
+		final double max;
+		/** Perturbation at the end of the run. */
+		final double cEnd;
+		/** Current value. */
+		double value;
+
+		/**
+		 * Constructor for Parameter that starts at the search's default value.
+		 * @param name - the setting name
+		 * @param min - the smallest value
+		 * @param max - the largest value
+		 * @param cEnd - the perturbation at the end of the run
+		 */
+		Parameter(String name, double min, double max, double cEnd) {
+			this.name = name;
+			this.min = min;
+			this.max = max;
+			this.cEnd = cEnd;
+			value = new EngineConfig("default").getSetting(name);
+		}
+
+		/**
+		 * Returns the declared set of tunable settings, at their default values.
+		 * @return the parameters
+		 */
+		static List<Parameter> declare() {
+			return List.of(new Parameter("lmr", 0, 3, 1), new Parameter("lmrmoves", 1, 12, 1), new Parameter("null", 1, 4, 1),
+					new Parameter("futility", 25, 600, 20));
+		}
+
+		/**
+		 * Returns the specified value rounded to a setting value in range.
+		 * @param x - the value
+		 * @return the setting value
+		 */
+		int round(double x) { return (int)Math.round(Math.max(min, Math.min(max, x))); }
+
+		//Returns the setting name
+		@Override
+		public String toString() { return name; }
+	}
+
+	/**
+	 * Pair is one game pair in flight: its index, each setting's perturbation and sign, and the two engines.
+	 */
+	private static class Pair {
+
+		/** Pair index in the run. */
+		final int index;
+		/** Perturbation size of each setting. */
+		final double perturbation[];
+		/** Perturbation sign of each setting (1 or -1). */
+		final int signs[];
+		/** Engine with the perturbations added. */
+		EngineConfig plus;
+		/** Engine with the perturbations subtracted. */
+		EngineConfig minus;
+
+		/**
+		 * Constructor for Pair.
+		 * @param index - the pair index
+		 * @param count - the number of settings
+		 */
+		Pair(int index, int count) {
+			this.index = index;
+			perturbation = new double[count];
+			signs = new int[count];
+		}
+	}
+}
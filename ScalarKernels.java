@@ -0,0 +1,40 @@
+package com.chess.nan.nnue;
+
+/**
+ * ScalarKernels are the plain Java network kernels (see NetworkKernels), used when the Vector API cannot be.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+class ScalarKernels extends NetworkKernels {
+
+	//Add the column one neuron at a time
+	@Override
+	void add(short[] values, short[] weights, int offset) {
+		for(int i = 0; i < Network.HIDDEN; ++i)
+			values[i] += weights[offset + i];
+	}
+
+	//Add the weights of each neuron above 0
+	@Override
+	void addActivations(short[] values, byte[] weights, int offset, int[] sums, int[] active) {
+		for(int i = 0; i < Network.HIDDEN; ++i) {
+			int a = Math.min(Network.QA, values[i]);
+
+			if(a <= 0) continue;
+
+			for(int j = 0, row = offset + i * Network.L1; j < Network.L1; ++j)
+				sums[j] += a * weights[row + j];
+		}
+	}
+
+	//Scalar kernels
+	@Override
+	String getName() { return "scalar"; }
+
+	//Subtract the column one neuron at a time
+	@Override
+	void subtract(short[] values, short[] weights, int offset) {
+		for(int i = 0; i < Network.HIDDEN; ++i)
+			values[i] -= weights[offset + i];
+	}
+}
@@ -0,0 +1,622 @@
+package com.chess.nan.search;
+
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * Search finds the NAN's best move in a position using an iterative deepening alpha-beta search with a transposition table, null move pruning, late move reductions,
+ * futility pruning and a quiescence search. All buffers are allocated when the search is created, so searching does not create objects. A search can be stopped from another
+ * thread with stop().
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class Search {
+
+	/** Maximum search depth (and ply). */
+	public static final int MAX_DEPTH = 64;
+	/** Score of a checkmate at the root. */
+	public static final int MATE = 30000;
+	/** Scores above this value are mate scores. */
+	public static final int MATE_BOUND = MATE - MAX_DEPTH;
+	/** Infinite score value. */
+	public static final int INFINITY = MATE + 1;
+
+	/** Default late move reduction (in plies). */
+	public static final int DEF_LMR_REDUCTION = 1;
+	/** Default number of moves searched before late move reductions start. */
+	public static final int DEF_LMR_MOVES = 3;
+	/** Default null move reduction (in plies). */
+	public static final int DEF_NULL_MOVE_REDUCTION = 2;
+	/** Default futility margin (in centipawns). */
+	public static final int DEF_FUTILITY_MARGIN = 200;
+
+	/** Number of nodes between time checks. */
+	private static final int CHECK_NODES = 2048;
+
+	/** Position being searched. */
+	private Position position;
+	/** Position evaluator. */
+	private Evaluator evaluator;
+	/** Transposition table. */
+	private TranspositionTable table;
+	/** Search listener. */
+	private SearchListener listener;
+	/** Move lists for each ply. */
+	private MoveList moves[];
+	/** Move ordering scores for each ply. */
+	private int moveScores[][];
+	/** Killer moves for each ply. */
+	private int killers[][];
+	/** History heuristic scores indexed by origin and destination space. */
+	private int history[][];
+	/** Principal variation table. */
+	private int pv[][];
+	/** Principal variation lengths. */
+	private int pvLength[];
+
+	/** Late move reduction. */
+	private int lmrReduction;
+	/** Moves searched before late move reductions start. */
+	private int lmrMoves;
+	/** Null move reduction. */
+	private int nullMoveReduction;
+	/** Futility margin. */
+	private int futilityMargin;
+
+	/** Stop flag. */
+	private volatile boolean stopped;
+	/** Nodes searched. */
+	private long nodes;
+	/** Node limit. */
+	private long nodeLimit;
+	/** Search start time in milliseconds. */
+	private long startTime;
+	/** Time limit in milliseconds. */
+	private long timeLimit;
+	/** Last completed depth. */
+	private int depth;
+	/** Score of the last completed depth. */
+	private int score;
+	/** Best move of the last completed depth. */
+	private int bestMove;
+	/** Principal variation of the last completed depth. */
+	private int bestLine[];
+	/** Principal variation length of the last completed depth. */
+	private int bestLineLength;
+
+	/**
+	 * Default constructor for the Search that creates a search with the default evaluator and transposition table size.
+	 */
+	public Search() {
+		this(new Evaluator(), TranspositionTable.DEF_SIZE_MB);
+	}
+
+	/**
+	 * Constructor for the Search that creates a search with the specified evaluator and transposition table size.
+	 * @param eval - the position evaluator
+	 * @param hashSize - the transposition table size in megabytes
+	 */
+	public Search(Evaluator eval, int hashSize) {
+		//Initialize variables
+		evaluator = eval;
+		table = new TranspositionTable(hashSize);
+		listener = null;
+		moves = new MoveList[MAX_DEPTH + 1];
+		moveScores = new int[MAX_DEPTH + 1][MoveList.MAX_MOVES];
+		killers = new int[MAX_DEPTH + 1][2];
+		history = new int[64][64];
+		pv = new int[MAX_DEPTH + 1][MAX_DEPTH + 1];
+		pvLength = new int[MAX_DEPTH + 1];
+		bestLine = new int[MAX_DEPTH + 1];
+		lmrReduction = DEF_LMR_REDUCTION;
+		lmrMoves = DEF_LMR_MOVES;
+		nullMoveReduction = DEF_NULL_MOVE_REDUCTION;
+		futilityMargin = DEF_FUTILITY_MARGIN;
+
+		for(int i = 0; i < moves.length; ++i)
+			moves[i] = new MoveList();
+	}
+
+	/**
+	 * Clears the transposition table and move ordering history, for example at the start of a new game.
+	 */
+	public void clear() {
+		table.clear();
+
+		for(int i = 0; i < history.length; ++i) {
+			for(int j = 0; j < history[i].length; ++j)
+				history[i][j] = 0;
+		}
+	}
+
+	/**
+	 * Returns the best move of the last completed iteration.
+	 * @return the encoded best move, or Move.NO_MOVE
+	 */
+	public int getBestMove() { return bestMove; }
+
+	/**
+	 * Returns the depth of the last completed iteration.
+	 * @return the depth
+	 */
+	public int getDepth() { return depth; }
+
+	/**
+	 * Returns the time elapsed since the search started.
+	 * @return the elapsed time in milliseconds
+	 */
+	public long getElapsedTime() { return System.currentTimeMillis() - startTime; }
+
+	/**
+	 * Returns the position evaluator.
+	 * @return the evaluator
+	 */
+	public Evaluator getEvaluator() { return evaluator; }
+
+	/**
+	 * Returns the futility margin.
+	 * @return the futility margin in centipawns
+	 */
+	public int getFutilityMargin() { return futilityMargin; }
+
+	/**
+	 * Returns the late move reduction.
+	 * @return the late move reduction in plies
+	 */
+	public int getLMRReduction() { return lmrReduction; }
+
+	/**
+	 * Returns the number of moves searched before late move reductions start.
+	 * @return the number of moves
+	 */
+	public int getLMRMoves() { return lmrMoves; }
+
+	/**
+	 * Returns the number of nodes searched.
+	 * @return the number of nodes
+	 */
+	public long getNodes() { return nodes; }
+
+	/**
+	 * Returns the null move reduction.
+	 * @return the null move reduction in plies
+	 */
+	public int getNullMoveReduction() { return nullMoveReduction; }
+
+	/**
+	 * Returns the move at the specified index of the principal variation of the last completed iteration.
+	 * @param index - the index of the move
+	 * @return the encoded move
+	 */
+	public int getPrincipalVariation(int index) {
+		if(index < 0 || index >= bestLineLength)
+			throw new IndexOutOfBoundsException("Principal variation index out of bounds");
+
+		return bestLine[index];
+	}
+
+	/**
+	 * Returns the length of the principal variation of the last completed iteration.
+	 * @return the principal variation length
+	 */
+	public int getPrincipalVariationLength() { return bestLineLength; }
+
+	/**
+	 * Returns the score of the last completed iteration.
+	 * @return the score in centipawns from the point of view of the side to move, or a mate score
+	 */
+	public int getScore() { return score; }
+
+	/**
+	 * Returns the transposition table.
+	 * @return the transposition table
+	 */
+	public TranspositionTable getTranspositionTable() { return table; }
+
+	/**
+	 * Returns if the specified score is a mate score.
+	 * @param score - the score
+	 * @return true if the score is a mate score, false otherwise
+	 */
+	public static boolean isMateScore(int score) { return Math.abs(score) > MATE_BOUND; }
+
+	/**
+	 * Searches the specified position within the specified limits and returns the best move. The position is searched in place and is restored when the search ends.
+	 * @param pos - the position to search
+	 * @param limits - the search limits
+	 * @return the encoded best move, or Move.NO_MOVE if there are no legal moves
+	 */
+	public int search(Position pos, SearchLimits limits) {
+		//Initialize search
+		position = pos;
+		stopped = false;
+		nodes = 0;
+		nodeLimit = limits.getNodes();
+		startTime = System.currentTimeMillis();
+		timeLimit = limits.allocateTime(pos.getTurn());
+		depth = 0;
+		score = 0;
+		bestMove = Move.NO_MOVE;
+		bestLineLength = 0;
+
+		for(int i = 0; i < killers.length; ++i) {
+			killers[i][0] = Move.NO_MOVE;
+			killers[i][1] = Move.NO_MOVE;
+		}
+
+		//Use the first legal move in case the search is stopped before depth 1 completes
+		pos.generateLegalMoves(moves[0]);
+
+		if(moves[0].isEmpty())
+			return Move.NO_MOVE;
+
+		bestMove = moves[0].get(0);
+
+		//Iterative deepening
+		int maxDepth = (limits.getDepth() == SearchLimits.UNLIMITED) ? MAX_DEPTH : Math.min(limits.getDepth(), MAX_DEPTH);
+
+		for(int d = 1; d <= maxDepth; ++d) {
+			int s = alphaBeta(d, -INFINITY, INFINITY, 0, false);
+
+			//Discard an iteration that was stopped before completing
+			if(stopped)
+				break;
+
+			//Save results of the completed iteration
+			depth = d;
+			score = s;
+
+			if(pvLength[0] > 0) {
+				bestMove = pv[0][0];
+				bestLineLength = pvLength[0];
+				System.arraycopy(pv[0], 0, bestLine, 0, bestLineLength);
+			}
+
+			if(listener != null) listener.iterationCompleted(this);
+
+			//Stop if a mate was found or there is not enough time for another iteration
+			if(!limits.isInfinite() && (isMateScore(s) || (timeLimit != SearchLimits.UNLIMITED && getElapsedTime() > timeLimit / 2)))
+				break;
+		}
+
+		//Return the best move
+		return bestMove;
+	}
+
+	/**
+	 * Sets the position evaluator used by the next search.
+	 * @param eval - the position evaluator
+	 */
+	public void setEvaluator(Evaluator eval) { evaluator = eval; }
+
+	/**
+	 * Sets the futility margin.
+	 * @param margin - the futility margin in centipawns
+	 */
+	public void setFutilityMargin(int margin) { futilityMargin = margin; }
+
+	/**
+	 * Sets the late move reduction.
+	 * @param reduction - the late move reduction in plies
+	 */
+	public void setLMRReduction(int reduction) { lmrReduction = reduction; }
+
+	/**
+	 * Sets the number of moves searched before late move reductions start.
+	 * @param moves - the number of moves
+	 */
+	public void setLMRMoves(int moves) { lmrMoves = moves; }
+
+	/**
+	 * Sets the null move reduction.
+	 * @param reduction - the null move reduction in plies
+	 */
+	public void setNullMoveReduction(int reduction) { nullMoveReduction = reduction; }
+
+	/**
+	 * Sets the search listener.
+	 * @param l - the search listener, or null
+	 */
+	public void setSearchListener(SearchListener l) { listener = l; }
+
+	/**
+	 * Stops the search. The best move of the last completed iteration is returned by search().
+	 */
+	public void stop() { stopped = true; }
+
+	/**
+	 * Searches the current position to the specified depth.
+	 * @param depth - the remaining depth
+	 * @param alpha - the lower score bound
+	 * @param beta - the upper score bound
+	 * @param ply - the distance from the root
+	 * @param nullMoved - true if the last move was a null move
+	 * @return the score of the position
+	 */
+	private int alphaBeta(int depth, int alpha, int beta, int ply, boolean nullMoved) {
+		//Initialize variables
+		pvLength[ply] = 0;
+		boolean root = (ply == 0);
+		boolean pvNode = (beta - alpha) > 1;
+
+		//Check for draws and maximum ply
+		if(!root && position.isDraw()) return 0;
+		if(ply >= MAX_DEPTH) return evaluator.evaluate(position);
+
+		boolean inCheck = position.isInCheck();
+
+		//Extend checks
+		if(inCheck) depth++;
+
+		//Drop into the quiescence search at the horizon
+		if(depth <= 0) return quiescence(alpha, beta, ply);
+
+		if(countNode()) return 0;
+
+		//Probe the transposition table
+		long entry = table.probe(position.getKey());
+		int hashMove = Move.NO_MOVE;
+
+		if(entry != 0L) {
+			hashMove = TranspositionTable.getMove(entry);
+
+			if(!pvNode && TranspositionTable.getDepth(entry) >= depth) {
+				int s = fromTable(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+
+				if(bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && s >= beta) || (bound == TranspositionTable.UPPER && s <= alpha))
+					return s;
+			}
+		}
+
+		int staticEval = inCheck ? -INFINITY : evaluator.evaluate(position);
+
+		//Null move pruning
+		if(!pvNode && !inCheck && !nullMoved && depth >= 3 && staticEval >= beta && hasPieces()) {
+			position.makeNullMove();
+			int s = -alphaBeta(depth - 1 - nullMoveReduction, -beta, -beta + 1, ply + 1, true);
+			position.unmakeNullMove();
+
+			if(stopped) return 0;
+			if(s >= beta) return beta;
+		}
+
+		//Generate and score moves
+		MoveList list = moves[ply];
+		position.generateMoves(list);
+		scoreMoves(list, ply, hashMove);
+
+		int bestScore = -INFINITY;
+		int best = Move.NO_MOVE;
+		int originalAlpha = alpha;
+		int legal = 0;
+		boolean futile = !pvNode && !inCheck && depth == 1 && staticEval + futilityMargin <= alpha;
+
+		for(int i = 0; i < list.size(); ++i) {
+			int move = pickMove(list, ply, i);
+			boolean quiet = !position.isCapture(move) && Move.getPromotion(move) == Move.PROMOTE_NONE;
+
+			//Skip quiet moves that cannot raise alpha
+			if(futile && quiet && legal > 0)
+				continue;
+
+			if(!position.makeMove(move))
+				continue;
+
+			legal++;
+			int s;
+
+			//Search the first move with a full window
+			if(legal == 1) {
+				s = -alphaBeta(depth - 1, -beta, -alpha, ply + 1, false);
+			}
+			else {
+				//Reduce late quiet moves
+				int reduction = (depth >= 3 && legal > lmrMoves && quiet && !inCheck && !position.isInCheck()) ? lmrReduction : 0;
+				s = -alphaBeta(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, false);
+
+				//Search again if the reduced or null window search raised alpha
+				if(s > alpha && (reduction > 0 || s < beta))
+					s = -alphaBeta(depth - 1, -beta, -alpha, ply + 1, false);
+			}
+
+			position.unmakeMove();
+
+			if(stopped) return 0;
+
+			//Update best move
+			if(s > bestScore) {
+				bestScore = s;
+				best = move;
+
+				if(s > alpha) {
+					alpha = s;
+					updatePrincipalVariation(ply, move);
+
+					//Beta cutoff
+					if(alpha >= beta) {
+						if(quiet) {
+							if(killers[ply][0] != move) {
+								killers[ply][1] = killers[ply][0];
+								killers[ply][0] = move;
+							}
+
+							history[Move.getFrom(move)][Move.getTo(move)] += depth * depth;
+						}
+
+						break;
+					}
+				}
+			}
+		}
+
+		//Checkmate or stalemate
+		if(legal == 0)
+			return inCheck ? -MATE + ply : 0;
+
+		//Store result in the transposition table
+		int bound = (bestScore >= beta) ? TranspositionTable.LOWER : ((alpha > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER);
+		table.store(position.getKey(), best, toTable(bestScore, ply), depth, bound);
+
+		return bestScore;
+	}
+
+	/**
+	 * Counts a searched node and checks the node and time limits.
+	 * @return true if the search must stop, false otherwise
+	 */
+	private boolean countNode() {
+		nodes++;
+
+		if(nodeLimit != SearchLimits.UNLIMITED && nodes >= nodeLimit)
+			stopped = true;
+		else if((nodes % CHECK_NODES) == 0 && timeLimit != SearchLimits.UNLIMITED && getElapsedTime() >= timeLimit)
+			stopped = true;
+
+		return stopped;
+	}
+
+	/**
+	 * Converts a score read from the transposition table to a score relative to the root.
+	 * @param s - the stored score
+	 * @param ply - the distance from the root
+	 * @return the score
+	 */
+	private static int fromTable(int s, int ply) {
+		if(s > MATE_BOUND) return s - ply;
+		if(s < -MATE_BOUND) return s + ply;
+		return s;
+	}
+
+	/**
+	 * Returns if the side to move has any pieces other than pawns and its king (null move pruning is unsafe in pawn endings).
+	 * @return true if the side to move has pieces, false otherwise
+	 */
+	private boolean hasPieces() {
+		boolean color = position.getTurn();
+		return (position.getColorBits(color) & ~position.getPieceBits(Position.createPiece(Position.PAWN, color)) &
+				~position.getPieceBits(Position.createPiece(Position.KING, color))) != 0L;
+	}
+
+	/**
+	 * Selects the highest scoring remaining move and swaps it into the specified index.
+	 * @param list - the move list
+	 * @param ply - the distance from the root
+	 * @param index - the index to fill
+	 * @return the selected move
+	 */
+	private int pickMove(MoveList list, int ply, int index) {
+		int scores[] = moveScores[ply];
+		int best = index;
+
+		for(int i = index + 1; i < list.size(); ++i) {
+			if(scores[i] > scores[best]) best = i;
+		}
+
+		if(best != index) {
+			list.swap(index, best);
+			int s = scores[index];
+			scores[index] = scores[best];
+			scores[best] = s;
+		}
+
+		return list.get(index);
+	}
+
+	/**
+	 * Searches captures until the position is quiet.
+	 * @param alpha - the lower score bound
+	 * @param beta - the upper score bound
+	 * @param ply - the distance from the root
+	 * @return the score of the position
+	 */
+	private int quiescence(int alpha, int beta, int ply) {
+		pvLength[ply] = 0;
+
+		if(countNode()) return 0;
+
+		//Stand pat
+		int standPat = evaluator.evaluate(position);
+
+		if(ply >= MAX_DEPTH || standPat >= beta) return standPat;
+		if(standPat > alpha) alpha = standPat;
+
+		//Search captures
+		MoveList list = moves[ply];
+		position.generateCaptures(list);
+		scoreMoves(list, ply, Move.NO_MOVE);
+
+		for(int i = 0; i < list.size(); ++i) {
+			int move = pickMove(list, ply, i);
+
+			if(!position.makeMove(move))
+				continue;
+
+			int s = -quiescence(-beta, -alpha, ply + 1);
+			position.unmakeMove();
+
+			if(stopped) return 0;
+
+			if(s > alpha) {
+				alpha = s;
+				if(alpha >= beta) break;
+			}
+		}
+
+		return alpha;
+	}
+
+	/**
+	 * Scores moves for ordering: the transposition table move first, then captures by most valuable victim and least valuable attacker, then killer moves and history.
+	 * @param list - the move list
+	 * @param ply - the distance from the root
+	 * @param hashMove - the transposition table move
+	 */
+	private void scoreMoves(MoveList list, int ply, int hashMove) {
+		int scores[] = moveScores[ply];
+
+		for(int i = 0; i < list.size(); ++i) {
+			int move = list.get(i);
+			int from = Move.getFrom(move);
+			int to = Move.getTo(move);
+
+			if(move == hashMove)
+				scores[i] = 1 << 30;
+			else if(position.isCapture(move))
+				scores[i] = (1 << 20) + (Evaluator.MATERIAL[position.getPiece(to) & Position.PIECE_TYPE_MASK] * 8) - (position.getPiece(from) & Position.PIECE_TYPE_MASK);
+			else if(Move.getPromotion(move) == Move.PROMOTE_QUEEN)
+				scores[i] = 1 << 19;
+			else if(move == killers[ply][0])
+				scores[i] = 1 << 18;
+			else if(move == killers[ply][1])
+				scores[i] = (1 << 18) - 1;
+			else
+				scores[i] = Math.min(history[from][to], (1 << 18) - 2);
+		}
+	}
+
+	/**
+	 * Converts a score relative to the root to a score stored in the transposition table.
+	 * @param s - the score
+	 * @param ply - the distance from the root
+	 * @return the stored score
+	 */
+	private static int toTable(int s, int ply) {
+		if(s > MATE_BOUND) return s + ply;
+		if(s < -MATE_BOUND) return s - ply;
+		return s;
+	}
+
+	/**
+	 * Updates the principal variation at the specified ply with the specified move followed by the principal variation of the next ply.
+	 * @param ply - the distance from the root
+	 * @param move - the best move
+	 */
+	private void updatePrincipalVariation(int ply, int move) {
+		pv[ply][0] = move;
+		int length = (ply + 1 <= MAX_DEPTH) ? pvLength[ply + 1] : 0;
+		System.arraycopy(pv[ply + 1], 0, pv[ply], 1, Math.min(length, MAX_DEPTH - 1));
+		pvLength[ply] = Math.min(length, MAX_DEPTH - 1) + 1;
+	}
+}
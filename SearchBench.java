@@ -0,0 +1,253 @@
+package com.chess.nan.search;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+
+/**
+ * SearchBench is the NAN's bench: it searches a fixed list of positions to a fixed depth with one alpha-beta Search and the hand-written Evaluator, clearing the search
+ * before each position, and prints the total number of nodes and the nodes per second. The search is single threaded and its depth limited iterations do not depend on
+ * the clock, so the node count is the same on every machine and every run: it is a signature of the search's behavior, and a change that alters it is a functional change.
+ * The nodes per second measure the speed of the search and move generation. Before searching, the bench also walks the legal moves of every position to PERFT_DEPTH
+ * plies with Position's move generation (perft), and its leaf count checks the move generator.
+ * <p>
+ * The bench also measures the heap memory the move generation walk and the searches allocate (where the JVM can count a thread's allocations). Both allocate nothing per
+ * node, so after a warm-up of each, each must stay within ALLOCATION_BUDGET bytes; main exits with an error status when either does not, so an allocation in move
+ * generation or the search fails the bench instead of showing up later as garbage collection pauses. The repo has no test suite, so the bench is the check: run it
+ * (SearchBench, or "UCIEngine bench") before committing a change to move generation, the search or the evaluator, and treat a non-zero exit status or a changed node
+ * count as a failure.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class SearchBench {
+
+	/** Default search depth. */
+	public static final int DEF_DEPTH = 7;
+	/** Transposition table size in megabytes. */
+	public static final int HASH_MB = 16;
+	/** Depth of the move generation walk (perft) of each position. */
+	public static final int PERFT_DEPTH = 3;
+	/** Most heap memory the bench's move generation walk, and its searches, may each allocate in bytes. */
+	public static final long ALLOCATION_BUDGET = 16 * 1024;
+
+	/** Bench positions (openings, middle games and endings, with both sides to move). */
+	public static final String POSITIONS[] = {
+		Position.START_FEN,
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 10",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 11",
+		"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+		"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+		"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+		"r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+		"r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R1BQKB1R w KQ - 0 8",
+		"r1b2rk1/2q1bppp/p2p1n2/np2p3/3PP3/5N1P/PPBN1PP1/R1BQR1K1 w - - 0 13",
+		"4rrk1/pp1n3p/3q2pQ/2p1pb2/2PP4/2P3N1/P2B2PP/4RRK1 b - - 7 19",
+		"r3r1k1/2p2ppp/p1p1bn2/8/1q2P3/2NPQN2/PPP3PP/R4RK1 b - - 2 15",
+		"2r3k1/pp3ppp/2n1b3/3p4/3P4/2PB1N2/P4PPP/4R1K1 w - - 0 20",
+		"6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1",
+		"8/5pk1/6p1/7p/7P/6P1/5PK1/8 w - - 0 40",
+		"8/8/4k3/3p4/3P4/4K3/8/8 w - - 0 1",
+		"8/8/8/8/5kp1/P7/8/1K1N4 w - - 0 1"
+	};
+
+	/** Thread bean that measures allocation, or null if the JVM does not provide one. */
+	private static final com.sun.management.ThreadMXBean THREADS = (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)
+			? (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean() : null;
+
+	/** Search depth. */
+	private int depth;
+	/** Total number of nodes searched. */
+	private long nodes;
+	/** Total search time in nanoseconds. */
+	private long time;
+	/** Heap memory allocated by the searches in bytes, or -1 if it cannot be measured. */
+	private long allocated;
+	/** Total number of leaf nodes of the move generation walk. */
+	private long perftNodes;
+	/** Heap memory allocated by the move generation walk in bytes, or -1 if it cannot be measured. */
+	private long perftAllocated;
+
+	/**
+	 * Constructor for SearchBench that searches to the specified depth.
+	 * @param depth - the search depth
+	 */
+	public SearchBench(int depth) {
+		//Initialize variables
+		this.depth = depth;
+		nodes = 0;
+		time = 0;
+		allocated = -1;
+		perftNodes = 0;
+		perftAllocated = -1;
+	}
+
+	/**
+	 * Returns the heap memory allocated by the searches of the last run.
+	 * @return the allocated bytes, or -1 if the JVM cannot measure a thread's allocations
+	 */
+	public long getAllocatedBytes() { return allocated; }
+
+	/**
+	 * Returns the heap memory allocated by the move generation walk of the last run.
+	 * @return the allocated bytes, or -1 if the JVM cannot measure a thread's allocations
+	 */
+	public long getMoveGenAllocatedBytes() { return perftAllocated; }
+
+	/**
+	 * Returns the total number of leaf nodes of the move generation walk of the last run.
+	 * @return the number of leaf nodes
+	 */
+	public long getMoveGenNodes() { return perftNodes; }
+
+	/**
+	 * Returns the total number of nodes searched in the last run (the bench signature).
+	 * @return the number of nodes
+	 */
+	public long getNodes() { return nodes; }
+
+	/**
+	 * Returns the total search time of the last run.
+	 * @return the time in milliseconds
+	 */
+	public long getTime() { return time / 1000000; }
+
+	/**
+	 * Program entry point method that runs the bench. The optional argument is the search depth. Exits with status 1 if the move generation walk or the searches
+	 * allocated more than ALLOCATION_BUDGET bytes.
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		SearchBench bench;
+
+		try {
+			bench = new SearchBench((args.length > 0) ? Integer.parseInt(args[0]) : DEF_DEPTH);
+		} catch (NumberFormatException e) {
+			System.err.println("Usage: SearchBench [depth]");
+			System.exit(2);
+			return;
+		}
+
+		bench.run(System.out);
+
+		if(bench.getMoveGenAllocatedBytes() > ALLOCATION_BUDGET) {
+			System.err.println("Move generation allocated " + bench.getMoveGenAllocatedBytes() + " bytes, over the budget of " + ALLOCATION_BUDGET);
+			System.exit(1);
+		}
+
+		if(bench.getAllocatedBytes() > ALLOCATION_BUDGET) {
+			System.err.println("Search allocated " + bench.getAllocatedBytes() + " bytes, over the budget of " + ALLOCATION_BUDGET);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Walks the legal moves of every bench position and searches every bench position, printing each position's result and then the total nodes, nodes per second and
+	 * allocated memory.
+	 * @param out - the stream to print to
+	 */
+	public void run(PrintStream out) {
+		//Initialize variables
+		Search search = new Search(new Evaluator(), HASH_MB);
+		SearchLimits limits = new SearchLimits();
+		Position position = new Position();
+		MoveList moves[] = new MoveList[PERFT_DEPTH];
+		boolean measured = allocatedBytes() >= 0;
+
+		nodes = 0;
+		time = 0;
+		allocated = measured ? 0 : -1;
+		perftNodes = 0;
+		perftAllocated = measured ? 0 : -1;
+
+		for(int i = 0; i < moves.length; ++i)
+			moves[i] = new MoveList();
+
+		//Walk the legal moves of every position twice, counting the second walk, so one-time class initialization is not counted as allocation
+		for(int pass = 0; pass < 2; ++pass) {
+			for(int i = 0; i < POSITIONS.length; ++i) {
+				position.setFEN(POSITIONS[i]);
+
+				long bytes = allocatedBytes();
+				long count = perft(position, moves, PERFT_DEPTH);
+
+				if(pass == 1 && measured) perftAllocated += allocatedBytes() - bytes;
+				if(pass == 1) perftNodes += count;
+			}
+		}
+
+		//Search every position to depth 1 first, so one-time class initialization is not counted as allocation
+		limits.setDepth(1);
+
+		for(int i = 0; i < POSITIONS.length; ++i) {
+			position.setFEN(POSITIONS[i]);
+			search.search(position, limits);
+		}
+
+		limits.setDepth(depth);
+
+		for(int i = 0; i < POSITIONS.length; ++i) {
+			//Search each position from an empty transposition table
+			position.setFEN(POSITIONS[i]);
+			search.clear();
+
+			long bytes = allocatedBytes();
+			long start = System.nanoTime();
+			int move = search.search(position, limits);
+
+			time += System.nanoTime() - start;
+			nodes += search.getNodes();
+
+			if(measured) allocated += allocatedBytes() - bytes;
+
+			out.printf("Position %d/%d: depth %d, score %d, nodes %d, best move %s%n", i + 1, POSITIONS.length, search.getDepth(), search.getScore(), search.getNodes(),
+					(move == Move.NO_MOVE) ? "none" : Move.toNotation(move));
+		}
+
+		out.println("===========================");
+		out.printf("Total time (ms) : %d%n", getTime());
+		out.printf("Nodes searched  : %d%n", nodes);
+		out.printf("Nodes/second    : %d%n", (long)(nodes * 1e9 / Math.max(1, time)));
+		out.printf("Search bytes    : %s (budget %d)%n", measured ? Long.toString(allocated) : "not measured", ALLOCATION_BUDGET);
+		out.printf("Perft nodes     : %d (depth %d)%n", perftNodes, PERFT_DEPTH);
+		out.printf("Perft bytes     : %s (budget %d)%n", measured ? Long.toString(perftAllocated) : "not measured", ALLOCATION_BUDGET);
+	}
+
+	/**
+	 * Counts the leaf nodes of the legal move tree of the specified position to the specified depth, using one move list per ply.
+	 * @param position - the position (restored when the walk ends)
+	 * @param moves - the move lists (at least depth of them)
+	 * @param depth - the depth in plies (1 or more)
+	 * @return the number of leaf nodes
+	 */
+	private static long perft(Position position, MoveList moves[], int depth) {
+		//Initialize variables
+		MoveList list = moves[depth - 1];
+		long count = 0;
+
+		position.generateLegalMoves(list);
+
+		if(depth == 1)
+			return list.size();
+
+		//Count the leaves after each move
+		for(int i = 0; i < list.size(); ++i) {
+			position.makeMove(list.get(i));
+			count += perft(position, moves, depth - 1);
+			position.unmakeMove();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the heap memory allocated by the current thread so far.
+	 * @return the allocated bytes, or -1 if the JVM cannot measure them
+	 */
+	private static long allocatedBytes() {
+		return (THREADS != null && THREADS.isThreadAllocatedMemoryEnabled()) ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+	}
+}
@@ -0,0 +1,150 @@
+package com.chess.nan.search;
+
+/**
+ * SearchLimits contains the limits of a single NAN search: a maximum depth, a maximum number of nodes, a fixed move time and/or the remaining clock times of both players.
+ * Limits that are not set are unlimited.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class SearchLimits {
+
+	/** Unlimited value. */
+	public static final int UNLIMITED = 0;
+
+	/** Maximum search depth. */
+	private int depth;
+	/** Maximum number of nodes. */
+	private long nodes;
+	/** Fixed move time in milliseconds. */
+	private long moveTime;
+	/** White's remaining time in milliseconds. */
+	private long whiteTime;
+	/** Black's remaining time in milliseconds. */
+	private long blackTime;
+	/** White's time increment in milliseconds. */
+	private long whiteIncrement;
+	/** Black's time increment in milliseconds. */
+	private long blackIncrement;
+	/** Number of moves until the next time control. */
+	private int movesToGo;
+	/** Search until stopped flag. */
+	private boolean infinite;
+
+	/**
+	 * Default constructor for the SearchLimits that sets every limit to unlimited.
+	 */
+	public SearchLimits() {
+		//Initialize variables
+		depth = UNLIMITED;
+		nodes = UNLIMITED;
+		moveTime = UNLIMITED;
+		whiteTime = UNLIMITED;
+		blackTime = UNLIMITED;
+		whiteIncrement = 0;
+		blackIncrement = 0;
+		movesToGo = 0;
+		infinite = false;
+	}
+
+	/**
+	 * Returns the time to spend on a move by the specified color, or UNLIMITED if the search has no time limit.
+	 * @param color - the color of the side to move
+	 * @return the time to spend in milliseconds, or UNLIMITED
+	 */
+	public long allocateTime(boolean color) {
+		//Fixed move time or no time limit
+		if(infinite) return UNLIMITED;
+		if(moveTime > 0) return moveTime;
+
+		long time = color ? whiteTime : blackTime;
+		long inc = color ? whiteIncrement : blackIncrement;
+
+		if(time <= 0) return UNLIMITED;
+
+		//Split the remaining time between the remaining moves and keep a safety margin
+		long budget = (time / ((movesToGo > 0) ? movesToGo + 1 : 30)) + ((inc * 3) / 4);
+		return Math.max(1, Math.min(budget, (time / 2) - 50));
+	}
+
+	/**
+	 * Returns the maximum search depth.
+	 * @return the maximum search depth, or UNLIMITED
+	 */
+	public int getDepth() { return depth; }
+
+	/**
+	 * Returns the maximum number of nodes.
+	 * @return the maximum number of nodes, or UNLIMITED
+	 */
+	public long getNodes() { return nodes; }
+
+	/**
+	 * Returns if the search runs until it is stopped.
+	 * @return true if the search is infinite, false otherwise
+	 */
+	public boolean isInfinite() { return infinite; }
+
+	/**
+	 * Sets the time remaining on black's clock.
+	 * @param time - the remaining time in milliseconds
+	 */
+	public void setBlackTime(long time) { blackTime = time; }
+
+	/**
+	 * Sets black's time increment.
+	 * @param inc - the time increment in milliseconds
+	 */
+	public void setBlackIncrement(long inc) { blackIncrement = inc; }
+
+	/**
+	 * Sets the maximum search depth.
+	 * @param depth - the maximum depth, or UNLIMITED
+	 */
+	public void setDepth(int depth) {
+		if(depth < 0)
+			throw new IllegalArgumentException("Search depth cannot be less than 0");
+
+		this.depth = depth;
+	}
+
+	/**
+	 * Sets if the search runs until it is stopped.
+	 * @param infinite - the infinite flag
+	 */
+	public void setInfinite(boolean infinite) { this.infinite = infinite; }
+
+	/**
+	 * Sets the number of moves until the next time control.
+	 * @param moves - the number of moves, or 0 if the rest of the game must be played in the remaining time
+	 */
+	public void setMovesToGo(int moves) { movesToGo = moves; }
+
+	/**
+	 * Sets a fixed time to search.
+	 * @param time - the move time in milliseconds, or UNLIMITED
+	 */
+	public void setMoveTime(long time) { moveTime = time; }
+
+	/**
+	 * Sets the maximum number of nodes.
+	 * @param nodes - the maximum number of nodes, or UNLIMITED
+	 */
+	public void setNodes(long nodes) {
+		if(nodes < 0)
+			throw new IllegalArgumentException("Search nodes cannot be less than 0");
+
+		this.nodes = nodes;
+	}
+
+	/**
+	 * Sets the time remaining on white's clock.
+	 * @param time - the remaining time in milliseconds
+	 */
+	public void setWhiteTime(long time) { whiteTime = time; }
+
+	/**
+	 * Sets white's time increment.
+	 * @param inc - the time increment in milliseconds
+	 */
+	public void setWhiteIncrement(long inc) { whiteIncrement = inc; }
+}
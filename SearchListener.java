@@ -0,0 +1,17 @@
+package com.chess.nan.search;
+
+import java.util.EventListener;
+
+/**
+ * SearchListener is an interface implemented by objects to receive progress of a NAN search.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public interface SearchListener extends EventListener {
+
+	/**
+	 * Informs listening objects that the search completed an iteration. The search's depth, score, node count and principal variation describe the completed iteration.
+	 * @param search - the search that completed the iteration
+	 */
+	public void iterationCompleted(Search search);
+}
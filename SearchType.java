@@ -0,0 +1,83 @@
+package com.chess.nan.search;
+
+/**
+ * SearchType lists the kinds of search the NAN can play with: the alpha-beta Search, or the MonteCarloSearch guided by the evaluator. A game, engine configuration or UCI
+ * session picks one and creates its searches with createSearch.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public enum SearchType {
+
+	/** Alpha-beta search (Search). */
+	ALPHA_BETA("AlphaBeta", "Alpha-Beta"),
+	/** PUCT Monte Carlo tree search (MonteCarloSearch). */
+	MONTE_CARLO("MonteCarlo", "Monte Carlo");
+
+	/** Name used by options and configurations. */
+	private final String optionName;
+	/** Name shown to players. */
+	private final String displayName;
+
+	/**
+	 * Constructor for SearchType.
+	 * @param optionName - the name used by options and configurations
+	 * @param displayName - the name shown to players
+	 */
+	private SearchType(String optionName, String displayName) {
+		this.optionName = optionName;
+		this.displayName = displayName;
+	}
+
+	/**
+	 * Creates a new search of this type.
+	 * @param eval - the position evaluator
+	 * @param hashSize - the memory for the search in megabytes (the transposition table, or the Monte Carlo tree)
+	 * @return the new search
+	 */
+	public Search createSearch(Evaluator eval, int hashSize) {
+		return (this == MONTE_CARLO) ? new MonteCarloSearch(eval, hashSize) : new Search(eval, hashSize);
+	}
+
+	/**
+	 * Returns the name shown to players.
+	 * @return the display name
+	 */
+	public String getDisplayName() { return displayName; }
+
+	/**
+	 * Returns the name used by options and configurations.
+	 * @return the option name
+	 */
+	public String getOptionName() { return optionName; }
+
+	/**
+	 * Returns the names shown to players of every search type, in declaration order.
+	 * @return the display names
+	 */
+	public static String[] displayNames() {
+		//Initialize variables
+		SearchType types[] = values();
+		String names[] = new String[types.length];
+
+		for(int i = 0; i < types.length; ++i)
+			names[i] = types[i].displayName;
+
+		return names;
+	}
+
+	/**
+	 * Returns the search type with the specified option name (ignoring case). "ab" and "mcts" are accepted as short names.
+	 * @param name - the option name
+	 * @return the search type
+	 */
+	public static SearchType parse(String name) {
+		if(name.equalsIgnoreCase("ab")) return ALPHA_BETA;
+		if(name.equalsIgnoreCase("mcts")) return MONTE_CARLO;
+
+		for(SearchType type : values()) {
+			if(type.optionName.equalsIgnoreCase(name)) return type;
+		}
+
+		throw new IllegalArgumentException("Unknown search type " + name);
+	}
+}
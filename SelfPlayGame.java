@@ -0,0 +1,307 @@
+package com.chess.selfplay;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import com.chess.ChessBoard;
+import com.chess.ChessBoard.GameState;
+import com.chess.Move;
+import com.chess.MoveList;
+import com.chess.Position;
+import com.chess.nan.search.Search;
+import com.chess.nan.search.SearchLimits;
+
+/**
+ * SelfPlayGame plays one headless NAN vs NAN game on its own ChessBoard. The game's thread only makes moves and keeps the virtual clock, every search is run on a shared
+ * CPU pool, so games can be run on virtual threads that wait cheaply while their searches are queued.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class SelfPlayGame {
+
+	/** Default maximum number of plies before a game is adjudicated a draw. */
+	public static final int DEF_MAX_PLIES = 500;
+
+	/** White wins result value. */
+	public static final String WHITE_WINS = "1-0";
+	/** Black wins result value. */
+	public static final String BLACK_WINS = "0-1";
+	/** Draw result value. */
+	public static final String DRAW = "1/2-1/2";
+
+	/** The chess board the game is played on (white is the player, so chess board spaces are position spaces). */
+	private ChessBoard board;
+	/** White's search. */
+	private Search white;
+	/** Black's search. */
+	private Search black;
+	/** The game's virtual clock. */
+	private VirtualClock clock;
+	/** CPU pool that runs searches. */
+	private ExecutorService cpuPool;
+	/** Opening moves (in coordinate notation) played before any random or searched moves. */
+	private String[] opening;
+	/** Number of random opening plies. */
+	private int randomPlies;
+	/** Random opening seed. */
+	private long seed;
+	/** Maximum number of plies. */
+	private int maxPlies;
+	/** Moves played (in coordinate notation). */
+	private StringBuilder moves;
+	/** Number of plies played. */
+	private int plies;
+	/** Total nodes searched. */
+	private long nodes;
+	/** Game result. */
+	private String result;
+	/** How the game ended. */
+	private String termination;
+	/** Listener informed of searched positions, or null. */
+	private SelfPlayListener listener;
+
+	/**
+	 * Constructor for SelfPlayGame that plays the specified searches against each other on the specified virtual clock. Searches are submitted to the specified CPU pool.
+	 * @param white - white's search
+	 * @param black - black's search
+	 * @param clock - the game's virtual clock
+	 * @param cpuPool - the CPU pool that runs searches
+	 */
+	public SelfPlayGame(Search white, Search black, VirtualClock clock, ExecutorService cpuPool) {
+		//Initialize variables
+		board = new ChessBoard();
+		this.white = white;
+		this.black = black;
+		this.clock = clock;
+		this.cpuPool = cpuPool;
+		opening = new String[0];
+		randomPlies = 0;
+		seed = 0;
+		maxPlies = DEF_MAX_PLIES;
+		moves = new StringBuilder();
+		plies = 0;
+		nodes = 0;
+		result = null;
+		termination = null;
+		listener = null;
+	}
+
+	/**
+	 * Returns the chess board the game is played on.
+	 * @return the chess board
+	 */
+	public ChessBoard getChessBoard() { return board; }
+
+	/**
+	 * Returns the moves played in coordinate notation, separated by spaces.
+	 * @return the moves played
+	 */
+	public String getMoves() { return moves.toString(); }
+
+	/**
+	 * Returns the total number of nodes searched by both players.
+	 * @return the number of nodes searched
+	 */
+	public long getNodes() { return nodes; }
+
+	/**
+	 * Returns the number of plies played.
+	 * @return the number of plies played
+	 */
+	public int getPlies() { return plies; }
+
+	/**
+	 * Returns the game result (WHITE_WINS, BLACK_WINS or DRAW), or null if the game has not been played.
+	 * @return the game result
+	 */
+	public String getResult() { return result; }
+
+	/**
+	 * Returns how the game ended, or null if the game has not been played.
+	 * @return how the game ended
+	 */
+	public String getTermination() { return termination; }
+
+	/**
+	 * Plays the game to the end. The calling thread waits on the CPU pool for each search.
+	 * @return the game result (WHITE_WINS, BLACK_WINS or DRAW)
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for a search
+	 */
+	public String play() throws InterruptedException {
+		//Initialize variables
+		SplittableRandom random = new SplittableRandom(seed);
+
+		//Start a new game
+		board.newGame(ChessBoard.WHITE);
+		board.resumeGame();
+		clock.reset();
+
+		//Play the opening
+		for(int i = 0; i < opening.length && board.getGameState() == GameState.PLAYING; ++i) {
+			int move = Move.parseNotation(opening[i], board.getLegalMoveList());
+
+			if(move == Move.NO_MOVE)
+				throw new IllegalArgumentException("SelfPlayGame: illegal opening move " + opening[i]);
+
+			makeMove(move);
+		}
+
+		//Play random opening moves
+		for(int i = 0; i < randomPlies && board.getGameState() == GameState.PLAYING; ++i) {
+			MoveList legal = board.getLegalMoveList();
+			makeMove(legal.get(random.nextInt(legal.size())));
+		}
+
+		//Play searched moves until the game ends
+		while(board.getGameState() == GameState.PLAYING) {
+			//Adjudicate long games as draws
+			if(plies >= maxPlies) {
+				result = DRAW;
+				termination = "max plies";
+				end();
+				return result;
+			}
+
+			//Search the current position on the CPU pool
+			boolean turn = board.getTurn();
+			Search search = (turn == ChessBoard.WHITE) ? white : black;
+			Position position = new Position(board.getPosition());
+			int move = search(search, position, clock.createLimits(turn));
+
+			nodes += search.getNodes();
+
+			if(listener != null) listener.positionSearched(this, position, move, search.getScore());
+
+			//Charge the search to the clock
+			if(!clock.charge(turn, search.getNodes())) {
+				result = (turn == ChessBoard.WHITE) ? BLACK_WINS : WHITE_WINS;
+				termination = "time forfeit";
+				end();
+				return result;
+			}
+
+			makeMove(move);
+		}
+
+		//Record the result of a game that ended on the board
+		finish();
+		end();
+		return result;
+	}
+
+	/**
+	 * Sets the listener informed of the positions searched during the game.
+	 * @param l - the listener, or null
+	 */
+	public void setListener(SelfPlayListener l) { listener = l; }
+
+	/**
+	 * Sets the maximum number of plies before the game is adjudicated a draw.
+	 * @param plies - the maximum number of plies
+	 */
+	public void setMaxPlies(int plies) {
+		if(plies <= 0)
+			throw new IllegalArgumentException("SelfPlayGame: maximum plies must be positive");
+
+		maxPlies = plies;
+	}
+
+	/**
+	 * Sets the opening moves played at the start of the game, before any random opening moves.
+	 * @param moves - the opening moves in coordinate notation, separated by spaces (for example "e2e4 e7e5")
+	 */
+	public void setOpening(String moves) {
+		opening = moves.trim().isEmpty() ? new String[0] : moves.trim().split("\\s+");
+	}
+
+	/**
+	 * Sets the number of random moves played at the start of the game, so games from the same searches are not all the same.
+	 * @param plies - the number of random opening plies
+	 * @param seed - the random seed
+	 */
+	public void setRandomOpening(int plies, long seed) {
+		if(plies < 0)
+			throw new IllegalArgumentException("SelfPlayGame: random plies cannot be negative");
+
+		randomPlies = plies;
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the game as a single line record: result, termination, number of plies and the moves in coordinate notation.
+	 * @return the game record
+	 */
+	@Override
+	public String toString() {
+		return result + " \"" + termination + "\" " + plies + " " + moves;
+	}
+
+	/**
+	 * Informs the listener that the game ended.
+	 */
+	private void end() {
+		if(listener != null) listener.gameEnded(this);
+	}
+
+	/**
+	 * Sets the result and termination of a game that ended on the chess board.
+	 */
+	private void finish() {
+		//Initialize variables
+		Position position = board.getPosition();
+
+		switch(board.getGameState()) {
+		case PLAYER_WINS:
+			result = WHITE_WINS;
+			termination = "checkmate";
+			break;
+		case NAN_WINS:
+			result = BLACK_WINS;
+			termination = "checkmate";
+			break;
+		default:
+			result = DRAW;
+
+			if(board.getLegalMoveList().isEmpty()) termination = "stalemate";
+			else if(position.getHalfMoves() >= 100) termination = "fifty moves";
+			else if(position.isInsufficientMaterial()) termination = "insufficient material";
+			else termination = "repetition";
+		}
+	}
+
+	/**
+	 * Makes the specified move on the chess board and records it.
+	 * @param move - the encoded move
+	 */
+	private void makeMove(int move) {
+		if(!board.submitMove(move))
+			throw new IllegalStateException("SelfPlayGame: search returned an illegal move " + Move.toNotation(move));
+
+		if(plies > 0) moves.append(' ');
+		moves.append(Move.toNotation(move));
+		plies++;
+	}
+
+	/**
+	 * Runs the specified search on the CPU pool and waits for its best move.
+	 * @param search - the search to run
+	 * @param position - the position to search
+	 * @param limits - the search limits
+	 * @return the best move
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	private int search(Search search, Position position, SearchLimits limits) throws InterruptedException {
+		try {
+			return cpuPool.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					return search.search(position, limits);
+				}
+			}).get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("SelfPlayGame: search failed", e.getCause());
+		}
+	}
+}
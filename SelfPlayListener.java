@@ -0,0 +1,28 @@
+package com.chess.selfplay;
+
+import java.util.EventListener;
+
+import com.chess.Position;
+
+/**
+ * SelfPlayListener is an interface implemented by objects to receive the searched positions of a self-play game, for example to record them as training data.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public interface SelfPlayListener extends EventListener {
+
+	/**
+	 * Informs listening objects that the game ended. Called once, after the last position was searched.
+	 * @param game - the game that ended
+	 */
+	public void gameEnded(SelfPlayGame game);
+
+	/**
+	 * Informs listening objects that a position was searched, before the best move is made. Opening and random opening moves are not searched and are not reported.
+	 * @param game - the game the position was searched in
+	 * @param position - the searched position (only valid during the call)
+	 * @param move - the best move
+	 * @param score - the search score, from the side to move's point of view
+	 */
+	public void positionSearched(SelfPlayGame game, Position position, int move, int score);
+}
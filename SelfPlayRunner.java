@@ -0,0 +1,362 @@
+package com.chess.selfplay;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chess.nan.search.Evaluator;
+import com.chess.nan.search.SearchType;
+import com.chess.nan.train.TrainingDataWriter;
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * SelfPlayRunner is a headless entry point that plays many NAN vs NAN games at once. Each game runs on a virtual thread with its own ChessBoard and VirtualClock, searches
+ * are run on a bounded pool of CPU threads, and finished games are streamed to a file, one game per line. Progress, games per hour and CPU utilization are reported while
+ * the games are played. With -train, the positions searched in every game are also recorded as training samples and written to compressed shard files (see
+ * TrainingDataWriter).
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class SelfPlayRunner {
+
+	/** Default number of games. */
+	public static final int DEF_GAMES = 100;
+	/** Default number of games played at once. */
+	public static final int DEF_CONCURRENCY = 256;
+	/** Default time control (in seconds). */
+	public static final String DEF_TIME_CONTROL = "10+0.1";
+	/** Default transposition table size (in megabytes) for each search. */
+	public static final int DEF_HASH_MB = 1;
+	/** Default number of random opening plies. */
+	public static final int DEF_RANDOM_PLIES = 8;
+	/** Default output file. */
+	public static final String DEF_OUTPUT = "selfplay.txt";
+	/** Progress report interval (in milliseconds). */
+	public static final long REPORT_INTERVAL = 10000;
+
+	/** Output queue end marker. */
+	private static final String END_OF_OUTPUT = "";
+
+	/** Number of games to play. */
+	private int games;
+	/** Number of games played at once. */
+	private int concurrency;
+	/** Number of CPU threads that run searches. */
+	private int threads;
+	/** Time control. */
+	private String timeControl;
+	/** Virtual nodes per second. */
+	private long virtualNps;
+	/** Transposition table size (in megabytes) for each search. */
+	private int hashSize;
+	/** Type of the NAN's searches. */
+	private SearchType searchType;
+	/** Number of random opening plies. */
+	private int randomPlies;
+	/** Random opening seed. */
+	private long seed;
+	/** Output file. */
+	private String output;
+	/** Training data directory, or null to not record training data. */
+	private String trainingDirectory;
+	/** Number of training samples per shard. */
+	private int shardSize;
+	/** Training data writer, while games are played with a training data directory. */
+	private TrainingDataWriter trainingWriter;
+	/** Number of games finished. */
+	private AtomicInteger finished;
+	/** Number of white wins, draws and black wins. */
+	private AtomicInteger[] results;
+	/** Total plies played. */
+	private AtomicLong plies;
+
+	/**
+	 * Default constructor for the SelfPlayRunner that uses the default settings.
+	 */
+	public SelfPlayRunner() {
+		//Initialize variables
+		games = DEF_GAMES;
+		concurrency = DEF_CONCURRENCY;
+		threads = Runtime.getRuntime().availableProcessors();
+		timeControl = DEF_TIME_CONTROL;
+		virtualNps = VirtualClock.DEF_VIRTUAL_NPS;
+		hashSize = DEF_HASH_MB;
+		searchType = SearchType.ALPHA_BETA;
+		randomPlies = DEF_RANDOM_PLIES;
+		seed = System.nanoTime();
+		output = DEF_OUTPUT;
+		trainingDirectory = null;
+		shardSize = TrainingDataWriter.DEF_SHARD_SIZE;
+		trainingWriter = null;
+		finished = new AtomicInteger();
+		results = new AtomicInteger[] { new AtomicInteger(), new AtomicInteger(), new AtomicInteger() };
+		plies = new AtomicLong();
+	}
+
+	/**
+	 * Program entry point method that runs self-play games. Options are -games, -concurrency, -threads, -tc (base+increment in seconds), -nps (virtual nodes per second),
+	 * -hash (megabytes per search), -search (AlphaBeta or MonteCarlo), -random-plies, -seed, -out, -train (training data directory) and -shard-size (training samples per shard).
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		SelfPlayRunner runner = new SelfPlayRunner();
+
+		try {
+			runner.parseOptions(args);
+			runner.run();
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("Failed to write games: " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Self-play interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Reads the runner's settings from the specified command line options.
+	 * @param args - the options
+	 */
+	public void parseOptions(String[] args) {
+		for(int i = 0; i < args.length; ++i) {
+			//Every option has a value
+			if(i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing value for option " + args[i]);
+
+			try {
+				switch(args[i]) {
+				case "-games":
+					games = Integer.parseInt(args[++i]);
+					break;
+				case "-concurrency":
+					concurrency = Integer.parseInt(args[++i]);
+					break;
+				case "-threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "-tc":
+					timeControl = args[++i];
+					break;
+				case "-nps":
+					virtualNps = Long.parseLong(args[++i]);
+					break;
+				case "-hash":
+					hashSize = Integer.parseInt(args[++i]);
+					break;
+				case "-search":
+					searchType = SearchType.parse(args[++i]);
+					break;
+				case "-random-plies":
+					randomPlies = Integer.parseInt(args[++i]);
+					break;
+				case "-seed":
+					seed = Long.parseLong(args[++i]);
+					break;
+				case "-out":
+					output = args[++i];
+					break;
+				case "-train":
+					trainingDirectory = args[++i];
+					break;
+				case "-shard-size":
+					shardSize = Integer.parseInt(args[++i]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid value for option " + args[i - 1] + ": " + args[i]);
+			}
+		}
+
+		if(games <= 0 || concurrency <= 0 || threads <= 0 || hashSize <= 0 || shardSize <= 0 || randomPlies < 0)
+			throw new IllegalArgumentException("Games, concurrency, threads, hash and shard size must be positive and random plies cannot be negative");
+
+		//Check the time control
+		VirtualClock.parse(timeControl, virtualNps);
+	}
+
+	/**
+	 * Plays all games, streaming them to the output file, and prints a summary when they are done.
+	 * @throws IOException if the output file cannot be written
+	 * @throws InterruptedException if the runner is interrupted
+	 */
+	public void run() throws IOException, InterruptedException {
+		//Initialize variables
+		OperatingSystemMXBean os = (OperatingSystemMXBean)ManagementFactory.getOperatingSystemMXBean();
+		ExecutorService cpuPool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count = 0;
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "NAN Search " + (++count));
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		BlockingQueue<String> queue = new ArrayBlockingQueue<String>(1024);
+		Semaphore slots = new Semaphore(concurrency);
+		long startTime = System.nanoTime();
+		long startCpu = os.getProcessCpuTime();
+		IOException[] writeError = new IOException[1];
+
+		//Stream finished games to the output file
+		Thread writer = new Thread("Self-Play Writer") {
+			@Override
+			public void run() {
+				try(BufferedWriter out = Files.newBufferedWriter(Paths.get(output))) {
+					String line;
+
+					while(!(line = queue.take()).equals(END_OF_OUTPUT)) {
+						out.write(line);
+						out.newLine();
+
+						//Flush when no other game is waiting to be written
+						if(queue.isEmpty()) out.flush();
+					}
+				} catch (IOException e) {
+					writeError[0] = e;
+
+					//Keep taking games so the games waiting on the queue can finish
+					try {
+						while(!queue.take().equals(END_OF_OUTPUT));
+					} catch (InterruptedException e1) {
+						Thread.currentThread().interrupt();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		//Report progress
+		Thread reporter = new Thread("Self-Play Reporter") {
+			@Override
+			public void run() {
+				try {
+					while(true) {
+						Thread.sleep(REPORT_INTERVAL);
+						report(os, startTime, startCpu, os.getProcessCpuLoad());
+					}
+				} catch (InterruptedException e) {
+					//Stop reporting
+				}
+			}
+		};
+
+		if(trainingDirectory != null) trainingWriter = new TrainingDataWriter(Paths.get(trainingDirectory), shardSize, seed);
+
+		writer.start();
+		reporter.setDaemon(true);
+		reporter.start();
+
+		System.out.println("Playing " + games + " games (" + concurrency + " at once, " + threads + " CPU threads, tc " + timeControl + " at " + virtualNps + " virtual nps)");
+
+		//Play every game on its own virtual thread
+		try(ExecutorService gamePool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for(int i = 0; i < games; ++i) {
+				int index = i;
+
+				gamePool.submit(new Runnable() {
+					@Override
+					public void run() {
+						playGame(index, cpuPool, slots, queue);
+					}
+				});
+			}
+		}
+
+		//Stop the writer and reporter
+		queue.put(END_OF_OUTPUT);
+		writer.join();
+		reporter.interrupt();
+		cpuPool.shutdown();
+
+		report(os, startTime, startCpu, -1);
+
+		//Write the last training data shard
+		if(trainingWriter != null) {
+			trainingWriter.close();
+			System.out.println("Wrote " + trainingWriter.getSampleCount() + " training samples to " + trainingWriter.getShardCount() + " shards in " + trainingDirectory);
+		}
+
+		if(writeError[0] != null)
+			throw writeError[0];
+	}
+
+	/**
+	 * Plays one game once a game slot is free, then queues the game to be written.
+	 * @param index - the game number
+	 * @param cpuPool - the CPU pool that runs searches
+	 * @param slots - the free game slots
+	 * @param queue - the output queue
+	 */
+	private void playGame(int index, ExecutorService cpuPool, Semaphore slots, BlockingQueue<String> queue) {
+		try {
+			slots.acquire();
+
+			try {
+				//Create the game's searches and clock
+				SelfPlayGame game = new SelfPlayGame(searchType.createSearch(new Evaluator(), hashSize), searchType.createSearch(new Evaluator(), hashSize),
+						VirtualClock.parse(timeControl, virtualNps), cpuPool);
+
+				game.setRandomOpening(randomPlies, seed + index);
+
+				//Record the game's searched positions as training samples
+				TrainingDataRecorder recorder = (trainingWriter != null) ? new TrainingDataRecorder() : null;
+				game.setListener(recorder);
+
+				//Play the game and record its result
+				String result = game.play();
+
+				if(recorder != null) trainingWriter.add(recorder.toByteArray());
+
+				results[result.equals(SelfPlayGame.WHITE_WINS) ? 0 : result.equals(SelfPlayGame.DRAW) ? 1 : 2].incrementAndGet();
+				plies.addAndGet(game.getPlies());
+				queue.put(index + " " + game);
+			} finally {
+				slots.release();
+				finished.incrementAndGet();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			System.err.println("Game " + index + " training data not written: " + e.getMessage());
+		} catch (RuntimeException e) {
+			System.err.println("Game " + index + " failed: " + e);
+		}
+	}
+
+	/**
+	 * Prints the number of games finished, results, games per hour and CPU utilization.
+	 * @param os - the operating system bean used to measure CPU time
+	 * @param startTime - the start time (System.nanoTime)
+	 * @param startCpu - the process CPU time at the start (in nanoseconds)
+	 * @param cpuLoad - the current process CPU load (0.0 - 1.0), or a negative value to report the average CPU utilization only
+	 */
+	private void report(OperatingSystemMXBean os, long startTime, long startCpu, double cpuLoad) {
+		//Initialize variables
+		long elapsed = Math.max(1, System.nanoTime() - startTime);
+		int done = finished.get();
+		double gamesPerHour = done * 3.6e12 / elapsed;
+		double cpuAverage = (os.getProcessCpuTime() - startCpu) * 100.0 / (elapsed * (double)Runtime.getRuntime().availableProcessors());
+
+		System.out.printf("%s %d/%d games (+%d =%d -%d), %.1f plies/game, %.0f games/hour, CPU %.1f%% average%s%n", (cpuLoad < 0) ? "Finished" : "Progress", done, games,
+				results[0].get(), results[1].get(), results[2].get(), (done > 0) ? plies.get() / (double)done : 0.0, gamesPerHour, cpuAverage,
+				(cpuLoad < 0) ? "" : String.format(", %.1f%% now", cpuLoad * 100.0));
+	}
+}
@@ -1,41 +1,39 @@
 package com.chess;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
-import javax.swing.Timer;
-
-import com.chess.gui.event.StopwatchEvent;
-import com.chess.gui.event.StopwatchListener;
+import com.chess.event.StopwatchEvent;
+import com.chess.event.StopwatchListener;
 
 /**
- * StopWatch creates a stopwatch timer that updates per second until the specified time period has expired.
+ * StopWatch creates a stopwatch timer that updates per second until the specified time period has expired. Seconds are counted on the chess clock's timer thread, so
+ * stopwatch listeners are informed on that thread.
  * @author MonroeGordon
  * @since 6/8/2022
  */
-public class Stopwatch implements ActionListener {
+public class Stopwatch implements Runnable {
 
 	/** Time period length. */
 	private int length;
 	/** Current time on the stopwatch. */
-	private int time;
-	/** One second timer. */
-	private Timer secondtimer;
+	private volatile int time;
+	/** One second timer, or null while the stopwatch is not running. */
+	private ScheduledFuture<?> secondtimer;
 	/** Stopwatch stopped flag. */
 	private boolean stopped;
 	/** Stopwatch listeners. */
 	private ArrayList<StopwatchListener> listener;
 	
 	/**
-	 * Default constructor for Stopwatch that initializes all values to 0 and initializes the second timer to a 1000 millisecond delay timer.
+	 * Default constructor for Stopwatch that initializes all values to 0.
 	 */
 	public Stopwatch() {
 		//Initialize variables
 		length = 0;
 		time = 0;
-		secondtimer = new Timer(1000, this);
-		secondtimer.setRepeats(true);
+		secondtimer = null;
 		stopped = false;
 		listener = new ArrayList<StopwatchListener>(0);
 	}
@@ -53,22 +51,26 @@ public class Stopwatch implements ActionListener {
 		//Initialize variables
 		length = timeLength;
 		time = length;
-		secondtimer = new Timer(1000, this);
-		secondtimer.setRepeats(true);
+		secondtimer = null;
 		stopped = false;
 		listener = new ArrayList<StopwatchListener>(0);
 	}
 
-	//Handle action events
+	//Handle one second timer ticks
 	@Override
-	public void actionPerformed(ActionEvent e) {
+	public synchronized void run() {
+		//Ignore a tick that was already queued when the stopwatch was paused
+		if(secondtimer == null)
+			return;
+		
 		//Update current time remaining
 		time--;
 		
 		//If time has expired
 		if(time == 0) {
 			//Stop the second timer
-			secondtimer.stop();
+			secondtimer.cancel(false);
+			secondtimer = null;
 			
 			//Set stopped
 			stopped = true;
@@ -106,9 +108,12 @@ public class Stopwatch implements ActionListener {
 	/**
 	 * Pauses the stop watch.
 	 */
-	public void pause() {
+	public synchronized void pause() {
 		//Stop the second timer
-		secondtimer.stop();
+		if(secondtimer != null) {
+			secondtimer.cancel(false);
+			secondtimer = null;
+		}
 		
 		//Inform listeners
 		for(int i = 0; i < listener.size(); ++i) listener.get(i).stopwatchPaused(new StopwatchEvent(this));
@@ -126,7 +131,7 @@ public class Stopwatch implements ActionListener {
 	 * Sets the time length of the stopwatch. This also sets the current remaining time to the new time length.
 	 * @param timeLength - the new time length
 	 */
-	public void setTimeLength(int timeLength) {
+	public synchronized void setTimeLength(int timeLength) {
 		if(timeLength < 0)
 			throw new IllegalArgumentException("Time length cannot be less than 0");
 		
@@ -137,11 +142,11 @@ public class Stopwatch implements ActionListener {
 	/**
 	 * Starts the stopwatch.
 	 */
-	public void start() {
-		//If the stopwatch is not stopped
-		if(!stopped) {
+	public synchronized void start() {
+		//If the stopwatch is not stopped or already running
+		if(!stopped && secondtimer == null) {
 			//Start the second timer
-			secondtimer.start();
+			secondtimer = ChessClock.getTimer().scheduleAtFixedRate(this, 1, 1, TimeUnit.SECONDS);
 			
 			//Inform listeners
 			for(int i = 0; i < listener.size(); ++i) listener.get(i).stopwatchStarted(new StopwatchEvent(this));
@@ -1,6 +1,6 @@
-package com.chess.gui.event;
+package com.chess.event;
 
-import java.awt.AWTEvent;
+import java.util.EventObject;
 
 import com.chess.Stopwatch;
 
@@ -9,21 +9,18 @@ import com.chess.Stopwatch;
  * @author Monroe Gordon
  * @since 6/9/2022
  */
-public class StopwatchEvent extends AWTEvent{
+public class StopwatchEvent extends EventObject {
 
 	/** StopwatchEvent serial version ID value. */
 	private static final long serialVersionUID = 8872832116083979995L;
 	
-	/** Stopwatch event mask ID value. */
-	public static final int STOPWATCH_EVENT_MASK = AWTEvent.RESERVED_ID_MAX + 0x00000002;
-	
 	/**
 	 * Constructor for StopwatchEvent that creates a stopwatch event.
 	 * @param source - the stopwatch creating this event
 	 */
 	public StopwatchEvent(Stopwatch source) {
 		//Call parent constructor
-		super(source, STOPWATCH_EVENT_MASK);
+		super(source);
 	}
 	
 	/**
@@ -1,4 +1,4 @@
-package com.chess.gui.event;
+package com.chess.event;
 
 import java.util.EventListener;
 
@@ -0,0 +1,592 @@
+package com.chess.nan.train;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.chess.ChessBoard;
+import com.chess.Position;
+import com.chess.nan.search.Evaluator;
+
+/**
+ * TexelTuner tunes the hand-written Evaluator's weights (material, piece-square tables and pawn structure terms) to predict the results of the games positions came from.
+ * The evaluation is linear in its weights, so each position is loaded once into packed primitive arrays (its pieces and its net pawn structure term counts) and its score
+ * and gradient are computed directly from the weights. A position's predicted result is the sigmoid of its score times a scale fitted to the starting weights, and the
+ * loss (mean squared error or cross entropy) is minimized by gradient descent with Adam step sizes.
+ * <p>
+ * Each pass over the positions runs a parallel stream over fixed-size chunks, and every chunk sums its loss and gradient into its own buffers, which are then added up in
+ * chunk order, so the result is the same with any number of threads. Nothing is boxed or allocated per position, so tens of millions of positions fit in memory (about 70
+ * bytes each). The tuned weights are written as Java declarations in Evaluator's format.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class TexelTuner {
+
+	/** Number of positions in a chunk. */
+	public static final int CHUNK_SIZE = 1 << 16;
+	/** Default number of iterations. */
+	public static final int DEF_ITERATIONS = 500;
+	/** Default learning rate in centipawns. */
+	public static final double DEF_LEARNING_RATE = 1.0;
+	/** Default number of iterations between progress reports. */
+	public static final int DEF_REPORT = 25;
+
+	/** Number of material weights (pawn to queen). */
+	public static final int MATERIAL_WEIGHTS = 5;
+	/** Index of the first piece-square table weight. */
+	public static final int TABLE_WEIGHTS = MATERIAL_WEIGHTS;
+	/** Index of the first pawn structure weight (doubled, isolated and passed). */
+	public static final int PAWN_WEIGHTS = TABLE_WEIGHTS + Position.KING * 64;
+	/** Number of weights. */
+	public static final int WEIGHTS = PAWN_WEIGHTS + 3;
+
+	/** Adam first moment decay. */
+	private static final double BETA1 = 0.9;
+	/** Adam second moment decay. */
+	private static final double BETA2 = 0.999;
+	/** Adam epsilon. */
+	private static final double EPSILON = 1e-8;
+	/** Largest array length. */
+	private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+	/** Pieces of every position (piece << 6 | space). */
+	private short pieces[];
+	/** Index of each position's first piece, with the end of the last position at the end. */
+	private int offsets[];
+	/** Net (white minus black) doubled, isolated and passed pawn counts of each position. */
+	private byte pawnTerms[];
+	/** Game result of each position (WHITE_WINS, DRAW or BLACK_WINS). */
+	private byte results[];
+	/** Number of positions. */
+	private int count;
+	/** The weights being tuned. */
+	private double weights[];
+	/** Adam first moments. */
+	private double moments[];
+	/** Adam second moments. */
+	private double velocities[];
+	/** Number of optimizer steps taken. */
+	private long step;
+	/** Scale from centipawns to the sigmoid's input, in units of 1 / 400. */
+	private double scale;
+	/** The loss minimized. */
+	private Loss loss;
+	/** Gradient buffer of each chunk. */
+	private double chunkGradients[][];
+	/** Loss of each chunk. */
+	private double chunkLosses[];
+
+	/**
+	 * Constructor for TexelTuner that starts from the Evaluator's weights.
+	 * @param loss - the loss to minimize
+	 */
+	public TexelTuner(Loss loss) {
+		//Initialize variables
+		this.loss = loss;
+		pieces = new short[1 << 16];
+		offsets = new int[1 << 12];
+		pawnTerms = new byte[3 << 12];
+		results = new byte[1 << 12];
+		count = 0;
+		weights = new double[WEIGHTS];
+		moments = new double[WEIGHTS];
+		velocities = new double[WEIGHTS];
+		step = 0;
+		scale = 1.0;
+		chunkGradients = new double[0][];
+		chunkLosses = new double[0];
+
+		for(int type = Position.PAWN; type < Position.KING; ++type)
+			weights[type - 1] = Evaluator.MATERIAL[type];
+
+		for(int type = Position.PAWN; type <= Position.KING; ++type) {
+			for(int space = 0; space < 64; ++space)
+				weights[tableWeight(type, space)] = Evaluator.getTableValue(type, space);
+		}
+
+		weights[PAWN_WEIGHTS] = Evaluator.DOUBLED_PAWN;
+		weights[PAWN_WEIGHTS + 1] = Evaluator.ISOLATED_PAWN;
+		weights[PAWN_WEIGHTS + 2] = Evaluator.PASSED_PAWN;
+	}
+
+	/**
+	 * Adds the position and result of the specified sample.
+	 * @param sample - the sample
+	 */
+	public void add(TrainingSample sample) {
+		//Initialize variables
+		long occupied = sample.getOccupiedBits();
+		int end = offsets[count] + Long.bitCount(occupied);
+		long whitePawns = 0L;
+		long blackPawns = 0L;
+
+		ensureCapacity(end);
+
+		//Pack the pieces
+		int next = offsets[count];
+
+		for(long bits = occupied; bits != 0L; bits &= bits - 1) {
+			int space = Long.numberOfTrailingZeros(bits);
+			int piece = sample.getPiece(space);
+
+			pieces[next++] = (short)((piece << 6) | space);
+
+			if(piece == Position.createPiece(Position.PAWN, ChessBoard.WHITE)) whitePawns |= 1L << space;
+			else if(piece == Position.createPiece(Position.PAWN, ChessBoard.BLACK)) blackPawns |= 1L << space;
+		}
+
+		//Count the pawn structure terms, which are linear in their weights
+		pawnTerms[3 * count] = (byte)(Evaluator.evaluatePawns(whitePawns, blackPawns, ChessBoard.WHITE, 1, 0, 0)
+				- Evaluator.evaluatePawns(blackPawns, whitePawns, ChessBoard.BLACK, 1, 0, 0));
+		pawnTerms[3 * count + 1] = (byte)(Evaluator.evaluatePawns(whitePawns, blackPawns, ChessBoard.WHITE, 0, 1, 0)
+				- Evaluator.evaluatePawns(blackPawns, whitePawns, ChessBoard.BLACK, 0, 1, 0));
+		pawnTerms[3 * count + 2] = (byte)(Evaluator.evaluatePawns(whitePawns, blackPawns, ChessBoard.WHITE, 0, 0, 1)
+				- Evaluator.evaluatePawns(blackPawns, whitePawns, ChessBoard.BLACK, 0, 0, 1));
+		results[count] = (byte)sample.getResult();
+		offsets[++count] = end;
+	}
+
+	/**
+	 * Returns the loss of the current weights over every position.
+	 * @return the average loss
+	 */
+	public double computeLoss() { return pass(false); }
+
+	/**
+	 * Fits the scale from centipawns to predicted results that minimizes the loss of the current weights, with a golden section search.
+	 * @return the fitted scale
+	 */
+	public double fitScale() {
+		//Initialize variables
+		final double ratio = (Math.sqrt(5.0) - 1.0) / 2.0;
+		double low = 0.05;
+		double high = 5.0;
+
+		for(int i = 0; i < 40; ++i) {
+			double a = high - ratio * (high - low);
+			double b = low + ratio * (high - low);
+
+			scale = a;
+			double lossA = pass(false);
+			scale = b;
+			double lossB = pass(false);
+
+			if(lossA < lossB) high = b;
+			else low = a;
+		}
+
+		scale = (low + high) / 2.0;
+
+		return scale;
+	}
+
+	/**
+	 * Returns the number of positions.
+	 * @return the number of positions
+	 */
+	public int getCount() { return count; }
+
+	/**
+	 * Returns the scale from centipawns to the sigmoid's input, in units of 1 / 400.
+	 * @return the scale
+	 */
+	public double getScale() { return scale; }
+
+	/**
+	 * Returns the specified weight.
+	 * @param index - the weight index (see MATERIAL_WEIGHTS, TABLE_WEIGHTS and PAWN_WEIGHTS)
+	 * @return the weight in centipawns
+	 */
+	public double getWeight(int index) { return weights[index]; }
+
+	/**
+	 * Loads the positions and results of the samples in the specified shard directory.
+	 * @param directory - the shard directory
+	 * @param max - the maximum number of positions to load
+	 * @throws IOException if a shard cannot be read
+	 * @throws InterruptedException if the thread is interrupted while reading
+	 */
+	public void load(Path directory, long max) throws IOException, InterruptedException {
+		//Initialize variables
+		TrainingSample sample = new TrainingSample();
+
+		try(TrainingDataReader reader = new TrainingDataReader(directory, 1)) {
+			while(count < max && reader.next(sample))
+				add(sample);
+		}
+	}
+
+	/**
+	 * Program entry point method that tunes the Evaluator's weights. Options are -data (training shard directory, required), -positions (maximum positions loaded),
+	 * -iterations, -lr (learning rate in centipawns), -loss (mse or ce), -scale (skips fitting the scale), -report (iterations between progress reports) and -out (file the
+	 * tuned weights are written to, standard output by default). Parallel streams use the common ForkJoinPool, so its parallelism sets the number of threads.
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		//Initialize variables
+		String data = null;
+		String output = null;
+		long positions = Long.MAX_VALUE;
+		int iterations = DEF_ITERATIONS;
+		int report = DEF_REPORT;
+		double learningRate = DEF_LEARNING_RATE;
+		double scale = 0.0;
+		Loss loss = Loss.MEAN_SQUARED;
+
+		try {
+			for(int i = 0; i < args.length; ++i) {
+				if(i + 1 >= args.length)
+					throw new IllegalArgumentException("Missing value for option " + args[i]);
+
+				switch(args[i]) {
+				case "-data":
+					data = args[++i];
+					break;
+				case "-positions":
+					positions = Long.parseLong(args[++i]);
+					break;
+				case "-iterations":
+					iterations = Integer.parseInt(args[++i]);
+					break;
+				case "-lr":
+					learningRate = Double.parseDouble(args[++i]);
+					break;
+				case "-loss":
+					loss = Loss.parse(args[++i]);
+					break;
+				case "-scale":
+					scale = Double.parseDouble(args[++i]);
+					break;
+				case "-report":
+					report = Math.max(1, Integer.parseInt(args[++i]));
+					break;
+				case "-out":
+					output = args[++i];
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+
+			if(data == null)
+				throw new IllegalArgumentException("Usage: TexelTuner -data <shard directory> [options]");
+
+			//Load the positions
+			TexelTuner tuner = new TexelTuner(loss);
+			long start = System.nanoTime();
+
+			tuner.load(Paths.get(data), positions);
+			System.out.printf("Loaded %d positions in %.1f s%n", tuner.getCount(), (System.nanoTime() - start) / 1e9);
+
+			if(tuner.getCount() == 0)
+				throw new IllegalArgumentException("No positions in " + data);
+
+			//Fit the scale, then tune
+			if(scale > 0) tuner.scale = scale;
+			else System.out.printf("Fitted scale %.4f%n", tuner.fitScale());
+
+			System.out.printf("Starting %s loss %.7f%n", loss.getName(), tuner.computeLoss());
+			start = System.nanoTime();
+
+			for(int i = 1; i <= iterations; ++i) {
+				double current = tuner.step(learningRate);
+
+				if(i % report == 0 || i == iterations)
+					System.out.printf("Iteration %d: loss %.7f (%.1f s)%n", i, current, (System.nanoTime() - start) / 1e9);
+			}
+
+			System.out.printf("Final %s loss %.7f%n", loss.getName(), tuner.computeLoss());
+
+			//Write the tuned weights
+			if(output == null) {
+				tuner.writeWeights(System.out);
+			}
+			else {
+				try(PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(output)), false, "UTF-8")) {
+					tuner.writeWeights(out);
+				}
+
+				System.out.println("Wrote " + output);
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number: " + e.getMessage());
+			System.exit(2);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+		} catch (IOException e) {
+			System.err.println("Tuning failed: " + e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			System.err.println("Tuning interrupted.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Computes the gradient of the loss over every position and takes one gradient descent step.
+	 * @param learningRate - the learning rate in centipawns
+	 * @return the average loss before the step
+	 */
+	public double step(double learningRate) {
+		//Initialize variables
+		double current = pass(true);
+		double gradient[] = new double[WEIGHTS];
+
+		//Add up the chunk gradients in chunk order
+		for(int c = 0; c < chunkGradients.length; ++c) {
+			for(int w = 0; w < WEIGHTS; ++w)
+				gradient[w] += chunkGradients[c][w];
+		}
+
+		//Adam step
+		step++;
+		double rate = learningRate * Math.sqrt(1.0 - Math.pow(BETA2, step)) / (1.0 - Math.pow(BETA1, step));
+
+		for(int w = 0; w < WEIGHTS; ++w) {
+			double g = gradient[w] / count;
+
+			moments[w] = BETA1 * moments[w] + (1.0 - BETA1) * g;
+			velocities[w] = BETA2 * velocities[w] + (1.0 - BETA2) * g * g;
+			weights[w] -= rate * moments[w] / (Math.sqrt(velocities[w]) + EPSILON);
+		}
+
+		return current;
+	}
+
+	/**
+	 * Writes the weights, rounded to centipawns, as Java declarations in Evaluator's format.
+	 * @param out - the stream to write to
+	 */
+	public void writeWeights(PrintStream out) {
+		//Material
+		StringBuilder material = new StringBuilder("0");
+
+		for(int type = Position.PAWN; type < Position.KING; ++type)
+			material.append(", ").append(Math.round(weights[type - 1]));
+
+		out.println("\t/** Piece material values (indexed by piece type). */");
+		out.println("\tpublic static final int MATERIAL[] = { " + material + ", 0 };");
+		out.println();
+
+		//Pawn structure
+		out.println("\t/** Doubled pawn penalty. */");
+		out.println("\tpublic static final int DOUBLED_PAWN = " + Math.round(weights[PAWN_WEIGHTS]) + ";");
+		out.println("\t/** Isolated pawn penalty. */");
+		out.println("\tpublic static final int ISOLATED_PAWN = " + Math.round(weights[PAWN_WEIGHTS + 1]) + ";");
+		out.println("\t/** Passed pawn bonus for each row advanced from the starting row. */");
+		out.println("\tpublic static final int PASSED_PAWN = " + Math.round(weights[PAWN_WEIGHTS + 2]) + ";");
+
+		//Piece-square tables
+		String names[] = { null, "Pawn", "Knight", "Bishop", "Rook", "Queen", "King" };
+
+		for(int type = Position.PAWN; type <= Position.KING; ++type) {
+			int width = 1;
+
+			for(int space = 0; space < 64; ++space)
+				width = Math.max(width, Long.toString(Math.round(weights[tableWeight(type, space)])).length());
+
+			out.println();
+			out.println("\t/** " + names[type] + " piece-square table" + ((type == Position.KING) ? " (middle game)" : "") + ". */");
+			out.println("\tprivate static final int " + names[type].toUpperCase() + "_TABLE[] = {");
+
+			for(int row = 0; row < 8; ++row) {
+				StringBuilder line = new StringBuilder("\t\t");
+
+				for(int col = 0; col < 8; ++col) {
+					line.append(String.format("%" + width + "d", Math.round(weights[tableWeight(type, row * 8 + col)])));
+
+					if(row < 7 || col < 7) line.append((col < 7) ? ", " : ",");
+				}
+
+				out.println(line);
+			}
+
+			out.println("\t};");
+		}
+	}
+
+	/**
+	 * Grows the position arrays to hold one more position with pieces up to the specified end.
+	 * @param end - the end of the new position's pieces
+	 */
+	private void ensureCapacity(int end) {
+		if(count + 2 > MAX_ARRAY / 3 || end < 0)
+			throw new IllegalStateException("TexelTuner: too many positions");
+
+		if(end > pieces.length)
+			pieces = Arrays.copyOf(pieces, (int)Math.min(MAX_ARRAY, Math.max(end, pieces.length + (long)pieces.length / 2)));
+
+		if(count + 2 > results.length) {
+			int length = (int)Math.min(MAX_ARRAY / 3, results.length + (long)results.length / 2);
+
+			offsets = Arrays.copyOf(offsets, length);
+			pawnTerms = Arrays.copyOf(pawnTerms, 3 * length);
+			results = Arrays.copyOf(results, length);
+		}
+	}
+
+	/**
+	 * Computes the loss of every position, and the gradient if requested, one parallel task per chunk.
+	 * @param gradients - true to compute each chunk's gradient
+	 * @return the average loss
+	 */
+	private double pass(final boolean gradients) {
+		//Initialize variables
+		int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		double total = 0.0;
+
+		if(chunkLosses.length != chunks) {
+			chunkGradients = new double[chunks][WEIGHTS];
+			chunkLosses = new double[chunks];
+		}
+
+		IntStream.range(0, chunks).parallel().forEach(new IntConsumer() {
+			@Override
+			public void accept(int chunk) {
+				passChunk(chunk, gradients);
+			}
+		});
+
+		//Add up the chunk losses in chunk order
+		for(int c = 0; c < chunks; ++c)
+			total += chunkLosses[c];
+
+		return (count > 0) ? total / count : 0.0;
+	}
+
+	/**
+	 * Computes the loss of the positions of one chunk, and adds their gradients to the chunk's buffer if requested.
+	 * @param chunk - the chunk
+	 * @param gradients - true to compute the chunk's gradient
+	 */
+	private void passChunk(int chunk, boolean gradients) {
+		//Initialize variables
+		double gradient[] = chunkGradients[chunk];
+		double sum = 0.0;
+		int end = Math.min(count, (chunk + 1) * CHUNK_SIZE);
+
+		if(gradients) Arrays.fill(gradient, 0.0);
+
+		for(int i = chunk * CHUNK_SIZE; i < end; ++i) {
+			//Score from white's point of view
+			double score = 0.0;
+
+			for(int p = offsets[i]; p < offsets[i + 1]; ++p) {
+				int piece = pieces[p] >> 6;
+				int type = piece & Position.PIECE_TYPE_MASK;
+				int space = ((piece & Position.BLACK_PIECE) == 0) ? pieces[p] & 63 : (pieces[p] & 63) ^ 56;
+				double value = ((type < Position.KING) ? weights[type - 1] : 0.0) + weights[tableWeight(type, space)];
+
+				score += ((piece & Position.BLACK_PIECE) == 0) ? value : -value;
+			}
+
+			for(int t = 0; t < 3; ++t)
+				score += pawnTerms[3 * i + t] * weights[PAWN_WEIGHTS + t];
+
+			//Loss of the predicted result
+			double prediction = 1.0 / (1.0 + Math.exp(-score * scale / 400.0));
+			double target = (results[i] + 1) * 0.5;
+
+			sum += loss.loss(prediction, target);
+
+			if(!gradients)
+				continue;
+
+			//Gradient of each weight the position uses
+			double d = loss.gradient(prediction, target) * scale / 400.0;
+
+			for(int p = offsets[i]; p < offsets[i + 1]; ++p) {
+				int piece = pieces[p] >> 6;
+				int type = piece & Position.PIECE_TYPE_MASK;
+				int space = ((piece & Position.BLACK_PIECE) == 0) ? pieces[p] & 63 : (pieces[p] & 63) ^ 56;
+				double signed = ((piece & Position.BLACK_PIECE) == 0) ? d : -d;
+
+				if(type < Position.KING) gradient[type - 1] += signed;
+
+				gradient[tableWeight(type, space)] += signed;
+			}
+
+			for(int t = 0; t < 3; ++t)
+				gradient[PAWN_WEIGHTS + t] += pawnTerms[3 * i + t] * d;
+		}
+
+		chunkLosses[chunk] = sum;
+	}
+
+	/**
+	 * Returns the index of the specified piece-square table weight.
+	 * @param type - the piece type
+	 * @param space - the board space, from white's point of view
+	 * @return the weight index
+	 */
+	private static int tableWeight(int type, int space) { return TABLE_WEIGHTS + (type - 1) * 64 + space; }
+
+	/**
+	 * Loss lists the losses the tuner can minimize, each as a function of the predicted result p (the sigmoid of the scaled score) and the game result y (0, 0.5 or 1).
+	 */
+	public enum Loss {
+
+		/** Squared error (p - y)^2, the original Texel loss. */
+		MEAN_SQUARED("mse"),
+		/** Cross entropy -(y ln p + (1 - y) ln (1 - p)). */
+		CROSS_ENTROPY("ce");
+
+		/** Smallest probability used in a logarithm. */
+		private static final double MIN_PROBABILITY = 1e-12;
+
+		/** Name used by options. */
+		private final String name;
+
+		/**
+		 * Constructor for Loss.
+		 * @param name - the name used by options
+		 */
+		private Loss(String name) { this.name = name; }
+
+		/**
+		 * Returns the name used by options.
+		 * @return the name
+		 */
+		public String getName() { return name; }
+
+		/**
+		 * Returns the derivative of the loss with respect to the sigmoid's input.
+		 * @param p - the predicted result
+		 * @param y - the game result
+		 * @return the derivative
+		 */
+		public double gradient(double p, double y) { return (this == MEAN_SQUARED) ? 2.0 * (p - y) * p * (1.0 - p) : p - y; }
+
+		/**
+		 * Returns the loss of a prediction.
+		 * @param p - the predicted result
+		 * @param y - the game result
+		 * @return the loss
+		 */
+		public double loss(double p, double y) {
+			if(this == MEAN_SQUARED)
+				return (p - y) * (p - y);
+
+			return -(y * Math.log(Math.max(p, MIN_PROBABILITY)) + (1.0 - y) * Math.log(Math.max(1.0 - p, MIN_PROBABILITY)));
+		}
+
+		/**
+		 * Returns the loss with the specified name (ignoring case).
+		 * @param name - the name
+		 * @return the loss
+		 */
+		public static Loss parse(String name) {
+			for(Loss loss : values()) {
+				if(loss.name.equalsIgnoreCase(name)) return loss;
+			}
+
+			throw new IllegalArgumentException("Unknown loss " + name + " (mse or ce)");
+		}
+	}
+}
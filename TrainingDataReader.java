@@ -0,0 +1,270 @@
+package com.chess.nan.train;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * TrainingDataReader streams the samples of a set of shard files (see TrainingDataWriter) once, in random order. The shards are read in a shuffled order by prefetch
+ * threads, which inflate them a chunk at a time into a bounded queue, and the samples taken from the queue pass through a shuffle buffer that returns a random one of the
+ * buffered samples each time. Since every shard is already shuffled when it is written, this mixes samples across shards and games while only holding the shuffle buffer
+ * and the queued chunks in memory. Create a reader with a new seed for each epoch.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class TrainingDataReader implements Closeable {
+
+	/** Default number of prefetch threads. */
+	public static final int DEF_THREADS = 2;
+	/** Default shuffle buffer size in samples. */
+	public static final int DEF_SHUFFLE_SIZE = 1 << 18;
+	/** Number of samples in each chunk read by the prefetch threads. */
+	public static final int CHUNK_SIZE = 4096;
+	/** Number of chunks queued per prefetch thread. */
+	public static final int CHUNKS_PER_THREAD = 4;
+
+	/** Queue end marker, queued by each prefetch thread when it is done. */
+	private static final ByteBuffer END_OF_CHUNKS = ByteBuffer.allocate(0);
+
+	/** Shard files, in reading order. */
+	private List<Path> shards;
+	/** Index of the next shard to read. */
+	private AtomicInteger nextShard;
+	/** Chunks read by the prefetch threads. */
+	private BlockingQueue<ByteBuffer> queue;
+	/** The prefetch threads. */
+	private Thread prefetchers[];
+	/** Number of prefetch threads still running. */
+	private int running;
+	/** The chunk samples are taken from. */
+	private ByteBuffer chunk;
+	/** The shuffle buffer's records. */
+	private ByteBuffer buffer;
+	/** Number of samples in the shuffle buffer. */
+	private int count;
+	/** Shuffle random. */
+	private SplittableRandom random;
+	/** Error that stopped a prefetch thread, or null. */
+	private volatile IOException error;
+	/** Whether the reader is closed. */
+	private volatile boolean closed;
+
+	/**
+	 * Constructor for TrainingDataReader that reads all shards in the specified directory with the default settings.
+	 * @param directory - the shard directory
+	 * @param seed - the shuffle seed
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public TrainingDataReader(Path directory, long seed) throws IOException {
+		this(listShards(directory), DEF_THREADS, DEF_SHUFFLE_SIZE, seed);
+	}
+
+	/**
+	 * Constructor for TrainingDataReader that reads the specified shards.
+	 * @param shards - the shard files
+	 * @param threads - the number of prefetch threads
+	 * @param shuffleSize - the shuffle buffer size in samples (1 keeps the order of the chunks)
+	 * @param seed - the shuffle seed
+	 */
+	public TrainingDataReader(List<Path> shards, int threads, int shuffleSize, long seed) {
+		//Check parameters
+		if(threads <= 0 || shuffleSize <= 0 || shuffleSize > Integer.MAX_VALUE / TrainingSample.RECORD_SIZE)
+			throw new IllegalArgumentException("TrainingDataReader: threads and shuffle size must be positive");
+
+		//Initialize variables
+		this.shards = new ArrayList<Path>(shards);
+		nextShard = new AtomicInteger();
+		queue = new ArrayBlockingQueue<ByteBuffer>(threads * CHUNKS_PER_THREAD + threads);
+		prefetchers = new Thread[threads];
+		running = threads;
+		chunk = END_OF_CHUNKS;
+		buffer = ByteBuffer.allocate(shuffleSize * TrainingSample.RECORD_SIZE);
+		count = 0;
+		random = new SplittableRandom(seed);
+		error = null;
+		closed = false;
+
+		//Shuffle the shard order
+		Collections.shuffle(this.shards, new Random(random.nextLong()));
+
+		//Start the prefetch threads
+		for(int i = 0; i < threads; ++i) {
+			prefetchers[i] = new Thread("Training Data Prefetch " + (i + 1)) {
+				@Override
+				public void run() {
+					prefetch();
+				}
+			};
+
+			prefetchers[i].setDaemon(true);
+			prefetchers[i].start();
+		}
+	}
+
+	/**
+	 * Stops the prefetch threads.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+
+		for(Thread t : prefetchers)
+			t.interrupt();
+	}
+
+	/**
+	 * Returns the number of shards read by the reader.
+	 * @return the number of shards
+	 */
+	public int getShardCount() { return shards.size(); }
+
+	/**
+	 * Returns the shard files in the specified directory, sorted by name.
+	 * @param directory - the shard directory
+	 * @return the shard files
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public static List<Path> listShards(Path directory) throws IOException {
+		//Initialize variables
+		ArrayList<Path> list = new ArrayList<Path>();
+
+		try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TrainingDataWriter.SHARD_EXTENSION)) {
+			for(Path file : files)
+				list.add(file);
+		}
+
+		Collections.sort(list);
+		return list;
+	}
+
+	/**
+	 * Reads the next sample in random order.
+	 * @param sample - the sample to read into
+	 * @return true if a sample was read, false if all samples have been read
+	 * @throws IOException if a shard cannot be read
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for a chunk
+	 */
+	public boolean next(TrainingSample sample) throws IOException, InterruptedException {
+		//Fill the shuffle buffer
+		while(count * TrainingSample.RECORD_SIZE < buffer.capacity() && take(count))
+			count++;
+
+		if(count == 0)
+			return false;
+
+		//Return a random buffered sample and replace it with the next one (or the last buffered sample)
+		int index = random.nextInt(count);
+
+		sample.unpack(buffer, index * TrainingSample.RECORD_SIZE);
+
+		if(!take(index)) {
+			count--;
+			buffer.put(index * TrainingSample.RECORD_SIZE, buffer, count * TrainingSample.RECORD_SIZE, TrainingSample.RECORD_SIZE);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Prefetch thread loop: reads shards in order until none are left, queueing their records a chunk at a time.
+	 */
+	private void prefetch() {
+		try {
+			int index;
+
+			while(!closed && (index = nextShard.getAndIncrement()) < shards.size())
+				readShard(shards.get(index));
+		} catch (IOException e) {
+			error = e;
+		} catch (InterruptedException e) {
+			return;
+		}
+
+		//Tell the reader this thread is done
+		try {
+			queue.put(END_OF_CHUNKS);
+		} catch (InterruptedException e) {
+			//Closed
+		}
+	}
+
+	/**
+	 * Reads the specified shard and queues its records.
+	 * @param file - the shard file
+	 * @throws IOException if the shard cannot be read or is not a shard file
+	 * @throws InterruptedException if the thread is interrupted while waiting for room in the queue
+	 */
+	private void readShard(Path file) throws IOException, InterruptedException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			//Read the header
+			if(in.readInt() != TrainingDataWriter.MAGIC || in.readInt() != TrainingDataWriter.VERSION || in.readInt() != TrainingSample.RECORD_SIZE)
+				throw new IOException("TrainingDataReader: " + file + " is not a version " + TrainingDataWriter.VERSION + " shard file");
+
+			int remaining = in.readInt();
+			Inflater inflater = new Inflater();
+
+			//Inflate the records a chunk at a time
+			try {
+				DataInputStream records = new DataInputStream(new InflaterInputStream(in, inflater, 1 << 16));
+
+				while(remaining > 0 && !closed) {
+					int size = Math.min(remaining, CHUNK_SIZE);
+					byte bytes[] = new byte[size * TrainingSample.RECORD_SIZE];
+
+					records.readFully(bytes);
+					queue.put(ByteBuffer.wrap(bytes));
+					remaining -= size;
+				}
+			} catch (EOFException e) {
+				throw new IOException("TrainingDataReader: " + file + " is truncated");
+			} finally {
+				inflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Copies the next queued record into the specified slot of the shuffle buffer.
+	 * @param slot - the shuffle buffer slot
+	 * @return true if a record was copied, false if all records have been taken
+	 * @throws IOException if a prefetch thread failed
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for a chunk
+	 */
+	private boolean take(int slot) throws IOException, InterruptedException {
+		//Take the next chunk when the current one is used up
+		while(!chunk.hasRemaining()) {
+			if(running == 0)
+				return false;
+
+			chunk = queue.take();
+
+			if(chunk == END_OF_CHUNKS) {
+				running--;
+
+				if(error != null)
+					throw error;
+			}
+		}
+
+		//Copy the record
+		buffer.put(slot * TrainingSample.RECORD_SIZE, chunk, chunk.position(), TrainingSample.RECORD_SIZE);
+		chunk.position(chunk.position() + TrainingSample.RECORD_SIZE);
+		return true;
+	}
+}
@@ -0,0 +1,77 @@
+package com.chess.selfplay;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.chess.Position;
+import com.chess.nan.train.TrainingSample;
+
+/**
+ * TrainingDataRecorder records the searched positions of one self-play game as training samples (see TrainingSample). Samples are packed as the positions are searched and
+ * given the game result when the game ends, so the game's samples can then be handed to a TrainingDataWriter as one batch.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class TrainingDataRecorder implements SelfPlayListener {
+
+	/** The packed samples. */
+	private ByteBuffer samples;
+	/** Number of samples. */
+	private int count;
+
+	/**
+	 * Default constructor for TrainingDataRecorder that creates an empty recorder.
+	 */
+	public TrainingDataRecorder() {
+		//Initialize variables
+		samples = ByteBuffer.allocate(256 * TrainingSample.RECORD_SIZE);
+		count = 0;
+	}
+
+	/**
+	 * Sets the game result of every recorded sample.
+	 * @param game - the game that ended
+	 */
+	@Override
+	public void gameEnded(SelfPlayGame game) {
+		//Initialize variables
+		String result = game.getResult();
+		int value = result.equals(SelfPlayGame.WHITE_WINS) ? TrainingSample.WHITE_WINS : result.equals(SelfPlayGame.BLACK_WINS) ? TrainingSample.BLACK_WINS : TrainingSample.DRAW;
+
+		for(int i = 0; i < count; ++i)
+			TrainingSample.setResult(samples, i * TrainingSample.RECORD_SIZE, value);
+	}
+
+	/**
+	 * Returns the number of recorded samples.
+	 * @return the number of samples
+	 */
+	public int getSampleCount() { return count; }
+
+	/**
+	 * Packs the searched position, score and best move as a sample.
+	 * @param game - the game the position was searched in
+	 * @param position - the searched position
+	 * @param move - the best move
+	 * @param score - the search score, from the side to move's point of view
+	 */
+	@Override
+	public void positionSearched(SelfPlayGame game, Position position, int move, int score) {
+		//Grow the buffer
+		if((count + 1) * TrainingSample.RECORD_SIZE > samples.capacity()) {
+			ByteBuffer larger = ByteBuffer.allocate(samples.capacity() * 2);
+
+			larger.put(0, samples, 0, count * TrainingSample.RECORD_SIZE);
+			samples = larger;
+		}
+
+		TrainingSample.pack(samples, count * TrainingSample.RECORD_SIZE, position, score, move, TrainingSample.DRAW);
+		count++;
+	}
+
+	/**
+	 * Returns the recorded samples' records.
+	 * @return the records, TrainingSample.RECORD_SIZE bytes each
+	 */
+	public byte[] toByteArray() { return Arrays.copyOf(samples.array(), count * TrainingSample.RECORD_SIZE); }
+}
@@ -0,0 +1,255 @@
+package com.chess.nan.train;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * TrainingDataWriter writes training samples (see TrainingSample) to a directory of compressed shard files. Samples are handed to a writer thread through a bounded queue,
+ * collected into a fixed size shard buffer, shuffled and deflated to the next shard file, so memory stays bounded however many samples are written and the samples of a
+ * game end up spread through its shard. A shard is written to a temporary file and renamed when complete, so readers never see part of a shard, and numbering continues
+ * after the shards already in the directory.
+ * <p>
+ * A shard file starts with a SHARD_HEADER_SIZE byte header (magic, version, record size and record count), followed by the deflated records.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class TrainingDataWriter implements Closeable {
+
+	/** Shard file magic number ("NANT"). */
+	public static final int MAGIC = 0x4E414E54;
+	/** Shard file version. */
+	public static final int VERSION = 1;
+	/** Shard file header size in bytes. */
+	public static final int SHARD_HEADER_SIZE = 16;
+	/** Shard file extension. */
+	public static final String SHARD_EXTENSION = ".nts";
+	/** Default number of samples per shard (32 MB of records). */
+	public static final int DEF_SHARD_SIZE = 1 << 20;
+
+	/** Number of sample batches the queue holds before add blocks. */
+	private static final int QUEUE_SIZE = 256;
+	/** Queue end marker. */
+	private static final byte END_OF_SAMPLES[] = new byte[0];
+
+	/** The shard directory. */
+	private Path directory;
+	/** Queued sample batches. */
+	private BlockingQueue<byte[]> queue;
+	/** The current shard's records. */
+	private ByteBuffer shard;
+	/** Number of samples in the current shard. */
+	private int count;
+	/** Number of the next shard file. */
+	private int shardNumber;
+	/** Number of shards written. */
+	private int shardCount;
+	/** Number of samples written. */
+	private long sampleCount;
+	/** Shuffle random. */
+	private SplittableRandom random;
+	/** The writer thread. */
+	private Thread writer;
+	/** Error that stopped the writer thread, or null. */
+	private volatile IOException error;
+
+	/**
+	 * Constructor for TrainingDataWriter that writes shards of the default size to the specified directory.
+	 * @param directory - the shard directory (created if it does not exist)
+	 * @param seed - the shuffle seed
+	 * @throws IOException if the directory cannot be created
+	 */
+	public TrainingDataWriter(Path directory, long seed) throws IOException {
+		this(directory, DEF_SHARD_SIZE, seed);
+	}
+
+	/**
+	 * Constructor for TrainingDataWriter that writes shards of the specified size to the specified directory.
+	 * @param directory - the shard directory (created if it does not exist)
+	 * @param shardSize - the number of samples per shard
+	 * @param seed - the shuffle seed
+	 * @throws IOException if the directory cannot be created
+	 */
+	public TrainingDataWriter(Path directory, int shardSize, long seed) throws IOException {
+		//Check parameters
+		if(shardSize <= 0 || shardSize > Integer.MAX_VALUE / TrainingSample.RECORD_SIZE)
+			throw new IllegalArgumentException("TrainingDataWriter: invalid shard size " + shardSize);
+
+		//Initialize variables
+		Files.createDirectories(directory);
+		this.directory = directory;
+		queue = new ArrayBlockingQueue<byte[]>(QUEUE_SIZE);
+		shard = ByteBuffer.allocate(shardSize * TrainingSample.RECORD_SIZE);
+		count = 0;
+		shardNumber = 0;
+		shardCount = 0;
+		sampleCount = 0;
+		random = new SplittableRandom(seed);
+		error = null;
+
+		//Continue numbering after the existing shards
+		while(Files.exists(directory.resolve(getShardName(shardNumber))))
+			shardNumber++;
+
+		//Start the writer thread
+		writer = new Thread("Training Data Writer") {
+			@Override
+			public void run() {
+				writeSamples();
+			}
+		};
+
+		writer.start();
+	}
+
+	/**
+	 * Queues sample records to be written, waiting while the queue is full. The records must not be changed afterwards.
+	 * @param records - the records, TrainingSample.RECORD_SIZE bytes each
+	 * @throws IOException if the writer thread failed
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public void add(byte[] records) throws IOException, InterruptedException {
+		//Check parameters
+		if(records.length % TrainingSample.RECORD_SIZE != 0)
+			throw new IllegalArgumentException("TrainingDataWriter: records must be " + TrainingSample.RECORD_SIZE + " bytes each");
+
+		if(error != null)
+			throw error;
+
+		if(records.length > 0) queue.put(records);
+	}
+
+	/**
+	 * Writes the queued samples and the last (partial) shard, and stops the writer thread.
+	 * @throws IOException if a shard could not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			queue.put(END_OF_SAMPLES);
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("TrainingDataWriter: interrupted while closing");
+		}
+
+		if(error != null)
+			throw error;
+	}
+
+	/**
+	 * Returns the number of samples written to shard files.
+	 * @return the number of samples written
+	 */
+	public synchronized long getSampleCount() { return sampleCount; }
+
+	/**
+	 * Returns the number of shards written (after close, including the last partial shard).
+	 * @return the number of shards written
+	 */
+	public synchronized int getShardCount() { return shardCount; }
+
+	/**
+	 * Returns the name of the shard file with the specified number.
+	 * @param number - the shard number
+	 * @return the shard file name
+	 */
+	public static String getShardName(int number) { return String.format("shard-%06d%s", number, SHARD_EXTENSION); }
+
+	/**
+	 * Shuffles the current shard's records and writes them to the next shard file.
+	 * @throws IOException if the shard cannot be written
+	 */
+	private void flushShard() throws IOException {
+		//Shuffle the records (Fisher-Yates)
+		int size = TrainingSample.RECORD_SIZE;
+
+		for(int i = count - 1; i > 0; --i) {
+			int j = random.nextInt(i + 1);
+
+			for(int k = 0; k < size; k += 8) {
+				long t = shard.getLong(i * size + k);
+
+				shard.putLong(i * size + k, shard.getLong(j * size + k));
+				shard.putLong(j * size + k, t);
+			}
+		}
+
+		//Write the header and deflated records to a temporary file, then rename it
+		Path file = directory.resolve(getShardName(shardNumber));
+		Path temp = directory.resolve(getShardName(shardNumber) + ".tmp");
+
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(size);
+			out.writeInt(count);
+
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+			try {
+				DeflaterOutputStream records = new DeflaterOutputStream(out, deflater, 1 << 16);
+
+				records.write(shard.array(), 0, count * size);
+				records.finish();
+			} finally {
+				deflater.end();
+			}
+		}
+
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		synchronized(this) {
+			shardNumber++;
+			shardCount++;
+			sampleCount += count;
+		}
+
+		count = 0;
+	}
+
+	/**
+	 * Writer thread loop: collects queued records into shards until the end marker is taken.
+	 */
+	private void writeSamples() {
+		try {
+			byte records[];
+
+			while((records = queue.take()) != END_OF_SAMPLES) {
+				//Copy the records into the shard, writing each shard when it fills
+				for(int offset = 0; offset < records.length;) {
+					int length = Math.min(records.length - offset, shard.capacity() - count * TrainingSample.RECORD_SIZE);
+
+					shard.put(count * TrainingSample.RECORD_SIZE, records, offset, length);
+					count += length / TrainingSample.RECORD_SIZE;
+					offset += length;
+
+					if(count * TrainingSample.RECORD_SIZE == shard.capacity()) flushShard();
+				}
+			}
+
+			if(count > 0) flushShard();
+		} catch (IOException e) {
+			error = e;
+
+			//Keep taking records so producers waiting on the queue can finish
+			try {
+				while(queue.take() != END_OF_SAMPLES);
+			} catch (InterruptedException e1) {
+				Thread.currentThread().interrupt();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package com.chess.nan.train;
+
+import java.nio.ByteBuffer;
+
+import com.chess.ChessBoard;
+import com.chess.Position;
+
+/**
+ * TrainingSample is one training position of the NAN, packed into a fixed RECORD_SIZE byte record: the occupied spaces as a bitboard, the piece on each occupied space as
+ * a 4 bit code (in space order, 32 pieces at most), the side to move, castling rights, en passant space and half move clock, then the game result, search score and best
+ * move. Records are big-endian, so a record can be read back from any ByteBuffer or byte array.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class TrainingSample {
+
+	/** Record size in bytes. */
+	public static final int RECORD_SIZE = 32;
+
+	/** White wins result value. */
+	public static final int WHITE_WINS = 1;
+	/** Draw result value. */
+	public static final int DRAW = 0;
+	/** Black wins result value. */
+	public static final int BLACK_WINS = -1;
+
+	/** Maximum number of pieces in a record. */
+	private static final int MAX_PIECES = 32;
+	/** Offset of the piece codes. */
+	private static final int PIECES = 8;
+	/** Offset of the side to move and castling flags. */
+	private static final int FLAGS = 24;
+	/** Offset of the en passant space. */
+	private static final int EN_PASSANT = 25;
+	/** Offset of the half move clock. */
+	private static final int HALF_MOVES = 26;
+	/** Offset of the result. */
+	private static final int RESULT = 27;
+	/** Offset of the score. */
+	private static final int SCORE = 28;
+	/** Offset of the best move. */
+	private static final int MOVE = 30;
+
+	/** Occupied spaces. */
+	private long occupied;
+	/** Piece on each space. */
+	private int board[];
+	/** Side to move. */
+	private boolean turn;
+	/** Castling rights. */
+	private int castling;
+	/** En passant space. */
+	private int enPassant;
+	/** Half move clock. */
+	private int halfMoves;
+	/** Game result. */
+	private int result;
+	/** Search score. */
+	private int score;
+	/** Best move. */
+	private int move;
+
+	/**
+	 * Default constructor for TrainingSample that creates an empty sample.
+	 */
+	public TrainingSample() {
+		//Initialize variables
+		occupied = 0;
+		board = new int[ChessBoard.BOARD_SPACES];
+		turn = ChessBoard.WHITE;
+		castling = 0;
+		enPassant = Position.NO_SPACE;
+		halfMoves = 0;
+		result = DRAW;
+		score = 0;
+		move = 0;
+	}
+
+	/**
+	 * Returns the castling rights (Position.CASTLE_* flags).
+	 * @return the castling rights
+	 */
+	public int getCastling() { return castling; }
+
+	/**
+	 * Returns the en passant space, or Position.NO_SPACE.
+	 * @return the en passant space
+	 */
+	public int getEnPassant() { return enPassant; }
+
+	/**
+	 * Returns the half move clock (at most 255).
+	 * @return the half move clock
+	 */
+	public int getHalfMoves() { return halfMoves; }
+
+	/**
+	 * Returns the best move found by the search.
+	 * @return the encoded best move
+	 */
+	public int getMove() { return move; }
+
+	/**
+	 * Returns the occupied spaces.
+	 * @return the occupied spaces bitboard
+	 */
+	public long getOccupiedBits() { return occupied; }
+
+	/**
+	 * Returns the piece on the specified space.
+	 * @param space - the space index
+	 * @return the piece, or Position.EMPTY
+	 */
+	public int getPiece(int space) { return board[space]; }
+
+	/**
+	 * Returns the spaces holding the specified piece.
+	 * @param piece - the piece (see Position.createPiece)
+	 * @return the piece's bitboard
+	 */
+	public long getPieceBits(int piece) {
+		long bits = 0;
+
+		for(long b = occupied; b != 0; b &= b - 1) {
+			int space = Long.numberOfTrailingZeros(b);
+			if(board[space] == piece) bits |= 1L << space;
+		}
+
+		return bits;
+	}
+
+	/**
+	 * Returns the game result (WHITE_WINS, DRAW or BLACK_WINS).
+	 * @return the game result
+	 */
+	public int getResult() { return result; }
+
+	/**
+	 * Returns the search score, from the side to move's point of view.
+	 * @return the search score in centipawns
+	 */
+	public int getScore() { return score; }
+
+	/**
+	 * Returns the side to move.
+	 * @return ChessBoard.WHITE or ChessBoard.BLACK
+	 */
+	public boolean getTurn() { return turn; }
+
+	/**
+	 * Writes a record of the specified position, score, best move and result.
+	 * @param buffer - the buffer to write the record to
+	 * @param offset - the record offset in the buffer
+	 * @param position - the position
+	 * @param score - the search score, from the side to move's point of view
+	 * @param move - the best move
+	 * @param result - the game result (WHITE_WINS, DRAW or BLACK_WINS)
+	 */
+	public static void pack(ByteBuffer buffer, int offset, Position position, int score, int move, int result) {
+		//Initialize variables
+		long occupied = position.getOccupiedBits();
+		int count = 0;
+
+		if(Long.bitCount(occupied) > MAX_PIECES)
+			throw new IllegalArgumentException("TrainingSample: positions are limited to " + MAX_PIECES + " pieces");
+
+		//Write the occupied spaces and piece codes, two per byte
+		buffer.putLong(offset, occupied);
+
+		for(int i = 0; i < MAX_PIECES / 2; ++i)
+			buffer.put(offset + PIECES + i, (byte)0);
+
+		for(long b = occupied; b != 0; b &= b - 1, ++count) {
+			int piece = position.getPiece(Long.numberOfTrailingZeros(b));
+			int index = offset + PIECES + count / 2;
+
+			buffer.put(index, (byte)(buffer.get(index) | (piece << ((count & 1) * 4))));
+		}
+
+		//Write the state, result, score and move
+		buffer.put(offset + FLAGS, (byte)((position.getTurn() ? 1 : 0) | (position.getCastling() << 1)));
+		buffer.put(offset + EN_PASSANT, (byte)position.getEnPassant());
+		buffer.put(offset + HALF_MOVES, (byte)Math.min(255, position.getHalfMoves()));
+		buffer.put(offset + RESULT, (byte)result);
+		buffer.putShort(offset + SCORE, (short)Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+		buffer.putShort(offset + MOVE, (short)move);
+	}
+
+	/**
+	 * Sets the game result of the record at the specified offset.
+	 * @param buffer - the buffer holding the record
+	 * @param offset - the record offset in the buffer
+	 * @param result - the game result (WHITE_WINS, DRAW or BLACK_WINS)
+	 */
+	public static void setResult(ByteBuffer buffer, int offset, int result) { buffer.put(offset + RESULT, (byte)result); }
+
+	/**
+	 * Returns the sample's position in Forsyth-Edwards Notation. The full move number is not recorded and is always 1.
+	 * @return the FEN string
+	 */
+	public String toFEN() {
+		//Initialize variables
+		StringBuilder fen = new StringBuilder();
+		String pieces = " PNBRQK";
+
+		//Write the board, rank 8 first
+		for(int y = 0; y < ChessBoard.BOARD_ROWS; ++y) {
+			int empty = 0;
+
+			for(int x = 0; x < ChessBoard.BOARD_COLS; ++x) {
+				int piece = board[x + y * ChessBoard.BOARD_COLS];
+
+				if(piece == Position.EMPTY) {
+					empty++;
+					continue;
+				}
+
+				if(empty > 0) fen.append(empty);
+				empty = 0;
+
+				char c = pieces.charAt(piece & Position.PIECE_TYPE_MASK);
+				fen.append(((piece & Position.BLACK_PIECE) != 0) ? Character.toLowerCase(c) : c);
+			}
+
+			if(empty > 0) fen.append(empty);
+			if(y < ChessBoard.BOARD_ROWS - 1) fen.append('/');
+		}
+
+		//Write the state
+		fen.append(turn ? " w " : " b ");
+
+		if(castling == 0) fen.append('-');
+		if((castling & Position.CASTLE_WHITE_KING) != 0) fen.append('K');
+		if((castling & Position.CASTLE_WHITE_QUEEN) != 0) fen.append('Q');
+		if((castling & Position.CASTLE_BLACK_KING) != 0) fen.append('k');
+		if((castling & Position.CASTLE_BLACK_QUEEN) != 0) fen.append('q');
+
+		if(enPassant == Position.NO_SPACE) fen.append(" -");
+		else fen.append(' ').append((char)('a' + enPassant % ChessBoard.BOARD_COLS)).append(ChessBoard.BOARD_ROWS - enPassant / ChessBoard.BOARD_COLS);
+
+		return fen.append(' ').append(halfMoves).append(" 1").toString();
+	}
+
+	/**
+	 * Reads the record at the specified offset into this sample.
+	 * @param buffer - the buffer to read the record from
+	 * @param offset - the record offset in the buffer
+	 */
+	public void unpack(ByteBuffer buffer, int offset) {
+		//Clear the previous pieces
+		for(long b = occupied; b != 0; b &= b - 1)
+			board[Long.numberOfTrailingZeros(b)] = Position.EMPTY;
+
+		//Read the occupied spaces and piece codes
+		occupied = buffer.getLong(offset);
+		int count = 0;
+
+		for(long b = occupied; b != 0; b &= b - 1, ++count)
+			board[Long.numberOfTrailingZeros(b)] = (buffer.get(offset + PIECES + count / 2) >>> ((count & 1) * 4)) & 0xF;
+
+		//Read the state, result, score and move
+		int flags = buffer.get(offset + FLAGS);
+
+		turn = (flags & 1) != 0;
+		castling = (flags >>> 1) & 0xF;
+		enPassant = buffer.get(offset + EN_PASSANT);
+		halfMoves = buffer.get(offset + HALF_MOVES) & 0xFF;
+		result = buffer.get(offset + RESULT);
+		score = buffer.getShort(offset + SCORE);
+		move = buffer.getShort(offset + MOVE) & 0xFFFF;
+	}
+}
@@ -0,0 +1,120 @@
+package com.chess.nan.search;
+
+/**
+ * TranspositionTable stores search results by position key so that positions reached through different move orders are only searched once. Entries are kept in two
+ * primitive long arrays (keys and packed data) and are always replaced.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class TranspositionTable {
+
+	/** Exact score bound. */
+	public static final int EXACT = 0;
+	/** Lower score bound (the score failed high). */
+	public static final int LOWER = 1;
+	/** Upper score bound (the score failed low). */
+	public static final int UPPER = 2;
+
+	/** Default table size in megabytes. */
+	public static final int DEF_SIZE_MB = 16;
+
+	/** Entry keys. */
+	private long keys[];
+	/** Entry data (move, score, depth and bound). */
+	private long data[];
+	/** Entry index mask. */
+	private int mask;
+
+	/**
+	 * Default constructor for the TranspositionTable that creates a table of the default size.
+	 */
+	public TranspositionTable() {
+		this(DEF_SIZE_MB);
+	}
+
+	/**
+	 * Constructor for the TranspositionTable that creates a table of (at most) the specified size.
+	 * @param megabytes - the table size in megabytes
+	 */
+	public TranspositionTable(int megabytes) {
+		resize(megabytes);
+	}
+
+	/**
+	 * Removes all entries from the table.
+	 */
+	public void clear() {
+		for(int i = 0; i < keys.length; ++i) {
+			keys[i] = 0L;
+			data[i] = 0L;
+		}
+	}
+
+	/**
+	 * Returns the bound of the specified entry data.
+	 * @param entry - the entry data
+	 * @return the bound (EXACT, LOWER or UPPER)
+	 */
+	public static int getBound(long entry) { return (int)((entry >>> 40) & 0x3); }
+
+	/**
+	 * Returns the depth of the specified entry data.
+	 * @param entry - the entry data
+	 * @return the depth
+	 */
+	public static int getDepth(long entry) { return (int)((entry >>> 32) & 0xFF); }
+
+	/**
+	 * Returns the move of the specified entry data.
+	 * @param entry - the entry data
+	 * @return the encoded move
+	 */
+	public static int getMove(long entry) { return (int)(entry & 0xFFFF); }
+
+	/**
+	 * Returns the score of the specified entry data.
+	 * @param entry - the entry data
+	 * @return the score
+	 */
+	public static int getScore(long entry) { return (short)((entry >>> 16) & 0xFFFF); }
+
+	/**
+	 * Returns the entry data stored for the specified key, or 0 if there is none.
+	 * @param key - the position key
+	 * @return the entry data, or 0
+	 */
+	public long probe(long key) {
+		int i = (int)key & mask;
+		return (keys[i] == key) ? data[i] : 0L;
+	}
+
+	/**
+	 * Resizes the table to the largest power of two number of entries that fits in the specified size. All entries are removed.
+	 * @param megabytes - the table size in megabytes
+	 */
+	public void resize(int megabytes) {
+		//Check parameters
+		if(megabytes < 1)
+			throw new IllegalArgumentException("Transposition table size must be at least 1 MB");
+
+		//Each entry uses 16 bytes
+		int entries = Integer.highestOneBit((int)Math.min(1L << 30, ((long)megabytes << 20) / 16));
+		keys = new long[entries];
+		data = new long[entries];
+		mask = entries - 1;
+	}
+
+	/**
+	 * Stores a search result for the specified key.
+	 * @param key - the position key
+	 * @param move - the best move
+	 * @param score - the score
+	 * @param depth - the search depth
+	 * @param bound - the score bound
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		int i = (int)key & mask;
+		keys[i] = key;
+		data[i] = (move & 0xFFFFL) | ((score & 0xFFFFL) << 16) | ((long)(depth & 0xFF) << 32) | ((long)bound << 40) | (1L << 42);
+	}
+}
@@ -0,0 +1,429 @@
+package com.chess.uci;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import com.chess.ChessBoard;
+import com.chess.Move;
+import com.chess.Position;
+import com.chess.nan.nnue.Network;
+import com.chess.nan.nnue.NetworkEvaluator;
+import com.chess.nan.search.CachedEvaluator;
+import com.chess.nan.search.EvalCache;
+import com.chess.nan.search.Evaluator;
+import com.chess.nan.search.MonteCarloSearch;
+import com.chess.nan.search.Search;
+import com.chess.nan.search.SearchLimits;
+import com.chess.nan.search.SearchBench;
+import com.chess.nan.search.SearchListener;
+import com.chess.nan.search.SearchType;
+import com.chess.nan.search.TranspositionTable;
+
+/**
+ * UCIEngine is a headless entry point that lets the NAN play through the Universal Chess Interface (UCI) protocol over standard input and output. It drives a ChessBoard
+ * and the NAN's search without creating any windows, so it can be used by tournament managers and on machines without a display.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class UCIEngine implements SearchListener {
+
+	/** Engine name. */
+	public static final String ENGINE_NAME = "NAN";
+	/** Engine author. */
+	public static final String ENGINE_AUTHOR = "Monroe Gordon";
+
+	/** Maximum transposition table size in megabytes. */
+	public static final int MAX_HASH_MB = 4096;
+	/** Maximum evaluation cache size in megabytes. */
+	public static final int MAX_EVAL_CACHE_MB = 1024;
+	/** Maximum number of Monte Carlo search threads. */
+	public static final int MAX_THREADS = 256;
+
+	/** Command input. */
+	private BufferedReader in;
+	/** Command output. */
+	private PrintStream out;
+	/** Chess board holding the game (the player is white, so chess board spaces are position spaces). */
+	private ChessBoard board;
+	/** The NAN's search. */
+	private Search search;
+	/** The search's evaluator, caching the scores of the hand written or network evaluator. */
+	private CachedEvaluator evaluator;
+	/** Type of the NAN's search. */
+	private SearchType searchType;
+	/** Memory for the search in megabytes (transposition table or Monte Carlo tree). */
+	private int hashSize;
+	/** Number of Monte Carlo search threads. */
+	private int threads;
+	/** Thread running the current search. */
+	private Thread searchThread;
+
+	/**
+	 * Constructor for the UCIEngine that reads commands from the specified input and writes responses to the specified output.
+	 * @param input - the command input
+	 * @param output - the response output
+	 */
+	public UCIEngine(InputStream input, PrintStream output) {
+		//Initialize variables
+		in = new BufferedReader(new InputStreamReader(input));
+		out = output;
+		board = new ChessBoard();
+		evaluator = new CachedEvaluator(new Evaluator(), new EvalCache(EvalCache.DEF_SIZE_MB));
+		searchType = SearchType.ALPHA_BETA;
+		hashSize = TranspositionTable.DEF_SIZE_MB;
+		threads = MonteCarloSearch.DEF_THREADS;
+		searchThread = null;
+
+		createSearch();
+		board.newGame(ChessBoard.WHITE);
+	}
+
+	/**
+	 * Program entry point method that runs the NAN as a UCI engine, or runs the bench and exits if the first argument is "bench" (followed by an optional depth). The
+	 * bench exits with status 1 when it goes over its allocation budget (see SearchBench.main).
+	 * @param args - the options
+	 */
+	public static void main(String[] args) {
+		try {
+			if(args.length > 0 && args[0].equals("bench")) {
+				SearchBench.main(Arrays.copyOfRange(args, 1, args.length));
+				return;
+			}
+
+			new UCIEngine(System.in, System.out).run();
+		} catch (IOException e) {
+			System.err.println("Failed to read UCI commands: " + e.getMessage());
+			System.exit(1);
+		} catch (NumberFormatException e) {
+			System.err.println("Usage: UCIEngine [bench [depth]]");
+			System.exit(2);
+		}
+	}
+
+	//Report a completed search iteration
+	@Override
+	public void iterationCompleted(Search s) {
+		//Initialize variables
+		StringBuilder info = new StringBuilder();
+		long time = s.getElapsedTime();
+
+		info.append("info depth ").append(s.getDepth());
+
+		//Report mate scores as moves to mate
+		if(Search.isMateScore(s.getScore()))
+			info.append(" score mate ").append((s.getScore() > 0) ? (Search.MATE - s.getScore() + 1) / 2 : -(Search.MATE + s.getScore()) / 2);
+		else
+			info.append(" score cp ").append(s.getScore());
+
+		info.append(" nodes ").append(s.getNodes()).append(" nps ").append((s.getNodes() * 1000) / Math.max(1, time)).append(" time ").append(time).append(" pv");
+
+		for(int i = 0; i < s.getPrincipalVariationLength(); ++i)
+			info.append(' ').append(Move.toNotation(s.getPrincipalVariation(i)));
+
+		send(info.toString());
+	}
+
+	/**
+	 * Reads and handles commands until "quit" is received or the input ends.
+	 * @throws IOException if the input cannot be read
+	 */
+	public void run() throws IOException {
+		String line;
+
+		while((line = in.readLine()) != null) {
+			String[] tokens = line.trim().split("\\s+");
+
+			switch(tokens[0]) {
+			case "uci":
+				send("id name " + ENGINE_NAME);
+				send("id author " + ENGINE_AUTHOR);
+				send("option name Hash type spin default " + TranspositionTable.DEF_SIZE_MB + " min 1 max " + MAX_HASH_MB);
+				send("option name EvalFile type string default <empty>");
+				send("option name EvalCache type spin default " + EvalCache.DEF_SIZE_MB + " min 1 max " + MAX_EVAL_CACHE_MB);
+				send("option name SearchType type combo default " + SearchType.ALPHA_BETA.getOptionName() + " var " + SearchType.ALPHA_BETA.getOptionName() + " var "
+						+ SearchType.MONTE_CARLO.getOptionName());
+				send("option name Threads type spin default " + MonteCarloSearch.DEF_THREADS + " min 1 max " + MAX_THREADS);
+				send("uciok");
+				break;
+			case "isready":
+				send("readyok");
+				break;
+			case "setoption":
+				setOption(tokens);
+				break;
+			case "ucinewgame":
+				stopSearch();
+				board.newGame(ChessBoard.WHITE);
+				search.clear();
+				evaluator.getCache().clear();
+				break;
+			case "position":
+				stopSearch();
+				setPosition(tokens);
+				break;
+			case "go":
+				stopSearch();
+				startSearch(tokens);
+				break;
+			case "stop":
+				stopSearch();
+				break;
+			case "bench":
+				stopSearch();
+				runBench(tokens);
+				break;
+			case "quit":
+				stopSearch();
+				return;
+			default:
+				//Ignore unknown commands as required by the protocol
+			}
+		}
+
+		stopSearch();
+	}
+
+	/**
+	 * Creates the NAN's search from the current search type, memory size and number of threads.
+	 */
+	private void createSearch() {
+		search = searchType.createSearch(evaluator, hashSize);
+
+		if(search instanceof MonteCarloSearch) ((MonteCarloSearch)search).setThreads(threads);
+
+		search.setSearchListener(this);
+	}
+
+	/**
+	 * Handles the non-standard "bench [depth]" command by running the bench (see SearchBench) on this thread.
+	 * @param tokens - the command tokens
+	 */
+	private void runBench(String[] tokens) {
+		try {
+			synchronized(out) {
+				new SearchBench((tokens.length > 1) ? Integer.parseInt(tokens[1]) : SearchBench.DEF_DEPTH).run(out);
+				out.flush();
+			}
+		} catch (NumberFormatException e) {
+			send("info string Invalid bench depth " + tokens[1]);
+		}
+	}
+
+	/**
+	 * Writes a response line to the output.
+	 * @param str - the response
+	 */
+	private void send(String str) {
+		synchronized(out) {
+			out.println(str);
+			out.flush();
+		}
+	}
+
+	/**
+	 * Handles the "setoption name <name> value <value>" command.
+	 * @param tokens - the command tokens
+	 */
+	private void setOption(String[] tokens) {
+		//Initialize variables
+		String name = "";
+		String value = "";
+
+		for(int i = 1; i < tokens.length - 1; ++i) {
+			if(tokens[i].equals("name")) name = tokens[i + 1];
+			else if(tokens[i].equals("value")) value = tokens[i + 1];
+		}
+
+		//Resize the transposition table, or recreate the Monte Carlo search with a new tree size
+		if(name.equalsIgnoreCase("Hash")) {
+			try {
+				hashSize = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+
+				//Stop a running search before its table or tree is replaced
+				stopSearch();
+
+				if(searchType == SearchType.ALPHA_BETA) search.getTranspositionTable().resize(hashSize);
+				else createSearch();
+			} catch (NumberFormatException e) {
+				send("info string Invalid Hash value " + value);
+			}
+		}
+		//Switch between alpha-beta and Monte Carlo search
+		else if(name.equalsIgnoreCase("SearchType")) {
+			try {
+				SearchType type = SearchType.parse(value);
+
+				//Stop a running search before it is replaced
+				stopSearch();
+				searchType = type;
+				createSearch();
+			} catch (IllegalArgumentException e) {
+				send("info string " + e.getMessage());
+			}
+		}
+		//Set the number of Monte Carlo search threads
+		else if(name.equalsIgnoreCase("Threads")) {
+			try {
+				threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(value)));
+
+				if(search instanceof MonteCarloSearch) ((MonteCarloSearch)search).setThreads(threads);
+			} catch (NumberFormatException e) {
+				send("info string Invalid Threads value " + value);
+			}
+		}
+		//Resize the evaluation cache
+		else if(name.equalsIgnoreCase("EvalCache")) {
+			try {
+				evaluator.getCache().resize(Math.max(1, Math.min(MAX_EVAL_CACHE_MB, Integer.parseInt(value))));
+			} catch (NumberFormatException e) {
+				send("info string Invalid EvalCache value " + value);
+			}
+		}
+		//Evaluate with a network, or with the hand written evaluator if no file is given
+		else if(name.equalsIgnoreCase("EvalFile")) {
+			if(value.isEmpty() || value.equals("<empty>")) {
+				evaluator.setEvaluator(new Evaluator());
+				return;
+			}
+
+			try {
+				evaluator.setEvaluator(new NetworkEvaluator(Network.load(Paths.get(value))));
+			} catch (IOException e) {
+				send("info string Failed to load EvalFile " + value + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Handles the "position startpos|fen <fen> [moves ...]" command by starting a new game on the chess board from the position and submitting each move.
+	 * @param tokens - the command tokens
+	 */
+	private void setPosition(String[] tokens) {
+		//Initialize variables
+		int i = 1;
+
+		//Set up the starting position
+		if(tokens.length > 1 && tokens[1].equals("startpos")) {
+			board.newGame(ChessBoard.WHITE);
+			i = 2;
+		}
+		//Set up a FEN position (the FEN fields run until "moves")
+		else if(tokens.length > 1 && tokens[1].equals("fen")) {
+			StringBuilder fen = new StringBuilder();
+
+			for(i = 2; i < tokens.length && !tokens[i].equals("moves"); ++i)
+				fen.append(tokens[i]).append(' ');
+
+			try {
+				board.newGame(ChessBoard.WHITE);
+				board.setPosition(fen.toString());
+			} catch (IllegalArgumentException e) {
+				send("info string Invalid FEN " + fen.toString().trim());
+				return;
+			}
+		}
+		else {
+			send("info string Unknown position " + ((tokens.length > 1) ? tokens[1] : ""));
+			return;
+		}
+
+		//Play the moves
+		if(i < tokens.length && tokens[i].equals("moves")) {
+			for(++i; i < tokens.length; ++i) {
+				int move = Move.parseNotation(tokens[i], board.getLegalMoveList());
+
+				if(move == Move.NO_MOVE || !board.submitMove(move)) {
+					send("info string Illegal move " + tokens[i]);
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Handles the "go" command by starting the NAN's search on its own thread. The best move is sent when the search ends.
+	 * @param tokens - the command tokens
+	 */
+	private void startSearch(String[] tokens) {
+		//Initialize variables
+		SearchLimits limits = new SearchLimits();
+
+		//Read search limits
+		for(int i = 1; i < tokens.length; ++i) {
+			try {
+				switch(tokens[i]) {
+				case "wtime":
+					limits.setWhiteTime(Long.parseLong(tokens[++i]));
+					break;
+				case "btime":
+					limits.setBlackTime(Long.parseLong(tokens[++i]));
+					break;
+				case "winc":
+					limits.setWhiteIncrement(Long.parseLong(tokens[++i]));
+					break;
+				case "binc":
+					limits.setBlackIncrement(Long.parseLong(tokens[++i]));
+					break;
+				case "movestogo":
+					limits.setMovesToGo(Integer.parseInt(tokens[++i]));
+					break;
+				case "depth":
+					limits.setDepth(Integer.parseInt(tokens[++i]));
+					break;
+				case "nodes":
+					limits.setNodes(Long.parseLong(tokens[++i]));
+					break;
+				case "movetime":
+					limits.setMoveTime(Long.parseLong(tokens[++i]));
+					break;
+				case "infinite":
+					limits.setInfinite(true);
+					break;
+				default:
+				}
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				send("info string Invalid go parameter " + tokens[i - 1]);
+			}
+		}
+
+		//Search a copy of the board's position so the board is not changed by the search
+		Position position = new Position(board.getPosition());
+
+		searchThread = new Thread("NAN Search") {
+			@Override
+			public void run() {
+				evaluator.getCache().resetStatistics();
+
+				int move = search.search(position, limits);
+				EvalCache cache = evaluator.getCache();
+
+				send(String.format("info string eval cache hit rate %.1f%% of %d probes", cache.getHitRate() * 100.0, cache.getProbes()));
+				send("bestmove " + ((move == Move.NO_MOVE) ? "0000" : Move.toNotation(move)));
+			}
+		};
+
+		searchThread.start();
+	}
+
+	/**
+	 * Stops the current search, if there is one, and waits for it to send its best move.
+	 */
+	private void stopSearch() {
+		if(searchThread != null) {
+			search.stop();
+
+			try {
+				searchThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			searchThread = null;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.chess.nan.nnue;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorKernels are the network kernels (see NetworkKernels) written with the Vector API, using the CPU's preferred vector size. First layer columns are added as int16
+ * lanes. For the hidden layer, the first layer neurons above 0 are found a vector at a time with a lane mask, then for each block of int32 hidden sums the int8 weights of
+ * every active neuron are widened to int32 lanes, multiplied by its activation and added, keeping the sums in a register.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+class VectorKernels extends NetworkKernels {
+
+	/** First layer species. */
+	private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+	/** Hidden sum species. */
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	/** Hidden weight species (as many lanes as INTS). */
+	private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class, VectorShape.forBitSize(Math.max(64, INTS.vectorBitSize() / 4)));
+
+	//Add the column a vector at a time
+	@Override
+	void add(short[] values, short[] weights, int offset) {
+		for(int i = 0; i < Network.HIDDEN; i += SHORTS.length())
+			ShortVector.fromArray(SHORTS, values, i).add(ShortVector.fromArray(SHORTS, weights, offset + i)).intoArray(values, i);
+	}
+
+	//Add the weights of each neuron above 0
+	@Override
+	void addActivations(short[] values, byte[] weights, int offset, int[] sums, int[] active) {
+		//Find the neurons above 0
+		int count = 0;
+
+		for(int i = 0; i < Network.HIDDEN; i += SHORTS.length()) {
+			for(long bits = ShortVector.fromArray(SHORTS, values, i).compare(VectorOperators.GT, 0).toLong(); bits != 0L; bits &= bits - 1)
+				active[count++] = i + Long.numberOfTrailingZeros(bits);
+		}
+
+		//Add the widened weights times the activations, one block of sums at a time
+		for(int j = 0; j < Network.L1; j += INTS.length()) {
+			IntVector sum = IntVector.fromArray(INTS, sums, j);
+
+			for(int k = 0; k < count; ++k) {
+				int i = active[k];
+				IntVector w = (IntVector)ByteVector.fromArray(BYTES, weights, offset + i * Network.L1 + j).convertShape(VectorOperators.B2I, INTS, 0);
+
+				sum = sum.add(w.mul(Math.min(Network.QA, values[i])));
+			}
+
+			sum.intoArray(sums, j);
+		}
+	}
+
+	//Vector API kernels
+	@Override
+	String getName() { return "vector " + SHORTS.vectorBitSize() + " bit"; }
+
+	//Subtract the column a vector at a time
+	@Override
+	void subtract(short[] values, short[] weights, int offset) {
+		for(int i = 0; i < Network.HIDDEN; i += SHORTS.length())
+			ShortVector.fromArray(SHORTS, values, i).sub(ShortVector.fromArray(SHORTS, weights, offset + i)).intoArray(values, i);
+	}
+
+	/**
+	 * Returns if the kernels can be used: the preferred vectors must be at least 256 bits and evenly divide the layers.
+	 * @return true if the kernels can be used, false otherwise
+	 */
+	static boolean isSupported() {
+		return INTS.vectorBitSize() >= 256 && Network.HIDDEN % SHORTS.length() == 0 && Network.L1 % INTS.length() == 0 && BYTES.length() == INTS.length();
+	}
+}
@@ -0,0 +1,164 @@
+package com.chess.selfplay;
+
+import com.chess.ChessBoard;
+import com.chess.nan.search.SearchLimits;
+
+/**
+ * VirtualClock is a chess clock for headless games that is driven by a virtual time source instead of timers. Time is measured in search nodes, which are converted to
+ * milliseconds at a fixed virtual nodes per second rate, so a game's clock is not affected by how many other games share the CPU or how long a search waited to run.
+ * @author Monroe Gordon
+ * @since 10/19/2026
+ */
+public class VirtualClock {
+
+	/** Default virtual nodes per second value. */
+	public static final long DEF_VIRTUAL_NPS = 500000;
+
+	/** Starting time (in milliseconds) for each player. */
+	private long baseTime;
+	/** Time increment (in milliseconds) earned after each move. */
+	private long increment;
+	/** Virtual nodes searched per second. */
+	private long virtualNps;
+	/** Time remaining (in milliseconds) on the black player's clock. */
+	private long blackTime;
+	/** Time remaining (in milliseconds) on the white player's clock. */
+	private long whiteTime;
+
+	/**
+	 * Constructor for VirtualClock that gives each player the specified starting time and increment, and uses the default virtual nodes per second rate.
+	 * @param baseTime - the starting time (in milliseconds) for each player
+	 * @param increment - the time increment (in milliseconds) earned after each move
+	 */
+	public VirtualClock(long baseTime, long increment) {
+		this(baseTime, increment, DEF_VIRTUAL_NPS);
+	}
+
+	/**
+	 * Constructor for VirtualClock that gives each player the specified starting time and increment, and uses the specified virtual nodes per second rate.
+	 * @param baseTime - the starting time (in milliseconds) for each player
+	 * @param increment - the time increment (in milliseconds) earned after each move
+	 * @param virtualNps - the virtual nodes searched per second
+	 */
+	public VirtualClock(long baseTime, long increment, long virtualNps) {
+		//Check parameters
+		if(baseTime <= 0 || increment < 0 || virtualNps <= 0)
+			throw new IllegalArgumentException("VirtualClock: base time and nodes per second must be positive and increment cannot be negative");
+
+		//Initialize variables
+		this.baseTime = baseTime;
+		this.increment = increment;
+		this.virtualNps = virtualNps;
+		reset();
+	}
+
+	/**
+	 * Charges the specified number of searched nodes to the specified player's clock and adds the increment if the player did not run out of time.
+	 * @param color - the color of the player that moved
+	 * @param nodes - the number of nodes searched for the move
+	 * @return true if the player still has time remaining, false if the player's flag fell
+	 */
+	public boolean charge(boolean color, long nodes) {
+		//Initialize variables
+		long time = getTime(color) - toMillis(nodes);
+
+		//Add increment if the flag has not fallen
+		if(time > 0)
+			time += increment;
+
+		if(color == ChessBoard.WHITE) whiteTime = time;
+		else blackTime = time;
+
+		return time > 0;
+	}
+
+	/**
+	 * Returns node-limited search limits for the specified player's next move. The move time is allocated from the player's remaining time as if it were a real clock and
+	 * then converted to virtual nodes.
+	 * @param color - the color of the player to move
+	 * @return the search limits
+	 */
+	public SearchLimits createLimits(boolean color) {
+		//Initialize variables
+		SearchLimits clock = new SearchLimits();
+		SearchLimits limits = new SearchLimits();
+
+		//Allocate time from the virtual clock
+		clock.setWhiteTime(whiteTime);
+		clock.setBlackTime(blackTime);
+		clock.setWhiteIncrement(increment);
+		clock.setBlackIncrement(increment);
+
+		//Limit the search to the nodes that fit in the allocated time
+		limits.setNodes(Math.max(1, toNodes(clock.allocateTime(color))));
+
+		return limits;
+	}
+
+	/**
+	 * Returns the starting time (in milliseconds) for each player.
+	 * @return the starting time
+	 */
+	public long getBaseTime() { return baseTime; }
+
+	/**
+	 * Returns the time increment (in milliseconds) earned after each move.
+	 * @return the time increment
+	 */
+	public long getIncrement() { return increment; }
+
+	/**
+	 * Returns the time remaining (in milliseconds) on the specified player's clock.
+	 * @param color - the player's color
+	 * @return the time remaining
+	 */
+	public long getTime(boolean color) { return (color == ChessBoard.WHITE) ? whiteTime : blackTime; }
+
+	/**
+	 * Returns the virtual nodes searched per second.
+	 * @return the virtual nodes per second
+	 */
+	public long getVirtualNps() { return virtualNps; }
+
+	/**
+	 * Resets both players' clocks to the starting time.
+	 */
+	public void reset() {
+		whiteTime = baseTime;
+		blackTime = baseTime;
+	}
+
+	/**
+	 * Converts the specified number of searched nodes to virtual milliseconds.
+	 * @param nodes - the number of nodes
+	 * @return the virtual time in milliseconds
+	 */
+	public long toMillis(long nodes) { return (nodes * 1000) / virtualNps; }
+
+	/**
+	 * Converts the specified virtual time to a number of searched nodes.
+	 * @param millis - the virtual time in milliseconds
+	 * @return the number of nodes
+	 */
+	public long toNodes(long millis) { return (millis * virtualNps) / 1000; }
+
+	/**
+	 * Parses a time control in the form "base+increment" where both values are in seconds (for example "10+0.1"), using the specified virtual nodes per second rate.
+	 * @param timeControl - the time control
+	 * @param virtualNps - the virtual nodes searched per second
+	 * @return a virtual clock for the time control
+	 */
+	public static VirtualClock parse(String timeControl, long virtualNps) {
+		//Initialize variables
+		int plus = timeControl.indexOf('+');
+
+		try {
+			double base = Double.parseDouble((plus == -1) ? timeControl : timeControl.substring(0, plus));
+			double inc = (plus == -1) ? 0.0 : Double.parseDouble(timeControl.substring(plus + 1));
+
+			return new VirtualClock((long)(base * 1000), (long)(inc * 1000), virtualNps);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("VirtualClock: invalid time control " + timeControl);
+		}
+	}
+}